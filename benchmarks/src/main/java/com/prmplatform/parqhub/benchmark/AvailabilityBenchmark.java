@@ -0,0 +1,56 @@
+package com.prmplatform.parqhub.benchmark;
+
+import com.prmplatform.parqhub.controller.user.FindParkingController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.ui.ExtendedModelMap;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The find parking page: every lot with its available slot count, unfiltered and filtered by city
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class AvailabilityBenchmark {
+
+    private FindParkingController findParkingController;
+    private MockHttpSession session;
+    private List<String> cities;
+    private int next;
+
+    @Setup
+    public void setUp(BenchmarkDataset dataset) {
+        findParkingController = dataset.getBean(FindParkingController.class);
+        session = dataset.userSession();
+        cities = dataset.getCities();
+    }
+
+    @Benchmark
+    public ExtendedModelMap allLots() {
+        ExtendedModelMap model = new ExtendedModelMap();
+        findParkingController.showFindParkingForm(session, model);
+        return model;
+    }
+
+    @Benchmark
+    public ExtendedModelMap availableLotsInCity() {
+        ExtendedModelMap model = new ExtendedModelMap();
+        findParkingController.searchParkingLots(cities.get(next++ % cities.size()), null, null, true, session, model);
+        return model;
+    }
+}
@@ -0,0 +1,146 @@
+package com.prmplatform.parqhub.benchmark;
+
+import com.prmplatform.parqhub.ParqHubApplication;
+import com.prmplatform.parqhub.datagen.DatasetGenerator;
+import com.prmplatform.parqhub.event.LotCatalogChangedEvent;
+import com.prmplatform.parqhub.model.Admin;
+import com.prmplatform.parqhub.model.User;
+import com.prmplatform.parqhub.repository.AdminRepository;
+import com.prmplatform.parqhub.repository.ParkingLotRepository;
+import com.prmplatform.parqhub.repository.UserRepository;
+import com.prmplatform.parqhub.service.DashboardMetricsService;
+import com.prmplatform.parqhub.service.FreeSlotPool;
+import com.prmplatform.parqhub.service.SlotAvailabilityIndex;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The application running on an in-memory H2 database loaded by the {@link DatasetGenerator}.
+ * One instance is shared by every benchmark in a fork; its size is set with JMH parameters,
+ * e.g. {@code -p lots=500 -p users=10000 -p bookings=1000000}.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkDataset {
+
+    @Param({"50"})
+    public int lots;
+
+    @Param({"1000"})
+    public int users;
+
+    @Param({"20000"})
+    public int bookings;
+
+    @Param({"1000"})
+    public int notifications;
+
+    @Param({"365"})
+    public int days;
+
+    private ConfigurableApplicationContext context;
+    private final List<Long> payableBookingIds = new ArrayList<>();
+    private final List<Long> payableBookingUserIds = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = SpringApplication.run(ParqHubApplication.class,
+                "--spring.datasource.url=jdbc:h2:mem:parqhub_bench;DB_CLOSE_DELAY=-1;MODE=MySQL",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.hibernate.ddl-auto=validate",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.main.web-application-type=none",
+                "--spring.mail.host=localhost",
+                // Keep background jobs out of the measurements
+                "--parqhub.dashboard.reconcile-interval-ms=86400000",
+                "--parqhub.rollup.refresh-interval-ms=86400000",
+                "--parqhub.mail.outbox.poll-interval-ms=86400000",
+                "--logging.level.root=WARN");
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        new DatasetGenerator(jdbc, context.getBean(PlatformTransactionManager.class)).generate(new DatasetGenerator.Spec()
+                .setLots(lots)
+                .setUsers(users)
+                .setBookings(bookings)
+                .setNotifications(notifications)
+                .setDays(days));
+        findPayableBookings(jdbc);
+
+        // The dataset was written behind the application's back, so rebuild its in-memory state
+        context.getBean(SlotAvailabilityIndex.class).rebuild();
+        context.getBean(FreeSlotPool.class).rebuild();
+        context.getBean(DashboardMetricsService.class).reconcile();
+        context.publishEvent(new LotCatalogChangedEvent(null));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public List<String> getCities() {
+        return context.getBean(ParkingLotRepository.class).findDistinctCities();
+    }
+
+    /**
+     * Ids of pending bookings whose vehicle has left the lot, i.e. bookings the payment gateway can charge
+     */
+    public List<Long> getPayableBookingIds() {
+        return payableBookingIds;
+    }
+
+    /**
+     * A logged-in session for the owner of the payable booking at the given index
+     */
+    public MockHttpSession payableBookingOwnerSession(int index) {
+        User user = context.getBean(UserRepository.class).findById(payableBookingUserIds.get(index)).orElseThrow();
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute("loggedInUser", user);
+        return session;
+    }
+
+    public MockHttpSession userSession() {
+        return payableBookingOwnerSession(0);
+    }
+
+    public MockHttpSession adminSession() {
+        Admin admin = context.getBean(AdminRepository.class).findAll().get(0);
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute("loggedInAdmin", admin);
+        return session;
+    }
+
+    /**
+     * Pending bookings the gateway can charge: the vehicle's latest finished stay was in the booking's lot
+     */
+    private void findPayableBookings(JdbcTemplate jdbc) {
+        jdbc.query("SELECT b.booking_id, b.user_id FROM booking b JOIN parkingslot s ON s.slot_id = b.slot_id " +
+                   "JOIN vehicle_log l ON l.vehicle_id = b.vehicle_id AND l.lot_id = s.lot_id " +
+                   "WHERE b.payment_status = 'Pending' AND l.exit_time IS NOT NULL AND l.entry_time = " +
+                   "(SELECT MAX(l2.entry_time) FROM vehicle_log l2 WHERE l2.vehicle_id = b.vehicle_id AND l2.exit_time IS NOT NULL) " +
+                   "ORDER BY b.booking_id LIMIT 1000", rs -> {
+            payableBookingIds.add(rs.getLong(1));
+            payableBookingUserIds.add(rs.getLong(2));
+        });
+        if (payableBookingIds.isEmpty()) {
+            throw new IllegalStateException("Dataset has no payable bookings; increase bookings or users");
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.prmplatform.parqhub.benchmark;
+
+import com.prmplatform.parqhub.controller.user.PaymentController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.ui.ExtendedModelMap;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The payment gateway page: loading the booking, finding the vehicle's finished stay and working out the fee
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class FeeCalculationBenchmark {
+
+    private PaymentController paymentController;
+    private List<Long> bookingIds;
+    private MockHttpSession[] sessions;
+    private int next;
+
+    @Setup
+    public void setUp(BenchmarkDataset dataset) {
+        paymentController = dataset.getBean(PaymentController.class);
+        bookingIds = dataset.getPayableBookingIds();
+        sessions = new MockHttpSession[bookingIds.size()];
+        for (int i = 0; i < sessions.length; i++) {
+            sessions[i] = dataset.payableBookingOwnerSession(i);
+        }
+    }
+
+    @Benchmark
+    public ExtendedModelMap paymentGateway() {
+        int index = next++ % bookingIds.size();
+        ExtendedModelMap model = new ExtendedModelMap();
+        paymentController.paymentGateway(bookingIds.get(index), sessions[index], model);
+        return model;
+    }
+}
@@ -0,0 +1,71 @@
+package com.prmplatform.parqhub.benchmark;
+
+import com.prmplatform.parqhub.controller.admin.ReportController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpSession;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The admin report endpoints over the last month and the last year
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ReportAggregationBenchmark {
+
+    @Param({"30", "365"})
+    public int rangeDays;
+
+    private ReportController reportController;
+    private MockHttpSession session;
+    private String startDate;
+    private String endDate;
+    private String city;
+
+    @Setup
+    public void setUp(BenchmarkDataset dataset) {
+        reportController = dataset.getBean(ReportController.class);
+        session = dataset.adminSession();
+        LocalDate today = LocalDate.now();
+        startDate = today.minusDays(rangeDays - 1L).toString();
+        endDate = today.toString();
+        city = dataset.getCities().get(0);
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> financial() {
+        return reportController.getFinancialReportData(startDate, endDate, null, null, session);
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> financialForCity() {
+        return reportController.getFinancialReportData(startDate, endDate, city, null, session);
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> occupancy() {
+        return reportController.getOccupancyReportData(startDate, endDate, null, null, session);
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> performance() {
+        return reportController.getPerformanceReportData(startDate, endDate, session);
+    }
+}
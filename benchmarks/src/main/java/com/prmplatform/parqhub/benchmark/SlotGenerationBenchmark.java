@@ -0,0 +1,53 @@
+package com.prmplatform.parqhub.benchmark;
+
+import com.prmplatform.parqhub.model.ParkingLot;
+import com.prmplatform.parqhub.repository.ParkingLotRepository;
+import com.prmplatform.parqhub.service.ParkingLotService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Regenerating every slot of a parking lot, as when a lot is created or reset
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SlotGenerationBenchmark {
+
+    @Param({"100", "1000"})
+    public int totalSlots;
+
+    private ParkingLotService parkingLotService;
+    private ParkingLot parkingLot;
+
+    @Setup
+    public void setUp(BenchmarkDataset dataset) {
+        parkingLotService = dataset.getBean(ParkingLotService.class);
+        parkingLot = new ParkingLot();
+        parkingLot.setCity("Benchmark City");
+        parkingLot.setLocation("Slot Generation " + totalSlots);
+        parkingLot.setTotalSlots(totalSlots);
+        parkingLot.setPriceHr(new BigDecimal("100.00"));
+        parkingLot = dataset.getBean(ParkingLotRepository.class).save(parkingLot);
+    }
+
+    @Benchmark
+    public void createParkingSlotsForLot() {
+        parkingLotService.createParkingSlotsForLot(parkingLot);
+    }
+}
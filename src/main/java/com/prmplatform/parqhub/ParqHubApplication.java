@@ -1,13 +1,23 @@
 package com.prmplatform.parqhub;
 
+import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class ParqHubApplication {
 
     public static void main(String[] args) {
         SpringApplication.run(ParqHubApplication.class, args);
     }
 
+    // JSON responses write an association that was not fetched as its id instead of loading it
+    @Bean
+    public Hibernate6Module hibernate6Module() {
+        return new Hibernate6Module().enable(Hibernate6Module.Feature.SERIALIZE_IDENTIFIER_FOR_LAZY_NOT_LOADED_OBJECTS);
+    }
+
 }
@@ -1,9 +1,11 @@
 package com.prmplatform.parqhub.controller;
 
+import com.prmplatform.parqhub.event.UserRegisteredEvent;
 import com.prmplatform.parqhub.model.User;
 import com.prmplatform.parqhub.model.Vehicle;
 import com.prmplatform.parqhub.repository.UserRepository;
 import com.prmplatform.parqhub.repository.VehicleRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -19,10 +21,13 @@ public class RegisterController {
 
     private final UserRepository userRepository;
     private final VehicleRepository vehicleRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public RegisterController(UserRepository userRepository, VehicleRepository vehicleRepository) {
+    public RegisterController(UserRepository userRepository, VehicleRepository vehicleRepository,
+                              ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.vehicleRepository = vehicleRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @GetMapping("/register")
@@ -78,6 +83,7 @@ public class RegisterController {
             user.setContactNo(userForm.getContactNo() != null ? userForm.getContactNo().trim() : null);
             user.setVehicles(new ArrayList<>());
             user = userRepository.save(user);
+            eventPublisher.publishEvent(new UserRegisteredEvent(user.getId()));
 
             for (VehicleForm vehicleForm : userForm.getVehicles()) {
                 Vehicle vehicle = new Vehicle();
@@ -3,8 +3,9 @@ package com.prmplatform.parqhub.controller.admin;
 import com.prmplatform.parqhub.model.Admin;
 import com.prmplatform.parqhub.model.Booking;
 import com.prmplatform.parqhub.model.ParkingSlot.SlotStatus;
-import com.prmplatform.parqhub.repository.*;
+import com.prmplatform.parqhub.repository.AdminRepository;
 import com.prmplatform.parqhub.service.AdminAuthenticationService;
+import com.prmplatform.parqhub.service.DashboardMetricsService;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -13,9 +14,7 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 @Controller
@@ -23,27 +22,15 @@ import java.util.Map;
 public class AdminController {
 
     private final AdminRepository adminRepository;
-    private final ParkingSlotRepository parkingSlotRepository;
-    private final PaymentRepository paymentRepository;
-    private final BookingRepository bookingRepository;
-    private final NotificationRepository notificationRepository;
-    private final VehicleLogRepository vehicleLogRepository;
-    private final UserRepository userRepository;
     private final AdminAuthenticationService adminAuthenticationService;
+    private final DashboardMetricsService dashboardMetricsService;
 
     @Autowired
-    public AdminController(AdminRepository adminRepository, ParkingSlotRepository parkingSlotRepository,
-                           PaymentRepository paymentRepository, BookingRepository bookingRepository,
-                           NotificationRepository notificationRepository, VehicleLogRepository vehicleLogRepository,
-                           UserRepository userRepository, AdminAuthenticationService adminAuthenticationService) {
+    public AdminController(AdminRepository adminRepository, AdminAuthenticationService adminAuthenticationService,
+                           DashboardMetricsService dashboardMetricsService) {
         this.adminRepository = adminRepository;
-        this.parkingSlotRepository = parkingSlotRepository;
-        this.paymentRepository = paymentRepository;
-        this.bookingRepository = bookingRepository;
-        this.notificationRepository = notificationRepository;
-        this.vehicleLogRepository = vehicleLogRepository;
-        this.userRepository = userRepository;
         this.adminAuthenticationService = adminAuthenticationService;
+        this.dashboardMetricsService = dashboardMetricsService;
     }
 
     @GetMapping("/login")
@@ -91,35 +78,28 @@ public class AdminController {
 
         try {
             if (adminAuthenticationService.hasAccessToSection(admin, "operations")) {
-                List<Object[]> slotSummaries = parkingSlotRepository.countByCityAndStatus(SlotStatus.AVAILABLE);
-                Map<String, Long> availableSlotsByCity = new HashMap<>();
-                for (Object[] result : slotSummaries) {
-                    availableSlotsByCity.put((String) result[0], (Long) result[1]);
-                }
-                model.addAttribute("availableSlotsByCity", availableSlotsByCity);
-                model.addAttribute("totalActiveSlots", parkingSlotRepository.countByStatus(SlotStatus.OCCUPIED));
+                model.addAttribute("availableSlotsByCity", dashboardMetricsService.getAvailableSlotsByCity());
+                model.addAttribute("totalActiveSlots", dashboardMetricsService.getSlotCount(SlotStatus.OCCUPIED));
             }
 
             if (adminAuthenticationService.hasAccessToSection(admin, "finance")) {
-                LocalDateTime startOfDay = LocalDateTime.now().with(LocalTime.MIN);
-                Double todayRevenue = paymentRepository.sumAmountByCompletedAndTimestampAfter(startOfDay);
-                model.addAttribute("todayRevenue", todayRevenue != null ? todayRevenue : 0.0);
-                model.addAttribute("pendingPayments", bookingRepository.countByPaymentStatus(Booking.PaymentStatus.Pending));
+                model.addAttribute("todayRevenue", dashboardMetricsService.getTodayRevenue());
+                model.addAttribute("pendingPayments", dashboardMetricsService.getBookingCount(Booking.PaymentStatus.Pending));
             }
 
             if (adminAuthenticationService.hasAccessToSection(admin, "customer")) {
-                model.addAttribute("totalUsers", userRepository.count());
-                model.addAttribute("pendingBookings", bookingRepository.countByPaymentStatus(Booking.PaymentStatus.Pending));
+                model.addAttribute("totalUsers", dashboardMetricsService.getTotalUsers());
+                model.addAttribute("pendingBookings", dashboardMetricsService.getBookingCount(Booking.PaymentStatus.Pending));
             }
 
             if (adminAuthenticationService.hasAccessToSection(admin, "security")) {
-                model.addAttribute("activeVehicles", vehicleLogRepository.countByExitTimeIsNull());
-                model.addAttribute("securityIncidents", notificationRepository.countByType("SECURITY_INCIDENT"));
+                model.addAttribute("activeVehicles", dashboardMetricsService.getActiveVehicles());
+                model.addAttribute("securityIncidents", dashboardMetricsService.getNotificationCount("SECURITY_INCIDENT"));
             }
 
             if (adminAuthenticationService.hasAccessToSection(admin, "it")) {
                 model.addAttribute("systemUptime", "99.9%"); // Placeholder
-                model.addAttribute("errorLogs", notificationRepository.countByType("NONE"));
+                model.addAttribute("errorLogs", dashboardMetricsService.getNotificationCount("NONE"));
             }
         } catch (Exception e) {
             model.addAttribute("error", "Error fetching dashboard data: " + e.getMessage());
@@ -160,41 +140,34 @@ public class AdminController {
             
             // Role-specific stats using strategy pattern
             if (adminAuthenticationService.hasAccessToSection(admin, "operations")) {
-                List<Object[]> slotSummaries = parkingSlotRepository.countByCityAndStatus(SlotStatus.AVAILABLE);
-                Map<String, Long> availableSlotsByCity = new HashMap<>();
-                for (Object[] result : slotSummaries) {
-                    availableSlotsByCity.put((String) result[0], (Long) result[1]);
-                }
-                stats.put("availableSlotsByCity", availableSlotsByCity);
-                stats.put("totalActiveSlots", parkingSlotRepository.countByStatus(SlotStatus.OCCUPIED));
-                stats.put("totalAvailableSlots", parkingSlotRepository.countByStatus(SlotStatus.AVAILABLE));
-                stats.put("totalSlots", parkingSlotRepository.count());
+                stats.put("availableSlotsByCity", dashboardMetricsService.getAvailableSlotsByCity());
+                stats.put("totalActiveSlots", dashboardMetricsService.getSlotCount(SlotStatus.OCCUPIED));
+                stats.put("totalAvailableSlots", dashboardMetricsService.getSlotCount(SlotStatus.AVAILABLE));
+                stats.put("totalSlots", dashboardMetricsService.getTotalSlots());
             }
 
             if (adminAuthenticationService.hasAccessToSection(admin, "finance")) {
-                LocalDateTime startOfDay = LocalDateTime.now().with(LocalTime.MIN);
-                Double todayRevenue = paymentRepository.sumAmountByCompletedAndTimestampAfter(startOfDay);
-                stats.put("todayRevenue", todayRevenue != null ? todayRevenue : 0.0);
-                stats.put("totalRevenue", paymentRepository.getTotalCompletedRevenue());
-                stats.put("pendingPayments", bookingRepository.countByPaymentStatus(Booking.PaymentStatus.Pending));
+                stats.put("todayRevenue", dashboardMetricsService.getTodayRevenue());
+                stats.put("totalRevenue", dashboardMetricsService.getTotalRevenue());
+                stats.put("pendingPayments", dashboardMetricsService.getBookingCount(Booking.PaymentStatus.Pending));
             }
 
             if (adminAuthenticationService.hasAccessToSection(admin, "customer")) {
-                stats.put("totalUsers", userRepository.count());
-                stats.put("pendingBookings", bookingRepository.countByPaymentStatus(Booking.PaymentStatus.Pending));
-                stats.put("completedBookings", bookingRepository.countByPaymentStatus(Booking.PaymentStatus.Completed));
+                stats.put("totalUsers", dashboardMetricsService.getTotalUsers());
+                stats.put("pendingBookings", dashboardMetricsService.getBookingCount(Booking.PaymentStatus.Pending));
+                stats.put("completedBookings", dashboardMetricsService.getBookingCount(Booking.PaymentStatus.Completed));
             }
 
             if (adminAuthenticationService.hasAccessToSection(admin, "security")) {
-                stats.put("activeVehicles", vehicleLogRepository.countByExitTimeIsNull());
-                stats.put("securityIncidents", notificationRepository.countByType("SECURITY_INCIDENT"));
-                stats.put("totalVehicleLogs", vehicleLogRepository.count());
+                stats.put("activeVehicles", dashboardMetricsService.getActiveVehicles());
+                stats.put("securityIncidents", dashboardMetricsService.getNotificationCount("SECURITY_INCIDENT"));
+                stats.put("totalVehicleLogs", dashboardMetricsService.getTotalVehicleLogs());
             }
 
             if (adminAuthenticationService.hasAccessToSection(admin, "it")) {
                 stats.put("systemUptime", "99.9%");
-                stats.put("errorLogs", notificationRepository.countByType("ERROR"));
-                stats.put("totalNotifications", notificationRepository.count());
+                stats.put("errorLogs", dashboardMetricsService.getNotificationCount("ERROR"));
+                stats.put("totalNotifications", dashboardMetricsService.getTotalNotifications());
             }
             
             return ResponseEntity.ok(stats);
@@ -219,8 +192,8 @@ public class AdminController {
         
         try {
             // System performance metrics
-            long totalBookings = bookingRepository.count();
-            long completedBookings = bookingRepository.countByPaymentStatus(Booking.PaymentStatus.Completed);
+            long totalBookings = dashboardMetricsService.getTotalBookings();
+            long completedBookings = dashboardMetricsService.getBookingCount(Booking.PaymentStatus.Completed);
             double bookingSuccessRate = totalBookings > 0 ? (double) completedBookings / totalBookings * 100 : 0;
             
             health.put("bookingSuccessRate", Math.round(bookingSuccessRate * 100.0) / 100.0);
@@ -231,8 +204,8 @@ public class AdminController {
             health.put("timestamp", LocalDateTime.now());
             
             // Occupancy rate
-            long totalSlots = parkingSlotRepository.count();
-            long occupiedSlots = parkingSlotRepository.countByStatus(SlotStatus.OCCUPIED);
+            long totalSlots = dashboardMetricsService.getTotalSlots();
+            long occupiedSlots = dashboardMetricsService.getSlotCount(SlotStatus.OCCUPIED);
             double occupancyRate = totalSlots > 0 ? (double) occupiedSlots / totalSlots * 100 : 0;
             health.put("currentOccupancyRate", Math.round(occupancyRate * 100.0) / 100.0);
             
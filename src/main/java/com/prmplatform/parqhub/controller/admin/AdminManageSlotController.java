@@ -1,9 +1,11 @@
 package com.prmplatform.parqhub.controller.admin;
 
+import com.prmplatform.parqhub.event.NotificationChangedEvent;
 import com.prmplatform.parqhub.model.*;
 import com.prmplatform.parqhub.repository.*;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -32,6 +34,9 @@ public class AdminManageSlotController {
     @Autowired
     private VehicleRepository vehicleRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @GetMapping("/manage-parking-slot")
     public String manageParkingSlot(@RequestParam Long slotId, HttpSession session, Model model) {
         try {
@@ -183,6 +188,7 @@ public class AdminManageSlotController {
             notification.setAdmin(admin);
 
             notificationRepository.save(notification);
+            eventPublisher.publishEvent(new NotificationChangedEvent(notification.getType(), false));
 
             return ResponseEntity.ok("Notification sent successfully");
         } catch (Exception e) {
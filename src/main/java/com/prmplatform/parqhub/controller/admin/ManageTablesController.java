@@ -1,28 +1,62 @@
 package com.prmplatform.parqhub.controller.admin;
 
+import com.prmplatform.parqhub.datasource.ReadReplicaRoutingDataSource;
+import com.prmplatform.parqhub.event.LotCatalogChangedEvent;
+import com.prmplatform.parqhub.event.LotInventoryChangedEvent;
 import com.prmplatform.parqhub.model.*;
 import com.prmplatform.parqhub.repository.*;
+import com.prmplatform.parqhub.service.AdminSearchIndex;
+import com.prmplatform.parqhub.service.KeysetPager;
 import com.prmplatform.parqhub.service.ParkingLotService;
+import com.prmplatform.parqhub.service.ReportRollupService;
 import jakarta.servlet.http.HttpSession;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 
 @Controller
 @RequestMapping("/admin/tables")
 public class ManageTablesController {
 
+    private static final int MAX_PAGE_SIZE = 200;
+    // Search hits are ordered by another column than id only up to this many; beyond it they stay in id order
+    private static final int MAX_SORTED_HITS = 5000;
+
+    // Entity behind each admin table name, for keyset browsing
+    private static final Map<String, Class<?>> ENTITY_TYPES = Map.of(
+            "admins", Admin.class, "users", User.class, "vehicle", Vehicle.class, "parkinglot", ParkingLot.class,
+            "parkingslot", ParkingSlot.class, "booking", Booking.class, "payment", Payment.class,
+            "notification", Notification.class, "vehiclelog", VehicleLog.class, "report", Report.class);
+
+    // Entity graph holding the associations each table shows, loaded with the page instead of row by row
+    private static final Map<String, String> FETCH_GRAPHS = Map.of(
+            "parkingslot", "ParkingSlot.details", "booking", "Booking.details", "payment", "Payment.details",
+            "notification", "Notification.details", "vehiclelog", "VehicleLog.details", "report", "Report.details");
+
     private final AdminRepository adminRepository;
     private final UserRepository userRepository;
     private final VehicleRepository vehicleRepository;
@@ -34,13 +68,20 @@ public class ManageTablesController {
     private final VehicleLogRepository vehicleLogRepository;
     private final ReportRepository reportRepository;
     private final ParkingLotService parkingLotService;
+    private final AdminSearchIndex adminSearchIndex;
+    private final KeysetPager keysetPager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReportRollupService reportRollupService;
+    private final TransactionTemplate transactionTemplate;
 
     public ManageTablesController(AdminRepository adminRepository, UserRepository userRepository,
                                   VehicleRepository vehicleRepository, ParkingLotRepository parkingLotRepository,
                                   ParkingSlotRepository parkingSlotRepository, BookingRepository bookingRepository,
                                   PaymentRepository paymentRepository, NotificationRepository notificationRepository,
                                   VehicleLogRepository vehicleLogRepository, ReportRepository reportRepository,
-                                  ParkingLotService parkingLotService) {
+                                  ParkingLotService parkingLotService, AdminSearchIndex adminSearchIndex,
+                                  KeysetPager keysetPager, ApplicationEventPublisher eventPublisher,
+                                  ReportRollupService reportRollupService, PlatformTransactionManager transactionManager) {
         this.adminRepository = adminRepository;
         this.userRepository = userRepository;
         this.vehicleRepository = vehicleRepository;
@@ -52,6 +93,11 @@ public class ManageTablesController {
         this.vehicleLogRepository = vehicleLogRepository;
         this.reportRepository = reportRepository;
         this.parkingLotService = parkingLotService;
+        this.adminSearchIndex = adminSearchIndex;
+        this.keysetPager = keysetPager;
+        this.eventPublisher = eventPublisher;
+        this.reportRollupService = reportRollupService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @GetMapping
@@ -68,12 +114,17 @@ public class ManageTablesController {
     }
 
     @GetMapping("/{tableName}")
+    @Transactional(readOnly = true, label = ReadReplicaRoutingDataSource.REPLICA_LABEL)
     public String manageTable(@PathVariable String tableName,
                               @RequestParam(defaultValue = "0") int page,
                               @RequestParam(defaultValue = "10") int size,
                               @RequestParam(defaultValue = "id") String sortBy,
                               @RequestParam(defaultValue = "asc") String sortDir,
                               @RequestParam(defaultValue = "") String search,
+                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                              @RequestParam(required = false) String after,
+                              @RequestParam(required = false) String before,
                               HttpSession session, Model model) {
         Admin admin = (Admin) session.getAttribute("loggedInAdmin");
         if (admin == null) {
@@ -84,95 +135,96 @@ public class ManageTablesController {
         model.addAttribute("adminRole", admin.getRole());
         model.addAttribute("tableName", tableName);
         model.addAttribute("searchTerm", search);
+        model.addAttribute("dateSearch", adminSearchIndex.supportsDateRange(tableName));
+        model.addAttribute("fromDate", from);
+        model.addAttribute("toDate", to);
+
+        boolean filtered = !search.isEmpty() || (adminSearchIndex.supportsDateRange(tableName) && (from != null || to != null));
+        model.addAttribute("keyset", !filtered);
+        if (!filtered) {
+            // Plain browsing seeks from a cursor instead of counting and skipping rows
+            Class<?> entityType = ENTITY_TYPES.get(tableName);
+            if (entityType == null) {
+                return "redirect:/admin/tables";
+            }
+            KeysetPager.KeysetPage<?> window = keysetPager.browse(entityType, sortBy, sortDir.equalsIgnoreCase("desc"),
+                    Math.max(1, Math.min(size, MAX_PAGE_SIZE)), after, before, FETCH_GRAPHS.get(tableName));
+            model.addAttribute("items", window.getContent());
+            model.addAttribute("totalItems", window.getEstimatedTotal());
+            model.addAttribute("previousCursor", window.getPreviousCursor());
+            model.addAttribute("nextCursor", window.getNextCursor());
+            model.addAttribute("sortBy", window.getSortBy());
+            model.addAttribute("sortDir", sortDir);
+            model.addAttribute("totalPages", 0);
+            model.addAttribute("currentPage", 0);
+            return "admin/manageTable";
+        }
+
+        Class<?> entityType = ENTITY_TYPES.get(tableName);
+        if (entityType == null) {
+            return "redirect:/admin/tables";
+        }
+        // Both days are inclusive
+        LocalDateTime fromTime = from == null ? null : from.atStartOfDay();
+        LocalDateTime toTime = to == null ? null : to.plusDays(1).atStartOfDay();
+        String sortColumn = keysetPager.sortColumn(entityType, sortBy);
+        long[] hits = null;
+        if (adminSearchIndex.isIndexed(tableName)) {
+            hits = adminSearchIndex.search(tableName, search, fromTime, toTime);
+            sortColumn = hits.length <= MAX_SORTED_HITS ? sortColumn : "id";
+            hits = keysetPager.orderIds(entityType, hits, sortColumn);
+        }
+        model.addAttribute("sortBy", sortColumn);
+        model.addAttribute("sortDir", sortDir);
 
-        Sort sort = sortDir.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
+        Sort sort = sortDir.equalsIgnoreCase("desc") ? Sort.by(sortColumn).descending() : Sort.by(sortColumn).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
         Page<?> pageResult;
 
         switch (tableName) {
             case "admins":
-                if (search.isEmpty()) {
-                    pageResult = adminRepository.findAll(pageable);
-                } else {
-                    pageResult = adminRepository.findByNameContainingIgnoreCaseOrEmailContainingIgnoreCase(search, search, pageable);
-                }
+                pageResult = adminRepository.findByNameContainingIgnoreCaseOrEmailContainingIgnoreCase(search, search, pageable);
                 break;
             case "users":
-                if (search.isEmpty()) {
-                    pageResult = userRepository.findAll(pageable);
-                } else {
-                    pageResult = userRepository.findByNameContainingIgnoreCaseOrEmailContainingIgnoreCaseOrContactNoContainingIgnoreCase(search, search, search, pageable);
-                }
+                pageResult = searchPage(hits, pageable, userRepository::findAllById, User::getId);
                 break;
             case "vehicle":
-                if (search.isEmpty()) {
-                    pageResult = vehicleRepository.findAll(pageable);
-                } else {
-                    pageResult = vehicleRepository.findByVehicleNoContainingIgnoreCaseOrBrandContainingIgnoreCaseOrModelContainingIgnoreCaseOrColorContainingIgnoreCase(search, search, search, search, pageable);
-                }
+                pageResult = searchPage(hits, pageable, vehicleRepository::findAllById, Vehicle::getId);
                 break;
             case "parkinglot":
-                if (search.isEmpty()) {
-                    pageResult = parkingLotRepository.findAll(pageable);
-                } else {
-                    pageResult = parkingLotRepository.findByCityContainingIgnoreCaseOrLocationContainingIgnoreCase(search, search, pageable);
-                }
+                pageResult = searchPage(hits, pageable, parkingLotRepository::findAllById, ParkingLot::getId);
                 break;
             case "parkingslot":
-                if (search.isEmpty()) {
-                    pageResult = parkingSlotRepository.findAll(pageable);
-                } else {
-                    try {
-                        ParkingSlot.SlotStatus status = ParkingSlot.SlotStatus.valueOf(search.toUpperCase());
-                        pageResult = parkingSlotRepository.findByStatus(status, pageable);
-                    } catch (IllegalArgumentException e) {
-                        pageResult = parkingSlotRepository.findAll(pageable);
-                    }
+                try {
+                    ParkingSlot.SlotStatus status = ParkingSlot.SlotStatus.valueOf(search.toUpperCase());
+                    pageResult = parkingSlotRepository.findByStatus(status, pageable);
+                } catch (IllegalArgumentException e) {
+                    pageResult = parkingSlotRepository.findWithDetailsBy(pageable);
                 }
                 break;
             case "booking":
-                if (search.isEmpty()) {
-                    pageResult = bookingRepository.findAll(pageable);
-                } else {
-                    try {
-                        Booking.PaymentStatus status = Booking.PaymentStatus.valueOf(search.toUpperCase());
-                        pageResult = bookingRepository.findByPaymentStatus(status, pageable);
-                    } catch (IllegalArgumentException e) {
-                        pageResult = bookingRepository.findAll(pageable);
-                    }
+                try {
+                    Booking.PaymentStatus status = Booking.PaymentStatus.valueOf(search.toUpperCase());
+                    pageResult = bookingRepository.findByPaymentStatus(status, pageable);
+                } catch (IllegalArgumentException e) {
+                    pageResult = bookingRepository.findWithDetailsBy(pageable);
                 }
                 break;
             case "payment":
-                if (search.isEmpty()) {
-                    pageResult = paymentRepository.findAll(pageable);
-                } else {
-                    pageResult = paymentRepository.findByMethodContainingIgnoreCaseOrStatusContainingIgnoreCase(search, search, pageable);
-                }
+                pageResult = searchPayments(search, fromTime, toTime, pageable);
                 break;
             case "notification":
-                if (search.isEmpty()) {
-                    pageResult = notificationRepository.findAll(pageable);
-                } else {
-                    pageResult = notificationRepository.findByDescriptionContainingIgnoreCaseOrTypeContainingIgnoreCase(search, search, pageable);
-                }
+                pageResult = searchPage(hits, pageable, notificationRepository::findWithDetailsByIdIn, Notification::getId);
                 break;
             case "vehiclelog":
-                if (search.isEmpty()) {
-                    pageResult = vehicleLogRepository.findAll(pageable);
-                } else {
-                    pageResult = vehicleLogRepository.findAll(pageable); // Limited search due to datetime fields
-                }
+                pageResult = searchPage(hits, pageable, vehicleLogRepository::findWithDetailsByIdIn, VehicleLog::getId);
                 break;
             case "report":
-                if (search.isEmpty()) {
-                    pageResult = reportRepository.findAll(pageable);
-                } else {
-                    try {
-                        Report.ReportType type = Report.ReportType.valueOf(search.toUpperCase());
-                        pageResult = reportRepository.findByType(type, pageable);
-                    } catch (IllegalArgumentException e) {
-                        pageResult = reportRepository.findAll(pageable);
-                    }
+                try {
+                    Report.ReportType type = Report.ReportType.valueOf(search.toUpperCase());
+                    pageResult = reportRepository.findByType(type, pageable);
+                } catch (IllegalArgumentException e) {
+                    pageResult = reportRepository.findWithDetailsBy(pageable);
                 }
                 break;
             default:
@@ -270,30 +322,46 @@ public class ManageTablesController {
                     parkingLot.setLocation(params.get("location"));
                     parkingLot.setTotalSlots(Integer.parseInt(params.get("total_slots")));
                     parkingLot.setPriceHr(new BigDecimal(params.get("price_hr")));
-                    parkingLotRepository.save(parkingLot);
-                    
+                    parkingLot.setLatitude(getDoubleParam(params, "latitude"));
+                    parkingLot.setLongitude(getDoubleParam(params, "longitude"));
+                    if ((parkingLot.getLatitude() == null) != (parkingLot.getLongitude() == null)) {
+                        throw new IllegalArgumentException("Latitude and longitude must be given together");
+                    }
+                    if (parkingLot.getLatitude() != null && (Math.abs(parkingLot.getLatitude()) > 90 || Math.abs(parkingLot.getLongitude()) > 180)) {
+                        throw new IllegalArgumentException("Latitude must be within ±90 and longitude within ±180");
+                    }
+
                     // Handle parking slots creation/update
                     if (lotId == null) {
                         // This is a new parking lot, create slots
+                        parkingLotRepository.save(parkingLot);
                         parkingLotService.createParkingSlotsForLot(parkingLot);
                     } else {
-                        // This is an update, update slots if total slots count changed
+                        // This is an update, resize the slots first so a refused resize leaves the lot unchanged
                         if (parkingLot.getTotalSlots() != oldTotalSlots) {
                             parkingLotService.updateParkingSlotsForLot(parkingLot, oldTotalSlots);
                         }
+                        parkingLotRepository.save(parkingLot);
                     }
+                    eventPublisher.publishEvent(new LotCatalogChangedEvent(parkingLot.getId()));
                     break;
                 case "parkingslot":
                     Long slotId = getLongParam(params, "slot_id");
                     ParkingSlot parkingSlot = slotId == null ? new ParkingSlot() : parkingSlotRepository.findById(slotId).orElseThrow();
+                    Long previousLotId = parkingSlot.getParkingLot() != null ? parkingSlot.getParkingLot().getId() : null;
                     Long parkingLotId = getLongParam(params, "lot_id");
                     parkingSlot.setParkingLot(parkingLotId == null ? null : parkingLotRepository.findById(parkingLotId).orElseThrow());
                     parkingSlot.setStatus(ParkingSlot.SlotStatus.valueOf(params.get("status")));
                     parkingSlotRepository.save(parkingSlot);
+                    eventPublisher.publishEvent(new LotInventoryChangedEvent(parkingLotId));
+                    if (previousLotId != null && !previousLotId.equals(parkingLotId)) {
+                        eventPublisher.publishEvent(new LotInventoryChangedEvent(previousLotId));
+                    }
                     break;
                 case "booking":
                     Long bookingId = getLongParam(params, "booking_id");
                     Booking booking = bookingId == null ? new Booking() : bookingRepository.findById(bookingId).orElseThrow();
+                    LocalDate previousStartDay = booking.getStartTime() != null ? booking.getStartTime().toLocalDate() : null;
                     Long bookingUserId = getLongParam(params, "user_id");
                     booking.setUser(bookingUserId == null ? null : userRepository.findById(bookingUserId).orElseThrow());
                     Long bookingVehicleId = getLongParam(params, "vehicle_id");
@@ -304,18 +372,26 @@ public class ManageTablesController {
                     String endTimeStr = params.get("end_time");
                     booking.setEndTime(endTimeStr.isEmpty() ? null : LocalDateTime.parse(endTimeStr));
                     booking.setPaymentStatus(Booking.PaymentStatus.valueOf(params.get("payment_status")));
-                    bookingRepository.save(booking);
+                    // The report rollups of both days are rebuilt, committed with the edit
+                    transactionTemplate.executeWithoutResult(status -> {
+                        bookingRepository.save(booking);
+                        reportRollupService.markStale(Arrays.asList(previousStartDay, booking.getStartTime().toLocalDate()));
+                    });
                     break;
                 case "payment":
                     Long paymentId = getLongParam(params, "payment_id");
                     Payment payment = paymentId == null ? new Payment() : paymentRepository.findById(paymentId).orElseThrow();
+                    LocalDate previousPaymentDay = payment.getTimestamp() != null ? payment.getTimestamp().toLocalDate() : null;
                     Long paymentBookingId = getLongParam(params, "booking_id");
                     payment.setBooking(paymentBookingId == null ? null : bookingRepository.findById(paymentBookingId).orElseThrow());
                     payment.setAmount(new BigDecimal(params.get("amount")));
                     payment.setMethod(Payment.PaymentMethod.valueOf(params.get("method")));
                     payment.setStatus(Payment.PaymentStatus.valueOf(params.get("status")));
                     payment.setTimestamp(LocalDateTime.now());
-                    paymentRepository.save(payment);
+                    transactionTemplate.executeWithoutResult(status -> {
+                        paymentRepository.save(payment);
+                        reportRollupService.markStale(Arrays.asList(previousPaymentDay, payment.getTimestamp().toLocalDate()));
+                    });
                     break;
                 case "notification":
                     Long notificationId = getLongParam(params, "notification_id");
@@ -361,11 +437,51 @@ public class ManageTablesController {
         return "redirect:/admin/tables/" + tableName;
     }
 
+    /**
+     * Loads one page of search index hits, already in ascending sort order; walked backwards for a descending sort
+     */
+    private <T> Page<T> searchPage(long[] ids, Pageable pageable, Function<List<Long>, List<T>> load, Function<T, Long> idOf) {
+        boolean descending = pageable.getSort().stream().anyMatch(Sort.Order::isDescending);
+        int start = (int) Math.min(pageable.getOffset(), ids.length);
+        int end = Math.min(start + pageable.getPageSize(), ids.length);
+        Long[] pageIds = new Long[end - start];
+        for (int i = start; i < end; i++) {
+            pageIds[i - start] = descending ? ids[ids.length - 1 - i] : ids[i];
+        }
+        Map<Long, T> loaded = new HashMap<>();
+        for (T item : load.apply(Arrays.asList(pageIds))) {
+            loaded.put(idOf.apply(item), item);
+        }
+        List<T> content = Arrays.stream(pageIds).map(loaded::get).filter(Objects::nonNull).toList();
+        return new PageImpl<>(content, pageable, ids.length);
+    }
+
+    /**
+     * Payments are searched by method and status, which are short enums: the term picks the values whose name
+     * contains it and the database filters on them, through the (status, timestamp) index when only statuses match.
+     */
+    private Page<Payment> searchPayments(String search, LocalDateTime from, LocalDateTime to, Pageable pageable) {
+        String term = search.trim().toLowerCase(Locale.ROOT);
+        List<Payment.PaymentStatus> statuses = Arrays.stream(Payment.PaymentStatus.values())
+                .filter(status -> status.name().toLowerCase(Locale.ROOT).contains(term)).toList();
+        List<Payment.PaymentMethod> methods = Arrays.stream(Payment.PaymentMethod.values())
+                .filter(method -> method.name().toLowerCase(Locale.ROOT).contains(term)).toList();
+        if (methods.isEmpty() || statuses.size() == Payment.PaymentStatus.values().length) {
+            return statuses.isEmpty() ? Page.empty(pageable) : paymentRepository.searchByStatus(statuses, from, to, pageable);
+        }
+        return paymentRepository.searchByMethodOrStatus(methods, statuses, from, to, pageable);
+    }
+
     private Long getLongParam(Map<String, String> params, String key) {
         String value = params.get(key);
         return (value == null || value.isBlank()) ? null : Long.parseLong(value);
     }
 
+    private Double getDoubleParam(Map<String, String> params, String key) {
+        String value = params.get(key);
+        return (value == null || value.isBlank()) ? null : Double.parseDouble(value);
+    }
+
     /**
      * Maps display names to enum values for admin roles
      * @param displayName The display name from the form
@@ -421,18 +537,30 @@ public class ManageTablesController {
                     // Delete associated parking slots first
                     parkingLotService.deleteParkingSlotsForLot(id);
                     parkingLotRepository.deleteById(id);
+                    eventPublisher.publishEvent(new LotCatalogChangedEvent(id));
                     break;
                 case "parkingslot":
-                    if (!parkingSlotRepository.existsById(id)) return "error: Parking slot not found";
+                    Optional<ParkingSlot> slotToDelete = parkingSlotRepository.findById(id);
+                    if (slotToDelete.isEmpty()) return "error: Parking slot not found";
                     parkingSlotRepository.deleteById(id);
+                    eventPublisher.publishEvent(new LotInventoryChangedEvent(slotToDelete.get().getParkingLot().getId()));
                     break;
                 case "booking":
-                    if (!bookingRepository.existsById(id)) return "error: Booking not found";
-                    bookingRepository.deleteById(id);
+                    Optional<Booking> bookingToDelete = bookingRepository.findById(id);
+                    if (bookingToDelete.isEmpty()) return "error: Booking not found";
+                    transactionTemplate.executeWithoutResult(status -> {
+                        bookingRepository.deleteById(id);
+                        reportRollupService.markStale(List.of(bookingToDelete.get().getStartTime().toLocalDate()));
+                    });
                     break;
                 case "payment":
-                    if (!paymentRepository.existsById(id)) return "error: Payment not found";
-                    paymentRepository.deleteById(id);
+                    Optional<Payment> paymentToDelete = paymentRepository.findById(id);
+                    if (paymentToDelete.isEmpty()) return "error: Payment not found";
+                    transactionTemplate.executeWithoutResult(status -> {
+                        paymentRepository.deleteById(id);
+                        reportRollupService.markStale(Arrays.asList(paymentToDelete.get().getTimestamp() != null
+                                ? paymentToDelete.get().getTimestamp().toLocalDate() : null));
+                    });
                     break;
                 case "notification":
                     if (!notificationRepository.existsById(id)) return "error: Notification not found";
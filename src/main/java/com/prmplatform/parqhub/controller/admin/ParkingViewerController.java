@@ -3,12 +3,16 @@ package com.prmplatform.parqhub.controller.admin;
 import com.prmplatform.parqhub.model.Admin;
 import com.prmplatform.parqhub.model.ParkingLot;
 import com.prmplatform.parqhub.model.ParkingSlot;
+import com.prmplatform.parqhub.service.LotTypeaheadIndex;
 import com.prmplatform.parqhub.service.ParkingViewerService;
+import com.prmplatform.parqhub.service.SlotStatusStreamService;
 import jakarta.servlet.http.HttpSession;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -17,9 +21,15 @@ import java.util.List;
 public class ParkingViewerController {
 
     private final ParkingViewerService parkingViewerService;
+    private final SlotStatusStreamService slotStatusStreamService;
+    private final LotTypeaheadIndex lotTypeaheadIndex;
 
-    public ParkingViewerController(ParkingViewerService parkingViewerService) {
+    public ParkingViewerController(ParkingViewerService parkingViewerService,
+                                   SlotStatusStreamService slotStatusStreamService,
+                                   LotTypeaheadIndex lotTypeaheadIndex) {
         this.parkingViewerService = parkingViewerService;
+        this.slotStatusStreamService = slotStatusStreamService;
+        this.lotTypeaheadIndex = lotTypeaheadIndex;
     }
 
     @GetMapping("/parking-viewer")
@@ -73,6 +83,14 @@ public class ParkingViewerController {
         return ResponseEntity.ok(parkingViewerService.getLocationsByCity(city));
     }
 
+    @GetMapping("/api/locations/suggest")
+    @ResponseBody
+    public ResponseEntity<List<LotTypeaheadIndex.Suggestion>> suggestLocations(@RequestParam String q,
+                                                                               @RequestParam(required = false) String city,
+                                                                               @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(lotTypeaheadIndex.suggest(q, city, limit));
+    }
+
     @GetMapping("/api/parking-slots/{lotId}")
     @ResponseBody
     public ResponseEntity<List<ParkingSlot>> getParkingSlots(@PathVariable Long lotId) {
@@ -84,6 +102,23 @@ public class ParkingViewerController {
         return ResponseEntity.ok(slots);
     }
 
+    // Server-Sent Events stream of slot status deltas for one lot
+    @GetMapping(value = "/api/slot-events/{lotId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public ResponseEntity<SseEmitter> streamSlotEvents(@PathVariable Long lotId) {
+        if (!parkingViewerService.parkingLotExists(lotId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(slotStatusStreamService.subscribe(lotId));
+    }
+
+    // Server-Sent Events stream of slot status deltas for every lot
+    @GetMapping(value = "/api/slot-events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter streamAllSlotEvents() {
+        return slotStatusStreamService.subscribeAll();
+    }
+
     @GetMapping("/api/parking-statistics/{lotId}")
     @ResponseBody
     public ResponseEntity<ParkingViewerService.ParkingSlotStatistics> getParkingStatistics(@PathVariable Long lotId) {
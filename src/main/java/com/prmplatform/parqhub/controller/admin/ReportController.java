@@ -1,5 +1,6 @@
 package com.prmplatform.parqhub.controller.admin;
 
+import com.prmplatform.parqhub.datasource.ReadReplicaRoutingDataSource;
 import com.prmplatform.parqhub.model.Admin;
 import com.prmplatform.parqhub.model.Booking;
 import com.prmplatform.parqhub.model.ParkingSlot;
@@ -9,7 +10,13 @@ import com.prmplatform.parqhub.repository.ReportRepository;
 import com.prmplatform.parqhub.repository.PaymentRepository;
 import com.prmplatform.parqhub.repository.BookingRepository;
 import com.prmplatform.parqhub.repository.ParkingSlotRepository;
-import com.prmplatform.parqhub.repository.ParkingLotRepository;
+import com.prmplatform.parqhub.repository.DailyPaymentRollupRepository;
+import com.prmplatform.parqhub.repository.DailyBookingRollupRepository;
+import com.prmplatform.parqhub.repository.ArchivedBookingRepository;
+import com.prmplatform.parqhub.repository.ArchivedPaymentRepository;
+import com.prmplatform.parqhub.service.ParkingLotCatalog;
+import com.prmplatform.parqhub.service.RecordArchiveService;
+import com.prmplatform.parqhub.service.ReportRollupService;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -19,36 +26,78 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Function;
+import java.util.function.LongFunction;
 import java.util.stream.Collectors;
 
 @Controller
 @RequestMapping("/admin")
 public class ReportController {
 
+    private static final int EXPORT_PAGE_SIZE = 1000;
+    private static final DateTimeFormatter EXPORT_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter EXPORT_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
     private final ReportRepository reportRepository;
     private final PaymentRepository paymentRepository;
     private final BookingRepository bookingRepository;
     private final ParkingSlotRepository parkingSlotRepository;
-    private final ParkingLotRepository parkingLotRepository;
+    private final ParkingLotCatalog parkingLotCatalog;
+    private final DailyPaymentRollupRepository dailyPaymentRollupRepository;
+    private final DailyBookingRollupRepository dailyBookingRollupRepository;
+    private final ReportRollupService reportRollupService;
+    private final ArchivedPaymentRepository archivedPaymentRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final RecordArchiveService recordArchiveService;
+    private final TransactionTemplate replicaRead;
 
     public ReportController(ReportRepository reportRepository,
                            PaymentRepository paymentRepository,
                            BookingRepository bookingRepository,
                            ParkingSlotRepository parkingSlotRepository,
-                           ParkingLotRepository parkingLotRepository) {
+                           ParkingLotCatalog parkingLotCatalog,
+                           DailyPaymentRollupRepository dailyPaymentRollupRepository,
+                           DailyBookingRollupRepository dailyBookingRollupRepository,
+                           ReportRollupService reportRollupService,
+                           ArchivedPaymentRepository archivedPaymentRepository,
+                           ArchivedBookingRepository archivedBookingRepository,
+                           RecordArchiveService recordArchiveService,
+                           PlatformTransactionManager transactionManager) {
         this.reportRepository = reportRepository;
         this.paymentRepository = paymentRepository;
         this.bookingRepository = bookingRepository;
         this.parkingSlotRepository = parkingSlotRepository;
-        this.parkingLotRepository = parkingLotRepository;
+        this.parkingLotCatalog = parkingLotCatalog;
+        this.dailyPaymentRollupRepository = dailyPaymentRollupRepository;
+        this.dailyBookingRollupRepository = dailyBookingRollupRepository;
+        this.reportRollupService = reportRollupService;
+        this.archivedPaymentRepository = archivedPaymentRepository;
+        this.archivedBookingRepository = archivedBookingRepository;
+        this.recordArchiveService = recordArchiveService;
+        // Report figures, read apart from the rollup refresh before them and the audit row after them so a
+        // request never holds a replica and a primary connection at once, and CSV bodies written on the async thread
+        this.replicaRead = new TransactionTemplate(transactionManager);
+        this.replicaRead.setReadOnly(true);
+        this.replicaRead.setName(ReadReplicaRoutingDataSource.REPLICA_LABEL);
     }
 
     /**
@@ -81,7 +130,7 @@ public class ReportController {
         model.addAttribute("adminRole", admin.getRole());
         
         // Get distinct cities and locations for filtering
-        List<String> cities = parkingLotRepository.findDistinctCities();
+        List<String> cities = parkingLotCatalog.getCities();
         model.addAttribute("cities", cities);
         
         return "admin/report/financeReport";
@@ -101,7 +150,7 @@ public class ReportController {
         model.addAttribute("adminRole", admin.getRole());
         
         // Get distinct cities for filtering
-        List<String> cities = parkingLotRepository.findDistinctCities();
+        List<String> cities = parkingLotCatalog.getCities();
         model.addAttribute("cities", cities);
         
         return "admin/report/occupancyReport";
@@ -148,147 +197,112 @@ public class ReportController {
             LocalDateTime startDateTime = LocalDate.parse(startDate).atStartOfDay();
             LocalDateTime endDateTime = LocalDate.parse(endDate).atTime(23, 59, 59);
             
-            // Get filtered payments and bookings
-            List<Payment> paymentsInRange;
-            List<Booking> bookingsInRange;
-            
-            if (city != null && !city.isEmpty() && location != null && !location.isEmpty()) {
-                // Filter by both city and location
-                paymentsInRange = paymentRepository.findByCityLocationAndTimestampBetween(city, location, startDateTime, endDateTime);
-                bookingsInRange = bookingRepository.findByCityLocationAndStartTimeBetween(city, location, startDateTime, endDateTime);
-            } else if (city != null && !city.isEmpty()) {
-                // Filter by city only
-                paymentsInRange = paymentRepository.findByCityAndTimestampBetween(city, startDateTime, endDateTime);
-                bookingsInRange = bookingRepository.findByCityAndStartTimeBetween(city, startDateTime, endDateTime);
-            } else {
-                // No location filter - get all
-                paymentsInRange = paymentRepository.findByTimestampBetween(startDateTime, endDateTime);
-                bookingsInRange = bookingRepository.findByStartTimeBetween(startDateTime, endDateTime);
-            }
-            
-            // Calculate financial metrics in LKR
-            Double totalRevenue;
-            long completedPayments, pendingPayments, failedPayments;
-            
-            if (city != null && !city.isEmpty() && location != null && !location.isEmpty()) {
-                // Calculate for specific city and location
-                totalRevenue = paymentsInRange.stream()
-                    .filter(p -> p.getStatus() == Payment.PaymentStatus.Completed)
-                    .mapToDouble(p -> p.getAmount().doubleValue())
-                    .sum();
-                completedPayments = paymentRepository.countByStatusCityLocationAndTimestampBetween(
-                    Payment.PaymentStatus.Completed, city, location, startDateTime, endDateTime);
-                pendingPayments = paymentRepository.countByStatusCityLocationAndTimestampBetween(
-                    Payment.PaymentStatus.Pending, city, location, startDateTime, endDateTime);
-                failedPayments = paymentRepository.countByStatusCityLocationAndTimestampBetween(
-                    Payment.PaymentStatus.Failed, city, location, startDateTime, endDateTime);
-            } else if (city != null && !city.isEmpty()) {
-                // Calculate for specific city
-                totalRevenue = paymentsInRange.stream()
-                    .filter(p -> p.getStatus() == Payment.PaymentStatus.Completed)
-                    .mapToDouble(p -> p.getAmount().doubleValue())
-                    .sum();
-                completedPayments = paymentRepository.countByStatusCityAndTimestampBetween(
-                    Payment.PaymentStatus.Completed, city, startDateTime, endDateTime);
-                pendingPayments = paymentRepository.countByStatusCityAndTimestampBetween(
-                    Payment.PaymentStatus.Pending, city, startDateTime, endDateTime);
-                failedPayments = paymentRepository.countByStatusCityAndTimestampBetween(
-                    Payment.PaymentStatus.Failed, city, startDateTime, endDateTime);
-            } else {
-                // Calculate for all locations
-                totalRevenue = paymentRepository.sumAmountByCompletedAndTimestampBetween(startDateTime, endDateTime);
-                if (totalRevenue == null) totalRevenue = 0.0;
-                completedPayments = paymentRepository.countByStatusAndTimestampBetween(
-                    Payment.PaymentStatus.Completed, startDateTime, endDateTime);
-                pendingPayments = paymentRepository.countByStatusAndTimestampBetween(
-                    Payment.PaymentStatus.Pending, startDateTime, endDateTime);
-                failedPayments = paymentRepository.countByStatusAndTimestampBetween(
-                    Payment.PaymentStatus.Failed, startDateTime, endDateTime);
-            }
-            
-            long totalPayments = paymentsInRange.size();
-            double avgPayment = totalPayments > 0 ? totalRevenue / totalPayments : 0;
+            // Answer from the daily rollups, refreshing any stale day in the range first
+            LocalDate fromDate = startDateTime.toLocalDate();
+            LocalDate toDate = endDateTime.toLocalDate();
+            reportRollupService.ensureRolledUp(fromDate, toDate);
+            // The figures are read in one read-only transaction, on the replica when there is one
+            replicaRead.executeWithoutResult(transaction -> {
+                String cityFilter = city != null && !city.isEmpty() ? city : null;
+                String locationFilter = cityFilter != null && location != null && !location.isEmpty() ? location : null;
+            
+                // Calculate financial metrics in LKR
+                Map<Payment.PaymentStatus, Long> paymentCounts = new EnumMap<>(Payment.PaymentStatus.class);
+                Map<Payment.PaymentStatus, Double> paymentAmounts = new EnumMap<>(Payment.PaymentStatus.class);
+                collectPaymentSummary(dailyPaymentRollupRepository.summarizeByStatus(fromDate, toDate, cityFilter, locationFilter),
+                    paymentCounts, paymentAmounts);
+            
+                double totalRevenue = paymentAmounts.getOrDefault(Payment.PaymentStatus.Completed, 0.0);
+                long completedPayments = paymentCounts.getOrDefault(Payment.PaymentStatus.Completed, 0L);
+                long pendingPayments = paymentCounts.getOrDefault(Payment.PaymentStatus.Pending, 0L);
+                long failedPayments = paymentCounts.getOrDefault(Payment.PaymentStatus.Failed, 0L);
+            
+                long totalPayments = paymentCounts.values().stream().mapToLong(Long::longValue).sum();
+                double avgPayment = totalPayments > 0 ? totalRevenue / totalPayments : 0;
+            
+                // Calculate pending amount
+                double pendingAmount = paymentAmounts.getOrDefault(Payment.PaymentStatus.Pending, 0.0);
+            
+                long totalBookings = 0;
+                for (Object[] row : dailyBookingRollupRepository.countByPaymentStatus(fromDate, toDate, cityFilter, locationFilter)) {
+                    totalBookings += toLong(row[1]);
+                }
             
-            // Calculate pending amount
-            double pendingAmount = paymentsInRange.stream()
-                .filter(payment -> payment.getStatus() == Payment.PaymentStatus.Pending)
-                .mapToDouble(payment -> payment.getAmount().doubleValue())
-                .sum();
+                // Get location-wise revenue breakdown
+                List<Object[]> locationRevenue = dailyPaymentRollupRepository.getRevenueByCityAndLocation(fromDate, toDate);
+                List<Map<String, Object>> locationBreakdown = new ArrayList<>();
+                for (Object[] row : locationRevenue) {
+                    Map<String, Object> locationData = new HashMap<>();
+                    locationData.put("city", row[0].toString());
+                    locationData.put("location", row[1].toString());
+                    locationData.put("revenue", ((BigDecimal) row[2]).doubleValue());
+                    locationBreakdown.add(locationData);
+                }
             
-            // Get location-wise revenue breakdown
-            List<Object[]> locationRevenue = paymentRepository.getRevenueByCityAndLocation(startDateTime, endDateTime);
-            List<Map<String, Object>> locationBreakdown = new ArrayList<>();
-            for (Object[] row : locationRevenue) {
-                Map<String, Object> locationData = new HashMap<>();
-                locationData.put("city", row[0].toString());
-                locationData.put("location", row[1].toString());
-                locationData.put("revenue", ((BigDecimal) row[2]).doubleValue());
-                locationBreakdown.add(locationData);
-            }
+                // Get payment method distribution
+                List<Object[]> methodDistribution = dailyPaymentRollupRepository.getPaymentMethodDistribution(fromDate, toDate);
+                Map<String, Long> paymentMethods = new HashMap<>();
+                for (Object[] row : methodDistribution) {
+                    paymentMethods.put(row[0].toString(), toLong(row[1]));
+                }
             
-            // Get payment method distribution
-            List<Object[]> methodDistribution = paymentRepository.getPaymentMethodDistribution(startDateTime, endDateTime);
-            Map<String, Long> paymentMethods = new HashMap<>();
-            for (Object[] row : methodDistribution) {
-                paymentMethods.put(row[0].toString(), (Long) row[1]);
-            }
+                // Get revenue trend
+                List<Object[]> revenueTrend = dailyPaymentRollupRepository.getRevenueTrendByDay(fromDate, toDate);
+                List<Map<String, Object>> revenueData = new ArrayList<>();
+                for (Object[] row : revenueTrend) {
+                    Map<String, Object> dayData = new HashMap<>();
+                    dayData.put("date", row[0].toString());
+                    dayData.put("revenue", ((BigDecimal) row[1]).doubleValue());
+                    revenueData.add(dayData);
+                }
             
-            // Get revenue trend
-            List<Object[]> revenueTrend = paymentRepository.getRevenueTrendByDay(startDateTime, endDateTime);
-            List<Map<String, Object>> revenueData = new ArrayList<>();
-            for (Object[] row : revenueTrend) {
-                Map<String, Object> dayData = new HashMap<>();
-                dayData.put("date", row[0].toString());
-                dayData.put("revenue", ((BigDecimal) row[1]).doubleValue());
-                revenueData.add(dayData);
-            }
+                // Get recent transactions (limited to 10)
+                List<Payment> recentPayments = paymentRepository.findRecentByTimestampBetween(
+                    startDateTime, endDateTime, cityFilter, locationFilter, PageRequest.of(0, 10));
             
-            // Get recent transactions (limited to 10)
-            List<Payment> recentPayments = paymentsInRange.stream()
-                .sorted((p1, p2) -> p2.getTimestamp().compareTo(p1.getTimestamp()))
-                .limit(10)
-                .collect(Collectors.toList());
-            
-            List<Map<String, Object>> transactions = new ArrayList<>();
-            for (Payment payment : recentPayments) {
-                Map<String, Object> transaction = new HashMap<>();
-                transaction.put("id", "TXN" + String.format("%03d", payment.getId()));
-                transaction.put("user", payment.getBooking().getUser().getName());
-                transaction.put("amount", String.format("LKR %.2f", payment.getAmount()));
-                transaction.put("method", payment.getMethod().toString());
-                transaction.put("status", payment.getStatus().toString());
-                transaction.put("date", payment.getTimestamp().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")));
-                transaction.put("location", payment.getBooking().getParkingSlot().getParkingLot().getCity() + 
-                    " - " + payment.getBooking().getParkingSlot().getParkingLot().getLocation());
-                transactions.add(transaction);
-            }
+                List<Map<String, Object>> transactions = new ArrayList<>();
+                for (Payment payment : recentPayments) {
+                    transactions.add(transaction(payment.getId(), payment.getBooking().getUser().getName(), payment.getAmount(),
+                        payment.getMethod(), payment.getStatus(), payment.getTimestamp(),
+                        payment.getBooking().getParkingSlot().getParkingLot().getCity(),
+                        payment.getBooking().getParkingSlot().getParkingLot().getLocation()));
+                }
+                if (recentPayments.size() < 10 && recordArchiveService.coversPaymentsFrom(startDateTime)) {
+                    // The rest of the range was archived; its newest payments fill the list
+                    for (Object[] row : archivedPaymentRepository.findRecentRowsByTimestampBetween(
+                            startDateTime, endDateTime, cityFilter, locationFilter, PageRequest.of(0, 10 - recentPayments.size()))) {
+                        transactions.add(transaction((Long) row[0], (String) row[1], (BigDecimal) row[2], row[3], row[4],
+                            (LocalDateTime) row[7], (String) row[5], (String) row[6]));
+                    }
+                }
             
-            // Create report entry in database
+                // Compile report data
+                reportData.put("totalRevenue", totalRevenue);
+                reportData.put("totalPayments", totalPayments);
+                reportData.put("avgPayment", Math.round(avgPayment * 100.0) / 100.0);
+                reportData.put("pendingAmount", Math.round(pendingAmount * 100.0) / 100.0);
+                reportData.put("completedPayments", completedPayments);
+                reportData.put("pendingPayments", pendingPayments);
+                reportData.put("failedPayments", failedPayments);
+                reportData.put("paymentMethods", paymentMethods);
+                reportData.put("revenueData", revenueData);
+                reportData.put("recentTransactions", transactions);
+                reportData.put("totalBookings", totalBookings);
+                reportData.put("locationBreakdown", locationBreakdown);
+                reportData.put("currency", "LKR");
+                reportData.put("filterApplied", city != null || location != null);
+                reportData.put("filterCity", city);
+                reportData.put("filterLocation", location);
+            });
+
+            // Audit entry, written to the primary once the read transaction has ended
             Report report = new Report();
             report.setType(Report.ReportType.Financial);
             report.setGeneratedDate(LocalDateTime.now());
             report.setAdmin(admin);
             Report savedReport = reportRepository.save(report);
-            
-            // Compile report data
             reportData.put("reportId", savedReport.getId());
-            reportData.put("totalRevenue", totalRevenue);
-            reportData.put("totalPayments", totalPayments);
-            reportData.put("avgPayment", Math.round(avgPayment * 100.0) / 100.0);
-            reportData.put("pendingAmount", Math.round(pendingAmount * 100.0) / 100.0);
-            reportData.put("completedPayments", completedPayments);
-            reportData.put("pendingPayments", pendingPayments);
-            reportData.put("failedPayments", failedPayments);
-            reportData.put("paymentMethods", paymentMethods);
-            reportData.put("revenueData", revenueData);
-            reportData.put("recentTransactions", transactions);
-            reportData.put("totalBookings", bookingsInRange.size());
-            reportData.put("locationBreakdown", locationBreakdown);
-            reportData.put("currency", "LKR");
-            reportData.put("filterApplied", city != null || location != null);
-            reportData.put("filterCity", city);
-            reportData.put("filterLocation", location);
-            
+
             return ResponseEntity.ok(reportData);
         } catch (Exception e) {
             reportData.put("error", "Failed to generate financial report: " + e.getMessage());
@@ -321,98 +335,96 @@ public class ReportController {
             LocalDateTime startDateTime = LocalDate.parse(startDate).atStartOfDay();
             LocalDateTime endDateTime = LocalDate.parse(endDate).atTime(23, 59, 59);
             
-            // Get filtered bookings based on location
-            List<Booking> bookingsInRange;
-            if (city != null && !city.isEmpty() && location != null && !location.isEmpty()) {
-                bookingsInRange = bookingRepository.findByCityLocationAndStartTimeBetween(city, location, startDateTime, endDateTime);
-            } else if (city != null && !city.isEmpty()) {
-                bookingsInRange = bookingRepository.findByCityAndStartTimeBetween(city, startDateTime, endDateTime);
-            } else {
-                bookingsInRange = bookingRepository.findByStartTimeBetween(startDateTime, endDateTime);
-            }
-            
-            // Calculate current slot statistics
-            long totalSlots = parkingSlotRepository.count();
-            long availableSlots = parkingSlotRepository.countByStatus(ParkingSlot.SlotStatus.AVAILABLE);
-            long bookedSlots = parkingSlotRepository.countByStatus(ParkingSlot.SlotStatus.BOOKED);
-            long occupiedSlots = parkingSlotRepository.countByStatus(ParkingSlot.SlotStatus.OCCUPIED);
-            
-            double avgOccupancy = totalSlots > 0 ? (double) (bookedSlots + occupiedSlots) / totalSlots * 100 : 0;
-            long totalBookings = bookingsInRange.size();
-            double utilizationRate = totalSlots > 0 ? (double) totalBookings / totalSlots * 100 : 0;
+            // Get booking counts per start hour from the daily rollups, filtered by location
+            LocalDate fromDate = startDateTime.toLocalDate();
+            LocalDate toDate = endDateTime.toLocalDate();
+            reportRollupService.ensureRolledUp(fromDate, toDate);
+            // The figures are read in one read-only transaction, on the replica when there is one
+            replicaRead.executeWithoutResult(transaction -> {
+                String cityFilter = city != null && !city.isEmpty() ? city : null;
+                String locationFilter = cityFilter != null && location != null && !location.isEmpty() ? location : null;
+                Map<Integer, Long> hourlyBookings = new HashMap<>();
+                for (Object[] row : dailyBookingRollupRepository.countByHour(fromDate, toDate, cityFilter, locationFilter)) {
+                    hourlyBookings.put(((Number) row[0]).intValue(), toLong(row[1]));
+                }
             
-            // Get slot status distribution by city
-            List<Object[]> slotDistribution = parkingSlotRepository.getSlotStatusDistributionByCity();
-            Map<String, Map<String, Long>> citySlotStatus = new HashMap<>();
-            for (Object[] row : slotDistribution) {
-                String cityName = (String) row[0];
-                String status = row[1].toString();
-                Long count = (Long) row[2];
+                // Calculate current slot statistics
+                long totalSlots = parkingSlotRepository.count();
+                long availableSlots = parkingSlotRepository.countByStatus(ParkingSlot.SlotStatus.AVAILABLE);
+                long bookedSlots = parkingSlotRepository.countByStatus(ParkingSlot.SlotStatus.BOOKED);
+                long occupiedSlots = parkingSlotRepository.countByStatus(ParkingSlot.SlotStatus.OCCUPIED);
+            
+                double avgOccupancy = totalSlots > 0 ? (double) (bookedSlots + occupiedSlots) / totalSlots * 100 : 0;
+                long totalBookings = hourlyBookings.values().stream().mapToLong(Long::longValue).sum();
+                double utilizationRate = totalSlots > 0 ? (double) totalBookings / totalSlots * 100 : 0;
+            
+                // Get slot status distribution by city
+                List<Object[]> slotDistribution = parkingSlotRepository.getSlotStatusDistributionByCity();
+                Map<String, Map<String, Long>> citySlotStatus = new HashMap<>();
+                for (Object[] row : slotDistribution) {
+                    String cityName = (String) row[0];
+                    String status = row[1].toString();
+                    Long count = (Long) row[2];
                 
-                citySlotStatus.computeIfAbsent(cityName, k -> new HashMap<>()).put(status, count);
-            }
+                    citySlotStatus.computeIfAbsent(cityName, k -> new HashMap<>()).put(status, count);
+                }
             
-            // Get detailed location breakdown
-            List<Object[]> locationDetails = parkingSlotRepository.getDetailedSlotStatusByLocation();
-            List<Map<String, Object>> locationBreakdown = new ArrayList<>();
-            for (Object[] row : locationDetails) {
-                Map<String, Object> locationData = new HashMap<>();
-                locationData.put("city", row[0]);
-                locationData.put("location", row[1]);
-                locationData.put("totalSlots", row[2]);
-                locationData.put("available", row[3]);
-                locationData.put("booked", row[4]);
-                locationData.put("occupied", row[5]);
+                // Get detailed location breakdown
+                List<Object[]> locationDetails = parkingSlotRepository.getDetailedSlotStatusByLocation();
+                List<Map<String, Object>> locationBreakdown = new ArrayList<>();
+                for (Object[] row : locationDetails) {
+                    Map<String, Object> locationData = new HashMap<>();
+                    locationData.put("city", row[0]);
+                    locationData.put("location", row[1]);
+                    locationData.put("totalSlots", row[2]);
+                    locationData.put("available", row[3]);
+                    locationData.put("booked", row[4]);
+                    locationData.put("occupied", row[5]);
                 
-                long total = ((Number) row[2]).longValue();
-                long occupied = ((Number) row[5]).longValue();
-                long booked = ((Number) row[4]).longValue();
-                double occupancyRate = total > 0 ? (double) (occupied + booked) / total * 100 : 0;
-                locationData.put("occupancyRate", Math.round(occupancyRate * 100.0) / 100.0);
+                    long total = ((Number) row[2]).longValue();
+                    long occupied = ((Number) row[5]).longValue();
+                    long booked = ((Number) row[4]).longValue();
+                    double occupancyRate = total > 0 ? (double) (occupied + booked) / total * 100 : 0;
+                    locationData.put("occupancyRate", Math.round(occupancyRate * 100.0) / 100.0);
                 
-                locationBreakdown.add(locationData);
-            }
-            
-            // Calculate peak hours (simplified)
-            Map<Integer, Long> hourlyBookings = new HashMap<>();
-            for (Booking booking : bookingsInRange) {
-                int hour = booking.getStartTime().getHour();
-                hourlyBookings.put(hour, hourlyBookings.getOrDefault(hour, 0L) + 1);
-            }
+                    locationBreakdown.add(locationData);
+                }
             
-            String peakHours = "N/A";
-            if (!hourlyBookings.isEmpty()) {
-                int peakHour = hourlyBookings.entrySet().stream()
-                    .max(Map.Entry.comparingByValue())
-                    .map(Map.Entry::getKey)
-                    .orElse(14); // Default to 2 PM
-                peakHours = String.format("%d:00-%d:00", peakHour, peakHour + 2);
-            }
+                // Calculate peak hours (simplified)
+                String peakHours = "N/A";
+                if (!hourlyBookings.isEmpty()) {
+                    int peakHour = hourlyBookings.entrySet().stream()
+                        .max(Map.Entry.comparingByValue())
+                        .map(Map.Entry::getKey)
+                        .orElse(14); // Default to 2 PM
+                    peakHours = String.format("%d:00-%d:00", peakHour, peakHour + 2);
+                }
             
-            // Create report entry in database
+                // Compile report data
+                reportData.put("totalSlots", totalSlots);
+                reportData.put("availableSlots", availableSlots);
+                reportData.put("bookedSlots", bookedSlots);
+                reportData.put("occupiedSlots", occupiedSlots);
+                reportData.put("avgOccupancy", Math.round(avgOccupancy * 100.0) / 100.0);
+                reportData.put("totalBookings", totalBookings);
+                reportData.put("utilizationRate", Math.round(utilizationRate * 100.0) / 100.0);
+                reportData.put("peakHours", peakHours);
+                reportData.put("citySlotStatus", citySlotStatus);
+                reportData.put("locationBreakdown", locationBreakdown);
+                reportData.put("hourlyBookings", hourlyBookings);
+                reportData.put("filterApplied", city != null || location != null);
+                reportData.put("filterCity", city);
+                reportData.put("filterLocation", location);
+            });
+
+            // Audit entry, written to the primary once the read transaction has ended
             Report report = new Report();
             report.setType(Report.ReportType.Occupancy);
             report.setGeneratedDate(LocalDateTime.now());
             report.setAdmin(admin);
             Report savedReport = reportRepository.save(report);
-            
-            // Compile report data
             reportData.put("reportId", savedReport.getId());
-            reportData.put("totalSlots", totalSlots);
-            reportData.put("availableSlots", availableSlots);
-            reportData.put("bookedSlots", bookedSlots);
-            reportData.put("occupiedSlots", occupiedSlots);
-            reportData.put("avgOccupancy", Math.round(avgOccupancy * 100.0) / 100.0);
-            reportData.put("totalBookings", totalBookings);
-            reportData.put("utilizationRate", Math.round(utilizationRate * 100.0) / 100.0);
-            reportData.put("peakHours", peakHours);
-            reportData.put("citySlotStatus", citySlotStatus);
-            reportData.put("locationBreakdown", locationBreakdown);
-            reportData.put("hourlyBookings", hourlyBookings);
-            reportData.put("filterApplied", city != null || location != null);
-            reportData.put("filterCity", city);
-            reportData.put("filterLocation", location);
-            
+
             return ResponseEntity.ok(reportData);
         } catch (Exception e) {
             reportData.put("error", "Failed to generate occupancy report: " + e.getMessage());
@@ -424,6 +436,7 @@ public class ReportController {
      * Get initial occupancy summary and filter options
      */
     @GetMapping("/api/reports/occupancy/initial")
+    @Transactional(readOnly = true, label = ReadReplicaRoutingDataSource.REPLICA_LABEL)
     @ResponseBody
     public ResponseEntity<Map<String, Object>> getInitialOccupancySummary() {
         Map<String, Object> response = new HashMap<>();
@@ -436,7 +449,7 @@ public class ReportController {
             long occupiedSlots = parkingSlotRepository.countByStatus(ParkingSlot.SlotStatus.OCCUPIED);
             
             double avgOccupancy = totalSlots > 0 ? (double) (bookedSlots + occupiedSlots) / totalSlots * 100 : 0;
-            long totalBookings = bookingRepository.count();
+            long totalBookings = bookingRepository.count() + recordArchiveService.getTotals().getTotalBookings();
             double utilizationRate = totalSlots > 0 ? (double) totalBookings / totalSlots * 100 : 0;
             
             // Get detailed location breakdown
@@ -461,12 +474,8 @@ public class ReportController {
             }
             
             // Get filter options
-            List<String> cities = parkingLotRepository.findDistinctCities();
-            Map<String, List<String>> cityLocations = new HashMap<>();
-            for (String city : cities) {
-                List<String> locations = parkingLotRepository.findDistinctLocationsByCity(city);
-                cityLocations.put(city, locations);
-            }
+            List<String> cities = parkingLotCatalog.getCities();
+            Map<String, List<String>> cityLocations = parkingLotCatalog.getCityLocations();
             
             response.put("totalSlots", totalSlots);
             response.put("availableSlots", availableSlots);
@@ -506,100 +515,113 @@ public class ReportController {
             LocalDateTime startDateTime = LocalDate.parse(startDate).atStartOfDay();
             LocalDateTime endDateTime = LocalDate.parse(endDate).atTime(23, 59, 59);
             
-            // Get comprehensive system metrics
-            long totalBookings = bookingRepository.findByStartTimeBetween(startDateTime, endDateTime).size();
-            long totalPayments = paymentRepository.findByTimestampBetween(startDateTime, endDateTime).size();
-            long totalSlots = parkingSlotRepository.count();
-            long totalLots = parkingLotRepository.count();
-            long totalUsers = bookingRepository.findByStartTimeBetween(startDateTime, endDateTime)
-                .stream()
-                .map(booking -> booking.getUser().getId())
-                .collect(Collectors.toSet())
-                .size();
-            
-            // Calculate success rates
-            long successfulBookings = bookingRepository.countByPaymentStatusAndStartTimeBetween(
-                Booking.PaymentStatus.Completed, startDateTime, endDateTime);
-            long successfulPayments = paymentRepository.countByStatusAndTimestampBetween(
-                Payment.PaymentStatus.Completed, startDateTime, endDateTime);
-            
-            double bookingSuccessRate = totalBookings > 0 ? (double) successfulBookings / totalBookings * 100 : 0;
-            double paymentSuccessRate = totalPayments > 0 ? (double) successfulPayments / totalPayments * 100 : 0;
-            
-            // Calculate financial performance
-            Double totalRevenue = paymentRepository.sumAmountByCompletedAndTimestampBetween(startDateTime, endDateTime);
-            if (totalRevenue == null) totalRevenue = 0.0;
-            
-            double avgRevenuePerBooking = successfulBookings > 0 ? totalRevenue / successfulBookings : 0;
-            
-            // Calculate occupancy efficiency
-            long currentOccupied = parkingSlotRepository.countByStatus(ParkingSlot.SlotStatus.OCCUPIED);
-            long currentBooked = parkingSlotRepository.countByStatus(ParkingSlot.SlotStatus.BOOKED);
-            double currentOccupancyRate = totalSlots > 0 ? (double) (currentOccupied + currentBooked) / totalSlots * 100 : 0;
-            
-            // System health metrics (simulated but realistic)
-            double systemUptime = 99.8;
-            double avgResponseTime = 125.0;
-            double errorRate = totalPayments > 0 ? (double) (totalPayments - successfulPayments) / totalPayments * 100 : 0;
-            
-            // Get booking trends by day of week
-            Map<String, Long> dailyBookingTrends = new HashMap<>();
-            String[] daysOfWeek = {"Monday", "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday", "Sunday"};
-            
-            for (int i = 1; i <= 7; i++) {
-                final int dayOfWeek = i;
-                long bookingsForDay = bookingRepository.findByStartTimeBetween(startDateTime, endDateTime)
-                    .stream()
-                    .filter(booking -> booking.getStartTime().getDayOfWeek().getValue() == dayOfWeek)
-                    .count();
-                dailyBookingTrends.put(daysOfWeek[i-1], bookingsForDay);
-            }
+            // Get comprehensive system metrics from the daily rollups
+            LocalDate fromDate = startDateTime.toLocalDate();
+            LocalDate toDate = endDateTime.toLocalDate();
+            reportRollupService.ensureRolledUp(fromDate, toDate);
+            // The figures are read in one read-only transaction, on the replica when there is one
+            replicaRead.executeWithoutResult(transaction -> {
+                Map<Booking.PaymentStatus, Long> bookingCounts = new EnumMap<>(Booking.PaymentStatus.class);
+                for (Object[] row : dailyBookingRollupRepository.countByPaymentStatus(fromDate, toDate, null, null)) {
+                    bookingCounts.put((Booking.PaymentStatus) row[0], toLong(row[1]));
+                }
+                Map<Payment.PaymentStatus, Long> paymentCounts = new EnumMap<>(Payment.PaymentStatus.class);
+                Map<Payment.PaymentStatus, Double> paymentAmounts = new EnumMap<>(Payment.PaymentStatus.class);
+                collectPaymentSummary(dailyPaymentRollupRepository.summarizeByStatus(fromDate, toDate, null, null),
+                    paymentCounts, paymentAmounts);
+
+                long totalBookings = bookingCounts.values().stream().mapToLong(Long::longValue).sum();
+                long totalPayments = paymentCounts.values().stream().mapToLong(Long::longValue).sum();
+                long totalSlots = parkingSlotRepository.count();
+                long totalLots = parkingLotCatalog.getLotCount();
+                // Distinct users cannot be summed across days, so this one count still reads the booking table
+                long totalUsers = recordArchiveService.coversBookingsFrom(startDateTime)
+                    ? archivedBookingRepository.countDistinctUsersIncludingHotByStartTimeBetween(startDateTime, endDateTime)
+                    : bookingRepository.countDistinctUsersByStartTimeBetween(startDateTime, endDateTime);
+            
+                // Calculate success rates
+                long successfulBookings = bookingCounts.getOrDefault(Booking.PaymentStatus.Completed, 0L);
+                long successfulPayments = paymentCounts.getOrDefault(Payment.PaymentStatus.Completed, 0L);
+            
+                double bookingSuccessRate = totalBookings > 0 ? (double) successfulBookings / totalBookings * 100 : 0;
+                double paymentSuccessRate = totalPayments > 0 ? (double) successfulPayments / totalPayments * 100 : 0;
+            
+                // Calculate financial performance
+                double totalRevenue = paymentAmounts.getOrDefault(Payment.PaymentStatus.Completed, 0.0);
+            
+                double avgRevenuePerBooking = successfulBookings > 0 ? totalRevenue / successfulBookings : 0;
+            
+                // Calculate occupancy efficiency
+                long currentOccupied = parkingSlotRepository.countByStatus(ParkingSlot.SlotStatus.OCCUPIED);
+                long currentBooked = parkingSlotRepository.countByStatus(ParkingSlot.SlotStatus.BOOKED);
+                double currentOccupancyRate = totalSlots > 0 ? (double) (currentOccupied + currentBooked) / totalSlots * 100 : 0;
+            
+                // System health metrics (simulated but realistic)
+                double systemUptime = 99.8;
+                double avgResponseTime = 125.0;
+                double errorRate = totalPayments > 0 ? (double) (totalPayments - successfulPayments) / totalPayments * 100 : 0;
+            
+                // Get booking trends by day of week, folded from per-day counts (at most 366 rows a year)
+                long[] bookingsByDayOfWeek = new long[7];
+                for (Object[] row : dailyBookingRollupRepository.countByDay(fromDate, toDate)) {
+                    bookingsByDayOfWeek[((LocalDate) row[0]).getDayOfWeek().getValue() - 1] += toLong(row[1]);
+                }
+                Map<String, Long> dailyBookingTrends = new LinkedHashMap<>();
+                String[] daysOfWeek = {"Monday", "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday", "Sunday"};
+                for (int i = 0; i < 7; i++) {
+                    dailyBookingTrends.put(daysOfWeek[i], bookingsByDayOfWeek[i]);
+                }
             
-            // Get city performance metrics
-            List<Object[]> cityPerformance = paymentRepository.getRevenueByCity(startDateTime, endDateTime);
-            List<Map<String, Object>> cityMetrics = new ArrayList<>();
-            for (Object[] row : cityPerformance) {
-                Map<String, Object> cityData = new HashMap<>();
-                cityData.put("city", row[0]);
-                cityData.put("revenue", ((BigDecimal) row[1]).doubleValue());
+                // Get city performance metrics
+                Map<String, Long> bookingsByCity = new HashMap<>();
+                for (Object[] row : dailyBookingRollupRepository.countByCity(fromDate, toDate)) {
+                    bookingsByCity.put((String) row[0], toLong(row[1]));
+                }
+                List<Object[]> cityPerformance = dailyPaymentRollupRepository.getRevenueByCity(fromDate, toDate);
+                List<Map<String, Object>> cityMetrics = new ArrayList<>();
+                for (Object[] row : cityPerformance) {
+                    Map<String, Object> cityData = new HashMap<>();
+                    cityData.put("city", row[0]);
+                    cityData.put("revenue", ((BigDecimal) row[1]).doubleValue());
                 
-                String cityName = (String) row[0];
-                long cityBookings = bookingRepository.findByCityAndStartTimeBetween(cityName, startDateTime, endDateTime).size();
-                cityData.put("bookings", cityBookings);
+                    String cityName = (String) row[0];
+                    long cityBookings = bookingsByCity.getOrDefault(cityName, 0L);
+                    cityData.put("bookings", cityBookings);
                 
-                double efficiency = (cityBookings > 0 && totalRevenue > 0) ? 
-                    (((BigDecimal) row[1]).doubleValue() / totalRevenue) * 100 : 0;
-                cityData.put("efficiency", Math.round(efficiency * 100.0) / 100.0);
+                    double efficiency = (cityBookings > 0 && totalRevenue > 0) ? 
+                        (((BigDecimal) row[1]).doubleValue() / totalRevenue) * 100 : 0;
+                    cityData.put("efficiency", Math.round(efficiency * 100.0) / 100.0);
                 
-                cityMetrics.add(cityData);
-            }
+                    cityMetrics.add(cityData);
+                }
             
-            // Create report entry in database
+                // Compile comprehensive report data
+                reportData.put("totalBookings", totalBookings);
+                reportData.put("totalPayments", totalPayments);
+                reportData.put("totalSlots", totalSlots);
+                reportData.put("totalLots", totalLots);
+                reportData.put("totalUsers", totalUsers);
+                reportData.put("bookingSuccessRate", Math.round(bookingSuccessRate * 100.0) / 100.0);
+                reportData.put("paymentSuccessRate", Math.round(paymentSuccessRate * 100.0) / 100.0);
+                reportData.put("totalRevenue", totalRevenue);
+                reportData.put("avgRevenuePerBooking", Math.round(avgRevenuePerBooking * 100.0) / 100.0);
+                reportData.put("currentOccupancyRate", Math.round(currentOccupancyRate * 100.0) / 100.0);
+                reportData.put("systemUptime", systemUptime);
+                reportData.put("avgResponseTime", avgResponseTime);
+                reportData.put("errorRate", Math.round(errorRate * 100.0) / 100.0);
+                reportData.put("dailyBookingTrends", dailyBookingTrends);
+                reportData.put("cityMetrics", cityMetrics);
+                reportData.put("currency", "LKR");
+            });
+
+            // Audit entry, written to the primary once the read transaction has ended
             Report report = new Report();
             report.setType(Report.ReportType.Performance);
             report.setGeneratedDate(LocalDateTime.now());
             report.setAdmin(admin);
             Report savedReport = reportRepository.save(report);
-            
-            // Compile comprehensive report data
             reportData.put("reportId", savedReport.getId());
-            reportData.put("totalBookings", totalBookings);
-            reportData.put("totalPayments", totalPayments);
-            reportData.put("totalSlots", totalSlots);
-            reportData.put("totalLots", totalLots);
-            reportData.put("totalUsers", totalUsers);
-            reportData.put("bookingSuccessRate", Math.round(bookingSuccessRate * 100.0) / 100.0);
-            reportData.put("paymentSuccessRate", Math.round(paymentSuccessRate * 100.0) / 100.0);
-            reportData.put("totalRevenue", totalRevenue);
-            reportData.put("avgRevenuePerBooking", Math.round(avgRevenuePerBooking * 100.0) / 100.0);
-            reportData.put("currentOccupancyRate", Math.round(currentOccupancyRate * 100.0) / 100.0);
-            reportData.put("systemUptime", systemUptime);
-            reportData.put("avgResponseTime", avgResponseTime);
-            reportData.put("errorRate", Math.round(errorRate * 100.0) / 100.0);
-            reportData.put("dailyBookingTrends", dailyBookingTrends);
-            reportData.put("cityMetrics", cityMetrics);
-            reportData.put("currency", "LKR");
-            
+
             return ResponseEntity.ok(reportData);
         } catch (Exception e) {
             reportData.put("error", "Failed to generate performance report: " + e.getMessage());
@@ -646,10 +668,41 @@ public class ReportController {
         }
     }
 
+    /**
+     * Rebuild the report rollups of a date range, e.g. after historical data was edited
+     */
+    @PostMapping("/api/reports/rollups/backfill")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> backfillRollups(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) String startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) String endDate,
+            HttpSession session) {
+
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            Admin admin = (Admin) session.getAttribute("loggedInAdmin");
+            if (admin == null) {
+                response.put("error", "Admin not logged in");
+                return ResponseEntity.status(401).body(response);
+            }
+
+            reportRollupService.backfill(LocalDate.parse(startDate), LocalDate.parse(endDate));
+
+            response.put("success", true);
+            response.put("message", "Report rollups rebuilt");
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("error", "Failed to rebuild report rollups: " + e.getMessage());
+            return ResponseEntity.internalServerError().body(response);
+        }
+    }
+
     /**
      * Get all reports
      */
     @GetMapping("/api/reports")
+    @Transactional(readOnly = true, label = ReadReplicaRoutingDataSource.REPLICA_LABEL)
     @ResponseBody
     public ResponseEntity<Map<String, Object>> getAllReports() {
         Map<String, Object> response = new HashMap<>();
@@ -667,7 +720,7 @@ public class ReportController {
      * Export financial report as CSV
      */
     @GetMapping("/api/reports/financial/export-csv")
-    public ResponseEntity<String> exportFinancialReportCSV(
+    public ResponseEntity<StreamingResponseBody> exportFinancialReportCSV(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) String startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) String endDate,
             @RequestParam(required = false) String city,
@@ -680,7 +733,7 @@ public class ReportController {
             Map<String, Object> reportData = reportResponse.getBody();
             
             if (reportData == null || reportData.containsKey("error")) {
-                return ResponseEntity.internalServerError().body("Error generating report data");
+                return ResponseEntity.internalServerError().body(textBody("Error generating report data"));
             }
             
             // Build CSV content
@@ -714,22 +767,29 @@ public class ReportController {
                 csv.append("\n");
             }
             
-            // Recent transactions
-            @SuppressWarnings("unchecked")
-            List<Map<String, Object>> transactions = (List<Map<String, Object>>) reportData.get("recentTransactions");
-            if (transactions != null && !transactions.isEmpty()) {
-                csv.append("Recent Transactions\n");
-                csv.append("Transaction ID,User,Amount,Method,Status,Location,Date\n");
-                for (Map<String, Object> txn : transactions) {
-                    csv.append(txn.get("id")).append(",")
-                       .append(txn.get("user")).append(",")
-                       .append(txn.get("amount")).append(",")
-                       .append(txn.get("method")).append(",")
-                       .append(txn.get("status")).append(",")
-                       .append(txn.getOrDefault("location", "N/A")).append(",")
-                       .append(txn.get("date")).append("\n");
-                }
+            // Every transaction in the range, streamed page by page after the summary
+            csv.append("Transactions\n");
+            csv.append("Transaction ID,User,Amount,Method,Status,Location,Date\n");
+            LocalDateTime startDateTime = LocalDate.parse(startDate).atStartOfDay();
+            LocalDateTime endDateTime = LocalDate.parse(endDate).atTime(23, 59, 59);
+            String cityFilter = city != null && !city.isEmpty() ? city : null;
+            String locationFilter = cityFilter != null && location != null && !location.isEmpty() ? location : null;
+            List<LongFunction<List<Object[]>>> sources = new ArrayList<>();
+            if (recordArchiveService.coversPaymentsFrom(startDateTime)) {
+                sources.add(afterId -> archivedPaymentRepository.findExportRowsAfterId(startDateTime, endDateTime, cityFilter,
+                    locationFilter, afterId, PageRequest.of(0, EXPORT_PAGE_SIZE)));
             }
+            sources.add(afterId -> paymentRepository.findExportRowsAfterId(startDateTime, endDateTime, cityFilter, locationFilter,
+                afterId, PageRequest.of(0, EXPORT_PAGE_SIZE)));
+            StreamingResponseBody body = streamCsv(csv.toString(), sources,
+                row -> String.join(",",
+                    "TXN" + String.format("%03d", (Long) row[0]),
+                    csvField(row[1]),
+                    String.format("LKR %.2f", (BigDecimal) row[2]),
+                    csvField(row[3]),
+                    csvField(row[4]),
+                    csvField(row[5] + " - " + row[6]),
+                    ((LocalDateTime) row[7]).format(EXPORT_DATE_FORMAT)));
             
             // Set headers for file download
             HttpHeaders headers = new HttpHeaders();
@@ -737,9 +797,9 @@ public class ReportController {
             headers.setContentDispositionFormData("attachment", 
                 String.format("financial-report-%s-to-%s.csv", startDate, endDate));
             
-            return ResponseEntity.ok().headers(headers).body(csv.toString());
+            return ResponseEntity.ok().headers(headers).body(body);
         } catch (Exception e) {
-            return ResponseEntity.internalServerError().body("Error exporting CSV: " + e.getMessage());
+            return ResponseEntity.internalServerError().body(textBody("Error exporting CSV: " + e.getMessage()));
         }
     }
 
@@ -747,7 +807,7 @@ public class ReportController {
      * Export occupancy report as CSV
      */
     @GetMapping("/api/reports/occupancy/export-csv")
-    public ResponseEntity<String> exportOccupancyReportCSV(
+    public ResponseEntity<StreamingResponseBody> exportOccupancyReportCSV(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) String startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) String endDate,
             @RequestParam(required = false) String city,
@@ -760,7 +820,7 @@ public class ReportController {
             Map<String, Object> reportData = reportResponse.getBody();
             
             if (reportData == null || reportData.containsKey("error")) {
-                return ResponseEntity.internalServerError().body("Error generating report data");
+                return ResponseEntity.internalServerError().body(textBody("Error generating report data"));
             }
             
             // Build CSV content
@@ -793,7 +853,34 @@ public class ReportController {
                        .append(locationData.get("occupied")).append(",")
                        .append(locationData.get("occupancyRate")).append("\n");
                 }
+                csv.append("\n");
+            }
+            
+            // Every booking in the range, streamed page by page after the summary
+            csv.append("Bookings\n");
+            csv.append("Booking ID,User,Vehicle,City,Location,Slot ID,Start Time,End Time,Payment Status\n");
+            LocalDateTime startDateTime = LocalDate.parse(startDate).atStartOfDay();
+            LocalDateTime endDateTime = LocalDate.parse(endDate).atTime(23, 59, 59);
+            String cityFilter = city != null && !city.isEmpty() ? city : null;
+            String locationFilter = cityFilter != null && location != null && !location.isEmpty() ? location : null;
+            List<LongFunction<List<Object[]>>> sources = new ArrayList<>();
+            if (recordArchiveService.coversBookingsFrom(startDateTime)) {
+                sources.add(afterId -> archivedBookingRepository.findExportRowsAfterId(startDateTime, endDateTime, cityFilter,
+                    locationFilter, afterId, PageRequest.of(0, EXPORT_PAGE_SIZE)));
             }
+            sources.add(afterId -> bookingRepository.findExportRowsAfterId(startDateTime, endDateTime, cityFilter, locationFilter,
+                afterId, PageRequest.of(0, EXPORT_PAGE_SIZE)));
+            StreamingResponseBody body = streamCsv(csv.toString(), sources,
+                row -> String.join(",",
+                    String.valueOf(row[0]),
+                    csvField(row[1]),
+                    csvField(row[2]),
+                    csvField(row[3]),
+                    csvField(row[4]),
+                    String.valueOf(row[5]),
+                    ((LocalDateTime) row[6]).format(EXPORT_TIME_FORMAT),
+                    row[7] != null ? ((LocalDateTime) row[7]).format(EXPORT_TIME_FORMAT) : "",
+                    csvField(row[8])));
             
             // Set headers for file download
             HttpHeaders headers = new HttpHeaders();
@@ -801,9 +888,9 @@ public class ReportController {
             headers.setContentDispositionFormData("attachment", 
                 String.format("occupancy-report-%s-to-%s.csv", startDate, endDate));
             
-            return ResponseEntity.ok().headers(headers).body(csv.toString());
+            return ResponseEntity.ok().headers(headers).body(body);
         } catch (Exception e) {
-            return ResponseEntity.internalServerError().body("Error exporting CSV: " + e.getMessage());
+            return ResponseEntity.internalServerError().body(textBody("Error exporting CSV: " + e.getMessage()));
         }
     }
 
@@ -847,54 +934,50 @@ public class ReportController {
      * Get initial financial summary and filter options
      */
     @GetMapping("/api/reports/financial/initial")
+    @Transactional(readOnly = true, label = ReadReplicaRoutingDataSource.REPLICA_LABEL)
     @ResponseBody
     public ResponseEntity<Map<String, Object>> getInitialFinancialSummary() {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            // Get all-time financial summary
-            Double totalRevenue = paymentRepository.getTotalCompletedRevenue();
-            if (totalRevenue == null) totalRevenue = 0.0;
-            
-            long totalPayments = paymentRepository.count();
+            // Get all-time payment statistics from a single grouped query
+            Map<Payment.PaymentStatus, Long> paymentCounts = new EnumMap<>(Payment.PaymentStatus.class);
+            Map<Payment.PaymentStatus, Double> paymentAmounts = new EnumMap<>(Payment.PaymentStatus.class);
+            collectPaymentSummary(paymentRepository.summarizeByStatus(), paymentCounts, paymentAmounts);
+            collectPaymentSummary(recordArchiveService.getTotals().getPaymentSummary(), paymentCounts, paymentAmounts);
+
+            long completedPayments = paymentCounts.getOrDefault(Payment.PaymentStatus.Completed, 0L);
+            long pendingPayments = paymentCounts.getOrDefault(Payment.PaymentStatus.Pending, 0L);
+            long failedPayments = paymentCounts.getOrDefault(Payment.PaymentStatus.Failed, 0L);
+            long totalPayments = paymentCounts.values().stream().mapToLong(Long::longValue).sum();
+
+            double totalRevenue = paymentAmounts.getOrDefault(Payment.PaymentStatus.Completed, 0.0);
             double avgPayment = totalPayments > 0 ? totalRevenue / totalPayments : 0;
-            
-            // Get overall payment statistics
-            long completedPayments = paymentRepository.findAll().stream()
-                .filter(payment -> payment.getStatus() == Payment.PaymentStatus.Completed)
-                .count();
-            long pendingPayments = paymentRepository.findAll().stream()
-                .filter(payment -> payment.getStatus() == Payment.PaymentStatus.Pending)
-                .count();
-            long failedPayments = paymentRepository.findAll().stream()
-                .filter(payment -> payment.getStatus() == Payment.PaymentStatus.Failed)
-                .count();
-            
-            double pendingAmount = paymentRepository.findAll().stream()
-                .filter(payment -> payment.getStatus() == Payment.PaymentStatus.Pending)
-                .mapToDouble(payment -> payment.getAmount().doubleValue())
-                .sum();
+            double pendingAmount = paymentAmounts.getOrDefault(Payment.PaymentStatus.Pending, 0.0);
             
             // Get location breakdown (all time)
             LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-            List<Object[]> locationRevenue = paymentRepository.getRevenueByCityAndLocation(
-                thirtyDaysAgo, LocalDateTime.now());
-            List<Map<String, Object>> locationBreakdown = new ArrayList<>();
+            List<Object[]> locationRevenue = new ArrayList<>(paymentRepository.getRevenueByCityAndLocation(
+                thirtyDaysAgo, LocalDateTime.now()));
+            if (recordArchiveService.coversPaymentsFrom(thirtyDaysAgo)) {
+                locationRevenue.addAll(archivedPaymentRepository.getRevenueByCityAndLocation(thirtyDaysAgo, LocalDateTime.now()));
+            }
+            Map<String, Map<String, Object>> locationTotals = new LinkedHashMap<>();
             for (Object[] row : locationRevenue) {
-                Map<String, Object> locationData = new HashMap<>();
-                locationData.put("city", row[0].toString());
-                locationData.put("location", row[1].toString());
-                locationData.put("revenue", ((BigDecimal) row[2]).doubleValue());
-                locationBreakdown.add(locationData);
+                Map<String, Object> locationData = locationTotals.computeIfAbsent(row[0] + "\n" + row[1], key -> {
+                    Map<String, Object> created = new HashMap<>();
+                    created.put("city", row[0].toString());
+                    created.put("location", row[1].toString());
+                    created.put("revenue", 0.0);
+                    return created;
+                });
+                locationData.put("revenue", (Double) locationData.get("revenue") + ((BigDecimal) row[2]).doubleValue());
             }
+            List<Map<String, Object>> locationBreakdown = new ArrayList<>(locationTotals.values());
             
             // Get filter options
-            List<String> cities = parkingLotRepository.findDistinctCities();
-            Map<String, List<String>> cityLocations = new HashMap<>();
-            for (String city : cities) {
-                List<String> locations = parkingLotRepository.findDistinctLocationsByCity(city);
-                cityLocations.put(city, locations);
-            }
+            List<String> cities = parkingLotCatalog.getCities();
+            Map<String, List<String>> cityLocations = parkingLotCatalog.getCityLocations();
             
             response.put("totalRevenue", totalRevenue);
             response.put("totalPayments", totalPayments);
@@ -919,7 +1002,7 @@ public class ReportController {
      * Export performance report as CSV
      */
     @GetMapping("/api/reports/performance/export-csv")
-    public ResponseEntity<String> exportPerformanceReportCSV(
+    public ResponseEntity<StreamingResponseBody> exportPerformanceReportCSV(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) String startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) String endDate,
             HttpSession session) {
@@ -930,7 +1013,7 @@ public class ReportController {
             Map<String, Object> reportData = reportResponse.getBody();
             
             if (reportData == null || reportData.containsKey("error")) {
-                return ResponseEntity.internalServerError().body("Error generating report data");
+                return ResponseEntity.internalServerError().body(textBody("Error generating report data"));
             }
             
             // Build CSV content
@@ -991,9 +1074,9 @@ public class ReportController {
             headers.setContentDispositionFormData("attachment", 
                 String.format("performance-report-%s-to-%s.csv", startDate, endDate));
             
-            return ResponseEntity.ok().headers(headers).body(csv.toString());
+            return ResponseEntity.ok().headers(headers).body(textBody(csv.toString()));
         } catch (Exception e) {
-            return ResponseEntity.internalServerError().body("Error exporting CSV: " + e.getMessage());
+            return ResponseEntity.internalServerError().body(textBody("Error exporting CSV: " + e.getMessage()));
         }
     }
 
@@ -1001,35 +1084,46 @@ public class ReportController {
      * Get initial performance summary
      */
     @GetMapping("/api/reports/performance/initial")
+    @Transactional(readOnly = true, label = ReadReplicaRoutingDataSource.REPLICA_LABEL)
     @ResponseBody
     public ResponseEntity<Map<String, Object>> getInitialPerformanceSummary() {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            // Get all-time system metrics
-            long totalBookings = bookingRepository.count();
-            long totalPayments = paymentRepository.count();
+            // Get all-time system metrics from grouped aggregate queries
+            Map<Booking.PaymentStatus, Long> bookingCounts = new EnumMap<>(Booking.PaymentStatus.class);
+            RecordArchiveService.ArchiveTotals archived = recordArchiveService.getTotals();
+            for (Object[] row : bookingRepository.countGroupedByPaymentStatus()) {
+                if (row[0] != null) {
+                    bookingCounts.put((Booking.PaymentStatus) row[0], ((Number) row[1]).longValue());
+                }
+            }
+            for (Booking.PaymentStatus status : Booking.PaymentStatus.values()) {
+                if (archived.getBookingCount(status) > 0) {
+                    bookingCounts.merge(status, archived.getBookingCount(status), Long::sum);
+                }
+            }
+            Map<Payment.PaymentStatus, Long> paymentCounts = new EnumMap<>(Payment.PaymentStatus.class);
+            Map<Payment.PaymentStatus, Double> paymentAmounts = new EnumMap<>(Payment.PaymentStatus.class);
+            collectPaymentSummary(paymentRepository.summarizeByStatus(), paymentCounts, paymentAmounts);
+            collectPaymentSummary(archived.getPaymentSummary(), paymentCounts, paymentAmounts);
+
+            long totalBookings = bookingCounts.values().stream().mapToLong(Long::longValue).sum();
+            long totalPayments = paymentCounts.values().stream().mapToLong(Long::longValue).sum();
             long totalSlots = parkingSlotRepository.count();
-            long totalLots = parkingLotRepository.count();
-            long totalUsers = bookingRepository.findAll().stream()
-                .map(booking -> booking.getUser().getId())
-                .collect(Collectors.toSet())
-                .size();
+            long totalLots = parkingLotCatalog.getLotCount();
+            long totalUsers = archived.isEmpty() ? bookingRepository.countDistinctUsers()
+                : archivedBookingRepository.countDistinctUsersIncludingHot();
             
             // Calculate success rates
-            long successfulBookings = bookingRepository.findAll().stream()
-                    .filter(booking -> booking.getPaymentStatus() == Booking.PaymentStatus.Completed)
-                    .count();
-            long successfulPayments = paymentRepository.findAll().stream()
-                    .filter(payment -> payment.getStatus() == Payment.PaymentStatus.Completed)
-                    .count();
+            long successfulBookings = bookingCounts.getOrDefault(Booking.PaymentStatus.Completed, 0L);
+            long successfulPayments = paymentCounts.getOrDefault(Payment.PaymentStatus.Completed, 0L);
             
             double bookingSuccessRate = totalBookings > 0 ? (double) successfulBookings / totalBookings * 100 : 0;
             double paymentSuccessRate = totalPayments > 0 ? (double) successfulPayments / totalPayments * 100 : 0;
             
             // Financial performance
-            Double totalRevenue = paymentRepository.getTotalCompletedRevenue();
-            if (totalRevenue == null) totalRevenue = 0.0;
+            double totalRevenue = paymentAmounts.getOrDefault(Payment.PaymentStatus.Completed, 0.0);
             
             double avgRevenuePerBooking = successfulBookings > 0 ? totalRevenue / successfulBookings : 0;
             
@@ -1064,4 +1158,95 @@ public class ReportController {
             return ResponseEntity.internalServerError().body(response);
         }
     }
+
+    /**
+     * Add (status, count, sum) rows to the payment counts and amount totals per status
+     */
+    private void collectPaymentSummary(List<Object[]> rows, Map<Payment.PaymentStatus, Long> counts,
+                                       Map<Payment.PaymentStatus, Double> amounts) {
+        for (Object[] row : rows) {
+            if (row[0] == null) {
+                continue;
+            }
+            Payment.PaymentStatus status = (Payment.PaymentStatus) row[0];
+            counts.merge(status, ((Number) row[1]).longValue(), Long::sum);
+            amounts.merge(status, row[2] != null ? ((Number) row[2]).doubleValue() : 0.0, Double::sum);
+        }
+    }
+
+    private static Map<String, Object> transaction(Long id, String user, BigDecimal amount, Object method, Object status,
+                                                   LocalDateTime timestamp, String city, String location) {
+        Map<String, Object> transaction = new HashMap<>();
+        transaction.put("id", "TXN" + String.format("%03d", id));
+        transaction.put("user", user);
+        transaction.put("amount", String.format("LKR %.2f", amount));
+        transaction.put("method", method.toString());
+        transaction.put("status", status.toString());
+        transaction.put("date", timestamp.format(DateTimeFormatter.ofPattern("yyyy-MM-dd")));
+        transaction.put("location", city + " - " + location);
+        return transaction;
+    }
+
+    private static long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+
+    /**
+     * Stream a CSV body: the header text first, then rows fetched one keyset page at a time
+     * (each page starts after the id in column 0 of the previous page's last row), so only one
+     * page is ever held in memory regardless of how many rows the export covers. Each source,
+     * such as the archive and then the hot table, is walked to its end in turn. The body is
+     * written after the request method returned, so its pages are read in a read-only replica
+     * transaction of their own and all see the same snapshot.
+     */
+    private StreamingResponseBody streamCsv(String header, List<LongFunction<List<Object[]>>> sources,
+                                            Function<Object[], String> formatRow) {
+        return out -> {
+            try {
+                replicaRead.executeWithoutResult(transaction -> {
+                    try {
+                        writeCsv(out, header, sources, formatRow);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+    }
+
+    private static void writeCsv(OutputStream out, String header, List<LongFunction<List<Object[]>>> sources,
+                                 Function<Object[], String> formatRow) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(header);
+        for (LongFunction<List<Object[]>> nextPageAfter : sources) {
+            long afterId = 0;
+            List<Object[]> rows;
+            do {
+                rows = nextPageAfter.apply(afterId);
+                for (Object[] row : rows) {
+                    writer.write(formatRow.apply(row));
+                    writer.write("\n");
+                    afterId = (Long) row[0];
+                }
+                writer.flush();
+            } while (rows.size() == EXPORT_PAGE_SIZE);
+        }
+    }
+
+    private static StreamingResponseBody textBody(String text) {
+        return out -> out.write(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Quote a CSV field when it contains a separator, quote or line break
+     */
+    private static String csvField(Object value) {
+        String text = value != null ? value.toString() : "";
+        if (text.contains(",") || text.contains("\"") || text.contains("\n")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
 }
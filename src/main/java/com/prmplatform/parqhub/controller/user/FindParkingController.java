@@ -1,15 +1,18 @@
 package com.prmplatform.parqhub.controller.user;
 
 import com.prmplatform.parqhub.model.ParkingLot;
-import com.prmplatform.parqhub.model.ParkingSlot;
 import com.prmplatform.parqhub.model.User;
 import com.prmplatform.parqhub.model.Vehicle;
-import com.prmplatform.parqhub.repository.ParkingLotRepository;
 import com.prmplatform.parqhub.repository.VehicleRepository;
+import com.prmplatform.parqhub.service.LotTypeaheadIndex;
+import com.prmplatform.parqhub.service.NearbyLotIndex;
+import com.prmplatform.parqhub.service.ParkingLotCatalog;
+import com.prmplatform.parqhub.service.SlotAvailabilityIndex;
 import jakarta.servlet.http.HttpSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -21,7 +24,6 @@ import org.springframework.web.bind.annotation.ResponseBody;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Controller
 @RequestMapping("/user")
@@ -29,13 +31,21 @@ public class FindParkingController {
 
     private static final Logger logger = LoggerFactory.getLogger(FindParkingController.class);
 
-    private final ParkingLotRepository parkingLotRepository;
+    private final ParkingLotCatalog parkingLotCatalog;
     private final VehicleRepository vehicleRepository;
+    private final SlotAvailabilityIndex slotAvailabilityIndex;
+    private final LotTypeaheadIndex lotTypeaheadIndex;
+    private final NearbyLotIndex nearbyLotIndex;
 
     @Autowired
-    public FindParkingController(ParkingLotRepository parkingLotRepository, VehicleRepository vehicleRepository) {
-        this.parkingLotRepository = parkingLotRepository;
+    public FindParkingController(ParkingLotCatalog parkingLotCatalog, VehicleRepository vehicleRepository,
+                                 SlotAvailabilityIndex slotAvailabilityIndex, LotTypeaheadIndex lotTypeaheadIndex,
+                                 NearbyLotIndex nearbyLotIndex) {
+        this.parkingLotCatalog = parkingLotCatalog;
         this.vehicleRepository = vehicleRepository;
+        this.slotAvailabilityIndex = slotAvailabilityIndex;
+        this.lotTypeaheadIndex = lotTypeaheadIndex;
+        this.nearbyLotIndex = nearbyLotIndex;
     }
 
     @GetMapping("/findparking")
@@ -46,23 +56,14 @@ public class FindParkingController {
         }
 
         List<Vehicle> userVehicles = vehicleRepository.findByUserId(user.getId());
-        List<String> distinctCities = parkingLotRepository.findDistinctCities();
+        List<String> distinctCities = parkingLotCatalog.getCities();
         List<String> distinctLocations = model.containsAttribute("city") && model.getAttribute("city") != null
-                ? parkingLotRepository.findDistinctLocationsByCity((String) model.getAttribute("city"))
+                ? parkingLotCatalog.getLocationsByCity((String) model.getAttribute("city"))
                 : List.of();
 
-        List<ParkingLot> parkingLots = parkingLotRepository.findAllWithSlots();
-        Map<Long, Long> availableSlotsCount = parkingLots.stream()
-                .collect(Collectors.toMap(
-                        ParkingLot::getId,
-                        lot -> {
-                            long count = lot.getParkingSlots().stream()
-                                    .filter(slot -> slot.getStatus() == ParkingSlot.SlotStatus.AVAILABLE)
-                                    .count();
-                            logger.debug("Parking Lot ID {}: {} available slots", lot.getId(), count);
-                            return count;
-                        }
-                ));
+        List<ParkingLot> parkingLots = parkingLotCatalog.getAllLots();
+        Map<Long, Long> availableSlotsCount = slotAvailabilityIndex.getAvailableCounts(parkingLots);
+        logger.debug("Resolved availability for {} parking lots from index", parkingLots.size());
 
         model.addAttribute("userName", user.getName());
         model.addAttribute("userVehicles", userVehicles);
@@ -87,36 +88,31 @@ public class FindParkingController {
         }
 
         List<Vehicle> userVehicles = vehicleRepository.findByUserId(user.getId());
-        List<String> distinctCities = parkingLotRepository.findDistinctCities();
+        List<String> distinctCities = parkingLotCatalog.getCities();
         List<String> distinctLocations = city != null && !city.trim().isEmpty()
-                ? parkingLotRepository.findDistinctLocationsByCity(city.trim())
+                ? parkingLotCatalog.getLocationsByCity(city.trim())
                 : List.of();
 
         List<ParkingLot> parkingLots;
         if (city == null && location == null && maxPrice == null && !availableOnly) {
-            parkingLots = parkingLotRepository.findAllWithSlots();
+            parkingLots = parkingLotCatalog.getAllLots();
         } else {
             city = city != null ? city.trim() : "";
             location = location != null ? location.trim() : "";
-            parkingLots = parkingLotRepository.findByFilters(
+            parkingLots = parkingLotCatalog.findLots(
                     city.isEmpty() ? null : city,
                     location.isEmpty() ? null : location,
-                    maxPrice,
-                    availableOnly
+                    maxPrice
             );
         }
 
-        Map<Long, Long> availableSlotsCount = parkingLots.stream()
-                .collect(Collectors.toMap(
-                        ParkingLot::getId,
-                        lot -> {
-                            long count = lot.getParkingSlots().stream()
-                                    .filter(slot -> slot.getStatus() == ParkingSlot.SlotStatus.AVAILABLE)
-                                    .count();
-                            logger.debug("Parking Lot ID {}: {} available slots", lot.getId(), count);
-                            return count;
-                        }
-                ));
+        Map<Long, Long> availableSlotsCount = slotAvailabilityIndex.getAvailableCounts(parkingLots);
+        if (availableOnly) {
+            parkingLots = parkingLots.stream()
+                    .filter(lot -> availableSlotsCount.getOrDefault(lot.getId(), 0L) > 0)
+                    .toList();
+        }
+        logger.debug("Resolved availability for {} parking lots from index", parkingLots.size());
 
         model.addAttribute("userName", user.getName());
         model.addAttribute("userVehicles", userVehicles);
@@ -136,6 +132,34 @@ public class FindParkingController {
     @GetMapping("/locations")
     @ResponseBody
     public List<String> getLocationsByCity(@RequestParam String city) {
-        return parkingLotRepository.findDistinctLocationsByCity(city);
+        return parkingLotCatalog.getLocationsByCity(city);
+    }
+
+    /**
+     * Typeahead for the city and location fields; pass city to only suggest locations in it
+     */
+    @GetMapping("/locations/suggest")
+    @ResponseBody
+    public List<LotTypeaheadIndex.Suggestion> suggestLocations(@RequestParam String q,
+                                                               @RequestParam(required = false) String city,
+                                                               @RequestParam(defaultValue = "10") int limit) {
+        return lotTypeaheadIndex.suggest(q, city, limit);
+    }
+
+    /**
+     * The nearest lots with a free slot to the given point, optionally under a price and within a distance
+     */
+    @GetMapping("/lots/nearest")
+    @ResponseBody
+    public ResponseEntity<List<NearbyLotIndex.NearbyLot>> findNearestLots(@RequestParam double lat,
+                                                                          @RequestParam double lng,
+                                                                          @RequestParam(defaultValue = "5") int limit,
+                                                                          @RequestParam(required = false) BigDecimal maxPrice,
+                                                                          @RequestParam(required = false) Double maxDistanceKm) {
+        try {
+            return ResponseEntity.ok(nearbyLotIndex.findNearest(lat, lng, limit, maxPrice, maxDistanceKm));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
-}
\ No newline at end of file
+}
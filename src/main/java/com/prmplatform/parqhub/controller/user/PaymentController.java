@@ -2,25 +2,18 @@ package com.prmplatform.parqhub.controller.user;
 
 import com.prmplatform.parqhub.model.Booking;
 import com.prmplatform.parqhub.model.ParkingLot;
-import com.prmplatform.parqhub.model.ParkingSlot;
 import com.prmplatform.parqhub.model.Payment;
 import com.prmplatform.parqhub.model.User;
 import com.prmplatform.parqhub.model.VehicleLog;
 import com.prmplatform.parqhub.repository.BookingRepository;
-import com.prmplatform.parqhub.repository.ParkingLotRepository;
-import com.prmplatform.parqhub.repository.ParkingSlotRepository;
-import com.prmplatform.parqhub.repository.PaymentRepository;
-import com.prmplatform.parqhub.repository.VehicleLogRepository;
-import com.prmplatform.parqhub.service.PaymentProcessingService;
+import com.prmplatform.parqhub.service.PaymentLedgerService;
+import com.prmplatform.parqhub.service.PaymentSettlementService;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -32,40 +25,27 @@ import org.springframework.web.bind.annotation.RequestParam;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 @Controller
 @RequestMapping("/user")
 public class PaymentController {
 
-    private final BookingRepository bookingRepository;
-    private final PaymentRepository paymentRepository;
-    private final VehicleLogRepository vehicleLogRepository;
-    private final ParkingLotRepository parkingLotRepository;
-    private final ParkingSlotRepository parkingSlotRepository;
-    private final JavaMailSender mailSender;
-    private final PaymentProcessingService paymentProcessingService;
+    private static final int PAYMENTS_PAGE_SIZE = 20;
 
-    @Value("${spring.mail.from:parqhub.system@gmail.com}")
-    private String fromEmail;
+    private final BookingRepository bookingRepository;
+    private final PaymentSettlementService paymentSettlementService;
+    private final PaymentLedgerService paymentLedgerService;
 
     @Autowired
     public PaymentController(BookingRepository bookingRepository,
-                             PaymentRepository paymentRepository,
-                             VehicleLogRepository vehicleLogRepository,
-                             ParkingLotRepository parkingLotRepository,
-                             ParkingSlotRepository parkingSlotRepository,
-                             JavaMailSender mailSender,
-                             PaymentProcessingService paymentProcessingService) {
+                             PaymentSettlementService paymentSettlementService,
+                             PaymentLedgerService paymentLedgerService) {
         this.bookingRepository = bookingRepository;
-        this.paymentRepository = paymentRepository;
-        this.vehicleLogRepository = vehicleLogRepository;
-        this.parkingLotRepository = parkingLotRepository;
-        this.parkingSlotRepository = parkingSlotRepository;
-        this.mailSender = mailSender;
-        this.paymentProcessingService = paymentProcessingService;
+        this.paymentSettlementService = paymentSettlementService;
+        this.paymentLedgerService = paymentLedgerService;
     }
 
     @GetMapping("/payment-gateway")
@@ -76,7 +56,7 @@ public class PaymentController {
                 return "redirect:/user/login";
             }
 
-            Optional<Booking> bookingOpt = bookingRepository.findById(bookingId);
+            Optional<Booking> bookingOpt = bookingRepository.findWithDetailsById(bookingId);
             if (!bookingOpt.isPresent()) {
                 model.addAttribute("error", "Booking not found");
                 return "user/payment-gateway";
@@ -95,40 +75,25 @@ public class PaymentController {
             }
 
             // Find the most recent completed VehicleLog for this vehicle and parking lot
-            Optional<VehicleLog> vehicleLogOpt = vehicleLogRepository.findTopByVehicleAndExitTimeIsNotNullOrderByEntryTimeDesc(booking.getVehicle());
-            if (!vehicleLogOpt.isPresent() || !vehicleLogOpt.get().getParkingLot().getId().equals(booking.getParkingSlot().getParkingLot().getId())) {
+            Optional<VehicleLog> vehicleLogOpt = paymentSettlementService.findCompletedStay(booking);
+            if (!vehicleLogOpt.isPresent()) {
                 model.addAttribute("error", "Vehicle has not exited yet or no valid log found for this parking lot");
                 return "user/payment-gateway";
             }
 
             VehicleLog vehicleLog = vehicleLogOpt.get();
+            ParkingLot parkingLot = booking.getParkingSlot().getParkingLot();
 
-            Optional<ParkingLot> parkingLotOpt = parkingLotRepository.findById(booking.getParkingSlot().getParkingLot().getId());
-            if (!parkingLotOpt.isPresent()) {
-                model.addAttribute("error", "Parking lot not found");
-                return "user/payment-gateway";
-            }
-
-            ParkingLot parkingLot = parkingLotOpt.get();
-
-            long hours = ChronoUnit.HOURS.between(vehicleLog.getEntryTime(), vehicleLog.getExitTime());
-            long minutes = ChronoUnit.MINUTES.between(vehicleLog.getEntryTime(), vehicleLog.getExitTime()) % 60;
-
-            // More accurate calculation: if there are any minutes beyond the hour, charge for the next hour
-            if (minutes > 0) {
-                hours += 1;
-            }
-
-            // Minimum 1 hour charge
-            if (hours == 0) hours = 1;
-            BigDecimal hoursBigDecimal = new BigDecimal(hours);
-            BigDecimal amount = hoursBigDecimal.multiply(parkingLot.getPriceHr());
+            long hours = paymentSettlementService.billableHours(vehicleLog);
+            BigDecimal amount = BigDecimal.valueOf(hours).multiply(parkingLot.getPriceHr());
 
             model.addAttribute("selectedBooking", booking);
             model.addAttribute("vehicleLog", vehicleLog);
             model.addAttribute("hours", hours);
             model.addAttribute("pricePerHour", parkingLot.getPriceHr());
             model.addAttribute("amount", amount);
+            // Sent back with the form so a resubmitted payment is recognised and not charged twice
+            model.addAttribute("idempotencyKey", UUID.randomUUID().toString());
 
             return "user/payment-gateway";
         } catch (Exception e) {
@@ -140,6 +105,7 @@ public class PaymentController {
     @PostMapping("/processPayment")
     public String processPayment(@RequestParam Long bookingId,
                                  @RequestParam String paymentMethod,
+                                 @RequestParam(required = false) String idempotencyKey,
                                  HttpSession session,
                                  Model model) {
         try {
@@ -148,91 +114,16 @@ public class PaymentController {
                 return "redirect:/user/login";
             }
 
-            Optional<Booking> bookingOpt = bookingRepository.findById(bookingId);
-            if (!bookingOpt.isPresent()) {
-                model.addAttribute("error", "Booking not found");
-                return "user/payment-gateway";
-            }
-
-            Booking booking = bookingOpt.get();
-            if (!booking.getUser().getId().equals(user.getId())) {
-                model.addAttribute("error", "Unauthorized access to booking");
-                return "user/payment-gateway";
-            }
-
-            if (!booking.getPaymentStatus().name().equals("Pending")) {
-                model.addAttribute("error", "Payment already processed or invalid status");
-                return "user/payment-gateway";
-            }
-
-            // Handle completed bookings that may not have parking slot
-            if (booking.getParkingSlot() == null) {
-                model.addAttribute("error", "Cannot process payment for completed booking");
-                return "user/payment-gateway";
-            }
-
-            // Find the most recent completed VehicleLog for this vehicle and parking lot
-            Optional<VehicleLog> vehicleLogOpt = vehicleLogRepository.findTopByVehicleAndExitTimeIsNotNullOrderByEntryTimeDesc(booking.getVehicle());
-            if (!vehicleLogOpt.isPresent() || !vehicleLogOpt.get().getParkingLot().getId().equals(booking.getParkingSlot().getParkingLot().getId())) {
-                model.addAttribute("error", "Vehicle has not exited yet or no valid log found for this parking lot");
-                return "user/payment-gateway";
-            }
-
-            VehicleLog vehicleLog = vehicleLogOpt.get();
-
-            Optional<ParkingLot> parkingLotOpt = parkingLotRepository.findById(booking.getParkingSlot().getParkingLot().getId());
-            if (!parkingLotOpt.isPresent()) {
-                model.addAttribute("error", "Parking lot not found");
-                return "user/payment-gateway";
-            }
-
-            ParkingLot parkingLot = parkingLotOpt.get();
-
-            long hours = ChronoUnit.HOURS.between(vehicleLog.getEntryTime(), vehicleLog.getExitTime());
-            long minutes = ChronoUnit.MINUTES.between(vehicleLog.getEntryTime(), vehicleLog.getExitTime()) % 60;
-
-            // More accurate calculation: if there are any minutes beyond the hour, charge for the next hour
-            if (minutes > 0) {
-                hours += 1;
-            }
-
-            // Minimum 1 hour charge
-            if (hours == 0) hours = 1;
-            BigDecimal hoursBigDecimal = new BigDecimal(hours);
-            BigDecimal amount = hoursBigDecimal.multiply(parkingLot.getPriceHr());
+            // Fee calculation and all state changes run in one transaction; the confirmation email is sent after it commits
+            Payment payment = paymentSettlementService.settle(user, bookingId, paymentMethod,
+                    idempotencyKey != null && !idempotencyKey.isBlank() ? idempotencyKey : null);
 
-            // Process payment using strategy pattern
-            if (!paymentProcessingService.isValidPaymentMethod(paymentMethod)) {
-                model.addAttribute("error", "Invalid payment method: " + paymentMethod);
-                return "user/payment-gateway";
-            }
-            
-            Payment payment = paymentProcessingService.processPayment(booking, amount, paymentMethod);
-
-            // Update booking with end time and payment status
-            booking.setEndTime(vehicleLog.getExitTime());
-            booking.setPaymentStatus(Booking.PaymentStatus.Completed);
-
-            // Update parking slot status to AVAILABLE
-            ParkingSlot slot = booking.getParkingSlot();
-            slot.setStatus(ParkingSlot.SlotStatus.AVAILABLE);
-
-            // Save all entities
-            paymentRepository.save(payment);
-            bookingRepository.save(booking);
-            parkingSlotRepository.save(slot);
-
-            // Send email notification
-            try {
-                sendPaymentConfirmationEmail(user, booking, payment, vehicleLog, parkingLot, hours);
-            } catch (Exception emailException) {
-                // Log email error but don't fail the payment
-                System.err.println("Failed to send email notification: " + emailException.getMessage());
-            }
-
-            model.addAttribute("success", "Payment processed successfully for LKR " + amount.toString() + ". A confirmation email has been sent to your registered email address.");
+            model.addAttribute("success", "Payment processed successfully for LKR " + payment.getAmount().toString() + ". A confirmation email is on its way to your registered email address.");
             return "redirect:/user/payments";
 
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            model.addAttribute("error", e.getMessage());
+            return "user/payment-gateway";
         } catch (Exception e) {
             model.addAttribute("error", "Failed to process payment: " + e.getMessage());
             return "user/payment-gateway";
@@ -240,27 +131,31 @@ public class PaymentController {
     }
 
     @GetMapping("/payments")
-    public String paymentHistory(HttpSession session, Model model) {
+    public String paymentHistory(@RequestParam(required = false) Long before, HttpSession session, Model model) {
         try {
             User user = (User) session.getAttribute("loggedInUser");
             if (user == null) {
                 return "redirect:/user/login";
             }
 
-            List<Booking> userBookings = bookingRepository.findByUserIdWithParkingDetailsOrderByStartTimeDesc(user.getId());
-            List<Payment> userPayments = paymentRepository.findAll().stream()
-                    .filter(payment -> userBookings.stream().anyMatch(booking -> booking.getId().equals(payment.getBooking().getId())))
-                    .toList();
+            // One extra row tells us whether there is an older page
+            List<Payment> userPayments = paymentLedgerService.getLedgerPage(user.getId(), before, PAYMENTS_PAGE_SIZE + 1);
+            Long nextBefore = null;
+            if (userPayments.size() > PAYMENTS_PAGE_SIZE) {
+                userPayments = userPayments.subList(0, PAYMENTS_PAGE_SIZE);
+                nextBefore = userPayments.get(PAYMENTS_PAGE_SIZE - 1).getId();
+            }
 
-            LocalDateTime startOfDay = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0).withNano(0);
-            Double totalSpentToday = paymentRepository.sumAmountByCompletedAndTimestampAfter(startOfDay);
-            if (totalSpentToday == null) totalSpentToday = 0.0;
+            PaymentLedgerService.SpendingSummary summary = paymentLedgerService.getSpendingSummary(user.getId());
 
             model.addAttribute("userId", user.getId());
             model.addAttribute("userName", user.getName());
-            model.addAttribute("bookings", userBookings);
             model.addAttribute("payments", userPayments);
-            model.addAttribute("totalSpentToday", totalSpentToday);
+            model.addAttribute("summary", summary);
+            model.addAttribute("totalSpentToday", summary.getSpentToday());
+            model.addAttribute("totalSpentThisMonth", summary.getSpentThisMonth());
+            model.addAttribute("before", before);
+            model.addAttribute("nextBefore", nextBefore);
 
             return "user/payments";
         } catch (Exception e) {
@@ -277,7 +172,8 @@ public class PaymentController {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not authenticated");
             }
 
-            Optional<Payment> paymentOpt = paymentRepository.findById(paymentId);
+            // Falls back to the archive for payments moved there
+            Optional<Payment> paymentOpt = paymentLedgerService.findReceipt(paymentId);
             if (!paymentOpt.isPresent()) {
                 return ResponseEntity.notFound().build();
             }
@@ -300,8 +196,12 @@ public class PaymentController {
 
             receipt.append("VEHICLE INFORMATION\n");
             receipt.append("-------------------\n");
-            receipt.append("Vehicle: ").append(booking.getVehicle().getBrand()).append(" ").append(booking.getVehicle().getModel()).append("\n");
-            receipt.append("License: ").append(booking.getVehicle().getVehicleNo()).append("\n\n");
+            // An archived booking's vehicle may have been deleted since
+            if (booking.getVehicle() != null) {
+                receipt.append("Vehicle: ").append(booking.getVehicle().getBrand()).append(" ").append(booking.getVehicle().getModel()).append("\n");
+                receipt.append("License: ").append(booking.getVehicle().getVehicleNo()).append("\n");
+            }
+            receipt.append("\n");
 
             receipt.append("PARKING DETAILS\n");
             receipt.append("---------------\n");
@@ -338,76 +238,4 @@ public class PaymentController {
                     .body("Failed to generate receipt: " + e.getMessage());
         }
     }
-
-    private void sendPaymentConfirmationEmail(User user, Booking booking, Payment payment,
-                                              VehicleLog vehicleLog, ParkingLot parkingLot, long hours) {
-        try {
-            if (mailSender == null) {
-                System.out.println("Mail sender not configured. Skipping email notification.");
-                return;
-            }
-
-            if (user.getEmail() == null || user.getEmail().trim().isEmpty()) {
-                System.err.println("User email is empty for user: " + user.getName());
-                return;
-            }
-
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(user.getEmail().trim());
-            message.setSubject("ParQHub - Payment Confirmation Receipt #PQH-" + payment.getId());
-
-            StringBuilder emailBody = new StringBuilder();
-            emailBody.append("Dear ").append(user.getName()).append(",\n\n");
-            emailBody.append("Thank you for using ParQHub! Your payment has been successfully processed.\n\n");
-
-            emailBody.append("PAYMENT CONFIRMATION\n");
-            emailBody.append("=====================\n\n");
-
-            emailBody.append("Receipt Number: PQH-").append(payment.getId()).append("\n");
-            emailBody.append("Payment Date: ").append(payment.getTimestamp().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"))).append("\n");
-            emailBody.append("Payment Status: ").append(payment.getStatus()).append("\n\n");
-
-            emailBody.append("BOOKING DETAILS\n");
-            emailBody.append("===============\n\n");
-            emailBody.append("Booking ID: ").append(booking.getId()).append("\n");
-            emailBody.append("Vehicle: ").append(booking.getVehicle().getBrand()).append(" ").append(booking.getVehicle().getModel()).append("\n");
-            emailBody.append("License Plate: ").append(booking.getVehicle().getVehicleNo()).append("\n");
-
-            if (booking.getParkingSlot() != null && booking.getParkingSlot().getParkingLot() != null) {
-                emailBody.append("Location: ").append(booking.getParkingSlot().getParkingLot().getLocation()).append(", ").append(booking.getParkingSlot().getParkingLot().getCity()).append("\n");
-                emailBody.append("Parking Slot: ").append(booking.getParkingSlot().getId()).append("\n");
-            }
-
-            emailBody.append("\nPARKING DURATION\n");
-            emailBody.append("================\n\n");
-            emailBody.append("Entry Time: ").append(vehicleLog.getEntryTime().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"))).append("\n");
-            emailBody.append("Exit Time: ").append(vehicleLog.getExitTime().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"))).append("\n");
-            emailBody.append("Total Duration: ").append(hours).append(" hour(s)\n");
-
-            emailBody.append("\nPAYMENT BREAKDOWN\n");
-            emailBody.append("=================\n\n");
-            emailBody.append("Hourly Rate: LKR ").append(parkingLot.getPriceHr()).append("\n");
-            emailBody.append("Duration: ").append(hours).append(" hour(s)\n");
-            emailBody.append("Total Amount: LKR ").append(payment.getAmount()).append("\n");
-            emailBody.append("Payment Method: ").append(payment.getMethod()).append("\n\n");
-
-            emailBody.append("Thank you for choosing ParQHub for your parking needs!\n\n");
-            emailBody.append("For any queries, please contact our support team.\n\n");
-            emailBody.append("Best regards,\n");
-            emailBody.append("ParQHub Team\n");
-            emailBody.append("\n---\n");
-            emailBody.append("This is an automated message. Please do not reply to this email.");
-
-            message.setText(emailBody.toString());
-            message.setFrom(fromEmail);
-
-            mailSender.send(message);
-            System.out.println("✓ Payment confirmation email sent successfully to: " + user.getEmail());
-            System.out.println("✓ Email content preview: Receipt #PQH-" + payment.getId() + " for LKR " + payment.getAmount());
-
-        } catch (Exception e) {
-            System.err.println("✗ Error sending email to " + user.getEmail() + ": " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
 }
\ No newline at end of file
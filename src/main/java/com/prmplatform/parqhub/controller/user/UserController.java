@@ -1,8 +1,11 @@
 package com.prmplatform.parqhub.controller.user;
 
+import com.prmplatform.parqhub.event.NotificationChangedEvent;
 import com.prmplatform.parqhub.model.*;
 import com.prmplatform.parqhub.repository.*;
+import com.prmplatform.parqhub.service.BookingService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -27,6 +30,8 @@ public class UserController {
     private final BookingRepository bookingRepository;
     private final NotificationRepository notificationRepository;
     private final PaymentRepository paymentRepository;
+    private final BookingService bookingService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public UserController(UserRepository userRepository,
@@ -34,13 +39,17 @@ public class UserController {
                           ParkingSlotRepository parkingSlotRepository,
                           BookingRepository bookingRepository,
                           NotificationRepository notificationRepository,
-                          PaymentRepository paymentRepository) {
+                          PaymentRepository paymentRepository,
+                          BookingService bookingService,
+                          ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.vehicleRepository = vehicleRepository;
         this.parkingSlotRepository = parkingSlotRepository;
         this.bookingRepository = bookingRepository;
         this.notificationRepository = notificationRepository;
         this.paymentRepository = paymentRepository;
+        this.bookingService = bookingService;
+        this.eventPublisher = eventPublisher;
     }
 
     @GetMapping("/login")
@@ -190,34 +199,43 @@ public class UserController {
             DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
             LocalDateTime startDateTime = LocalDateTime.parse(startTime, formatter);
 
-            Optional<Vehicle> vehicleOpt = vehicleRepository.findById(vehicleId);
-            Optional<ParkingSlot> slotOpt = parkingSlotRepository.findById(slotId);
+            // The booking may land on another free slot in the lot if the requested one was just taken
+            Booking booking = bookingService.bookSlot(user, vehicleId, slotId, startDateTime);
 
-            if (!vehicleOpt.isPresent() || !slotOpt.isPresent()) {
-                return "error:Invalid vehicle or slot";
-            }
+            return "success:Booking created successfully. Slot ID: " + booking.getParkingSlot().getId()
+                    + ". Booking ID: " + booking.getId();
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return "error:" + e.getMessage();
+        } catch (Exception e) {
+            return "error:Failed to create booking: " + e.getMessage();
+        }
+    }
 
-            Vehicle vehicle = vehicleOpt.get();
-            ParkingSlot slot = slotOpt.get();
+    @PostMapping("/book-in-lot")
+    @ResponseBody
+    public String bookInLot(@RequestParam Long lotId,
+                            @RequestParam Long vehicleId,
+                            @RequestParam(required = false) String startTime,
+                            HttpSession session) {
+        User user = (User) session.getAttribute("loggedInUser");
+        if (user == null) {
+            return "error:User not logged in";
+        }
 
-            if (slot.getStatus() != ParkingSlot.SlotStatus.AVAILABLE) {
-                return "error:Slot is not available";
+        try {
+            LocalDateTime startDateTime = LocalDateTime.now();
+            if (startTime != null && !startTime.isBlank()) {
+                DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
+                startDateTime = LocalDateTime.parse(startTime, formatter);
             }
 
-            Booking booking = new Booking();
-            booking.setUser(user);
-            booking.setVehicle(vehicle);
-            booking.setParkingSlot(slot);
-            booking.setStartTime(startDateTime);
-            booking.setEndTime(null); // Set end_time to null
-            booking.setPaymentStatus(Booking.PaymentStatus.Pending);
-
-            slot.setStatus(ParkingSlot.SlotStatus.BOOKED);
-
-            bookingRepository.save(booking);
-            parkingSlotRepository.save(slot);
+            // No slot list needed: the server picks any free slot in the lot
+            Booking booking = bookingService.bookAnyInLot(user, vehicleId, lotId, startDateTime);
 
-            return "success:Booking created successfully. Booking ID: " + booking.getId();
+            return "success:Booking created successfully. Slot ID: " + booking.getParkingSlot().getId()
+                    + ". Booking ID: " + booking.getId();
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return "error:" + e.getMessage();
         } catch (Exception e) {
             return "error:Failed to create booking: " + e.getMessage();
         }
@@ -285,6 +303,7 @@ public class UserController {
             }
 
             notificationRepository.delete(notification);
+            eventPublisher.publishEvent(new NotificationChangedEvent(notification.getType(), true));
             return ResponseEntity.ok("success:Notification deleted successfully");
         } catch (Exception e) {
             e.printStackTrace();
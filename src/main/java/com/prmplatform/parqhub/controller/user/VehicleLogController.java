@@ -1,5 +1,7 @@
 package com.prmplatform.parqhub.controller.user;
 
+import com.prmplatform.parqhub.event.SlotStatusChangedEvent;
+import com.prmplatform.parqhub.event.VehicleLogRecordedEvent;
 import com.prmplatform.parqhub.model.Booking;
 import com.prmplatform.parqhub.model.User;
 import com.prmplatform.parqhub.model.Vehicle;
@@ -11,6 +13,7 @@ import com.prmplatform.parqhub.repository.VehicleLogRepository;
 import com.prmplatform.parqhub.repository.ParkingSlotRepository;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
 
@@ -33,6 +36,9 @@ public class VehicleLogController {
     @Autowired
     private ParkingSlotRepository parkingSlotRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @PostMapping("/log-entry")
     @ResponseBody
     public Map<String, String> logEntry(@RequestParam Long bookingId, @RequestParam Long vehicleId, HttpSession session) {
@@ -47,7 +53,7 @@ public class VehicleLogController {
                 return response;
             }
 
-            Booking booking = bookingRepository.findById(bookingId)
+            Booking booking = bookingRepository.findWithDetailsById(bookingId)
                     .orElseThrow(() -> new IllegalArgumentException("Booking not found"));
 
             // Validate user ownership
@@ -101,8 +107,11 @@ public class VehicleLogController {
 
             // Update parking slot status to OCCUPIED
             ParkingSlot parkingSlot = booking.getParkingSlot();
+            ParkingSlot.SlotStatus previousStatus = parkingSlot.getStatus();
             parkingSlot.setStatus(ParkingSlot.SlotStatus.OCCUPIED);
             parkingSlotRepository.save(parkingSlot);
+            eventPublisher.publishEvent(new SlotStatusChangedEvent(parkingLot.getId(), parkingSlot.getId(),
+                    previousStatus, ParkingSlot.SlotStatus.OCCUPIED));
 
             // Create VehicleLog with proper entity relationships
             VehicleLog log = new VehicleLog();
@@ -111,6 +120,8 @@ public class VehicleLogController {
             log.setParkingLot(parkingLot);
 
             VehicleLog savedLog = vehicleLogRepository.save(log);
+            eventPublisher.publishEvent(new VehicleLogRecordedEvent(savedLog.getId(), parkingLot.getId(),
+                    VehicleLogRecordedEvent.Kind.ENTRY));
 
             response.put("status", "success");
             response.put("message", "Entry logged successfully");
@@ -137,7 +148,7 @@ public class VehicleLogController {
                 return response;
             }
 
-            Booking booking = bookingRepository.findById(bookingId)
+            Booking booking = bookingRepository.findWithDetailsById(bookingId)
                     .orElseThrow(() -> new IllegalArgumentException("Booking not found"));
 
             if (!booking.getUser().getId().equals(user.getId())) {
@@ -165,11 +176,16 @@ public class VehicleLogController {
             VehicleLog log = logOptional.get();
             log.setExitTime(now);
             VehicleLog savedLog = vehicleLogRepository.save(log);
+            eventPublisher.publishEvent(new VehicleLogRecordedEvent(savedLog.getId(), parkingLot.getId(),
+                    VehicleLogRecordedEvent.Kind.EXIT));
 
             // Update parking slot status to AVAILABLE
             ParkingSlot parkingSlot = booking.getParkingSlot();
+            ParkingSlot.SlotStatus previousStatus = parkingSlot.getStatus();
             parkingSlot.setStatus(ParkingSlot.SlotStatus.AVAILABLE);
             parkingSlotRepository.save(parkingSlot);
+            eventPublisher.publishEvent(new SlotStatusChangedEvent(parkingLot.getId(), parkingSlot.getId(),
+                    previousStatus, ParkingSlot.SlotStatus.AVAILABLE));
 
             response.put("status", "success");
             response.put("message", "Exit logged successfully");
@@ -195,7 +211,7 @@ public class VehicleLogController {
                 return response;
             }
 
-            Booking booking = bookingRepository.findById(bookingId)
+            Booking booking = bookingRepository.findWithDetailsById(bookingId)
                     .orElseThrow(() -> new IllegalArgumentException("Booking not found"));
 
             if (!booking.getUser().getId().equals(user.getId())) {
@@ -236,7 +252,7 @@ public class VehicleLogController {
                 return response;
             }
 
-            Booking booking = bookingRepository.findById(bookingId)
+            Booking booking = bookingRepository.findWithDetailsById(bookingId)
                     .orElseThrow(() -> new IllegalArgumentException("Booking not found"));
 
             if (!booking.getUser().getId().equals(user.getId())) {
@@ -0,0 +1,462 @@
+package com.prmplatform.parqhub.datagen;
+
+import com.prmplatform.parqhub.model.Admin;
+import com.prmplatform.parqhub.model.Notification.NotificationType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Bulk-loads a synthetic dataset with batched JDBC inserts.
+ * Rows are appended after the highest existing ids, so it can run against a database that already
+ * has data. The same seed and sizes produce the same dataset, dated relative to the day it runs.
+ *
+ * Activity follows the shapes seen in production: more bookings in recent days than a year ago,
+ * quieter weekends, morning and evening peaks, a few frequent parkers and a few busy lots.
+ */
+public class DatasetGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatasetGenerator.class);
+
+    private static final String[] CITIES = {
+            "Colombo", "Kandy", "Galle", "Negombo", "Jaffna", "Matara", "Kurunegala", "Anuradhapura", "Batticaloa", "Trincomalee"
+    };
+    private static final int[] CITY_WEIGHTS = {35, 12, 10, 9, 7, 7, 6, 5, 5, 4};
+    // Latitude and longitude of each city centre, in CITIES order
+    private static final double[][] CITY_CENTRES = {
+            {6.9271, 79.8612}, {7.2906, 80.6337}, {6.0535, 80.2210}, {7.2008, 79.8737}, {9.6615, 80.0255},
+            {5.9549, 80.5550}, {7.4863, 80.3623}, {8.3114, 80.4037}, {7.7310, 81.6747}, {8.5874, 81.2152}
+    };
+    private static final String[] STREETS = {
+            "Main Street", "Station Road", "Temple Road", "Lake Drive", "Market Square", "Hospital Road",
+            "Beach Road", "Church Street", "Park Avenue", "Bus Stand", "Shopping Mall", "City Centre"
+    };
+    private static final String[] FIRST_NAMES = {
+            "Nimal", "Kamal", "Sunil", "Ruwan", "Chaminda", "Dilan", "Kasun", "Tharindu", "Amal", "Saman",
+            "Nadeesha", "Dilini", "Sachini", "Kavindi", "Ishara", "Hiruni", "Anjali", "Priya", "Malini", "Ayesha"
+    };
+    private static final String[] LAST_NAMES = {
+            "Perera", "Fernando", "Silva", "Jayasinghe", "Bandara", "Wickramasinghe", "Rajapaksa", "Gunawardena",
+            "Dissanayake", "Herath", "Kumara", "Ranasinghe", "Senanayake", "Mendis", "Peiris"
+    };
+    private static final String[] VEHICLE_TYPES = {"Car", "Bike", "Van", "Truck"};
+    private static final int[] VEHICLE_TYPE_WEIGHTS = {60, 25, 10, 5};
+    private static final String[][] BRANDS = {
+            {"Toyota", "Axio"}, {"Toyota", "Prius"}, {"Honda", "Vezel"}, {"Suzuki", "Wagon R"}, {"Nissan", "Leaf"},
+            {"Honda", "Dio"}, {"Bajaj", "Pulsar"}, {"Yamaha", "FZ"}, {"Toyota", "HiAce"}, {"Isuzu", "Elf"}
+    };
+    private static final String[] COLORS = {"White", "Black", "Silver", "Grey", "Red", "Blue"};
+    private static final String[] PAYMENT_METHODS = {"Card", "Cash", "Arrival"};
+    private static final int[] PAYMENT_METHOD_WEIGHTS = {60, 30, 10};
+    private static final NotificationType[] NOTIFICATION_TYPES = {
+            NotificationType.FULL_SLOT, NotificationType.OVERSTAY, NotificationType.SECURITY_INCIDENT, NotificationType.NONE
+    };
+    private static final int[] NOTIFICATION_TYPE_WEIGHTS = {50, 30, 10, 10};
+    private static final String[][] IDENTITIES = {
+            {"admins", "admin_id"}, {"parkinglot", "lot_id"}, {"parkingslot", "slot_id"}, {"users", "user_id"},
+            {"vehicle", "vehicle_id"}, {"booking", "booking_id"}, {"payment", "payment_id"},
+            {"vehicle_log", "log_id"}, {"notification", "notification_id"}
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public DatasetGenerator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Sizes and shape of a generated dataset
+     */
+    public static class Spec {
+        private int lots = 50;
+        private int minSlotsPerLot = 20;
+        private int maxSlotsPerLot = 200;
+        private int users = 1000;
+        private long bookings = 20000;
+        private int notifications = 1000;
+        private int days = 365;
+        private long seed = 42;
+        private int batchSize = 5000;
+
+        public int getLots() { return lots; }
+        public Spec setLots(int lots) { this.lots = lots; return this; }
+
+        public int getMinSlotsPerLot() { return minSlotsPerLot; }
+        public Spec setMinSlotsPerLot(int minSlotsPerLot) { this.minSlotsPerLot = minSlotsPerLot; return this; }
+
+        public int getMaxSlotsPerLot() { return maxSlotsPerLot; }
+        public Spec setMaxSlotsPerLot(int maxSlotsPerLot) { this.maxSlotsPerLot = maxSlotsPerLot; return this; }
+
+        public int getUsers() { return users; }
+        public Spec setUsers(int users) { this.users = users; return this; }
+
+        public long getBookings() { return bookings; }
+        public Spec setBookings(long bookings) { this.bookings = bookings; return this; }
+
+        public int getNotifications() { return notifications; }
+        public Spec setNotifications(int notifications) { this.notifications = notifications; return this; }
+
+        public int getDays() { return days; }
+        public Spec setDays(int days) { this.days = days; return this; }
+
+        public long getSeed() { return seed; }
+        public Spec setSeed(long seed) { this.seed = seed; return this; }
+
+        public int getBatchSize() { return batchSize; }
+        public Spec setBatchSize(int batchSize) { this.batchSize = batchSize; return this; }
+    }
+
+    /**
+     * Generate a dataset and return the first day it covers
+     */
+    public LocalDate generate(Spec spec) {
+        if (spec.lots < 1 || spec.users < 1 || spec.days < 1 || spec.minSlotsPerLot < 1
+                || spec.maxSlotsPerLot < spec.minSlotsPerLot) {
+            throw new IllegalArgumentException("Dataset needs at least one lot, slot, user and day");
+        }
+        SplittableRandom random = new SplittableRandom(spec.seed);
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        LocalDate firstDay = now.toLocalDate().minusDays(spec.days - 1L);
+        long started = System.currentTimeMillis();
+
+        long adminBase = maxId("admins", "admin_id");
+        long lotBase = maxId("parkinglot", "lot_id");
+        long slotBase = maxId("parkingslot", "slot_id");
+        long userBase = maxId("users", "user_id");
+        long vehicleBase = maxId("vehicle", "vehicle_id");
+        long bookingBase = maxId("booking", "booking_id");
+        long paymentBase = maxId("payment", "payment_id");
+        long logBase = maxId("vehicle_log", "log_id");
+        long notificationBase = maxId("notification", "notification_id");
+        boolean h2 = "H2".equals(jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()));
+        if (h2) {
+            // H2 updates an identity's sequence for every explicit id above it, so move the sequences out of the way first
+            restartIdentities(spec.bookings + (long) spec.lots * spec.maxSlotsPerLot + 3L * spec.users + spec.notifications + 100);
+        }
+
+        // Admins: one per role
+        BatchInserter admins = new BatchInserter("INSERT INTO admins (admin_id, name, email, password, role) VALUES (?, ?, ?, ?, ?)", spec.batchSize);
+        Admin.Role[] roles = Admin.Role.values();
+        for (int i = 1; i <= roles.length; i++) {
+            long id = adminBase + i;
+            admins.add(id, "Admin " + id, "admin" + id + "@example.com", "password123", roles[i - 1].name());
+        }
+        flushInOrder(admins);
+
+        // Lots and their slots; slot ids are contiguous per lot
+        int[] lotFirstSlot = new int[spec.lots];
+        int[] lotSlots = new int[spec.lots];
+        BigDecimal[] lotPrice = new BigDecimal[spec.lots];
+        String[] lotName = new String[spec.lots];
+        BatchInserter lots = new BatchInserter("INSERT INTO parkinglot (lot_id, city, location, total_slots, price_hr, latitude, longitude) VALUES (?, ?, ?, ?, ?, ?, ?)", spec.batchSize);
+        // Coordinates come from their own stream so adding them left the rest of a seeded dataset unchanged
+        SplittableRandom geoRandom = new SplittableRandom(spec.seed + 1);
+        int slotCount = 0;
+        for (int lot = 0; lot < spec.lots; lot++) {
+            int cityIndex = weighted(random, CITY_WEIGHTS);
+            // Lot sizes are skewed: many small lots, a few large ones
+            double size = Math.pow(random.nextDouble(), 2);
+            lotSlots[lot] = spec.minSlotsPerLot + (int) Math.round(size * (spec.maxSlotsPerLot - spec.minSlotsPerLot));
+            lotFirstSlot[lot] = slotCount;
+            slotCount += lotSlots[lot];
+            // Prices step in 50s, higher in the capital
+            int steps = 1 + random.nextInt(cityIndex == 0 ? 10 : 6);
+            lotPrice[lot] = BigDecimal.valueOf(50L * steps).setScale(2);
+            lotName[lot] = STREETS[random.nextInt(STREETS.length)] + " " + (lot + 1);
+            // Lots cluster around the city centre, spread wider in the capital
+            double spread = cityIndex == 0 ? 0.05 : 0.025;
+            double latitude = CITY_CENTRES[cityIndex][0] + geoRandom.nextGaussian() * spread;
+            double longitude = CITY_CENTRES[cityIndex][1] + geoRandom.nextGaussian() * spread;
+            lots.add(lotBase + lot + 1, CITIES[cityIndex], lotName[lot], lotSlots[lot], lotPrice[lot],
+                    Math.round(latitude * 1e6) / 1e6, Math.round(longitude * 1e6) / 1e6);
+            flushIfFull(lots);
+        }
+        flushInOrder(lots);
+
+        BatchInserter slots = new BatchInserter("INSERT INTO parkingslot (slot_id, lot_id, status) VALUES (?, ?, ?)", spec.batchSize);
+        for (int lot = 0; lot < spec.lots; lot++) {
+            for (int i = 0; i < lotSlots[lot]; i++) {
+                slots.add(slotBase + lotFirstSlot[lot] + i + 1, lotBase + lot + 1, "AVAILABLE");
+                flushIfFull(slots);
+            }
+        }
+        flushInOrder(slots);
+        logger.info("Generated {} lots with {} slots", spec.lots, slotCount);
+
+        // Users with one to three vehicles each
+        int[] userFirstVehicle = new int[spec.users];
+        int[] userVehicles = new int[spec.users];
+        BatchInserter users = new BatchInserter("INSERT INTO users (user_id, name, email, password, contact_no) VALUES (?, ?, ?, ?, ?)", spec.batchSize);
+        BatchInserter vehicles = new BatchInserter("INSERT INTO vehicle (vehicle_id, user_id, vehicle_no, vehicle_type, brand, model, color) VALUES (?, ?, ?, ?, ?, ?, ?)", spec.batchSize);
+        int vehicleCount = 0;
+        for (int user = 0; user < spec.users; user++) {
+            long userId = userBase + user + 1;
+            String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            users.add(userId, name, "user" + userId + "@example.com", "password123", String.format("07%08d", userId % 100_000_000));
+
+            int roll = random.nextInt(100);
+            userVehicles[user] = roll < 75 ? 1 : roll < 95 ? 2 : 3;
+            userFirstVehicle[user] = vehicleCount;
+            for (int v = 0; v < userVehicles[user]; v++) {
+                long vehicleId = vehicleBase + vehicleCount + 1;
+                int type = weighted(random, VEHICLE_TYPE_WEIGHTS);
+                String[] brand = BRANDS[type == 1 ? 5 + random.nextInt(3) : type >= 2 ? 8 + random.nextInt(2) : random.nextInt(5)];
+                vehicles.add(vehicleId, userId, "GEN-" + vehicleId, VEHICLE_TYPES[type], brand[0], brand[1], COLORS[random.nextInt(COLORS.length)]);
+                vehicleCount++;
+            }
+            // Vehicles reference their users, so users always go first
+            flushIfFull(users, vehicles);
+        }
+        flushInOrder(users, vehicles);
+        logger.info("Generated {} users with {} vehicles", spec.users, vehicleCount);
+
+        // Bookings with their vehicle log and payment, written in the same batches
+        BatchInserter bookings = new BatchInserter("INSERT INTO booking (booking_id, user_id, vehicle_id, slot_id, start_time, end_time, payment_status) VALUES (?, ?, ?, ?, ?, ?, ?)", spec.batchSize);
+        BatchInserter vehicleLogs = new BatchInserter("INSERT INTO vehicle_log (log_id, vehicle_id, entry_time, exit_time, lot_id) VALUES (?, ?, ?, ?, ?)", spec.batchSize);
+        BatchInserter payments = new BatchInserter("INSERT INTO payment (payment_id, booking_id, amount, method, status, timestamp) VALUES (?, ?, ?, ?, ?, ?)", spec.batchSize);
+        List<Object[]> occupiedSlots = new ArrayList<>();
+        // Slots and vehicles with a stay still open; each holds at most one
+        Set<Long> openSlots = new HashSet<>();
+        Set<Long> parkedVehicles = new HashSet<>();
+        long paymentCount = 0;
+        for (long booking = 1; booking <= spec.bookings; booking++) {
+            long bookingId = bookingBase + booking;
+            int user = skewed(random, spec.users, 1.7);
+            long userId = userBase + user + 1;
+            long vehicleId = vehicleBase + userFirstVehicle[user] + random.nextInt(userVehicles[user]) + 1;
+            int lot = skewed(random, spec.lots, 1.5);
+            long lotId = lotBase + lot + 1;
+            long slotId = slotBase + lotFirstSlot[lot] + random.nextInt(lotSlots[lot]) + 1;
+
+            LocalDateTime start = randomDay(random, firstDay, spec.days).atTime(randomHour(random), random.nextInt(60));
+            if (start.isAfter(now)) {
+                start = start.minusDays(1);
+            }
+            // Stays are log-normal around two hours
+            long minutes = Math.max(15, Math.min(720, Math.round(Math.exp(Math.log(120) + 0.6 * random.nextGaussian()))));
+            LocalDateTime end = start.plusMinutes(minutes);
+            Timestamp entry = Timestamp.valueOf(start);
+
+            boolean parked = end.isAfter(now);
+            if (parked) {
+                Long freeSlotId = parkedVehicles.contains(vehicleId) ? null
+                        : freeSlot(openSlots, slotBase + lotFirstSlot[lot] + 1, lotSlots[lot], slotId);
+                if (freeSlotId == null) {
+                    // The vehicle is already parked or the lot is full, so this stay ends now instead
+                    end = now;
+                    minutes = Math.max(1, Duration.between(start, now).toMinutes());
+                    parked = false;
+                } else {
+                    slotId = freeSlotId;
+                }
+            }
+
+            if (parked) {
+                // Still parked
+                bookings.add(bookingId, userId, vehicleId, slotId, entry, null, "Pending");
+                vehicleLogs.add(logBase + booking, vehicleId, entry, null, lotId);
+                occupiedSlots.add(new Object[]{slotId});
+                openSlots.add(slotId);
+                parkedVehicles.add(vehicleId);
+            } else {
+                int roll = random.nextInt(100);
+                String status = roll < 92 ? "Completed" : roll < 95 ? "Failed" : "Pending";
+                Timestamp exit = Timestamp.valueOf(end);
+                bookings.add(bookingId, userId, vehicleId, slotId, entry, status.equals("Completed") ? exit : null, status);
+                vehicleLogs.add(logBase + booking, vehicleId, entry, exit, lotId);
+                if (!status.equals("Pending")) {
+                    long hours = Math.max(1, (minutes + 59) / 60);
+                    LocalDateTime paidAt = end.plusMinutes(random.nextInt(30));
+                    payments.add(paymentBase + ++paymentCount, bookingId, lotPrice[lot].multiply(BigDecimal.valueOf(hours)),
+                            PAYMENT_METHODS[weighted(random, PAYMENT_METHOD_WEIGHTS)], status,
+                            Timestamp.valueOf(paidAt.isAfter(now) ? now : paidAt));
+                }
+            }
+
+            if (flushIfFull(bookings, vehicleLogs, payments) && booking % 1_000_000 < spec.batchSize) {
+                logger.info("Generated {} of {} bookings", booking, spec.bookings);
+            }
+        }
+        flushInOrder(bookings, vehicleLogs, payments);
+        insertBatches("UPDATE parkingslot SET status = 'OCCUPIED' WHERE slot_id = ?", occupiedSlots, spec.batchSize);
+        logger.info("Generated {} bookings, {} payments and {} vehicle logs", spec.bookings, paymentCount, spec.bookings);
+
+        BatchInserter notifications = new BatchInserter("INSERT INTO notification (notification_id, type, description, timestamp, user_id, admin_id) VALUES (?, ?, ?, ?, ?, ?)", spec.batchSize);
+        for (int i = 1; i <= spec.notifications; i++) {
+            NotificationType type = NOTIFICATION_TYPES[weighted(random, NOTIFICATION_TYPE_WEIGHTS)];
+            int lot = skewed(random, spec.lots, 1.5);
+            LocalDateTime at = randomDay(random, firstDay, spec.days).atTime(randomHour(random), random.nextInt(60));
+            Long userId = type == NotificationType.SECURITY_INCIDENT ? null : userBase + skewed(random, spec.users, 1.7) + 1;
+            notifications.add(notificationBase + i, type.name(), describe(type, lotName[lot]),
+                    Timestamp.valueOf(at.isAfter(now) ? now : at), userId, null);
+            flushIfFull(notifications);
+        }
+        flushInOrder(notifications);
+
+        if (h2) {
+            restartIdentities(0);
+        }
+        logger.info("Dataset generated in {} s", (System.currentTimeMillis() - started) / 1000);
+        return firstDay;
+    }
+
+    /**
+     * Flush the inserters, in order, once any of them holds a full batch; returns whether it flushed
+     */
+    private boolean flushIfFull(BatchInserter... inserters) {
+        for (BatchInserter inserter : inserters) {
+            if (inserter.rows.size() >= inserter.batchSize) {
+                flushInOrder(inserters);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Flush the inserters in one transaction, in order, so referenced rows are written before the rows referencing them
+     */
+    private void flushInOrder(BatchInserter... inserters) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (BatchInserter inserter : inserters) {
+                inserter.flush();
+            }
+        });
+    }
+
+    private long maxId(String table, String column) {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(" + column + ") FROM " + table, Long.class);
+        return max != null ? max : 0;
+    }
+
+    /**
+     * Point every identity past the highest id plus headroom. MySQL keeps AUTO_INCREMENT past explicit ids by itself.
+     */
+    private void restartIdentities(long headroom) {
+        for (String[] identity : IDENTITIES) {
+            jdbcTemplate.execute("ALTER TABLE " + identity[0] + " ALTER COLUMN " + identity[1]
+                    + " RESTART WITH " + (maxId(identity[0], identity[1]) + 1 + headroom));
+        }
+    }
+
+    private void insertBatches(String sql, List<Object[]> rows, int batchSize) {
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            List<Object[]> batch = rows.subList(from, Math.min(rows.size(), from + batchSize));
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, batch));
+        }
+    }
+
+    /**
+     * A day in the range, with recent days up to twice as busy as the first and weekends a third quieter
+     */
+    private static LocalDate randomDay(SplittableRandom random, LocalDate firstDay, int days) {
+        while (true) {
+            // Inverse CDF of a density rising linearly from 0.5 to 1 across the range
+            double x = -1 + 2 * Math.sqrt(0.25 + 0.75 * random.nextDouble());
+            LocalDate day = firstDay.plusDays(Math.min(days - 1, (long) (x * days)));
+            boolean weekend = day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY;
+            if (!weekend || random.nextInt(100) >= 35) {
+                return day;
+            }
+        }
+    }
+
+    /**
+     * An hour of the day: a morning peak around nine, an evening peak around half past five, and background traffic
+     */
+    /**
+     * The preferred slot if no open stay holds it, otherwise the next free one of the lot, wrapping around; null when all are taken
+     */
+    private static Long freeSlot(Set<Long> openSlots, long firstSlotId, int slotCount, long preferred) {
+        for (int i = 0; i < slotCount; i++) {
+            long slotId = firstSlotId + (preferred - firstSlotId + i) % slotCount;
+            if (!openSlots.contains(slotId)) {
+                return slotId;
+            }
+        }
+        return null;
+    }
+
+    private static int randomHour(SplittableRandom random) {
+        int roll = random.nextInt(100);
+        double hour = roll < 45 ? 9 + 1.5 * random.nextGaussian()
+                : roll < 80 ? 17.5 + 1.5 * random.nextGaussian()
+                : 6 + 16 * random.nextDouble();
+        return (int) Math.max(0, Math.min(23, hour));
+    }
+
+    /**
+     * An index below bound where low indexes are picked more often; higher exponents skew harder
+     */
+    private static int skewed(SplittableRandom random, int bound, double exponent) {
+        return Math.min(bound - 1, (int) (Math.pow(random.nextDouble(), exponent) * bound));
+    }
+
+    private static int weighted(SplittableRandom random, int[] weights) {
+        int total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        int roll = random.nextInt(total);
+        for (int i = 0; i < weights.length; i++) {
+            roll -= weights[i];
+            if (roll < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    private static String describe(NotificationType type, String lotName) {
+        return switch (type) {
+            case FULL_SLOT -> "Parking lot " + lotName + " is full";
+            case OVERSTAY -> "Vehicle has overstayed its booking at " + lotName;
+            case SECURITY_INCIDENT -> "Security incident reported at " + lotName;
+            case NONE -> "General notice for " + lotName;
+        };
+    }
+
+    /**
+     * Rows for one INSERT statement, sent to the database a batch at a time
+     */
+    private class BatchInserter {
+        private final String sql;
+        private final int batchSize;
+        private final List<Object[]> rows;
+
+        BatchInserter(String sql, int batchSize) {
+            this.sql = sql;
+            this.batchSize = batchSize;
+            this.rows = new ArrayList<>(batchSize);
+        }
+
+        void add(Object... row) {
+            rows.add(row);
+        }
+
+        void flush() {
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(sql, rows);
+                rows.clear();
+            }
+        }
+    }
+}
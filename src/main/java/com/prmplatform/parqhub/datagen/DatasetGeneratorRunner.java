@@ -0,0 +1,98 @@
+package com.prmplatform.parqhub.datagen;
+
+import com.prmplatform.parqhub.service.ReportRollupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+
+/**
+ * Generates a synthetic dataset into the configured database when the "datagen" profile is active, then exits.
+ * Sizes are set with parqhub.datagen.* properties; see application-datagen.properties.
+ */
+@Component
+@Profile("datagen")
+public class DatasetGeneratorRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatasetGeneratorRunner.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ReportRollupService reportRollupService;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${parqhub.datagen.lots:500}")
+    private int lots;
+
+    @Value("${parqhub.datagen.min-slots-per-lot:20}")
+    private int minSlotsPerLot;
+
+    @Value("${parqhub.datagen.max-slots-per-lot:400}")
+    private int maxSlotsPerLot;
+
+    @Value("${parqhub.datagen.users:100000}")
+    private int users;
+
+    @Value("${parqhub.datagen.bookings:10500000}")
+    private long bookings;
+
+    @Value("${parqhub.datagen.notifications:200000}")
+    private int notifications;
+
+    @Value("${parqhub.datagen.days:730}")
+    private int days;
+
+    @Value("${parqhub.datagen.seed:42}")
+    private long seed;
+
+    @Value("${parqhub.datagen.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${parqhub.datagen.backfill-rollups:false}")
+    private boolean backfillRollups;
+
+    public DatasetGeneratorRunner(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  ReportRollupService reportRollupService,
+                                  ConfigurableApplicationContext context) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionManager = transactionManager;
+        this.reportRollupService = reportRollupService;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        DatasetGenerator.Spec spec = new DatasetGenerator.Spec()
+                .setLots(lots)
+                .setMinSlotsPerLot(minSlotsPerLot)
+                .setMaxSlotsPerLot(maxSlotsPerLot)
+                .setUsers(users)
+                .setBookings(bookings)
+                .setNotifications(notifications)
+                .setDays(days)
+                .setSeed(seed)
+                .setBatchSize(batchSize);
+        logger.info("Generating {} lots, {} users, {} bookings and {} notifications over {} days",
+                lots, users, bookings, notifications, days);
+        LocalDate firstDay = new DatasetGenerator(jdbcTemplate, transactionManager).generate(spec);
+
+        if (backfillRollups) {
+            // Closed days are rolled up now so the first report over them does not have to
+            long started = System.currentTimeMillis();
+            reportRollupService.backfill(firstDay, LocalDate.now().minusDays(1));
+            logger.info("Report rollups backfilled in {} s", (System.currentTimeMillis() - started) / 1000);
+        }
+
+        System.exit(SpringApplication.exit(context));
+    }
+}
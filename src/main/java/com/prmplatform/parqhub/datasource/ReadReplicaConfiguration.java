@@ -0,0 +1,78 @@
+package com.prmplatform.parqhub.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionManager;
+
+import javax.sql.DataSource;
+
+/**
+ * Routes the read-only transactions labelled {@link ReadReplicaRoutingDataSource#REPLICA_LABEL} (reports,
+ * dashboard reconciliation, admin table listings) to a read replica, only when parqhub.datasource.replica.url is set. Without it the application keeps the single
+ * datasource Spring Boot builds from spring.datasource.*.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "parqhub.datasource.replica", name = "url")
+public class ReadReplicaConfiguration {
+
+    // Same pool Spring Boot would have built from spring.datasource.* and spring.datasource.hikari.*
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("parqhub.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Value("${parqhub.datasource.replica.url}") String url,
+                                              @Value("${parqhub.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${parqhub.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("parqhub-replica");
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        // Fail over to the primary quickly instead of holding the request for Hikari's default 30 s
+        dataSource.setConnectionTimeout(2000);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") HikariDataSource replicaDataSource,
+                                 @Value("${parqhub.datasource.replica.retry-interval-ms:30000}") long retryIntervalMs) {
+        return new LazyConnectionDataSourceProxy(
+                new ReadReplicaRoutingDataSource(primaryDataSource, replicaDataSource, retryIntervalMs));
+    }
+
+    // Replaces Spring Boot's JpaTransactionManager with one that marks the replica reads
+    @Bean
+    public JpaTransactionManager transactionManager(ObjectProvider<TransactionManagerCustomizers> customizers) {
+        JpaTransactionManager transactionManager = new ReadReplicaTransactionManager();
+        customizers.ifAvailable(c -> c.customize((TransactionManager) transactionManager));
+        return transactionManager;
+    }
+
+    // Hand the connection back after each transaction; holding it for the whole request (the default with
+    // open-in-view) would keep every later transaction of the request on whichever database came first
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionsAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
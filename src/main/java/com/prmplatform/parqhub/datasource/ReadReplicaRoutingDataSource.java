@@ -0,0 +1,84 @@
+package com.prmplatform.parqhub.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Sends the connections of the transactions {@link ReadReplicaTransactionManager} marked as replica reads to
+ * the replica and everything else to the primary.
+ * When the replica cannot hand out a connection, the transaction runs on the primary instead and the
+ * replica is left alone for the retry interval, so an outage costs one connection timeout rather than
+ * one per request. Must sit behind a LazyConnectionDataSourceProxy: the mark is only known once the
+ * transaction has begun, after the JPA session asked for its connection.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadReplicaRoutingDataSource.class);
+
+    /**
+     * Label, or TransactionTemplate name, of the read-only transactions allowed to run on the replica:
+     * reports, dashboard reconciliation and admin table listings, which tolerate replication lag
+     */
+    public static final String REPLICA_LABEL = "read-replica";
+
+    enum Route { PRIMARY, REPLICA }
+
+    private final DataSource primary;
+    private final long retryIntervalMs;
+    // Until when reads stay on the primary after the replica failed
+    private volatile long replicaDownUntil;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, DataSource replica, long retryIntervalMs) {
+        this.primary = primary;
+        this.retryIntervalMs = retryIntervalMs;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean replicaUp = System.currentTimeMillis() >= replicaDownUntil;
+        return replicaUp && ReadReplicaTransactionManager.isReplicaRead() ? Route.REPLICA : Route.PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        DataSource target = determineTargetDataSource();
+        if (target == primary) {
+            return primary.getConnection();
+        }
+        try {
+            return target.getConnection();
+        } catch (SQLException e) {
+            markReplicaDown(e);
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        DataSource target = determineTargetDataSource();
+        if (target == primary) {
+            return primary.getConnection(username, password);
+        }
+        try {
+            return target.getConnection(username, password);
+        } catch (SQLException e) {
+            markReplicaDown(e);
+            return primary.getConnection(username, password);
+        }
+    }
+
+    private void markReplicaDown(SQLException e) {
+        replicaDownUntil = System.currentTimeMillis() + retryIntervalMs;
+        logger.warn("Read replica unavailable, reading from the primary for the next {} ms: {}", retryIntervalMs, e.getMessage());
+    }
+}
@@ -0,0 +1,55 @@
+package com.prmplatform.parqhub.datasource;
+
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Marks the transactions that may read from the replica, for {@link ReadReplicaRoutingDataSource}. Only a
+ * read-only transaction labelled {@link ReadReplicaRoutingDataSource#REPLICA_LABEL} (an annotated method) or
+ * named so (a TransactionTemplate) qualifies; every other read-only transaction, such as a plain Spring Data
+ * read that refreshes a cache right after a write, stays on the primary. The mark is suspended with its
+ * transaction, so a REQUIRES_NEW transaction started inside a replica read still goes to the primary.
+ */
+public class ReadReplicaTransactionManager extends JpaTransactionManager {
+
+    static final Object REPLICA_READ = new Object();
+
+    static boolean isReplicaRead() {
+        return TransactionSynchronizationManager.hasResource(REPLICA_READ);
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        super.doBegin(transaction, definition);
+        boolean labelled = definition instanceof TransactionAttribute attribute
+                && attribute.getLabels().contains(ReadReplicaRoutingDataSource.REPLICA_LABEL);
+        if (definition.isReadOnly() && (labelled || ReadReplicaRoutingDataSource.REPLICA_LABEL.equals(definition.getName()))) {
+            TransactionSynchronizationManager.bindResource(REPLICA_READ, Boolean.TRUE);
+        }
+    }
+
+    @Override
+    protected Object doSuspend(Object transaction) {
+        return new SuspendedResources(super.doSuspend(transaction), TransactionSynchronizationManager.unbindResourceIfPossible(REPLICA_READ));
+    }
+
+    @Override
+    protected void doResume(Object transaction, Object suspendedResources) {
+        SuspendedResources suspended = (SuspendedResources) suspendedResources;
+        super.doResume(transaction, suspended.jpa);
+        if (suspended.replicaRead != null) {
+            TransactionSynchronizationManager.bindResource(REPLICA_READ, suspended.replicaRead);
+        }
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        TransactionSynchronizationManager.unbindResourceIfPossible(REPLICA_READ);
+        super.doCleanupAfterCompletion(transaction);
+    }
+
+    private record SuspendedResources(Object jpa, Object replicaRead) {
+    }
+}
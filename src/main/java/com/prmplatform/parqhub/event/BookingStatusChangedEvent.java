@@ -0,0 +1,30 @@
+package com.prmplatform.parqhub.event;
+
+import com.prmplatform.parqhub.model.Booking.PaymentStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published after a booking is created or its payment status changes.
+ * A null previous status means the booking is new.
+ */
+public class BookingStatusChangedEvent {
+
+    private final Long bookingId;
+    private final LocalDateTime startTime;
+    private final PaymentStatus previousStatus;
+    private final PaymentStatus newStatus;
+
+    public BookingStatusChangedEvent(Long bookingId, LocalDateTime startTime,
+                                     PaymentStatus previousStatus, PaymentStatus newStatus) {
+        this.bookingId = bookingId;
+        this.startTime = startTime;
+        this.previousStatus = previousStatus;
+        this.newStatus = newStatus;
+    }
+
+    public Long getBookingId() { return bookingId; }
+    public LocalDateTime getStartTime() { return startTime; }
+    public PaymentStatus getPreviousStatus() { return previousStatus; }
+    public PaymentStatus getNewStatus() { return newStatus; }
+}
@@ -0,0 +1,17 @@
+package com.prmplatform.parqhub.event;
+
+/**
+ * Published when a parking lot row itself has been created, edited or deleted
+ * (city, location, price or total slots), as opposed to its slots.
+ * A null lot id means any lot may have changed, e.g. after a bulk load.
+ */
+public class LotCatalogChangedEvent {
+
+    private final Long lotId;
+
+    public LotCatalogChangedEvent(Long lotId) {
+        this.lotId = lotId;
+    }
+
+    public Long getLotId() { return lotId; }
+}
@@ -0,0 +1,16 @@
+package com.prmplatform.parqhub.event;
+
+/**
+ * Published when the set of slots belonging to a parking lot has changed in bulk
+ * (lot created, resized or deleted, or a slot edited from the admin tables).
+ */
+public class LotInventoryChangedEvent {
+
+    private final Long lotId;
+
+    public LotInventoryChangedEvent(Long lotId) {
+        this.lotId = lotId;
+    }
+
+    public Long getLotId() { return lotId; }
+}
@@ -0,0 +1,20 @@
+package com.prmplatform.parqhub.event;
+
+import com.prmplatform.parqhub.model.Notification.NotificationType;
+
+/**
+ * Published after a notification is created or deleted.
+ */
+public class NotificationChangedEvent {
+
+    private final NotificationType type;
+    private final boolean deleted;
+
+    public NotificationChangedEvent(NotificationType type, boolean deleted) {
+        this.type = type;
+        this.deleted = deleted;
+    }
+
+    public NotificationType getType() { return type; }
+    public boolean isDeleted() { return deleted; }
+}
@@ -0,0 +1,32 @@
+package com.prmplatform.parqhub.event;
+
+import com.prmplatform.parqhub.model.Payment.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Published after a payment has been saved.
+ */
+public class PaymentRecordedEvent {
+
+    private final Long paymentId;
+    private final Long userId;
+    private final BigDecimal amount;
+    private final PaymentStatus status;
+    private final LocalDateTime timestamp;
+
+    public PaymentRecordedEvent(Long paymentId, Long userId, BigDecimal amount, PaymentStatus status, LocalDateTime timestamp) {
+        this.paymentId = paymentId;
+        this.userId = userId;
+        this.amount = amount;
+        this.status = status;
+        this.timestamp = timestamp;
+    }
+
+    public Long getPaymentId() { return paymentId; }
+    public Long getUserId() { return userId; }
+    public BigDecimal getAmount() { return amount; }
+    public PaymentStatus getStatus() { return status; }
+    public LocalDateTime getTimestamp() { return timestamp; }
+}
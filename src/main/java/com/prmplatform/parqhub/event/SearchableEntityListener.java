@@ -0,0 +1,32 @@
+package com.prmplatform.parqhub.event;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener that turns every write of a searchable entity into a {@link SearchableRecordChangedEvent},
+ * so the admin search index follows changes however they are made. Hibernate obtains it from the Spring context.
+ */
+@Component
+public class SearchableEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public SearchableEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Object entity) {
+        eventPublisher.publishEvent(new SearchableRecordChangedEvent(entity, false));
+    }
+
+    @PostRemove
+    public void onRemoved(Object entity) {
+        eventPublisher.publishEvent(new SearchableRecordChangedEvent(entity, true));
+    }
+}
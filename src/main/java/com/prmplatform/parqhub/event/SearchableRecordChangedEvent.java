@@ -0,0 +1,19 @@
+package com.prmplatform.parqhub.event;
+
+/**
+ * Published by {@link SearchableEntityListener} after an entity the admin tables search over
+ * has been inserted, updated or deleted through JPA.
+ */
+public class SearchableRecordChangedEvent {
+
+    private final Object record;
+    private final boolean removed;
+
+    public SearchableRecordChangedEvent(Object record, boolean removed) {
+        this.record = record;
+        this.removed = removed;
+    }
+
+    public Object getRecord() { return record; }
+    public boolean isRemoved() { return removed; }
+}
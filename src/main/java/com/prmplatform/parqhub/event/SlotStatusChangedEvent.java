@@ -0,0 +1,27 @@
+package com.prmplatform.parqhub.event;
+
+import com.prmplatform.parqhub.model.ParkingSlot.SlotStatus;
+
+/**
+ * Published after a single parking slot has moved from one status to another
+ * (booking, vehicle entry, vehicle exit, payment settlement).
+ */
+public class SlotStatusChangedEvent {
+
+    private final Long lotId;
+    private final Long slotId;
+    private final SlotStatus previousStatus;
+    private final SlotStatus newStatus;
+
+    public SlotStatusChangedEvent(Long lotId, Long slotId, SlotStatus previousStatus, SlotStatus newStatus) {
+        this.lotId = lotId;
+        this.slotId = slotId;
+        this.previousStatus = previousStatus;
+        this.newStatus = newStatus;
+    }
+
+    public Long getLotId() { return lotId; }
+    public Long getSlotId() { return slotId; }
+    public SlotStatus getPreviousStatus() { return previousStatus; }
+    public SlotStatus getNewStatus() { return newStatus; }
+}
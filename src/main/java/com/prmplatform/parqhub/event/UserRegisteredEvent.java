@@ -0,0 +1,15 @@
+package com.prmplatform.parqhub.event;
+
+/**
+ * Published after a new user account has been saved.
+ */
+public class UserRegisteredEvent {
+
+    private final Long userId;
+
+    public UserRegisteredEvent(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getUserId() { return userId; }
+}
@@ -0,0 +1,25 @@
+package com.prmplatform.parqhub.event;
+
+/**
+ * Published after a vehicle entry or exit has been logged.
+ */
+public class VehicleLogRecordedEvent {
+
+    public enum Kind {
+        ENTRY, EXIT
+    }
+
+    private final Long vehicleLogId;
+    private final Long lotId;
+    private final Kind kind;
+
+    public VehicleLogRecordedEvent(Long vehicleLogId, Long lotId, Kind kind) {
+        this.vehicleLogId = vehicleLogId;
+        this.lotId = lotId;
+        this.kind = kind;
+    }
+
+    public Long getVehicleLogId() { return vehicleLogId; }
+    public Long getLotId() { return lotId; }
+    public Kind getKind() { return kind; }
+}
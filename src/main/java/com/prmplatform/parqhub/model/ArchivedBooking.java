@@ -0,0 +1,56 @@
+package com.prmplatform.parqhub.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * A completed booking moved out of the booking table by the archiver, with the lot its slot belonged to.
+ * Rows are only ever written by the archiver's INSERT ... SELECT, so the entity is read-only.
+ */
+@Entity
+@Immutable
+@Table(name = "BookingArchive")
+public class ArchivedBooking {
+
+    @Id
+    @Column(name = "booking_id")
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "vehicle_id", nullable = false)
+    private Long vehicleId;
+
+    @Column(name = "slot_id", nullable = false)
+    private Long slotId;
+
+    @Column(name = "lot_id", nullable = false)
+    private Long lotId;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalDateTime startTime;
+
+    @Column(name = "end_time")
+    private LocalDateTime endTime;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_status", nullable = false)
+    private Booking.PaymentStatus paymentStatus;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    // Getters
+    public Long getId() { return id; }
+    public Long getUserId() { return userId; }
+    public Long getVehicleId() { return vehicleId; }
+    public Long getSlotId() { return slotId; }
+    public Long getLotId() { return lotId; }
+    public LocalDateTime getStartTime() { return startTime; }
+    public LocalDateTime getEndTime() { return endTime; }
+    public Booking.PaymentStatus getPaymentStatus() { return paymentStatus; }
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+}
@@ -0,0 +1,62 @@
+package com.prmplatform.parqhub.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A payment archived together with its booking, with the booking's user and lot.
+ * Rows are only ever written by the archiver's INSERT ... SELECT, so the entity is read-only.
+ */
+@Entity
+@Immutable
+@Table(name = "PaymentArchive")
+public class ArchivedPayment {
+
+    @Id
+    @Column(name = "payment_id")
+    private Long id;
+
+    @Column(name = "booking_id", nullable = false)
+    private Long bookingId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "lot_id", nullable = false)
+    private Long lotId;
+
+    @Column(name = "amount", nullable = false)
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "method", nullable = false)
+    private Payment.PaymentMethod method;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private Payment.PaymentStatus status;
+
+    @Column(name = "timestamp")
+    private LocalDateTime timestamp;
+
+    @Column(name = "idempotency_key", length = 64)
+    private String idempotencyKey;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    // Getters
+    public Long getId() { return id; }
+    public Long getBookingId() { return bookingId; }
+    public Long getUserId() { return userId; }
+    public Long getLotId() { return lotId; }
+    public BigDecimal getAmount() { return amount; }
+    public Payment.PaymentMethod getMethod() { return method; }
+    public Payment.PaymentStatus getStatus() { return status; }
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public String getIdempotencyKey() { return idempotencyKey; }
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+}
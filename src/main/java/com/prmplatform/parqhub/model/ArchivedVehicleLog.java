@@ -0,0 +1,43 @@
+package com.prmplatform.parqhub.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * A closed entry/exit record moved out of the vehicle log by the archiver.
+ * Rows are only ever written by the archiver's INSERT ... SELECT, so the entity is read-only.
+ */
+@Entity
+@Immutable
+@Table(name = "VehicleLogArchive")
+public class ArchivedVehicleLog {
+
+    @Id
+    @Column(name = "log_id")
+    private Long id;
+
+    @Column(name = "vehicle_id", nullable = false)
+    private Long vehicleId;
+
+    @Column(name = "lot_id", nullable = false)
+    private Long lotId;
+
+    @Column(name = "entry_time", nullable = false)
+    private LocalDateTime entryTime;
+
+    @Column(name = "exit_time", nullable = false)
+    private LocalDateTime exitTime;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    // Getters
+    public Long getId() { return id; }
+    public Long getVehicleId() { return vehicleId; }
+    public Long getLotId() { return lotId; }
+    public LocalDateTime getEntryTime() { return entryTime; }
+    public LocalDateTime getExitTime() { return exitTime; }
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+}
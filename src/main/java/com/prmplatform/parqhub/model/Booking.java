@@ -6,6 +6,15 @@ import java.time.Duration;
 
 @Entity
 @Table(name = "Booking")
+// Everything the booking screens and admin table show about a booking
+@NamedEntityGraph(name = "Booking.details", attributeNodes = {
+        @NamedAttributeNode("user"),
+        @NamedAttributeNode(value = "vehicle", subgraph = "vehicle"),
+        @NamedAttributeNode(value = "parkingSlot", subgraph = "parkingSlot")
+}, subgraphs = {
+        @NamedSubgraph(name = "vehicle", attributeNodes = @NamedAttributeNode("user")),
+        @NamedSubgraph(name = "parkingSlot", attributeNodes = @NamedAttributeNode("parkingLot"))
+})
 public class Booking {
 
     @Id
@@ -13,15 +22,15 @@ public class Booking {
     @Column(name = "booking_id")
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "vehicle_id", nullable = false)
     private Vehicle vehicle;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "slot_id", nullable = false)
     private ParkingSlot parkingSlot;
 
@@ -0,0 +1,61 @@
+package com.prmplatform.parqhub.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated bookings for one start day, parking lot, start hour and payment status.
+ */
+@Entity
+@Table(name = "DailyBookingRollup",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"rollup_date", "lot_id", "start_hour", "payment_status"}))
+public class DailyBookingRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "rollup_id")
+    private Long id;
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+
+    @Column(name = "lot_id", nullable = false)
+    private Long lotId;
+
+    @Column(name = "start_hour", nullable = false)
+    private int startHour;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_status", nullable = false, length = 20)
+    private Booking.PaymentStatus paymentStatus;
+
+    @Column(name = "booking_count", nullable = false)
+    private long bookingCount;
+
+    // Parked hours of the bookings that have ended
+    @Column(name = "booking_hours", nullable = false, precision = 14, scale = 2)
+    private BigDecimal bookingHours = BigDecimal.ZERO;
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public LocalDate getRollupDate() { return rollupDate; }
+    public void setRollupDate(LocalDate rollupDate) { this.rollupDate = rollupDate; }
+
+    public Long getLotId() { return lotId; }
+    public void setLotId(Long lotId) { this.lotId = lotId; }
+
+    public int getStartHour() { return startHour; }
+    public void setStartHour(int startHour) { this.startHour = startHour; }
+
+    public Booking.PaymentStatus getPaymentStatus() { return paymentStatus; }
+    public void setPaymentStatus(Booking.PaymentStatus paymentStatus) { this.paymentStatus = paymentStatus; }
+
+    public long getBookingCount() { return bookingCount; }
+    public void setBookingCount(long bookingCount) { this.bookingCount = bookingCount; }
+
+    public BigDecimal getBookingHours() { return bookingHours; }
+    public void setBookingHours(BigDecimal bookingHours) { this.bookingHours = bookingHours; }
+}
@@ -0,0 +1,61 @@
+package com.prmplatform.parqhub.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated payments for one day, parking lot, payment method and status.
+ */
+@Entity
+@Table(name = "DailyPaymentRollup",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"rollup_date", "lot_id", "method", "status"}))
+public class DailyPaymentRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "rollup_id")
+    private Long id;
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+
+    @Column(name = "lot_id", nullable = false)
+    private Long lotId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "method", nullable = false)
+    private Payment.PaymentMethod method;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private Payment.PaymentStatus status;
+
+    @Column(name = "payment_count", nullable = false)
+    private long paymentCount;
+
+    @Column(name = "revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public LocalDate getRollupDate() { return rollupDate; }
+    public void setRollupDate(LocalDate rollupDate) { this.rollupDate = rollupDate; }
+
+    public Long getLotId() { return lotId; }
+    public void setLotId(Long lotId) { this.lotId = lotId; }
+
+    public Payment.PaymentMethod getMethod() { return method; }
+    public void setMethod(Payment.PaymentMethod method) { this.method = method; }
+
+    public Payment.PaymentStatus getStatus() { return status; }
+    public void setStatus(Payment.PaymentStatus status) { this.status = status; }
+
+    public long getPaymentCount() { return paymentCount; }
+    public void setPaymentCount(long paymentCount) { this.paymentCount = paymentCount; }
+
+    public BigDecimal getRevenue() { return revenue; }
+    public void setRevenue(BigDecimal revenue) { this.revenue = revenue; }
+}
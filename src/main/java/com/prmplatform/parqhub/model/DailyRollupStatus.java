@@ -0,0 +1,40 @@
+package com.prmplatform.parqhub.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Records when the rollups of a day were last rebuilt.
+ * A day refreshed after it ended is final; earlier refreshes are rebuilt on demand.
+ */
+@Entity
+@Table(name = "DailyRollupStatus")
+public class DailyRollupStatus {
+
+    @Id
+    @Column(name = "rollup_date")
+    private LocalDate rollupDate;
+
+    @Column(name = "refreshed_at", nullable = false)
+    private LocalDateTime refreshedAt;
+
+    public DailyRollupStatus() {
+    }
+
+    public DailyRollupStatus(LocalDate rollupDate, LocalDateTime refreshedAt) {
+        this.rollupDate = rollupDate;
+        this.refreshedAt = refreshedAt;
+    }
+
+    // Getters and Setters
+    public LocalDate getRollupDate() { return rollupDate; }
+    public void setRollupDate(LocalDate rollupDate) { this.rollupDate = rollupDate; }
+
+    public LocalDateTime getRefreshedAt() { return refreshedAt; }
+    public void setRefreshedAt(LocalDateTime refreshedAt) { this.refreshedAt = refreshedAt; }
+
+    public boolean isFinal() {
+        return !refreshedAt.isBefore(rollupDate.plusDays(1).atStartOfDay());
+    }
+}
@@ -1,10 +1,16 @@
 package com.prmplatform.parqhub.model;
 
+import com.prmplatform.parqhub.event.SearchableEntityListener;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "Notification")
+@NamedEntityGraph(name = "Notification.details", attributeNodes = {
+        @NamedAttributeNode("user"),
+        @NamedAttributeNode("admin")
+})
+@EntityListeners(SearchableEntityListener.class)
 public class Notification {
 
     @Id
@@ -22,11 +28,11 @@ public class Notification {
     @Column(nullable = false)
     private LocalDateTime timestamp;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "admin_id")
     private Admin admin;
 
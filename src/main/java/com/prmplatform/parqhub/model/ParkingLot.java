@@ -1,11 +1,13 @@
 package com.prmplatform.parqhub.model;
 
+import com.prmplatform.parqhub.event.SearchableEntityListener;
 import jakarta.persistence.*;
 import java.util.List;
 import java.math.BigDecimal;
 
 @Entity
 @Table(name = "parkinglot")
+@EntityListeners(SearchableEntityListener.class)
 public class ParkingLot {
 
     @Id
@@ -25,6 +27,13 @@ public class ParkingLot {
     @Column(name = "price_hr", nullable = false, precision = 10, scale = 2)
     private BigDecimal priceHr;
 
+    // WGS84 coordinates of the entrance; null for lots that have not been geocoded
+    @Column(name = "latitude")
+    private Double latitude;
+
+    @Column(name = "longitude")
+    private Double longitude;
+
     @OneToMany(mappedBy = "parkingLot", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<ParkingSlot> parkingSlots;
 
@@ -47,6 +56,12 @@ public class ParkingLot {
     public BigDecimal getPriceHr() { return priceHr; }
     public void setPriceHr(BigDecimal priceHr) { this.priceHr = priceHr; }
 
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+
     public List<ParkingSlot> getParkingSlots() { return parkingSlots; }
     public void setParkingSlots(List<ParkingSlot> parkingSlots) { this.parkingSlots = parkingSlots; }
 }
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 
 @Entity
 @Table(name = "parkingslot")
+@NamedEntityGraph(name = "ParkingSlot.details", attributeNodes = @NamedAttributeNode("parkingLot"))
 public class ParkingSlot {
 
     @Id
@@ -11,7 +12,7 @@ public class ParkingSlot {
     @Column(name = "slot_id")
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "lot_id", nullable = false)
     private ParkingLot parkingLot;
 
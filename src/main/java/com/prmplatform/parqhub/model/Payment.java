@@ -6,6 +6,15 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "Payment")
+// The payment with its booking's user, vehicle and lot, for the receipt and admin table
+@NamedEntityGraph(name = "Payment.details", attributeNodes = @NamedAttributeNode(value = "booking", subgraph = "booking"), subgraphs = {
+        @NamedSubgraph(name = "booking", attributeNodes = {
+                @NamedAttributeNode("user"),
+                @NamedAttributeNode("vehicle"),
+                @NamedAttributeNode(value = "parkingSlot", subgraph = "parkingSlot")
+        }),
+        @NamedSubgraph(name = "parkingSlot", attributeNodes = @NamedAttributeNode("parkingLot"))
+})
 public class Payment {
 
     @Id
@@ -13,7 +22,7 @@ public class Payment {
     @Column(name = "payment_id")
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "booking_id", nullable = false)
     private Booking booking;
 
@@ -31,6 +40,10 @@ public class Payment {
     @Column(name = "timestamp")
     private LocalDateTime timestamp;
 
+    // Client-supplied key of the submission that created this payment; replays return this payment
+    @Column(name = "idempotency_key", unique = true, length = 64)
+    private String idempotencyKey;
+
     public enum PaymentMethod {
         Card, Cash, Arrival
     }
@@ -60,4 +73,7 @@ public class Payment {
 
     public LocalDateTime getTimestamp() { return timestamp; }
     public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
+
+    public String getIdempotencyKey() { return idempotencyKey; }
+    public void setIdempotencyKey(String idempotencyKey) { this.idempotencyKey = idempotencyKey; }
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "report")
+@NamedEntityGraph(name = "Report.details", attributeNodes = @NamedAttributeNode("admin"))
 public class Report {
 
     @Id
@@ -19,7 +20,7 @@ public class Report {
     @Column(name = "generated_date", nullable = false)
     private LocalDateTime generatedDate;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "admin_id", nullable = false)
     private Admin admin;
 
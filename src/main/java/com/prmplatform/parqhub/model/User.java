@@ -1,10 +1,12 @@
 package com.prmplatform.parqhub.model;
 
+import com.prmplatform.parqhub.event.SearchableEntityListener;
 import jakarta.persistence.*;
 import java.util.List;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(SearchableEntityListener.class)
 public class User {
 
     @Id
@@ -1,9 +1,11 @@
 package com.prmplatform.parqhub.model;
 
+import com.prmplatform.parqhub.event.SearchableEntityListener;
 import jakarta.persistence.*;
 
 @Entity
 @Table(name = "vehicle")
+@EntityListeners(SearchableEntityListener.class)
 public class Vehicle {
 
     @Id
@@ -11,7 +13,7 @@ public class Vehicle {
     @Column(name = "vehicle_id")
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
@@ -1,10 +1,16 @@
 package com.prmplatform.parqhub.model;
 
+import com.prmplatform.parqhub.event.SearchableEntityListener;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "VehicleLog")
+@NamedEntityGraph(name = "VehicleLog.details", attributeNodes = {
+        @NamedAttributeNode(value = "vehicle", subgraph = "vehicle"),
+        @NamedAttributeNode("parkingLot")
+}, subgraphs = @NamedSubgraph(name = "vehicle", attributeNodes = @NamedAttributeNode("user")))
+@EntityListeners(SearchableEntityListener.class)
 public class VehicleLog {
 
     @Id
@@ -12,7 +18,7 @@ public class VehicleLog {
     @Column(name = "log_id")
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "vehicle_id", nullable = false)
     private Vehicle vehicle;
 
@@ -22,7 +28,7 @@ public class VehicleLog {
     @Column(name = "exit_time")
     private LocalDateTime exitTime;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "lot_id", nullable = false)
     private ParkingLot parkingLot;
 
@@ -0,0 +1,59 @@
+package com.prmplatform.parqhub.repository;
+
+import com.prmplatform.parqhub.model.ArchivedBooking;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, Long> {
+
+    // Copy bookings into the archive with the lot of their slot; the caller deletes them from the booking table
+    @Modifying
+    @Query("INSERT INTO ArchivedBooking (id, userId, vehicleId, slotId, lotId, startTime, endTime, paymentStatus, archivedAt) " +
+           "SELECT b.id, b.user.id, b.vehicle.id, ps.id, ps.parkingLot.id, b.startTime, b.endTime, b.paymentStatus, :archivedAt " +
+           "FROM Booking b JOIN b.parkingSlot ps WHERE b.id IN :ids")
+    int copyFromBookings(@Param("ids") List<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+    // Latest start time in the archive: booking ranges starting after it never need the archive
+    @Query("SELECT MAX(a.startTime) FROM ArchivedBooking a")
+    LocalDateTime findLatestStartTime();
+
+    @Query("SELECT a.paymentStatus, COUNT(a) FROM ArchivedBooking a GROUP BY a.paymentStatus")
+    List<Object[]> countGroupedByPaymentStatus();
+
+    // Distinct users across the hot and archived bookings
+    @Query(value = "SELECT COUNT(*) FROM (SELECT user_id FROM booking UNION SELECT user_id FROM booking_archive) u",
+           nativeQuery = true)
+    long countDistinctUsersIncludingHot();
+
+    @Query(value = "SELECT COUNT(*) FROM (" +
+                   "SELECT user_id FROM booking WHERE start_time >= :startDate AND start_time <= :endDate " +
+                   "UNION SELECT user_id FROM booking_archive WHERE start_time >= :startDate AND start_time <= :endDate) u",
+           nativeQuery = true)
+    long countDistinctUsersIncludingHotByStartTimeBetween(@Param("startDate") LocalDateTime startDate,
+                                                         @Param("endDate") LocalDateTime endDate);
+
+    // Archived source rows for the daily booking rollup, in the shape of BookingRepository.rollupByDayHourLotAndStatus
+    @Query("SELECT CAST(a.startTime AS LocalDate), HOUR(a.startTime), a.lotId, a.paymentStatus, COUNT(a), " +
+           "SUM(CASE WHEN a.endTime IS NOT NULL THEN (a.endTime - a.startTime) BY MINUTE ELSE 0 END) " +
+           "FROM ArchivedBooking a " +
+           "WHERE a.startTime >= :startDate AND a.startTime <= :endDate " +
+           "GROUP BY CAST(a.startTime AS LocalDate), HOUR(a.startTime), a.lotId, a.paymentStatus")
+    List<Object[]> rollupByDayHourLotAndStatus(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+
+    // Archived export rows in the shape of BookingRepository.findExportRowsAfterId; a deleted user, vehicle or lot leaves its columns empty
+    @Query("SELECT a.id, u.name, v.vehicleNo, pl.city, pl.location, a.slotId, a.startTime, a.endTime, a.paymentStatus " +
+           "FROM ArchivedBooking a LEFT JOIN User u ON u.id = a.userId LEFT JOIN Vehicle v ON v.id = a.vehicleId " +
+           "LEFT JOIN ParkingLot pl ON pl.id = a.lotId " +
+           "WHERE a.startTime >= :startDate AND a.startTime <= :endDate AND a.id > :afterId " +
+           "AND (:city IS NULL OR pl.city = :city) AND (:location IS NULL OR pl.location = :location) " +
+           "ORDER BY a.id")
+    List<Object[]> findExportRowsAfterId(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate,
+                                         @Param("city") String city, @Param("location") String location,
+                                         @Param("afterId") Long afterId, Pageable pageable);
+}
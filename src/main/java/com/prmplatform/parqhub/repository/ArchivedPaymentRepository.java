@@ -0,0 +1,81 @@
+package com.prmplatform.parqhub.repository;
+
+import com.prmplatform.parqhub.model.ArchivedPayment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ArchivedPaymentRepository extends JpaRepository<ArchivedPayment, Long> {
+
+    // Copy the payments of bookings into the archive; runs before the bookings themselves are copied and deleted
+    @Modifying
+    @Query("INSERT INTO ArchivedPayment (id, bookingId, userId, lotId, amount, method, status, timestamp, idempotencyKey, archivedAt) " +
+           "SELECT p.id, b.id, b.user.id, ps.parkingLot.id, p.amount, p.method, p.status, p.timestamp, p.idempotencyKey, :archivedAt " +
+           "FROM Payment p JOIN p.booking b JOIN b.parkingSlot ps WHERE b.id IN :bookingIds")
+    int copyFromPaymentsOfBookings(@Param("bookingIds") List<Long> bookingIds, @Param("archivedAt") LocalDateTime archivedAt);
+
+    // Highest payment id in the archive: ledger pages that stay above it never need the archive
+    @Query("SELECT MAX(a.id) FROM ArchivedPayment a")
+    Long findMaxId();
+
+    // One page of a user's archived payments, newest first, between two payment ids (beforeId may be null), as
+    // (payment, booking, vehicle, lot) rows; a deleted vehicle or lot leaves its column null
+    @Query("SELECT a, b, v, pl FROM ArchivedPayment a LEFT JOIN ArchivedBooking b ON b.id = a.bookingId " +
+           "LEFT JOIN Vehicle v ON v.id = b.vehicleId LEFT JOIN ParkingLot pl ON pl.id = a.lotId " +
+           "WHERE a.userId = :userId AND (:beforeId IS NULL OR a.id < :beforeId) AND a.id > :afterId ORDER BY a.id DESC")
+    List<Object[]> findLedgerRows(@Param("userId") Long userId, @Param("beforeId") Long beforeId,
+                                  @Param("afterId") Long afterId, Pageable pageable);
+
+    // One archived payment in the row shape of findLedgerRows, for its receipt
+    @Query("SELECT a, b, v, pl FROM ArchivedPayment a LEFT JOIN ArchivedBooking b ON b.id = a.bookingId " +
+           "LEFT JOIN Vehicle v ON v.id = b.vehicleId LEFT JOIN ParkingLot pl ON pl.id = a.lotId WHERE a.id = :id")
+    List<Object[]> findLedgerRowsById(@Param("id") Long id);
+
+    // A user's archived payment count by status, in the shape of the first two columns of
+    // PaymentRepository.summarizeByUserIdGroupedByStatus
+    @Query("SELECT a.status, COUNT(a) FROM ArchivedPayment a WHERE a.userId = :userId GROUP BY a.status")
+    List<Object[]> countByUserIdGroupedByStatus(@Param("userId") Long userId);
+
+    // Latest timestamp in the archive: payment ranges starting after it never need the archive
+    @Query("SELECT MAX(a.timestamp) FROM ArchivedPayment a")
+    LocalDateTime findLatestTimestamp();
+
+    // Payment count and amount grouped by status, in the shape of PaymentRepository.summarizeByStatus
+    @Query("SELECT a.status, COUNT(a), SUM(a.amount) FROM ArchivedPayment a GROUP BY a.status")
+    List<Object[]> summarizeByStatus();
+
+    // Archived source rows for the daily payment rollup, in the shape of PaymentRepository.rollupByDayLotMethodAndStatus
+    @Query("SELECT CAST(a.timestamp AS LocalDate), a.lotId, a.method, a.status, COUNT(a), SUM(a.amount) " +
+           "FROM ArchivedPayment a " +
+           "WHERE a.timestamp >= :startDate AND a.timestamp <= :endDate " +
+           "GROUP BY CAST(a.timestamp AS LocalDate), a.lotId, a.method, a.status")
+    List<Object[]> rollupByDayLotMethodAndStatus(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+
+    @Query("SELECT pl.city, pl.location, SUM(a.amount) FROM ArchivedPayment a JOIN ParkingLot pl ON pl.id = a.lotId " +
+           "WHERE a.status = 'Completed' AND a.timestamp >= :startDate AND a.timestamp <= :endDate GROUP BY pl.city, pl.location")
+    List<Object[]> getRevenueByCityAndLocation(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+
+    // Most recent archived payments within date range as flat rows (id, user, amount, method, status, city, location, timestamp)
+    @Query("SELECT a.id, u.name, a.amount, a.method, a.status, pl.city, pl.location, a.timestamp " +
+           "FROM ArchivedPayment a LEFT JOIN User u ON u.id = a.userId LEFT JOIN ParkingLot pl ON pl.id = a.lotId " +
+           "WHERE a.timestamp >= :startDate AND a.timestamp <= :endDate " +
+           "AND (:city IS NULL OR pl.city = :city) AND (:location IS NULL OR pl.location = :location) " +
+           "ORDER BY a.timestamp DESC")
+    List<Object[]> findRecentRowsByTimestampBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate,
+                                                    @Param("city") String city, @Param("location") String location, Pageable pageable);
+
+    // Archived export rows in the shape of PaymentRepository.findExportRowsAfterId; a deleted user or lot leaves its columns empty
+    @Query("SELECT a.id, u.name, a.amount, a.method, a.status, pl.city, pl.location, a.timestamp " +
+           "FROM ArchivedPayment a LEFT JOIN User u ON u.id = a.userId LEFT JOIN ParkingLot pl ON pl.id = a.lotId " +
+           "WHERE a.timestamp >= :startDate AND a.timestamp <= :endDate AND a.id > :afterId " +
+           "AND (:city IS NULL OR pl.city = :city) AND (:location IS NULL OR pl.location = :location) " +
+           "ORDER BY a.id")
+    List<Object[]> findExportRowsAfterId(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate,
+                                         @Param("city") String city, @Param("location") String location,
+                                         @Param("afterId") Long afterId, Pageable pageable);
+}
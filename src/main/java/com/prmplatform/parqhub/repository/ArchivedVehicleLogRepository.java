@@ -0,0 +1,20 @@
+package com.prmplatform.parqhub.repository;
+
+import com.prmplatform.parqhub.model.ArchivedVehicleLog;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ArchivedVehicleLogRepository extends JpaRepository<ArchivedVehicleLog, Long> {
+
+    // Copy closed vehicle logs into the archive; the caller deletes them from the vehicle log
+    @Modifying
+    @Query("INSERT INTO ArchivedVehicleLog (id, vehicleId, lotId, entryTime, exitTime, archivedAt) " +
+           "SELECT l.id, l.vehicle.id, l.parkingLot.id, l.entryTime, l.exitTime, :archivedAt " +
+           "FROM VehicleLog l WHERE l.id IN :ids")
+    int copyFromVehicleLogs(@Param("ids") List<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+}
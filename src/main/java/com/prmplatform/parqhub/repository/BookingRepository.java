@@ -1,14 +1,19 @@
 package com.prmplatform.parqhub.repository;
 
 import com.prmplatform.parqhub.model.Booking;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Booking> findByUserId(Long userId);
@@ -20,14 +25,28 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Booking> findByParkingSlotId(Long parkingSlotId);
     
     @Query("SELECT b FROM Booking b " +
+           "LEFT JOIN FETCH b.vehicle " +
            "LEFT JOIN FETCH b.parkingSlot ps " +
            "LEFT JOIN FETCH ps.parkingLot pl " +
            "WHERE b.user.id = :userId " +
            "ORDER BY b.startTime DESC")
     List<Booking> findByUserIdWithParkingDetailsOrderByStartTimeDesc(@Param("userId") Long userId);
 
+    @EntityGraph("Booking.details")
     Page<Booking> findByPaymentStatus(Booking.PaymentStatus paymentStatus, Pageable pageable);
 
+    // A page of bookings with their user, vehicle and lot, for the admin table
+    @EntityGraph("Booking.details")
+    Page<Booking> findWithDetailsBy(Pageable pageable);
+
+    @EntityGraph("Booking.details")
+    Optional<Booking> findWithDetailsById(Long id);
+
+    // Load a booking with a row lock so concurrent settlements of it run one after another
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b WHERE b.id = :id")
+    Optional<Booking> findByIdForUpdate(@Param("id") Long id);
+
     // Find bookings within date range
     @Query("SELECT b FROM Booking b WHERE b.startTime >= :startDate AND b.startTime <= :endDate ORDER BY b.startTime DESC")
     List<Booking> findByStartTimeBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
@@ -48,4 +67,50 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     @Query("SELECT b FROM Booking b JOIN b.parkingSlot ps JOIN ps.parkingLot pl WHERE pl.city = :city AND pl.location = :location AND b.startTime >= :startDate AND b.startTime <= :endDate ORDER BY b.startTime DESC")
     List<Booking> findByCityLocationAndStartTimeBetween(@Param("city") String city, @Param("location") String location, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
 
-}
\ No newline at end of file
+    // Booking counts grouped by payment status, used to seed the dashboard counters
+    @Query("SELECT b.paymentStatus, COUNT(b) FROM Booking b GROUP BY b.paymentStatus")
+    List<Object[]> countGroupedByPaymentStatus();
+
+    @Query("SELECT COUNT(DISTINCT b.user.id) FROM Booking b")
+    long countDistinctUsers();
+
+    @Query("SELECT COUNT(DISTINCT b.user.id) FROM Booking b WHERE b.startTime >= :startDate AND b.startTime <= :endDate")
+    long countDistinctUsersByStartTimeBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+
+    // Source rows for the daily booking rollup: (day, start hour, lot id, payment status, count, parked minutes)
+    @Query("SELECT CAST(b.startTime AS LocalDate), HOUR(b.startTime), pl.id, b.paymentStatus, COUNT(b), " +
+           "SUM(CASE WHEN b.endTime IS NOT NULL THEN (b.endTime - b.startTime) BY MINUTE ELSE 0 END) " +
+           "FROM Booking b JOIN b.parkingSlot ps JOIN ps.parkingLot pl " +
+           "WHERE b.startTime >= :startDate AND b.startTime <= :endDate " +
+           "GROUP BY CAST(b.startTime AS LocalDate), HOUR(b.startTime), pl.id, b.paymentStatus")
+    List<Object[]> rollupByDayHourLotAndStatus(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+
+    // Next page of bookings within date range after a booking id, as flat rows for streaming CSV exports
+    @Query("SELECT b.id, u.name, v.vehicleNo, pl.city, pl.location, ps.id, b.startTime, b.endTime, b.paymentStatus " +
+           "FROM Booking b JOIN b.user u JOIN b.vehicle v JOIN b.parkingSlot ps JOIN ps.parkingLot pl " +
+           "WHERE b.startTime >= :startDate AND b.startTime <= :endDate AND b.id > :afterId " +
+           "AND (:city IS NULL OR pl.city = :city) AND (:location IS NULL OR pl.location = :location) " +
+           "ORDER BY b.id")
+    List<Object[]> findExportRowsAfterId(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate,
+                                         @Param("city") String city, @Param("location") String location,
+                                         @Param("afterId") Long afterId, Pageable pageable);
+
+    // Bookings still running (no end time yet) on any slot of the lot
+    @Query("SELECT COUNT(b) FROM Booking b WHERE b.parkingSlot.parkingLot.id = :lotId AND b.endTime IS NULL")
+    long countActiveByLotId(@Param("lotId") Long lotId);
+
+    // Bookings, running or finished, on any slot of the lot
+    @Query("SELECT COUNT(b) FROM Booking b WHERE b.parkingSlot.parkingLot.id = :lotId")
+    long countByLotId(@Param("lotId") Long lotId);
+
+    // Oldest bookings ready for the archive: ended before the cutoff, settled, and with every payment settled before it
+    @Query("SELECT b.id FROM Booking b WHERE b.endTime < :cutoff AND b.paymentStatus <> 'Pending' " +
+           "AND NOT EXISTS (SELECT p.id FROM Payment p WHERE p.booking = b AND (p.status = 'Pending' OR p.timestamp >= :cutoff)) " +
+           "ORDER BY b.id")
+    List<Long> findArchivableIds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    // Bulk delete of archived bookings; their payments must be deleted first
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Booking b WHERE b.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+}
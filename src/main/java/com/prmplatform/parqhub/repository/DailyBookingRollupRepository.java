@@ -0,0 +1,42 @@
+package com.prmplatform.parqhub.repository;
+
+import com.prmplatform.parqhub.model.DailyBookingRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyBookingRollupRepository extends JpaRepository<DailyBookingRollup, Long> {
+
+    @Modifying
+    @Query("DELETE FROM DailyBookingRollup r WHERE r.rollupDate >= :startDate AND r.rollupDate <= :endDate")
+    int deleteByRollupDateBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // Booking count per payment status, optionally limited to a city or a city and location
+    @Query("SELECT r.paymentStatus, SUM(r.bookingCount) FROM DailyBookingRollup r JOIN ParkingLot pl ON pl.id = r.lotId " +
+           "WHERE r.rollupDate >= :startDate AND r.rollupDate <= :endDate " +
+           "AND (:city IS NULL OR pl.city = :city) AND (:location IS NULL OR pl.location = :location) " +
+           "GROUP BY r.paymentStatus")
+    List<Object[]> countByPaymentStatus(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate,
+                                        @Param("city") String city, @Param("location") String location);
+
+    @Query("SELECT r.startHour, SUM(r.bookingCount) FROM DailyBookingRollup r JOIN ParkingLot pl ON pl.id = r.lotId " +
+           "WHERE r.rollupDate >= :startDate AND r.rollupDate <= :endDate " +
+           "AND (:city IS NULL OR pl.city = :city) AND (:location IS NULL OR pl.location = :location) " +
+           "GROUP BY r.startHour")
+    List<Object[]> countByHour(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate,
+                               @Param("city") String city, @Param("location") String location);
+
+    @Query("SELECT r.rollupDate, SUM(r.bookingCount) FROM DailyBookingRollup r " +
+           "WHERE r.rollupDate >= :startDate AND r.rollupDate <= :endDate GROUP BY r.rollupDate")
+    List<Object[]> countByDay(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT pl.city, SUM(r.bookingCount) FROM DailyBookingRollup r JOIN ParkingLot pl ON pl.id = r.lotId " +
+           "WHERE r.rollupDate >= :startDate AND r.rollupDate <= :endDate GROUP BY pl.city")
+    List<Object[]> countByCity(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+}
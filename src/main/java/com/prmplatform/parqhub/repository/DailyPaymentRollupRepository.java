@@ -0,0 +1,44 @@
+package com.prmplatform.parqhub.repository;
+
+import com.prmplatform.parqhub.model.DailyPaymentRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyPaymentRollupRepository extends JpaRepository<DailyPaymentRollup, Long> {
+
+    @Modifying
+    @Query("DELETE FROM DailyPaymentRollup r WHERE r.rollupDate >= :startDate AND r.rollupDate <= :endDate")
+    int deleteByRollupDateBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // Payment count and amount per status, optionally limited to a city or a city and location
+    @Query("SELECT r.status, SUM(r.paymentCount), SUM(r.revenue) FROM DailyPaymentRollup r JOIN ParkingLot pl ON pl.id = r.lotId " +
+           "WHERE r.rollupDate >= :startDate AND r.rollupDate <= :endDate " +
+           "AND (:city IS NULL OR pl.city = :city) AND (:location IS NULL OR pl.location = :location) " +
+           "GROUP BY r.status")
+    List<Object[]> summarizeByStatus(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate,
+                                     @Param("city") String city, @Param("location") String location);
+
+    @Query("SELECT r.method, SUM(r.paymentCount) FROM DailyPaymentRollup r " +
+           "WHERE r.rollupDate >= :startDate AND r.rollupDate <= :endDate GROUP BY r.method")
+    List<Object[]> getPaymentMethodDistribution(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT r.rollupDate, SUM(r.revenue) FROM DailyPaymentRollup r " +
+           "WHERE r.status = 'Completed' AND r.rollupDate >= :startDate AND r.rollupDate <= :endDate " +
+           "GROUP BY r.rollupDate ORDER BY r.rollupDate")
+    List<Object[]> getRevenueTrendByDay(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT pl.city, SUM(r.revenue) FROM DailyPaymentRollup r JOIN ParkingLot pl ON pl.id = r.lotId " +
+           "WHERE r.status = 'Completed' AND r.rollupDate >= :startDate AND r.rollupDate <= :endDate GROUP BY pl.city")
+    List<Object[]> getRevenueByCity(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT pl.city, pl.location, SUM(r.revenue) FROM DailyPaymentRollup r JOIN ParkingLot pl ON pl.id = r.lotId " +
+           "WHERE r.status = 'Completed' AND r.rollupDate >= :startDate AND r.rollupDate <= :endDate GROUP BY pl.city, pl.location")
+    List<Object[]> getRevenueByCityAndLocation(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+}
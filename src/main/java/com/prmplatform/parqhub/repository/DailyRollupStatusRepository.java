@@ -0,0 +1,30 @@
+package com.prmplatform.parqhub.repository;
+
+import com.prmplatform.parqhub.model.DailyRollupStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DailyRollupStatusRepository extends JpaRepository<DailyRollupStatus, LocalDate> {
+    List<DailyRollupStatus> findByRollupDateBetween(LocalDate startDate, LocalDate endDate);
+
+    // Joins the caller's write, so the day is stale exactly when the write commits
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM DailyRollupStatus s WHERE s.rollupDate IN :days")
+    int deleteByRollupDateIn(@Param("days") Collection<LocalDate> days);
+
+    // Clears the persistence context, so the statuses a report request looked up beforehand are not merged
+    // into updates of the rows this just deleted
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM DailyRollupStatus s WHERE s.rollupDate >= :startDate AND s.rollupDate <= :endDate")
+    int deleteByRollupDateBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+}
@@ -0,0 +1,30 @@
+package com.prmplatform.parqhub.repository;
+
+import com.prmplatform.parqhub.model.EmailOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    // Pending emails whose next attempt is due, oldest first
+    @Query("SELECT e FROM EmailOutbox e WHERE e.status = 'Pending' AND e.nextAttemptAt <= :now ORDER BY e.nextAttemptAt, e.id")
+    List<EmailOutbox> findDue(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Lease a due email to this dispatcher by pushing its next attempt out; returns the number of rows changed (0 or 1)
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.nextAttemptAt = :leaseUntil " +
+           "WHERE e.id = :id AND e.status = 'Pending' AND e.nextAttemptAt <= :now")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    long countByStatus(EmailOutbox.Status status);
+}
@@ -1,24 +1,23 @@
 package com.prmplatform.parqhub.repository;
 
 import com.prmplatform.parqhub.model.Notification;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
+    @EntityGraph(attributePaths = "admin")
     List<Notification> findByUserIdOrderByTimestampDesc(Long userId);
     List<Notification> findByAdminIdOrderByTimestampDesc(Long adminId);
     long countByType(String type);
 
-    @Query("SELECT n FROM Notification n WHERE LOWER(n.description) LIKE LOWER(CONCAT('%', :search, '%')) OR LOWER(n.type) LIKE LOWER(CONCAT('%', :search, '%'))")
-    Page<Notification> findByDescriptionContainingIgnoreCaseOrTypeContainingIgnoreCase(@Param("search") String search, @Param("search") String search2, Pageable pageable);
-
-
+    @EntityGraph("Notification.details")
+    List<Notification> findWithDetailsByIdIn(Collection<Long> ids);
 
+    // Notification counts grouped by type, used to seed the dashboard counters
+    @Query("SELECT n.type, COUNT(n) FROM Notification n GROUP BY n.type")
+    List<Object[]> countGroupedByType();
 }
-
-
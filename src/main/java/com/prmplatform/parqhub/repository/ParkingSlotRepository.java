@@ -4,7 +4,9 @@ import com.prmplatform.parqhub.model.ParkingSlot;
 import com.prmplatform.parqhub.model.ParkingSlot.SlotStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -23,8 +25,12 @@ public interface ParkingSlotRepository extends JpaRepository<ParkingSlot, Long>
     @Query("SELECT p.parkingLot.city, COUNT(p) FROM ParkingSlot p WHERE p.status = :status GROUP BY p.parkingLot.city")
     List<Object[]> countByCityAndStatus(@org.springframework.data.repository.query.Param("status") SlotStatus status);
 
+    @EntityGraph("ParkingSlot.details")
     Page<ParkingSlot> findByStatus(SlotStatus status, Pageable pageable);
 
+    @EntityGraph("ParkingSlot.details")
+    Page<ParkingSlot> findWithDetailsBy(Pageable pageable);
+
     // Enhanced queries for occupancy reporting
     @Query("SELECT ps FROM ParkingSlot ps JOIN FETCH ps.parkingLot")
     List<ParkingSlot> findAllWithParkingLot();
@@ -41,4 +47,50 @@ public interface ParkingSlotRepository extends JpaRepository<ParkingSlot, Long>
 
     @Query("SELECT COUNT(ps) FROM ParkingSlot ps WHERE ps.parkingLot.city = :city AND ps.status = :status")
     long countByCityAndStatusParam(@org.springframework.data.repository.query.Param("city") String city, @org.springframework.data.repository.query.Param("status") SlotStatus status);
-}
\ No newline at end of file
+
+    // Slot counts grouped by lot and status, used to seed the availability index
+    @Query("SELECT ps.parkingLot.id, ps.status, COUNT(ps) FROM ParkingSlot ps GROUP BY ps.parkingLot.id, ps.status")
+    List<Object[]> countGroupedByLotAndStatus();
+
+    @Query("SELECT ps.status, COUNT(ps) FROM ParkingSlot ps WHERE ps.parkingLot.id = :lotId GROUP BY ps.status")
+    List<Object[]> countGroupedByStatusForLot(@org.springframework.data.repository.query.Param("lotId") Long lotId);
+
+    // Claim a slot only if it is still in the expected status; returns the number of rows changed (0 or 1)
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ParkingSlot ps SET ps.status = :newStatus WHERE ps.id = :slotId AND ps.status = :expectedStatus")
+    int compareAndSetStatus(@org.springframework.data.repository.query.Param("slotId") Long slotId,
+                            @org.springframework.data.repository.query.Param("expectedStatus") SlotStatus expectedStatus,
+                            @org.springframework.data.repository.query.Param("newStatus") SlotStatus newStatus);
+
+    @Query("SELECT ps.id FROM ParkingSlot ps WHERE ps.parkingLot.id = :lotId AND ps.status = :status ORDER BY ps.id ASC")
+    List<Long> findIdsByLotIdAndStatus(@org.springframework.data.repository.query.Param("lotId") Long lotId,
+                                       @org.springframework.data.repository.query.Param("status") SlotStatus status,
+                                       Pageable pageable);
+
+    // Next batch of slots in the status after the given id, so a scan walks the lot once instead of re-reading its head
+    @Query("SELECT ps.id FROM ParkingSlot ps WHERE ps.parkingLot.id = :lotId AND ps.status = :status AND ps.id > :afterId ORDER BY ps.id ASC")
+    List<Long> findIdsByLotIdAndStatusAfter(@org.springframework.data.repository.query.Param("lotId") Long lotId,
+                                            @org.springframework.data.repository.query.Param("status") SlotStatus status,
+                                            @org.springframework.data.repository.query.Param("afterId") Long afterId,
+                                            Pageable pageable);
+
+    // (lot id, slot id) pairs for every slot in the given status, used to seed the free-slot pool
+    @Query("SELECT ps.parkingLot.id, ps.id FROM ParkingSlot ps WHERE ps.status = :status ORDER BY ps.id ASC")
+    List<Object[]> findLotAndSlotIdsByStatus(@org.springframework.data.repository.query.Param("status") SlotStatus status);
+
+    // Highest-numbered free slots of a lot that no booking refers to, the ones a resize may drop. Finished
+    // bookings count too: their foreign key keeps the slot until they are archived.
+    @Query("SELECT ps.id FROM ParkingSlot ps WHERE ps.parkingLot.id = :lotId AND ps.status = :status " +
+           "AND NOT EXISTS (SELECT b.id FROM Booking b WHERE b.parkingSlot = ps) ORDER BY ps.id DESC")
+    List<Long> findReleasableIdsByLotId(@org.springframework.data.repository.query.Param("lotId") Long lotId,
+                                        @org.springframework.data.repository.query.Param("status") SlotStatus status,
+                                        Pageable pageable);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM ParkingSlot ps WHERE ps.id IN :slotIds")
+    int deleteByIdIn(@org.springframework.data.repository.query.Param("slotIds") List<Long> slotIds);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM ParkingSlot ps WHERE ps.parkingLot.id = :lotId")
+    int deleteByLotId(@org.springframework.data.repository.query.Param("lotId") Long lotId);
+}
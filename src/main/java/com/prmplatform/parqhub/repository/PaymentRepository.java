@@ -3,11 +3,14 @@ package com.prmplatform.parqhub.repository;
 import com.prmplatform.parqhub.model.Payment;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,10 +19,47 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     // Find payment by booking ID
     Optional<Payment> findByBookingId(Long bookingId);
 
+    Optional<Payment> findByIdempotencyKey(String idempotencyKey);
+
+    // Payment with its booking's user, vehicle and lot, for the receipt
+    @EntityGraph("Payment.details")
+    Optional<Payment> findWithDetailsById(Long id);
+
+    @EntityGraph("Payment.details")
+    List<Payment> findWithDetailsByIdIn(Collection<Long> ids);
+
+    // Admin search: payments with one of the statuses, optionally within [from, to); served by the (status, timestamp) index
+    @EntityGraph("Payment.details")
+    @Query("SELECT p FROM Payment p WHERE p.status IN :statuses " +
+           "AND (:from IS NULL OR p.timestamp >= :from) AND (:to IS NULL OR p.timestamp < :to)")
+    Page<Payment> searchByStatus(@Param("statuses") Collection<Payment.PaymentStatus> statuses,
+                                 @Param("from") LocalDateTime from, @Param("to") LocalDateTime to, Pageable pageable);
+
+    // Admin search: payments with one of the methods or one of the statuses, optionally within [from, to)
+    @EntityGraph("Payment.details")
+    @Query("SELECT p FROM Payment p WHERE (p.method IN :methods OR p.status IN :statuses) " +
+           "AND (:from IS NULL OR p.timestamp >= :from) AND (:to IS NULL OR p.timestamp < :to)")
+    Page<Payment> searchByMethodOrStatus(@Param("methods") Collection<Payment.PaymentMethod> methods,
+                                         @Param("statuses") Collection<Payment.PaymentStatus> statuses,
+                                         @Param("from") LocalDateTime from, @Param("to") LocalDateTime to, Pageable pageable);
+
     // Find payments by user ID (through booking relationship)
     @Query("SELECT p FROM Payment p WHERE p.booking.user.id = :userId")
     List<Payment> findByUserId(Long userId);
 
+    // One page of a user's payments, newest first, continuing below a payment id (null for the first page)
+    @Query("SELECT p FROM Payment p JOIN FETCH p.booking b LEFT JOIN FETCH b.vehicle LEFT JOIN FETCH b.parkingSlot ps LEFT JOIN FETCH ps.parkingLot " +
+           "WHERE b.user.id = :userId AND (:beforeId IS NULL OR p.id < :beforeId) ORDER BY p.id DESC")
+    List<Payment> findLedgerPage(@Param("userId") Long userId, @Param("beforeId") Long beforeId, Pageable pageable);
+
+    // A user's payment count and completed amount grouped by status, split into today and this month
+    @Query("SELECT p.status, COUNT(p), " +
+           "SUM(CASE WHEN p.status = 'Completed' AND p.timestamp >= :startOfDay THEN p.amount ELSE 0 END), " +
+           "SUM(CASE WHEN p.status = 'Completed' AND p.timestamp >= :startOfMonth THEN p.amount ELSE 0 END) " +
+           "FROM Payment p WHERE p.booking.user.id = :userId GROUP BY p.status")
+    List<Object[]> summarizeByUserIdGroupedByStatus(@Param("userId") Long userId, @Param("startOfDay") LocalDateTime startOfDay,
+                                                    @Param("startOfMonth") LocalDateTime startOfMonth);
+
     // Sum amount for completed payments for a user after a timestamp
     @Query("SELECT SUM(p.amount) FROM Payment p WHERE p.status = 'Completed' AND p.booking.user.id = :userId AND p.timestamp >= :timestamp")
     Double sumAmountByUserIdAndCompletedAndTimestampAfter(Long userId, LocalDateTime timestamp);
@@ -28,9 +68,6 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     @Query("SELECT SUM(p.amount) FROM Payment p WHERE p.status = 'Completed' AND p.timestamp >= :startOfDay")
     Double sumAmountByCompletedAndTimestampAfter(LocalDateTime startOfDay);
 
-    @Query("SELECT p FROM Payment p WHERE LOWER(p.method) LIKE LOWER(CONCAT('%', :search, '%')) OR LOWER(p.status) LIKE LOWER(CONCAT('%', :search, '%'))")
-    Page<Payment> findByMethodContainingIgnoreCaseOrStatusContainingIgnoreCase(@Param("search") String search, @Param("search") String search2, Pageable pageable);
-
     // Find payments within date range
     @Query("SELECT p FROM Payment p WHERE p.timestamp >= :startDate AND p.timestamp <= :endDate ORDER BY p.timestamp DESC")
     List<Payment> findByTimestampBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
@@ -83,4 +120,37 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     @Query("SELECT COUNT(p) FROM Payment p JOIN p.booking b JOIN b.parkingSlot ps JOIN ps.parkingLot pl WHERE p.status = :status AND pl.city = :city AND pl.location = :location AND p.timestamp >= :startDate AND p.timestamp <= :endDate")
     Long countByStatusCityLocationAndTimestampBetween(@Param("status") Payment.PaymentStatus status, @Param("city") String city, @Param("location") String location, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
 
-}
\ No newline at end of file
+    // Payment count and amount grouped by status, for the all-time summaries
+    @Query("SELECT p.status, COUNT(p), SUM(p.amount) FROM Payment p GROUP BY p.status")
+    List<Object[]> summarizeByStatus();
+
+    // Source rows for the daily payment rollup: (day, lot id, method, status, count, amount)
+    @Query("SELECT CAST(p.timestamp AS LocalDate), pl.id, p.method, p.status, COUNT(p), SUM(p.amount) " +
+           "FROM Payment p JOIN p.booking b JOIN b.parkingSlot ps JOIN ps.parkingLot pl " +
+           "WHERE p.timestamp >= :startDate AND p.timestamp <= :endDate " +
+           "GROUP BY CAST(p.timestamp AS LocalDate), pl.id, p.method, p.status")
+    List<Object[]> rollupByDayLotMethodAndStatus(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+
+    // Most recent payments within date range, optionally limited to a city or a city and location
+    @Query("SELECT p FROM Payment p JOIN FETCH p.booking b JOIN FETCH b.user JOIN FETCH b.parkingSlot ps JOIN FETCH ps.parkingLot pl " +
+           "WHERE p.timestamp >= :startDate AND p.timestamp <= :endDate " +
+           "AND (:city IS NULL OR pl.city = :city) AND (:location IS NULL OR pl.location = :location) " +
+           "ORDER BY p.timestamp DESC")
+    List<Payment> findRecentByTimestampBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate,
+                                               @Param("city") String city, @Param("location") String location, Pageable pageable);
+
+    // Next page of payments within date range after a payment id, as flat rows for streaming CSV exports
+    @Query("SELECT p.id, u.name, p.amount, p.method, p.status, pl.city, pl.location, p.timestamp " +
+           "FROM Payment p JOIN p.booking b JOIN b.user u JOIN b.parkingSlot ps JOIN ps.parkingLot pl " +
+           "WHERE p.timestamp >= :startDate AND p.timestamp <= :endDate AND p.id > :afterId " +
+           "AND (:city IS NULL OR pl.city = :city) AND (:location IS NULL OR pl.location = :location) " +
+           "ORDER BY p.id")
+    List<Object[]> findExportRowsAfterId(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate,
+                                         @Param("city") String city, @Param("location") String location,
+                                         @Param("afterId") Long afterId, Pageable pageable);
+
+    // Bulk delete of the payments of archived bookings
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Payment p WHERE p.booking.id IN :bookingIds")
+    int deleteByBookingIdIn(@Param("bookingIds") List<Long> bookingIds);
+}
@@ -3,11 +3,16 @@ package com.prmplatform.parqhub.repository;
 import com.prmplatform.parqhub.model.Report;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface ReportRepository extends JpaRepository<Report, Long> {
 
+    @EntityGraph("Report.details")
     Page<Report> findByType(Report.ReportType type, Pageable pageable);
+
+    @EntityGraph("Report.details")
+    Page<Report> findWithDetailsBy(Pageable pageable);
 }
@@ -2,9 +2,17 @@ package com.prmplatform.parqhub.repository;
 
 import com.prmplatform.parqhub.model.VehicleLog;
 import com.prmplatform.parqhub.model.Vehicle;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,4 +22,15 @@ public interface VehicleLogRepository extends JpaRepository<VehicleLog, Long> {
     Optional<VehicleLog> findTopByVehicleAndExitTimeIsNotNullOrderByEntryTimeDesc(Vehicle vehicle);
     Optional<VehicleLog> findByVehicleAndExitTimeIsNotNull(Vehicle vehicle);
     Optional<VehicleLog> findByVehicleIdAndExitTimeIsNotNull(Long vehicleId);
-}
\ No newline at end of file
+
+    @EntityGraph("VehicleLog.details")
+    List<VehicleLog> findWithDetailsByIdIn(Collection<Long> ids);
+
+    // Oldest closed logs ready for the archive
+    @Query("SELECT l.id FROM VehicleLog l WHERE l.exitTime < :cutoff ORDER BY l.id")
+    List<Long> findArchivableIds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM VehicleLog l WHERE l.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+}
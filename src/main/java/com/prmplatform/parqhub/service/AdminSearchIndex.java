@@ -0,0 +1,562 @@
+package com.prmplatform.parqhub.service;
+
+import com.prmplatform.parqhub.event.SearchableRecordChangedEvent;
+import com.prmplatform.parqhub.model.Notification;
+import com.prmplatform.parqhub.model.ParkingLot;
+import com.prmplatform.parqhub.model.User;
+import com.prmplatform.parqhub.model.Vehicle;
+import com.prmplatform.parqhub.model.VehicleLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In-memory trigram index over the free-text columns the admin tables are searched by, so a search is a
+ * posting-list intersection instead of a LIKE '%term%' scan over every row. Notifications and vehicle logs
+ * are also ordered by time for date range filters. Enum columns are not split into trigrams, whose lists
+ * would cover most of the table; their rows are kept in one id set per value instead. Payments, whose only
+ * searchable columns are enums, are searched in the database.
+ * Each table is loaded with one query on its first search and then kept current by
+ * {@link SearchableRecordChangedEvent}, which every JPA insert, update and delete of an indexed entity publishes.
+ * Vehicle logs are searched by the vehicle number and the lot's city and location they join to, so a change to a
+ * vehicle or lot re-reads the logs that reference it.
+ */
+@Service
+public class AdminSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminSearchIndex.class);
+
+    // Keeps a term from matching across two columns
+    private static final char FIELD_SEPARATOR = '\u0000';
+
+    // Vehicle logs with the text of the vehicle and lot they reference
+    private static final String VEHICLE_LOG_SQL = "SELECT l.log_id, l.entry_time, NULL, v.vehicle_no, p.city, p.location FROM vehicle_log l " +
+            "LEFT JOIN vehicle v ON v.vehicle_id = l.vehicle_id LEFT JOIN parkinglot p ON p.lot_id = l.lot_id";
+
+    private static final Comparator<Document> TIME_ORDER = Comparator.comparing((Document d) -> d.time)
+            .thenComparingLong(d -> d.id);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, TableIndex> tables = new HashMap<>();
+
+    public AdminSearchIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Each query selects the id, the time used by date ranges (or NULL), the enum column (or NULL), then the text columns
+        tables.put("users", new TableIndex("users",
+                "SELECT user_id, NULL, NULL, name, email, contact_no FROM users ORDER BY user_id"));
+        tables.put("vehicle", new TableIndex("vehicle",
+                "SELECT vehicle_id, NULL, NULL, vehicle_no, brand, model, color FROM vehicle ORDER BY vehicle_id"));
+        tables.put("parkinglot", new TableIndex("parkinglot",
+                "SELECT lot_id, NULL, NULL, city, location FROM parkinglot ORDER BY lot_id"));
+        tables.put("notification", new TableIndex("notification",
+                "SELECT notification_id, timestamp, type, description FROM notification ORDER BY notification_id"));
+        tables.put("vehiclelog", new TableIndex("vehiclelog", VEHICLE_LOG_SQL + " ORDER BY l.log_id"));
+    }
+
+    /**
+     * Whether the admin table is searched through this index
+     */
+    public boolean isIndexed(String table) {
+        return tables.containsKey(table);
+    }
+
+    /**
+     * Whether the admin table's search takes a date range (payment time, notification time, vehicle entry time).
+     * Payments are filtered in the database rather than through this index.
+     */
+    public boolean supportsDateRange(String table) {
+        return "payment".equals(table) || "notification".equals(table) || "vehiclelog".equals(table);
+    }
+
+    /**
+     * Ids of the rows with a searchable column containing the term, ignoring case, in ascending order
+     * @param table Admin table name, see {@link #isIndexed(String)}
+     * @param term Text to look for; blank matches every row
+     * @param from Only rows at or after this time when set; ignored by tables without a date range
+     * @param to Only rows before this time when set; ignored by tables without a date range
+     */
+    public long[] search(String table, String term, LocalDateTime from, LocalDateTime to) {
+        TableIndex index = tables.get(table);
+        if (index == null) {
+            throw new IllegalArgumentException("Table is not indexed for search: " + table);
+        }
+        if (!supportsDateRange(table)) {
+            from = null;
+            to = null;
+        }
+        index.ensureBuilt();
+        return index.search(fold(term), from, to);
+    }
+
+    /**
+     * Apply a committed insert, update or delete of an indexed entity
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecordChanged(SearchableRecordChangedEvent event) {
+        Object record = event.getRecord();
+        TableIndex index = tables.get(tableOf(record));
+        if (index == null) {
+            return;
+        }
+        if (event.isRemoved()) {
+            index.remove(idOf(record));
+        } else {
+            index.put(documentOf(record));
+        }
+        if (record instanceof Vehicle vehicle) {
+            tables.get("vehiclelog").reload(VEHICLE_LOG_SQL + " WHERE l.vehicle_id = ?", vehicle.getId());
+        } else if (record instanceof ParkingLot lot) {
+            tables.get("vehiclelog").reload(VEHICLE_LOG_SQL + " WHERE l.lot_id = ?", lot.getId());
+        }
+    }
+
+    /**
+     * Drop every table; each is loaded again on its next search. For writes that bypass JPA, such as bulk loads.
+     */
+    public void invalidate() {
+        tables.values().forEach(TableIndex::clear);
+    }
+
+    private static String tableOf(Object record) {
+        if (record instanceof User) return "users";
+        if (record instanceof Vehicle) return "vehicle";
+        if (record instanceof ParkingLot) return "parkinglot";
+        if (record instanceof Notification) return "notification";
+        if (record instanceof VehicleLog) return "vehiclelog";
+        return null;
+    }
+
+    private static Long idOf(Object record) {
+        if (record instanceof User user) return user.getId();
+        if (record instanceof Vehicle vehicle) return vehicle.getId();
+        if (record instanceof ParkingLot lot) return lot.getId();
+        if (record instanceof Notification notification) return notification.getId();
+        return ((VehicleLog) record).getId();
+    }
+
+    // Must produce the same text as the table's load query
+    private static Document documentOf(Object record) {
+        if (record instanceof User user) {
+            return new Document(user.getId(), null, null, user.getName(), user.getEmail(), user.getContactNo());
+        }
+        if (record instanceof Vehicle vehicle) {
+            return new Document(vehicle.getId(), null, null, vehicle.getVehicleNo(), vehicle.getBrand(), vehicle.getModel(), vehicle.getColor());
+        }
+        if (record instanceof ParkingLot lot) {
+            return new Document(lot.getId(), null, null, lot.getCity(), lot.getLocation());
+        }
+        if (record instanceof Notification notification) {
+            return new Document(notification.getId(), notification.getTimestamp(), name(notification.getType()), notification.getDescription());
+        }
+        VehicleLog log = (VehicleLog) record;
+        Vehicle vehicle = log.getVehicle();
+        ParkingLot lot = log.getParkingLot();
+        return new Document(log.getId(), log.getEntryTime(), null, vehicle == null ? null : vehicle.getVehicleNo(),
+                lot == null ? null : lot.getCity(), lot == null ? null : lot.getLocation());
+    }
+
+    // A row of a table's load query
+    private static Document documentOf(ResultSet rs) throws SQLException {
+        String[] fields = new String[rs.getMetaData().getColumnCount() - 3];
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = rs.getString(i + 4);
+        }
+        Timestamp time = rs.getTimestamp(2);
+        return new Document(rs.getLong(1), time == null ? null : time.toLocalDateTime(), rs.getString(3), fields);
+    }
+
+    private static String name(Enum<?> value) {
+        return value == null ? null : value.name();
+    }
+
+    static String fold(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long trigram(String text, int at) {
+        return ((long) text.charAt(at) << 32) | ((long) text.charAt(at + 1) << 16) | text.charAt(at + 2);
+    }
+
+    private static Set<Long> trigrams(String text) {
+        Set<Long> keys = new HashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            keys.add(trigram(text, i));
+        }
+        return keys;
+    }
+
+    private final class TableIndex {
+        private final String name;
+        private final String loadSql;
+        private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+        private final Map<Long, PostingList> postings = new ConcurrentHashMap<>();
+        // Ids of the rows holding each value of the enum column
+        private final Map<String, NavigableSet<Long>> byValue = new ConcurrentHashMap<>();
+        private final NavigableSet<Document> byTime = new ConcurrentSkipListSet<>(TIME_ORDER);
+        private volatile boolean built;
+
+        TableIndex(String name, String loadSql) {
+            this.name = name;
+            this.loadSql = loadSql;
+        }
+
+        long[] search(String term, LocalDateTime from, LocalDateTime to) {
+            if (term.length() >= 3) {
+                LongList matches = new LongList();
+                for (long id : intersectPostings(term)) {
+                    // Trigrams can match out of order, so confirm the whole term
+                    Document document = documents.get(id);
+                    if (document != null && document.text.contains(term) && document.isWithin(from, to)) {
+                        matches.add(id);
+                    }
+                }
+                long[] result = matches.toArray();
+                for (Map.Entry<String, NavigableSet<Long>> value : byValue.entrySet()) {
+                    if (value.getKey().contains(term)) {
+                        result = union(result, within(value.getValue(), from, to));
+                    }
+                }
+                return result;
+            }
+            // Too short for a trigram: filter the date range, or every row, in memory
+            Iterable<Document> scanned = from == null && to == null ? documents.values() : byTime.subSet(
+                    new Document(Long.MIN_VALUE, from != null ? from : LocalDateTime.MIN, null),
+                    new Document(Long.MIN_VALUE, to != null ? to : LocalDateTime.MAX, null));
+            List<Long> matches = new ArrayList<>();
+            for (Document document : scanned) {
+                if (document.contains(term) && document.isWithin(from, to)) {
+                    matches.add(document.id);
+                }
+            }
+            return matches.stream().mapToLong(Long::longValue).sorted().toArray();
+        }
+
+        private long[] intersectPostings(String term) {
+            List<PostingList> lists = new ArrayList<>();
+            for (long key : trigrams(term)) {
+                PostingList ids = postings.get(key);
+                if (ids == null) {
+                    return new long[0];
+                }
+                lists.add(ids);
+            }
+            // Walk the shortest list bucket by bucket, looking up the same bucket in the others
+            lists.sort(Comparator.comparingInt(PostingList::size));
+            LongList result = new LongList();
+            for (Map.Entry<Long, long[]> bucket : lists.get(0).buckets.entrySet()) {
+                long[] ids = bucket.getValue();
+                for (int i = 1; i < lists.size() && ids.length > 0; i++) {
+                    long[] other = lists.get(i).buckets.get(bucket.getKey());
+                    ids = other == null ? new long[0] : intersect(ids, other);
+                }
+                result.addAll(ids);
+            }
+            return result.toArray();
+        }
+
+        private long[] within(NavigableSet<Long> ids, LocalDateTime from, LocalDateTime to) {
+            LongList matches = new LongList();
+            for (long id : ids) {
+                Document document = documents.get(id);
+                if (document != null && document.isWithin(from, to)) {
+                    matches.add(id);
+                }
+            }
+            return matches.toArray();
+        }
+
+        void ensureBuilt() {
+            if (built) {
+                return;
+            }
+            synchronized (this) {
+                if (built) {
+                    return;
+                }
+                long started = System.currentTimeMillis();
+                Map<Long, LongList> building = new HashMap<>();
+                jdbcTemplate.query(loadSql, rs -> {
+                    Document document = documentOf(rs);
+                    documents.put(document.id, document);
+                    if (document.time != null) {
+                        byTime.add(document);
+                    }
+                    if (document.value != null) {
+                        byValue.computeIfAbsent(document.value, v -> new ConcurrentSkipListSet<>()).add(document.id);
+                    }
+                    // Rows arrive in id order, so every posting list is built sorted
+                    for (long key : trigrams(document.text)) {
+                        building.computeIfAbsent(key, k -> new LongList()).add(document.id);
+                    }
+                });
+                building.forEach((key, ids) -> postings.put(key, PostingList.of(ids.toArray())));
+                built = true;
+                logger.info("Admin search index for {} built with {} rows in {} ms",
+                        name, documents.size(), System.currentTimeMillis() - started);
+            }
+        }
+
+        /**
+         * Apply the current rows a query selects, in the shape of the load query, after a table they join to changed
+         */
+        void reload(String sql, Long id) {
+            // Not loaded yet, or nothing to look up: the first search reads the current rows
+            if (!built || id == null) {
+                return;
+            }
+            jdbcTemplate.query(sql, (RowCallbackHandler) rs -> put(documentOf(rs)), id);
+        }
+
+        synchronized void put(Document document) {
+            // Not loaded yet: the first search will read this row from the table
+            if (!built || document.id == null) {
+                return;
+            }
+            Document previous = documents.put(document.id, document);
+            if (previous != null) {
+                byTime.remove(previous);
+                if (previous.value != null) {
+                    byValue.get(previous.value).remove(previous.id);
+                }
+            }
+            if (document.time != null) {
+                byTime.add(document);
+            }
+            if (document.value != null) {
+                byValue.computeIfAbsent(document.value, v -> new ConcurrentSkipListSet<>()).add(document.id);
+            }
+            Set<Long> before = previous == null ? Set.of() : trigrams(previous.text);
+            Set<Long> after = trigrams(document.text);
+            for (long key : before) {
+                if (!after.contains(key)) {
+                    postings.computeIfPresent(key, (k, ids) -> ids.remove(document.id) ? null : ids);
+                }
+            }
+            for (long key : after) {
+                if (!before.contains(key)) {
+                    postings.computeIfAbsent(key, k -> new PostingList()).add(document.id);
+                }
+            }
+        }
+
+        synchronized void remove(Long id) {
+            if (!built || id == null) {
+                return;
+            }
+            Document previous = documents.remove(id);
+            if (previous == null) {
+                return;
+            }
+            byTime.remove(previous);
+            if (previous.value != null) {
+                byValue.get(previous.value).remove(id);
+            }
+            for (long key : trigrams(previous.text)) {
+                postings.computeIfPresent(key, (k, ids) -> ids.remove(id) ? null : ids);
+            }
+        }
+
+        synchronized void clear() {
+            built = false;
+            documents.clear();
+            postings.clear();
+            byValue.clear();
+            byTime.clear();
+        }
+    }
+
+    /**
+     * Sorted ids of one trigram, split into buckets of consecutive ids. Each bucket is an immutable sorted array
+     * holding at most 2^BUCKET_BITS ids, so a write copies one bucket rather than the whole list and searches
+     * read the buckets without locking. Writes are serialized by the table's lock.
+     */
+    private static final class PostingList {
+        private static final int BUCKET_BITS = 10;
+
+        private final ConcurrentSkipListMap<Long, long[]> buckets = new ConcurrentSkipListMap<>();
+        private volatile int size;
+
+        // From ids already in ascending order
+        static PostingList of(long[] ids) {
+            PostingList list = new PostingList();
+            int start = 0;
+            for (int i = 1; i <= ids.length; i++) {
+                if (i == ids.length || ids[i] >>> BUCKET_BITS != ids[start] >>> BUCKET_BITS) {
+                    list.buckets.put(ids[start] >>> BUCKET_BITS, Arrays.copyOfRange(ids, start, i));
+                    start = i;
+                }
+            }
+            list.size = ids.length;
+            return list;
+        }
+
+        int size() { return size; }
+
+        void add(long id) {
+            long bucket = id >>> BUCKET_BITS;
+            long[] ids = buckets.get(bucket);
+            long[] grown = ids == null ? new long[]{id} : with(ids, id);
+            if (grown != ids) {
+                buckets.put(bucket, grown);
+                size++;
+            }
+        }
+
+        // Whether the list is empty afterwards
+        boolean remove(long id) {
+            long bucket = id >>> BUCKET_BITS;
+            long[] ids = buckets.get(bucket);
+            if (ids != null) {
+                long[] shrunk = without(ids, id);
+                if (shrunk == null) {
+                    buckets.remove(bucket);
+                    size--;
+                } else if (shrunk != ids) {
+                    buckets.put(bucket, shrunk);
+                    size--;
+                }
+            }
+            return buckets.isEmpty();
+        }
+    }
+
+    private static long[] intersect(long[] a, long[] b) {
+        long[] result = new long[Math.min(a.length, b.length)];
+        int i = 0, j = 0, count = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[count++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static long[] union(long[] a, long[] b) {
+        long[] result = new long[a.length + b.length];
+        int i = 0, j = 0, count = 0;
+        while (i < a.length || j < b.length) {
+            if (j == b.length || (i < a.length && a[i] < b[j])) {
+                result[count++] = a[i++];
+            } else if (i == a.length || b[j] < a[i]) {
+                result[count++] = b[j++];
+            } else {
+                result[count++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static long[] with(long[] ids, long id) {
+        int at = Arrays.binarySearch(ids, id);
+        if (at >= 0) {
+            return ids;
+        }
+        int insertAt = -at - 1;
+        long[] grown = new long[ids.length + 1];
+        System.arraycopy(ids, 0, grown, 0, insertAt);
+        grown[insertAt] = id;
+        System.arraycopy(ids, insertAt, grown, insertAt + 1, ids.length - insertAt);
+        return grown;
+    }
+
+    private static long[] without(long[] ids, long id) {
+        int at = Arrays.binarySearch(ids, id);
+        if (at < 0) {
+            return ids;
+        }
+        if (ids.length == 1) {
+            return null;
+        }
+        long[] shrunk = new long[ids.length - 1];
+        System.arraycopy(ids, 0, shrunk, 0, at);
+        System.arraycopy(ids, at + 1, shrunk, at, ids.length - at - 1);
+        return shrunk;
+    }
+
+    private static final class Document {
+        final Long id;
+        final LocalDateTime time;
+        // Folded enum column, matched against the term as a whole instead of through trigrams
+        final String value;
+        // Folded text columns joined by FIELD_SEPARATOR
+        final String text;
+
+        Document(Long id, LocalDateTime time, String value, String... fields) {
+            this.id = id;
+            this.time = time;
+            this.value = value == null ? null : fold(value);
+            StringBuilder text = new StringBuilder();
+            for (String field : fields) {
+                if (!text.isEmpty()) {
+                    text.append(FIELD_SEPARATOR);
+                }
+                text.append(fold(field));
+            }
+            this.text = text.toString();
+        }
+
+        boolean contains(String term) {
+            return text.contains(term) || (value != null && value.contains(term));
+        }
+
+        boolean isWithin(LocalDateTime from, LocalDateTime to) {
+            if (from == null && to == null) {
+                return true;
+            }
+            return time != null && (from == null || !time.isBefore(from)) && (to == null || time.isBefore(to));
+        }
+    }
+
+    private static final class LongList {
+        private long[] values = new long[4];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void addAll(long[] added) {
+            if (size + added.length > values.length) {
+                values = Arrays.copyOf(values, Math.max(size * 2, size + added.length));
+            }
+            System.arraycopy(added, 0, values, size, added.length);
+            size += added.length;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.prmplatform.parqhub.service;
+
+import com.prmplatform.parqhub.event.BookingStatusChangedEvent;
+import com.prmplatform.parqhub.event.SlotStatusChangedEvent;
+import com.prmplatform.parqhub.model.Booking;
+import com.prmplatform.parqhub.model.ParkingSlot;
+import com.prmplatform.parqhub.model.ParkingSlot.SlotStatus;
+import com.prmplatform.parqhub.model.User;
+import com.prmplatform.parqhub.model.Vehicle;
+import com.prmplatform.parqhub.repository.BookingRepository;
+import com.prmplatform.parqhub.repository.ParkingLotRepository;
+import com.prmplatform.parqhub.repository.ParkingSlotRepository;
+import com.prmplatform.parqhub.repository.VehicleRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Service for creating bookings without double-booking a slot.
+ * A slot is claimed with a conditional UPDATE (AVAILABLE -> BOOKED), so only one
+ * concurrent request can win it; losers fall through to the next free slot in the lot.
+ * Free slot candidates come from the {@link FreeSlotPool}, with a database scan as fallback.
+ * Bookings run at READ COMMITTED: under MySQL's default REPEATABLE READ the scan would keep reading
+ * the snapshot taken at the transaction's first query and offer slots that have long been claimed.
+ */
+@Service
+public class BookingService {
+
+    private static final int CANDIDATE_BATCH_SIZE = 8;
+
+    private final BookingRepository bookingRepository;
+    private final ParkingSlotRepository parkingSlotRepository;
+    private final ParkingLotRepository parkingLotRepository;
+    private final VehicleRepository vehicleRepository;
+    private final FreeSlotPool freeSlotPool;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public BookingService(BookingRepository bookingRepository,
+                          ParkingSlotRepository parkingSlotRepository,
+                          ParkingLotRepository parkingLotRepository,
+                          VehicleRepository vehicleRepository,
+                          FreeSlotPool freeSlotPool,
+                          ApplicationEventPublisher eventPublisher) {
+        this.bookingRepository = bookingRepository;
+        this.parkingSlotRepository = parkingSlotRepository;
+        this.parkingLotRepository = parkingLotRepository;
+        this.vehicleRepository = vehicleRepository;
+        this.freeSlotPool = freeSlotPool;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Book the requested slot, or the next free slot in the same lot if it has already been taken
+     * @throws IllegalArgumentException if the vehicle or slot does not exist
+     * @throws IllegalStateException if the lot has no free slot left
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public Booking bookSlot(User user, Long vehicleId, Long slotId, LocalDateTime startTime) {
+        Vehicle vehicle = vehicleRepository.findById(vehicleId)
+                .orElseThrow(() -> new IllegalArgumentException("Invalid vehicle or slot"));
+        ParkingSlot requestedSlot = parkingSlotRepository.findById(slotId)
+                .orElseThrow(() -> new IllegalArgumentException("Invalid vehicle or slot"));
+        Long lotId = requestedSlot.getParkingLot().getId();
+
+        Long claimedSlotId = claim(slotId) ? slotId : claimAnyInLot(lotId);
+        if (claimedSlotId == null) {
+            throw new IllegalStateException("Slot is not available and the parking lot is full");
+        }
+
+        return createBooking(user, vehicle, claimedSlotId, startTime);
+    }
+
+    /**
+     * Book whichever slot is free in the given lot
+     * @throws IllegalArgumentException if the vehicle or lot does not exist
+     * @throws IllegalStateException if the lot has no free slot left
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public Booking bookAnyInLot(User user, Long vehicleId, Long lotId, LocalDateTime startTime) {
+        Vehicle vehicle = vehicleRepository.findById(vehicleId)
+                .orElseThrow(() -> new IllegalArgumentException("Invalid vehicle"));
+
+        Long claimedSlotId = claimAnyInLot(lotId);
+        if (claimedSlotId == null) {
+            // A lot that does not exist has no free slot either; only looked up when nothing could be claimed
+            if (lotId == null || !parkingLotRepository.existsById(lotId)) {
+                throw new IllegalArgumentException("Invalid parking lot");
+            }
+            throw new IllegalStateException("The parking lot is full");
+        }
+
+        return createBooking(user, vehicle, claimedSlotId, startTime);
+    }
+
+    /**
+     * Claim any free slot in the given lot, returning its id or null if the lot is full
+     */
+    private Long claimAnyInLot(Long lotId) {
+        // Fast path: pop candidates from the in-memory pool; stale ids just fail the claim and are dropped
+        Long pooledId;
+        while ((pooledId = freeSlotPool.poll(lotId)) != null) {
+            if (claim(pooledId)) {
+                returnToPoolOnRollback(lotId, pooledId);
+                return pooledId;
+            }
+        }
+
+        // Pool is empty or out of date, fall back to scanning the lot once in id order
+        long afterId = 0;
+        while (true) {
+            List<Long> candidates = parkingSlotRepository.findIdsByLotIdAndStatusAfter(
+                    lotId, SlotStatus.AVAILABLE, afterId, PageRequest.of(0, CANDIDATE_BATCH_SIZE));
+            if (candidates.isEmpty()) {
+                return null;
+            }
+            for (Long candidateId : candidates) {
+                if (claim(candidateId)) {
+                    return candidateId;
+                }
+            }
+            afterId = candidates.get(candidates.size() - 1);
+        }
+    }
+
+    /**
+     * Atomically move a slot from AVAILABLE to BOOKED
+     */
+    private boolean claim(Long slotId) {
+        return parkingSlotRepository.compareAndSetStatus(slotId, SlotStatus.AVAILABLE, SlotStatus.BOOKED) == 1;
+    }
+
+    /**
+     * A rolled back claim leaves the slot AVAILABLE in the database, so put it back in the pool
+     */
+    private void returnToPoolOnRollback(Long lotId, Long slotId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    freeSlotPool.offer(lotId, slotId);
+                }
+            }
+        });
+    }
+
+    private Booking createBooking(User user, Vehicle vehicle, Long slotId, LocalDateTime startTime) {
+        ParkingSlot slot = parkingSlotRepository.getReferenceById(slotId);
+
+        Booking booking = new Booking();
+        booking.setUser(user);
+        booking.setVehicle(vehicle);
+        booking.setParkingSlot(slot);
+        booking.setStartTime(startTime);
+        booking.setEndTime(null);
+        booking.setPaymentStatus(Booking.PaymentStatus.Pending);
+        Booking savedBooking = bookingRepository.save(booking);
+
+        eventPublisher.publishEvent(new SlotStatusChangedEvent(slot.getParkingLot().getId(), slotId,
+                SlotStatus.AVAILABLE, SlotStatus.BOOKED));
+        eventPublisher.publishEvent(new BookingStatusChangedEvent(savedBooking.getId(), startTime, null,
+                Booking.PaymentStatus.Pending));
+        return savedBooking;
+    }
+}
@@ -0,0 +1,303 @@
+package com.prmplatform.parqhub.service;
+
+import com.prmplatform.parqhub.datasource.ReadReplicaRoutingDataSource;
+import com.prmplatform.parqhub.event.BookingStatusChangedEvent;
+import com.prmplatform.parqhub.event.LotInventoryChangedEvent;
+import com.prmplatform.parqhub.event.NotificationChangedEvent;
+import com.prmplatform.parqhub.event.PaymentRecordedEvent;
+import com.prmplatform.parqhub.event.UserRegisteredEvent;
+import com.prmplatform.parqhub.event.VehicleLogRecordedEvent;
+import com.prmplatform.parqhub.model.Booking;
+import com.prmplatform.parqhub.model.Notification.NotificationType;
+import com.prmplatform.parqhub.model.ParkingLot;
+import com.prmplatform.parqhub.model.ParkingSlot.SlotStatus;
+import com.prmplatform.parqhub.model.Payment;
+import com.prmplatform.parqhub.repository.BookingRepository;
+import com.prmplatform.parqhub.repository.NotificationRepository;
+import com.prmplatform.parqhub.repository.ParkingLotRepository;
+import com.prmplatform.parqhub.repository.PaymentRepository;
+import com.prmplatform.parqhub.repository.UserRepository;
+import com.prmplatform.parqhub.repository.VehicleLogRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * In-memory counters behind the admin dashboard.
+ * Seeded from the database on startup, updated by domain events as bookings, payments,
+ * vehicle logs and notifications are written, and periodically reconciled to correct drift
+ * (for example from edits made through the admin tables, which publish no events). All-time
+ * totals include the records moved to the archive.
+ */
+@Service
+public class DashboardMetricsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardMetricsService.class);
+
+    private final UserRepository userRepository;
+    private final BookingRepository bookingRepository;
+    private final PaymentRepository paymentRepository;
+    private final VehicleLogRepository vehicleLogRepository;
+    private final NotificationRepository notificationRepository;
+    private final ParkingLotRepository parkingLotRepository;
+    private final SlotAvailabilityIndex slotAvailabilityIndex;
+    private final RecordArchiveService recordArchiveService;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final AtomicLong totalUsers = new AtomicLong();
+    private final Map<Booking.PaymentStatus, AtomicLong> bookingsByStatus = new EnumMap<>(Booking.PaymentStatus.class);
+    private final AtomicLong activeVehicles = new AtomicLong();
+    private final AtomicLong totalVehicleLogs = new AtomicLong();
+    private final Map<NotificationType, AtomicLong> notificationsByType = new EnumMap<>(NotificationType.class);
+    private final DoubleAdder totalRevenue = new DoubleAdder();
+    private final DoubleAdder todayRevenue = new DoubleAdder();
+    private volatile LocalDate revenueDay = LocalDate.now();
+    private final Map<Long, String> cityByLot = new ConcurrentHashMap<>();
+
+    public DashboardMetricsService(UserRepository userRepository,
+                                   BookingRepository bookingRepository,
+                                   PaymentRepository paymentRepository,
+                                   VehicleLogRepository vehicleLogRepository,
+                                   NotificationRepository notificationRepository,
+                                   ParkingLotRepository parkingLotRepository,
+                                   SlotAvailabilityIndex slotAvailabilityIndex,
+                                   RecordArchiveService recordArchiveService,
+                                   PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.bookingRepository = bookingRepository;
+        this.paymentRepository = paymentRepository;
+        this.vehicleLogRepository = vehicleLogRepository;
+        this.notificationRepository = notificationRepository;
+        this.parkingLotRepository = parkingLotRepository;
+        this.slotAvailabilityIndex = slotAvailabilityIndex;
+        this.recordArchiveService = recordArchiveService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        // Served by the read replica when one is configured
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setName(ReadReplicaRoutingDataSource.REPLICA_LABEL);
+        for (Booking.PaymentStatus status : Booking.PaymentStatus.values()) {
+            bookingsByStatus.put(status, new AtomicLong());
+        }
+        for (NotificationType type : NotificationType.values()) {
+            notificationsByType.put(type, new AtomicLong());
+        }
+    }
+
+    /**
+     * Reload every counter from the database
+     */
+    @PostConstruct
+    public void reconcile() {
+        readOnlyTransaction.executeWithoutResult(status -> reload());
+    }
+
+    private void reload() {
+        RecordArchiveService.ArchiveTotals archived = recordArchiveService.getTotals();
+        totalUsers.set(userRepository.count());
+
+        Map<Booking.PaymentStatus, Long> bookingCounts = new EnumMap<>(Booking.PaymentStatus.class);
+        for (Object[] row : bookingRepository.countGroupedByPaymentStatus()) {
+            if (row[0] != null) {
+                bookingCounts.put((Booking.PaymentStatus) row[0], ((Number) row[1]).longValue());
+            }
+        }
+        bookingsByStatus.forEach((status, counter) ->
+                counter.set(bookingCounts.getOrDefault(status, 0L) + archived.getBookingCount(status)));
+
+        activeVehicles.set(vehicleLogRepository.countByExitTimeIsNull());
+        totalVehicleLogs.set(vehicleLogRepository.count() + archived.getVehicleLogCount());
+
+        Map<NotificationType, Long> notificationCounts = new EnumMap<>(NotificationType.class);
+        for (Object[] row : notificationRepository.countGroupedByType()) {
+            if (row[0] != null) {
+                notificationCounts.put((NotificationType) row[0], ((Number) row[1]).longValue());
+            }
+        }
+        notificationsByType.forEach((type, counter) -> counter.set(notificationCounts.getOrDefault(type, 0L)));
+
+        Double total = paymentRepository.getTotalCompletedRevenue();
+        Double today = paymentRepository.sumAmountByCompletedAndTimestampAfter(LocalDateTime.now().with(LocalTime.MIN));
+        synchronized (todayRevenue) {
+            totalRevenue.reset();
+            totalRevenue.add((total != null ? total : 0.0) + archived.getCompletedRevenue());
+            todayRevenue.reset();
+            todayRevenue.add(today != null ? today : 0.0);
+            revenueDay = LocalDate.now();
+        }
+
+        Map<Long, String> cities = new HashMap<>();
+        for (ParkingLot lot : parkingLotRepository.findAll()) {
+            cities.put(lot.getId(), lot.getCity());
+        }
+        cityByLot.keySet().retainAll(cities.keySet());
+        cityByLot.putAll(cities);
+    }
+
+    /**
+     * Periodically correct drift between the counters and the database
+     */
+    @Scheduled(initialDelayString = "${parqhub.dashboard.reconcile-interval-ms:300000}",
+               fixedDelayString = "${parqhub.dashboard.reconcile-interval-ms:300000}")
+    public void scheduledReconcile() {
+        try {
+            slotAvailabilityIndex.rebuild();
+            reconcile();
+        } catch (Exception e) {
+            logger.warn("Dashboard metrics reconciliation failed: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRegistered(UserRegisteredEvent event) {
+        totalUsers.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        if (event.getPreviousStatus() == event.getNewStatus()) {
+            return;
+        }
+        if (event.getPreviousStatus() != null) {
+            bookingsByStatus.get(event.getPreviousStatus()).decrementAndGet();
+        }
+        if (event.getNewStatus() != null) {
+            bookingsByStatus.get(event.getNewStatus()).incrementAndGet();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPaymentRecorded(PaymentRecordedEvent event) {
+        if (event.getStatus() != Payment.PaymentStatus.Completed || event.getAmount() == null) {
+            return;
+        }
+        double amount = event.getAmount().doubleValue();
+        totalRevenue.add(amount);
+        if (event.getTimestamp() != null && event.getTimestamp().toLocalDate().equals(LocalDate.now())) {
+            rollRevenueDay();
+            todayRevenue.add(amount);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleLogRecorded(VehicleLogRecordedEvent event) {
+        if (event.getKind() == VehicleLogRecordedEvent.Kind.ENTRY) {
+            totalVehicleLogs.incrementAndGet();
+            activeVehicles.incrementAndGet();
+        } else {
+            activeVehicles.decrementAndGet();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationChanged(NotificationChangedEvent event) {
+        if (event.getType() == null) {
+            return;
+        }
+        AtomicLong counter = notificationsByType.get(event.getType());
+        if (event.isDeleted()) {
+            counter.decrementAndGet();
+        } else {
+            counter.incrementAndGet();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLotInventoryChanged(LotInventoryChangedEvent event) {
+        if (event.getLotId() == null) {
+            return;
+        }
+        parkingLotRepository.findById(event.getLotId()).ifPresentOrElse(
+                lot -> cityByLot.put(lot.getId(), lot.getCity()),
+                () -> cityByLot.remove(event.getLotId()));
+    }
+
+    /**
+     * Reset today's revenue the first time it is touched after midnight
+     */
+    private void rollRevenueDay() {
+        LocalDate today = LocalDate.now();
+        if (!today.equals(revenueDay)) {
+            synchronized (todayRevenue) {
+                if (!today.equals(revenueDay)) {
+                    todayRevenue.reset();
+                    revenueDay = today;
+                }
+            }
+        }
+    }
+
+    public long getTotalUsers() { return Math.max(0, totalUsers.get()); }
+
+    public long getBookingCount(Booking.PaymentStatus status) { return Math.max(0, bookingsByStatus.get(status).get()); }
+
+    public long getTotalBookings() {
+        long total = 0;
+        for (Booking.PaymentStatus status : Booking.PaymentStatus.values()) {
+            total += getBookingCount(status);
+        }
+        return total;
+    }
+
+    public long getActiveVehicles() { return Math.max(0, activeVehicles.get()); }
+
+    public long getTotalVehicleLogs() { return Math.max(0, totalVehicleLogs.get()); }
+
+    /**
+     * Get the number of notifications of a type, or 0 for an unknown type name
+     */
+    public long getNotificationCount(String type) {
+        try {
+            return Math.max(0, notificationsByType.get(NotificationType.valueOf(type)).get());
+        } catch (IllegalArgumentException e) {
+            return 0;
+        }
+    }
+
+    public long getTotalNotifications() {
+        long total = 0;
+        for (AtomicLong counter : notificationsByType.values()) {
+            total += Math.max(0, counter.get());
+        }
+        return total;
+    }
+
+    public double getTodayRevenue() {
+        rollRevenueDay();
+        return todayRevenue.sum();
+    }
+
+    public double getTotalRevenue() { return totalRevenue.sum(); }
+
+    public long getSlotCount(SlotStatus status) { return slotAvailabilityIndex.getTotalCount(status); }
+
+    public long getTotalSlots() { return slotAvailabilityIndex.getTotalSlots(); }
+
+    /**
+     * Get available slot counts keyed by city
+     */
+    public Map<String, Long> getAvailableSlotsByCity() {
+        Map<String, Long> availableByCity = new HashMap<>();
+        cityByLot.forEach((lotId, city) -> {
+            long available = slotAvailabilityIndex.getAvailableCount(lotId);
+            if (available > 0) {
+                availableByCity.merge(city, available, Long::sum);
+            }
+        });
+        return availableByCity;
+    }
+}
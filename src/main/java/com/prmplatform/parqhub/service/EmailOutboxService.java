@@ -0,0 +1,219 @@
+package com.prmplatform.parqhub.service;
+
+import com.prmplatform.parqhub.model.EmailOutbox;
+import com.prmplatform.parqhub.repository.EmailOutboxRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Transactional email outbox.
+ * Emails are stored alongside the change they report and delivered after commit on virtual threads,
+ * so request latency never depends on the mail server and queued mail survives restarts.
+ * Failed sends are retried with exponential backoff, and sends are throttled to the mail provider's
+ * rate and connection limits.
+ */
+@Service
+public class EmailOutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxService.class);
+    private static final Duration LEASE = Duration.ofMinutes(5);
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final JavaMailSender mailSender;
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final AtomicBoolean drainRequested = new AtomicBoolean();
+    private final AtomicLong nextSendNanos = new AtomicLong(System.nanoTime());
+    // JavaMail's transport is synchronized, so a send in progress pins its carrier thread; this bounds how many do
+    private Semaphore connectionPermits;
+
+    @Value("${spring.mail.from:parqhub.system@gmail.com}")
+    private String fromEmail;
+
+    @Value("${parqhub.mail.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${parqhub.mail.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${parqhub.mail.outbox.initial-backoff-ms:30000}")
+    private long initialBackoffMs;
+
+    @Value("${parqhub.mail.outbox.max-backoff-ms:3600000}")
+    private long maxBackoffMs;
+
+    @Value("${parqhub.mail.outbox.max-per-second:5}")
+    private double maxPerSecond;
+
+    @Value("${parqhub.mail.outbox.max-connections:4}")
+    private int maxConnections;
+
+    public EmailOutboxService(EmailOutboxRepository emailOutboxRepository, JavaMailSender mailSender) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.mailSender = mailSender;
+    }
+
+    @PostConstruct
+    public void init() {
+        connectionPermits = new Semaphore(maxConnections);
+    }
+
+    /**
+     * Queue an email. Inside a transaction it is only stored, and only sent, if that transaction commits.
+     */
+    public void enqueue(String recipient, String subject, String body) {
+        emailOutboxRepository.save(new EmailOutbox(recipient, subject, body, LocalDateTime.now()));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    requestDispatch();
+                }
+            });
+        } else {
+            requestDispatch();
+        }
+    }
+
+    /**
+     * Send every due email. Polling picks up retries and mail left over from before a restart.
+     */
+    @Scheduled(initialDelayString = "${parqhub.mail.outbox.poll-interval-ms:5000}",
+               fixedDelayString = "${parqhub.mail.outbox.poll-interval-ms:5000}")
+    public void dispatchDue() {
+        drainRequested.set(true);
+        if (!drainLock.tryLock()) {
+            // The running drain sees the request and goes round again
+            return;
+        }
+        try {
+            while (drainRequested.getAndSet(false)) {
+                drain();
+            }
+        } catch (Exception e) {
+            logger.warn("Email outbox dispatch failed: {}", e.getMessage());
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Anything not yet sent stays pending in the outbox for the next start
+        senders.shutdownNow();
+    }
+
+    private void requestDispatch() {
+        try {
+            senders.execute(this::dispatchDue);
+        } catch (RuntimeException e) {
+            logger.debug("Email dispatch deferred to the next poll: {}", e.getMessage());
+        }
+    }
+
+    private void drain() throws InterruptedException {
+        List<EmailOutbox> due;
+        do {
+            LocalDateTime now = LocalDateTime.now();
+            due = emailOutboxRepository.findDue(now, PageRequest.of(0, batchSize));
+            List<Future<?>> inFlight = new ArrayList<>();
+            for (EmailOutbox email : due) {
+                // The lease keeps other instances off this email, and lets it be retried if we die mid-send
+                if (emailOutboxRepository.claim(email.getId(), now, now.plus(LEASE)) == 1) {
+                    inFlight.add(senders.submit(() -> {
+                        deliver(email);
+                        return null;
+                    }));
+                }
+            }
+            for (Future<?> send : inFlight) {
+                try {
+                    send.get();
+                } catch (ExecutionException e) {
+                    logger.warn("Email delivery failed: {}", e.getCause().getMessage());
+                }
+            }
+        } while (due.size() == batchSize);
+    }
+
+    private void deliver(EmailOutbox email) throws InterruptedException {
+        connectionPermits.acquire();
+        try {
+            awaitSendSlot();
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setFrom(fromEmail);
+            message.setTo(email.getRecipient());
+            message.setSubject(email.getSubject());
+            message.setText(email.getBody());
+            mailSender.send(message);
+
+            email.setStatus(EmailOutbox.Status.Sent);
+            email.setSentAt(LocalDateTime.now());
+            email.setAttempts(email.getAttempts() + 1);
+            email.setLastError(null);
+        } catch (MailException e) {
+            int attempts = email.getAttempts() + 1;
+            email.setAttempts(attempts);
+            email.setLastError(truncate(e.getMessage()));
+            if (attempts >= maxAttempts) {
+                email.setStatus(EmailOutbox.Status.Failed);
+                logger.warn("Giving up on email {} to {} after {} attempts: {}",
+                        email.getId(), email.getRecipient(), attempts, e.getMessage());
+            } else {
+                email.setNextAttemptAt(LocalDateTime.now().plus(backoff(attempts)));
+            }
+        } finally {
+            connectionPermits.release();
+        }
+        emailOutboxRepository.save(email);
+    }
+
+    /**
+     * Space sends evenly at the provider's rate: each send reserves the next free slot and sleeps until it
+     */
+    private void awaitSendSlot() throws InterruptedException {
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / maxPerSecond);
+        long now = System.nanoTime();
+        long slot = Math.max(now, nextSendNanos.getAndUpdate(next -> Math.max(next, now) + interval));
+        if (slot > now) {
+            TimeUnit.NANOSECONDS.sleep(slot - now);
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        long delay = initialBackoffMs << Math.min(attempts - 1, 20);
+        return Duration.ofMillis(Math.min(delay, maxBackoffMs));
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
@@ -0,0 +1,112 @@
+package com.prmplatform.parqhub.service;
+
+import com.prmplatform.parqhub.event.LotInventoryChangedEvent;
+import com.prmplatform.parqhub.event.SlotStatusChangedEvent;
+import com.prmplatform.parqhub.model.ParkingSlot.SlotStatus;
+import com.prmplatform.parqhub.repository.ParkingSlotRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Lock-free queue of free slot ids per parking lot.
+ * The queue is only a hint: a popped id still has to be claimed in the database,
+ * so stale entries are harmless and simply skipped by the caller. Each id is queued at most once per lot,
+ * so slots that are freed and taken again repeatedly do not grow the queue.
+ */
+@Service
+public class FreeSlotPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(FreeSlotPool.class);
+
+    private final ParkingSlotRepository parkingSlotRepository;
+    private final Map<Long, LotQueue> freeSlotsByLot = new ConcurrentHashMap<>();
+
+    public FreeSlotPool(ParkingSlotRepository parkingSlotRepository) {
+        this.parkingSlotRepository = parkingSlotRepository;
+    }
+
+    /**
+     * Rebuild every lot's queue from the currently available slots
+     */
+    @PostConstruct
+    public void rebuild() {
+        Map<Long, LotQueue> fresh = new ConcurrentHashMap<>();
+        for (Object[] row : parkingSlotRepository.findLotAndSlotIdsByStatus(SlotStatus.AVAILABLE)) {
+            fresh.computeIfAbsent((Long) row[0], id -> new LotQueue()).offer((Long) row[1]);
+        }
+        freeSlotsByLot.keySet().retainAll(fresh.keySet());
+        freeSlotsByLot.putAll(fresh);
+        logger.info("Free slot pool built for {} parking lots", fresh.size());
+    }
+
+    /**
+     * Rebuild a single lot's queue from the database
+     */
+    public void rebuildLot(Long lotId) {
+        if (lotId == null) {
+            return;
+        }
+        LotQueue queue = new LotQueue();
+        parkingSlotRepository.findIdsByLotIdAndStatus(lotId, SlotStatus.AVAILABLE, Pageable.unpaged()).forEach(queue::offer);
+        freeSlotsByLot.put(lotId, queue);
+    }
+
+    /**
+     * Take the next candidate free slot id for a lot, or null if none is known
+     */
+    public Long poll(Long lotId) {
+        LotQueue queue = freeSlotsByLot.get(lotId);
+        return queue == null ? null : queue.poll();
+    }
+
+    /**
+     * Return a slot id to its lot's queue, unless it is already queued
+     */
+    public void offer(Long lotId, Long slotId) {
+        if (lotId == null || slotId == null) {
+            return;
+        }
+        freeSlotsByLot.computeIfAbsent(lotId, id -> new LotQueue()).offer(slotId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSlotStatusChanged(SlotStatusChangedEvent event) {
+        if (event.getNewStatus() == SlotStatus.AVAILABLE && event.getPreviousStatus() != SlotStatus.AVAILABLE) {
+            offer(event.getLotId(), event.getSlotId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLotInventoryChanged(LotInventoryChangedEvent event) {
+        rebuildLot(event.getLotId());
+    }
+
+    // Queue of one lot with the set of ids in it
+    private static final class LotQueue {
+        private final ConcurrentLinkedQueue<Long> ids = new ConcurrentLinkedQueue<>();
+        private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+
+        void offer(Long slotId) {
+            if (queued.add(slotId)) {
+                ids.offer(slotId);
+            }
+        }
+
+        Long poll() {
+            Long slotId = ids.poll();
+            if (slotId != null) {
+                queued.remove(slotId);
+            }
+            return slotId;
+        }
+    }
+}
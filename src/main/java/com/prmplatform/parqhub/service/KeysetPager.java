@@ -0,0 +1,284 @@
+package com.prmplatform.parqhub.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keyset ("seek") paging over a whole entity table for the admin tables. Each page continues from a cursor
+ * holding the sort value and id of the row it stops at, so the database seeks straight to it instead of
+ * skipping OFFSET rows, and page 5,000 costs the same as page 1. Totals come from a count cached for
+ * parqhub.admin.count-ttl-seconds rather than a COUNT(*) per page view.
+ */
+@Service
+public class KeysetPager {
+
+    private static final String ID = "id";
+    private static final String FETCH_GRAPH_HINT = "jakarta.persistence.fetchgraph";
+    // Ids per query when reading the sort column of search hits
+    private static final int ORDER_BATCH_SIZE = 1000;
+
+    private static final Set<Class<?>> SORTABLE_TYPES = Set.of(String.class, Long.class, long.class, Integer.class, int.class,
+            Double.class, double.class, BigDecimal.class, LocalDateTime.class, LocalDate.class);
+
+    private final EntityManager entityManager;
+    private final long countTtlMs;
+    private final Map<Class<?>, CachedCount> counts = new ConcurrentHashMap<>();
+
+    public KeysetPager(EntityManager entityManager, @Value("${parqhub.admin.count-ttl-seconds:60}") long countTtlSeconds) {
+        this.entityManager = entityManager;
+        this.countTtlMs = countTtlSeconds * 1000;
+    }
+
+    /**
+     * One page of the table ordered by the sort column, then id
+     * @param sortBy Entity attribute to order by; id when it is not a sortable column
+     * @param after Cursor of the row to continue after, from {@link KeysetPage#getNextCursor()}
+     * @param before Cursor of the row to stop before, from {@link KeysetPage#getPreviousCursor()}; used when after is not set
+     */
+    public <T> KeysetPage<T> browse(Class<T> type, String sortBy, boolean descending, int size, String after, String before) {
+        return browse(type, sortBy, descending, size, after, before, null);
+    }
+
+    /**
+     * One page of the table, loading the associations of the named entity graph in the same query
+     * @param fetchGraph Name of an entity graph of the type, or null to leave associations lazy
+     */
+    public <T> KeysetPage<T> browse(Class<T> type, String sortBy, boolean descending, int size, String after, String before,
+                                    String fetchGraph) {
+        EntityType<T> entity = entityManager.getMetamodel().entity(type);
+        SingularAttribute<? super T, ?> key = sortAttribute(entity, sortBy);
+        // A cursor from another ordering is ignored, so the table starts over from the top
+        Cursor cursor = Cursor.decode(after != null ? after : before, key, descending);
+        boolean backwards = cursor != null && after == null;
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<T> root = query.from(type);
+        Path<Comparable<Object>> keyPath = root.get(key.getName());
+        Path<Long> idPath = root.get(ID);
+        // Walking backwards is a forward walk in the opposite order, reversed afterwards
+        boolean queryDescending = descending != backwards;
+        if (cursor != null) {
+            query.where(seek(cb, keyPath, idPath, key, cursor, queryDescending));
+        }
+        if (key.getName().equals(ID)) {
+            query.orderBy(queryDescending ? cb.desc(idPath) : cb.asc(idPath));
+        } else {
+            query.orderBy(queryDescending ? cb.desc(keyPath) : cb.asc(keyPath), queryDescending ? cb.desc(idPath) : cb.asc(idPath));
+        }
+        TypedQuery<T> typed = entityManager.createQuery(query).setMaxResults(size + 1);
+        if (fetchGraph != null) {
+            typed.setHint(FETCH_GRAPH_HINT, entityManager.getEntityGraph(fetchGraph));
+        }
+        List<T> rows = new ArrayList<>(typed.getResultList());
+
+        if (rows.isEmpty() && cursor != null) {
+            // The rows around the cursor are gone
+            return browse(type, sortBy, descending, size, null, null, fetchGraph);
+        }
+        boolean more = rows.size() > size;
+        if (more) {
+            rows.remove(size);
+        }
+        if (backwards) {
+            Collections.reverse(rows);
+        }
+        boolean hasPrevious = backwards ? more : cursor != null;
+        boolean hasNext = backwards || more;
+        String previousCursor = hasPrevious && !rows.isEmpty() ? encode(rows.get(0), key, descending) : null;
+        String nextCursor = hasNext && !rows.isEmpty() ? encode(rows.get(rows.size() - 1), key, descending) : null;
+        return new KeysetPage<>(rows, key.getName(), previousCursor, nextCursor, estimateCount(type));
+    }
+
+    /**
+     * The column the table is actually ordered by for a requested sort: sortBy when it is a sortable column, otherwise id
+     */
+    public String sortColumn(Class<?> type, String sortBy) {
+        return sortAttribute(entityManager.getMetamodel().entity(type), sortBy).getName();
+    }
+
+    /**
+     * Orders search hits, which come in id order, by the sort column and then id, ascending. NULLs sort lowest
+     * and text ignores case, as in the database. Reads the column of ORDER_BATCH_SIZE ids per query.
+     * @param sortBy Entity attribute to order by; the ids are returned as they are when it resolves to id
+     */
+    public long[] orderIds(Class<?> type, long[] ids, String sortBy) {
+        String key = sortColumn(type, sortBy);
+        if (key.equals(ID)) {
+            return ids;
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        List<Object[]> rows = new ArrayList<>(ids.length);
+        for (int start = 0; start < ids.length; start += ORDER_BATCH_SIZE) {
+            List<Long> batch = Arrays.stream(ids, start, Math.min(ids.length, start + ORDER_BATCH_SIZE)).boxed().toList();
+            CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+            Root<?> root = query.from(type);
+            query.multiselect(root.get(ID), root.get(key)).where(root.get(ID).in(batch));
+            rows.addAll(entityManager.createQuery(query).getResultList());
+        }
+        rows.sort(Comparator.comparing((Object[] row) -> sortValue(row[1]), Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparingLong(row -> (Long) row[0]));
+        return rows.stream().mapToLong(row -> (Long) row[0]).toArray();
+    }
+
+    // Enums are stored by name and MySQL compares text case-insensitively
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> sortValue(Object value) {
+        Object comparable = value instanceof Enum<?> e ? e.name().toLowerCase(Locale.ROOT) : value instanceof String text ? text.toLowerCase(Locale.ROOT) : value;
+        return (Comparable<Object>) comparable;
+    }
+
+    /**
+     * Row count of the table, at most parqhub.admin.count-ttl-seconds old
+     */
+    public long estimateCount(Class<?> type) {
+        long now = System.currentTimeMillis();
+        CachedCount cached = counts.get(type);
+        if (cached != null && now - cached.countedAt < countTtlMs) {
+            return cached.count;
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        query.select(cb.count(query.from(type)));
+        long count = entityManager.createQuery(query).getSingleResult();
+        counts.put(type, new CachedCount(count, now));
+        return count;
+    }
+
+    private static <T> SingularAttribute<? super T, ?> sortAttribute(EntityType<T> entity, String sortBy) {
+        if (sortBy != null) {
+            for (SingularAttribute<? super T, ?> attribute : entity.getSingularAttributes()) {
+                if (attribute.getName().equals(sortBy) && attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.BASIC
+                        && (SORTABLE_TYPES.contains(attribute.getJavaType()) || attribute.getJavaType().isEnum())) {
+                    return attribute;
+                }
+            }
+        }
+        return entity.getSingularAttribute(ID);
+    }
+
+    // Rows strictly after the cursor in the given order. NULLs sort lowest, as they do in MySQL and H2.
+    private static Predicate seek(CriteriaBuilder cb, Path<Comparable<Object>> keyPath, Path<Long> idPath,
+                                  SingularAttribute<?, ?> key, Cursor cursor, boolean descending) {
+        Predicate idAfter = descending ? cb.lessThan(idPath, cursor.id) : cb.greaterThan(idPath, cursor.id);
+        if (key.getName().equals(ID)) {
+            return idAfter;
+        }
+        if (cursor.value == null) {
+            Predicate tied = cb.and(cb.isNull(keyPath), idAfter);
+            return descending ? tied : cb.or(tied, cb.isNotNull(keyPath));
+        }
+        Predicate keyAfter = descending ? cb.lessThan(keyPath, cursor.value) : cb.greaterThan(keyPath, cursor.value);
+        Predicate tied = cb.and(cb.equal(keyPath, cursor.value), idAfter);
+        if (descending && key.isOptional()) {
+            return cb.or(keyAfter, tied, cb.isNull(keyPath));
+        }
+        return cb.or(keyAfter, tied);
+    }
+
+    private String encode(Object row, SingularAttribute<?, ?> key, boolean descending) {
+        Object id = entityManager.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(row);
+        Object value = PropertyAccessorFactory.forDirectFieldAccess(row).getPropertyValue(key.getName());
+        String text = key.getName() + "\n" + (descending ? "desc" : "asc") + "\n" + id + "\n"
+                + (value == null ? "" : "=" + (value instanceof Enum<?> e ? e.name() : value instanceof BigDecimal b ? b.toPlainString() : value));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private record CachedCount(long count, long countedAt) {
+    }
+
+    private static final class Cursor {
+        final Comparable<Object> value;
+        final long id;
+
+        private Cursor(Comparable<Object> value, long id) {
+            this.value = value;
+            this.id = id;
+        }
+
+        // Null when there is no cursor, it is malformed, or it belongs to another ordering
+        static Cursor decode(String token, SingularAttribute<?, ?> key, boolean descending) {
+            if (token == null || token.isBlank()) {
+                return null;
+            }
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\n", 4);
+                if (parts.length != 4 || !parts[0].equals(key.getName()) || !parts[1].equals(descending ? "desc" : "asc")) {
+                    return null;
+                }
+                Object value = parts[3].isEmpty() ? null : parse(parts[3].substring(1), key.getJavaType());
+                @SuppressWarnings("unchecked")
+                Comparable<Object> comparable = (Comparable<Object>) value;
+                return new Cursor(comparable, Long.parseLong(parts[2]));
+            } catch (IllegalArgumentException | DateTimeException e) {
+                return null;
+            }
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static Object parse(String text, Class<?> type) {
+            if (type == String.class) return text;
+            if (type == Long.class || type == long.class) return Long.parseLong(text);
+            if (type == Integer.class || type == int.class) return Integer.parseInt(text);
+            if (type == Double.class || type == double.class) return Double.parseDouble(text);
+            if (type == BigDecimal.class) return new BigDecimal(text);
+            if (type == LocalDateTime.class) return LocalDateTime.parse(text);
+            if (type == LocalDate.class) return LocalDate.parse(text);
+            return Enum.valueOf((Class<Enum>) type, text);
+        }
+    }
+
+    /**
+     * A page of rows with the cursors to move to the pages either side of it; a null cursor means there is no such page
+     */
+    public static class KeysetPage<T> {
+        private final List<T> content;
+        private final String sortBy;
+        private final String previousCursor;
+        private final String nextCursor;
+        private final long estimatedTotal;
+
+        KeysetPage(List<T> content, String sortBy, String previousCursor, String nextCursor, long estimatedTotal) {
+            this.content = content;
+            this.sortBy = sortBy;
+            this.previousCursor = previousCursor;
+            this.nextCursor = nextCursor;
+            this.estimatedTotal = estimatedTotal;
+        }
+
+        public List<T> getContent() { return content; }
+        public String getSortBy() { return sortBy; }
+        public String getPreviousCursor() { return previousCursor; }
+        public String getNextCursor() { return nextCursor; }
+        public boolean hasPrevious() { return previousCursor != null; }
+        public boolean hasNext() { return nextCursor != null; }
+        public long getEstimatedTotal() { return estimatedTotal; }
+    }
+}
@@ -0,0 +1,229 @@
+package com.prmplatform.parqhub.service;
+
+import com.prmplatform.parqhub.event.LotCatalogChangedEvent;
+import com.prmplatform.parqhub.model.ParkingLot;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Case-folded prefix index over lot cities and locations for typeahead lookups.
+ * Every word start of a city or location is a key in one sorted array, so a lookup is a
+ * binary search to the first key with the prefix and a scan over the matching run.
+ * Built from {@link ParkingLotCatalog} on first use; a lot change only swaps that lot's keys.
+ */
+@Service
+public class LotTypeaheadIndex {
+
+    public static final int MAX_LIMIT = 50;
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    // Keeps the lots of a group next to each other within a run of equal keys
+    private static final Comparator<Entry> ENTRY_ORDER = Comparator.comparing((Entry e) -> e.key)
+            .thenComparing(e -> e.group)
+            .thenComparing(e -> e.lotId);
+
+    private final ParkingLotCatalog parkingLotCatalog;
+    private final SlotAvailabilityIndex slotAvailabilityIndex;
+    private volatile Entry[] entries;
+
+    public LotTypeaheadIndex(ParkingLotCatalog parkingLotCatalog, SlotAvailabilityIndex slotAvailabilityIndex) {
+        this.parkingLotCatalog = parkingLotCatalog;
+        this.slotAvailabilityIndex = slotAvailabilityIndex;
+    }
+
+    /**
+     * Cities and locations with a word starting with the prefix, in alphabetical order of that word.
+     * The scan stops once enough suggestions are found, so its cost does not grow with the number of lots.
+     * @param prefix What the user has typed so far
+     * @param city Only suggest locations in this city when set
+     * @param limit Maximum number of suggestions, capped at {@link #MAX_LIMIT}
+     */
+    public List<Suggestion> suggest(String prefix, String city, int limit) {
+        String folded = fold(prefix);
+        int max = Math.min(limit, MAX_LIMIT);
+        if (folded.isEmpty() || max <= 0) {
+            return List.of();
+        }
+        String cityFilter = city == null || city.isBlank() ? null : fold(city);
+        Entry[] index = current();
+
+        Map<String, Suggestion> matches = new LinkedHashMap<>();
+        for (int i = lowerBound(index, folded); i < index.length && index[i].key.startsWith(folded); i++) {
+            Entry entry = index[i];
+            if (cityFilter != null && (entry.location == null || !entry.city.equals(cityFilter))) {
+                continue;
+            }
+            Suggestion suggestion = matches.get(entry.group);
+            if (suggestion == null) {
+                // A group's lots are adjacent under each of its keys, so the earlier groups are complete
+                if (matches.size() == max) {
+                    break;
+                }
+                suggestion = new Suggestion(entry.city, entry.location, entry.label);
+                matches.put(entry.group, suggestion);
+            }
+            if (suggestion.lotIds.add(entry.lotId)) {
+                suggestion.availableSlots += slotAvailabilityIndex.getAvailableCount(entry.lotId);
+            }
+        }
+        return new ArrayList<>(matches.values());
+    }
+
+    /**
+     * Swap the keys of the changed lot, or drop the index when every lot may have changed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onLotCatalogChanged(LotCatalogChangedEvent event) {
+        Entry[] index = entries;
+        if (index == null) {
+            return;
+        }
+        if (event.getLotId() == null) {
+            entries = null;
+            return;
+        }
+        Entry[] kept = Arrays.stream(index).filter(e -> !e.lotId.equals(event.getLotId())).toArray(Entry[]::new);
+        List<Entry> added = new ArrayList<>();
+        parkingLotCatalog.findById(event.getLotId()).ifPresent(lot -> addEntries(lot, added));
+        added.sort(ENTRY_ORDER);
+        entries = merge(kept, added);
+    }
+
+    private Entry[] current() {
+        Entry[] index = entries;
+        if (index != null) {
+            return index;
+        }
+        synchronized (this) {
+            if (entries == null) {
+                List<Entry> all = new ArrayList<>();
+                for (ParkingLot lot : parkingLotCatalog.getAllLots()) {
+                    addEntries(lot, all);
+                }
+                all.sort(ENTRY_ORDER);
+                entries = all.toArray(new Entry[0]);
+            }
+            return entries;
+        }
+    }
+
+    private static void addEntries(ParkingLot lot, List<Entry> target) {
+        if (lot.getCity() == null) {
+            return;
+        }
+        String city = fold(lot.getCity());
+        for (String key : wordStarts(city)) {
+            target.add(new Entry(key, city, null, city, city, lot.getId()));
+        }
+        if (lot.getLocation() != null) {
+            String location = fold(lot.getLocation());
+            String group = city + "\n" + location;
+            String label = location + ", " + city;
+            for (String key : wordStarts(location)) {
+                target.add(new Entry(key, city, location, group, label, lot.getId()));
+            }
+        }
+    }
+
+    // "colombo fort" -> ["colombo fort", "fort"], so typing any word of a name finds it
+    private static List<String> wordStarts(String text) {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) != ' ' && (i == 0 || text.charAt(i - 1) == ' ')) {
+                keys.add(text.substring(i));
+            }
+        }
+        return keys;
+    }
+
+    private static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        String trimmed = text.trim();
+        if (trimmed.indexOf("  ") >= 0 || trimmed.indexOf('\t') >= 0) {
+            trimmed = WHITESPACE.matcher(trimmed).replaceAll(" ");
+        }
+        return trimmed.toLowerCase(Locale.ROOT);
+    }
+
+    private static int lowerBound(Entry[] index, String prefix) {
+        int low = 0;
+        int high = index.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (index[mid].key.compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static Entry[] merge(Entry[] kept, List<Entry> added) {
+        Entry[] merged = new Entry[kept.length + added.size()];
+        int i = 0, j = 0, k = 0;
+        while (i < kept.length && j < added.size()) {
+            merged[k++] = ENTRY_ORDER.compare(kept[i], added.get(j)) <= 0 ? kept[i++] : added.get(j++);
+        }
+        while (i < kept.length) merged[k++] = kept[i++];
+        while (j < added.size()) merged[k++] = added.get(j++);
+        return merged;
+    }
+
+    private static final class Entry {
+        final String key;
+        final String city;
+        final String location;
+        // Lots sharing a city and location are suggested once
+        final String group;
+        final String label;
+        final Long lotId;
+
+        Entry(String key, String city, String location, String group, String label, Long lotId) {
+            this.key = key;
+            this.city = city;
+            this.location = location;
+            this.group = group;
+            this.label = label;
+            this.lotId = lotId;
+        }
+    }
+
+    /**
+     * A city (location is null) or a location within a city, with the free slots across its lots
+     */
+    public static class Suggestion {
+        private final String city;
+        private final String location;
+        private final String label;
+        private final Set<Long> lotIds = new HashSet<>();
+        private long availableSlots;
+
+        Suggestion(String city, String location, String label) {
+            this.city = city;
+            this.location = location;
+            this.label = label;
+        }
+
+        public String getType() { return location == null ? "city" : "location"; }
+        public String getCity() { return city; }
+        public String getLocation() { return location; }
+        public String getLabel() { return label; }
+        public int getLotCount() { return lotIds.size(); }
+        public long getAvailableSlots() { return availableSlots; }
+    }
+}
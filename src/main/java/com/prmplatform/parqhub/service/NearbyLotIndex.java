@@ -0,0 +1,270 @@
+package com.prmplatform.parqhub.service;
+
+import com.prmplatform.parqhub.event.LotCatalogChangedEvent;
+import com.prmplatform.parqhub.model.ParkingLot;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Uniform latitude/longitude grid over the geocoded parking lots, for "nearest lots with free slots" searches.
+ * A search walks rings of cells outwards from the caller's cell and stops as soon as no unvisited cell
+ * can hold anything closer than the K-th best match, so it only touches the cells around the caller.
+ * Built from {@link ParkingLotCatalog} on first use; a lot change only moves that lot between cells.
+ */
+@Service
+public class NearbyLotIndex {
+
+    public static final int MAX_RESULTS = 50;
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private final ParkingLotCatalog parkingLotCatalog;
+    private final SlotAvailabilityIndex slotAvailabilityIndex;
+    private final double cellDegrees;
+    private final double defaultMaxDistanceKm;
+    private final long columns;
+
+    // Cell arrays are replaced, never modified, so searches can read them without locking
+    private final Map<Long, ParkingLot[]> cells = new ConcurrentHashMap<>();
+    private final Map<Long, Long> cellByLot = new ConcurrentHashMap<>();
+    private volatile boolean built;
+    // Grid rows and columns holding at least one lot so far; only ever widened
+    private volatile int minRow = Integer.MAX_VALUE, maxRow = Integer.MIN_VALUE;
+    private volatile int minColumn = Integer.MAX_VALUE, maxColumn = Integer.MIN_VALUE;
+
+    public NearbyLotIndex(ParkingLotCatalog parkingLotCatalog,
+                          SlotAvailabilityIndex slotAvailabilityIndex,
+                          @Value("${parqhub.geo.cell-degrees:0.02}") double cellDegrees,
+                          @Value("${parqhub.geo.max-distance-km:100}") double defaultMaxDistanceKm) {
+        this.parkingLotCatalog = parkingLotCatalog;
+        this.slotAvailabilityIndex = slotAvailabilityIndex;
+        this.cellDegrees = cellDegrees;
+        this.defaultMaxDistanceKm = defaultMaxDistanceKm;
+        this.columns = (long) Math.ceil(360 / cellDegrees) + 1;
+    }
+
+    /**
+     * The closest lots to a point that have a free slot, nearest first
+     * @param latitude Caller latitude in degrees
+     * @param longitude Caller longitude in degrees
+     * @param limit How many lots to return, capped at {@link #MAX_RESULTS}
+     * @param maxPrice Only lots at or under this hourly price when set
+     * @param maxDistanceKm Only lots within this distance; parqhub.geo.max-distance-km when null, which keeps
+     *                      a search from far outside the covered area from walking the whole grid
+     */
+    public List<NearbyLot> findNearest(double latitude, double longitude, int limit, BigDecimal maxPrice, Double maxDistanceKm) {
+        if (Math.abs(latitude) > 90 || Math.abs(longitude) > 180) {
+            throw new IllegalArgumentException("Latitude must be within ±90 and longitude within ±180");
+        }
+        int k = Math.min(limit, MAX_RESULTS);
+        if (k <= 0) {
+            return List.of();
+        }
+        ensureBuilt();
+        double radiusKm = maxDistanceKm != null ? maxDistanceKm : defaultMaxDistanceKm;
+
+        int row = row(latitude);
+        int column = column(longitude);
+        int lowRow = minRow, highRow = maxRow, lowColumn = minColumn, highColumn = maxColumn;
+        // Worst of the best k on top, so it can be replaced when something closer turns up
+        PriorityQueue<NearbyLot> best = new PriorityQueue<>(k, Comparator.comparingDouble(NearbyLot::getDistanceKm).reversed());
+        // Rings closer than the nearest populated row or column are empty, so start at the first one that is not
+        int firstRing = Math.max(0, Math.max(Math.max(lowRow - row, row - highRow), Math.max(lowColumn - column, column - highColumn)));
+        for (int ring = firstRing; ; ring++) {
+            double ringDistanceKm = minDistanceToRingKm(ring, latitude, row, column, lowRow, highRow, lowColumn, highColumn);
+            if (best.size() == k && best.peek().getDistanceKm() <= ringDistanceKm) break;
+            if (ringDistanceKm > radiusKm) break;
+            if (row - ring < lowRow && row + ring > highRow && column - ring < lowColumn && column + ring > highColumn) break;
+
+            // Only the part of the ring that overlaps cells holding lots
+            int fromColumn = Math.max(column - ring, lowColumn), toColumn = Math.min(column + ring, highColumn);
+            for (int r = Math.max(row - ring, lowRow); r <= Math.min(row + ring, highRow); r++) {
+                if (r == row - ring || r == row + ring) {
+                    for (int c = fromColumn; c <= toColumn; c++) {
+                        visit(r, c, latitude, longitude, k, maxPrice, radiusKm, best);
+                    }
+                } else {
+                    // Inner rows of a ring only have its left and right cells
+                    if (column - ring >= lowColumn) visit(r, column - ring, latitude, longitude, k, maxPrice, radiusKm, best);
+                    if (column + ring <= highColumn) visit(r, column + ring, latitude, longitude, k, maxPrice, radiusKm, best);
+                }
+            }
+        }
+
+        List<NearbyLot> nearest = new ArrayList<>(best);
+        nearest.sort(Comparator.comparingDouble(NearbyLot::getDistanceKm));
+        return nearest;
+    }
+
+    /**
+     * Move the changed lot to its new cell, or drop the grid when every lot may have changed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onLotCatalogChanged(LotCatalogChangedEvent event) {
+        if (!built) {
+            return;
+        }
+        if (event.getLotId() == null) {
+            built = false;
+            cells.clear();
+            cellByLot.clear();
+            return;
+        }
+        remove(event.getLotId());
+        parkingLotCatalog.findById(event.getLotId()).ifPresent(this::add);
+    }
+
+    private void visit(int row, int column, double latitude, double longitude, int k,
+                       BigDecimal maxPrice, double radiusKm, PriorityQueue<NearbyLot> best) {
+        ParkingLot[] lots = cells.get(key(row, column));
+        if (lots == null) {
+            return;
+        }
+        for (ParkingLot lot : lots) {
+            if (maxPrice != null && lot.getPriceHr().compareTo(maxPrice) > 0) continue;
+            double distanceKm = distanceKm(latitude, longitude, lot.getLatitude(), lot.getLongitude());
+            if (distanceKm > radiusKm) continue;
+            if (best.size() == k && distanceKm >= best.peek().getDistanceKm()) continue;
+            long available = slotAvailabilityIndex.getAvailableCount(lot.getId());
+            if (available == 0) continue;
+            if (best.size() == k) {
+                best.poll();
+            }
+            best.add(new NearbyLot(lot, distanceKm, available));
+        }
+    }
+
+    // Lower bound on the distance from the point to any lot in a cell `ring` steps away from its own cell
+    private double minDistanceToRingKm(int ring, double latitude, int row, int column,
+                                       int lowRow, int highRow, int lowColumn, int highColumn) {
+        if (ring <= 1) {
+            return 0;
+        }
+        double gapRadians = Math.toRadians((ring - 1) * cellDegrees);
+        double bound = Double.MAX_VALUE;
+        // Top and bottom rows: at least the latitude gap away
+        if ((row - ring >= lowRow && row - ring <= highRow) || (row + ring >= lowRow && row + ring <= highRow)) {
+            bound = EARTH_RADIUS_KM * gapRadians;
+        }
+        // Left and right columns: at least the distance to the nearest of their meridians
+        if ((column - ring >= lowColumn && column - ring <= highColumn) || (column + ring >= lowColumn && column + ring <= highColumn)) {
+            double toMeridian = Math.asin(Math.cos(Math.toRadians(latitude)) * Math.sin(Math.min(gapRadians, Math.PI / 2)));
+            bound = Math.min(bound, EARTH_RADIUS_KM * toMeridian);
+        }
+        return bound == Double.MAX_VALUE ? 0 : bound;
+    }
+
+    private void ensureBuilt() {
+        if (built) {
+            return;
+        }
+        synchronized (this) {
+            if (!built) {
+                for (ParkingLot lot : parkingLotCatalog.getAllLots()) {
+                    add(lot);
+                }
+                built = true;
+            }
+        }
+    }
+
+    private void add(ParkingLot lot) {
+        if (lot.getLatitude() == null || lot.getLongitude() == null) {
+            return;
+        }
+        int r = row(lot.getLatitude());
+        int c = column(lot.getLongitude());
+        long cell = key(r, c);
+        cells.compute(cell, (k, lots) -> {
+            if (lots == null) {
+                return new ParkingLot[]{lot};
+            }
+            ParkingLot[] grown = Arrays.copyOf(lots, lots.length + 1);
+            grown[lots.length] = lot;
+            return grown;
+        });
+        cellByLot.put(lot.getId(), cell);
+        minRow = Math.min(minRow, r);
+        maxRow = Math.max(maxRow, r);
+        minColumn = Math.min(minColumn, c);
+        maxColumn = Math.max(maxColumn, c);
+    }
+
+    private void remove(Long lotId) {
+        Long cell = cellByLot.remove(lotId);
+        if (cell == null) {
+            return;
+        }
+        cells.computeIfPresent(cell, (k, lots) -> {
+            ParkingLot[] kept = Arrays.stream(lots).filter(lot -> !lot.getId().equals(lotId)).toArray(ParkingLot[]::new);
+            return kept.length == 0 ? null : kept;
+        });
+    }
+
+    private int row(double latitude) {
+        return (int) Math.floor((latitude + 90) / cellDegrees);
+    }
+
+    private int column(double longitude) {
+        return (int) Math.floor((longitude + 180) / cellDegrees);
+    }
+
+    private long key(int row, int column) {
+        return row * columns + column;
+    }
+
+    /**
+     * Great-circle distance in kilometres (haversine)
+     */
+    static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * A lot with its distance from the search point and its current free slots
+     */
+    public static class NearbyLot {
+        private final Long lotId;
+        private final String city;
+        private final String location;
+        private final BigDecimal priceHr;
+        private final Double latitude;
+        private final Double longitude;
+        private final double distanceKm;
+        private final long availableSlots;
+
+        NearbyLot(ParkingLot lot, double distanceKm, long availableSlots) {
+            this.lotId = lot.getId();
+            this.city = lot.getCity();
+            this.location = lot.getLocation();
+            this.priceHr = lot.getPriceHr();
+            this.latitude = lot.getLatitude();
+            this.longitude = lot.getLongitude();
+            this.distanceKm = distanceKm;
+            this.availableSlots = availableSlots;
+        }
+
+        public Long getLotId() { return lotId; }
+        public String getCity() { return city; }
+        public String getLocation() { return location; }
+        public BigDecimal getPriceHr() { return priceHr; }
+        public Double getLatitude() { return latitude; }
+        public Double getLongitude() { return longitude; }
+        public double getDistanceKm() { return distanceKm; }
+        public long getAvailableSlots() { return availableSlots; }
+    }
+}
@@ -0,0 +1,218 @@
+package com.prmplatform.parqhub.service;
+
+import com.prmplatform.parqhub.event.LotCatalogChangedEvent;
+import com.prmplatform.parqhub.model.ParkingLot;
+import com.prmplatform.parqhub.repository.ParkingLotRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-only, in-memory copy of the parking lot table and the city/location lists derived from it.
+ * Lots change only through the admin tables, so the whole catalog is loaded on first use and
+ * each {@link LotCatalogChangedEvent} patches in just the lot that changed. The cached lots are
+ * detached and shared between requests: read their columns, never modify them or walk their
+ * slot collection.
+ */
+@Service
+public class ParkingLotCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParkingLotCatalog.class);
+
+    private final ParkingLotRepository parkingLotRepository;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    // Bumped on every invalidation so a load that raced with one is not kept
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    public ParkingLotCatalog(ParkingLotRepository parkingLotRepository, MeterRegistry meterRegistry) {
+        this.parkingLotRepository = parkingLotRepository;
+        FunctionCounter.builder("parqhub.lot.catalog.requests", hits, AtomicLong::get)
+                .tag("result", "hit")
+                .description("Parking lot catalog reads served from memory")
+                .register(meterRegistry);
+        FunctionCounter.builder("parqhub.lot.catalog.requests", misses, AtomicLong::get)
+                .tag("result", "miss")
+                .description("Parking lot catalog reads that had to load the catalog")
+                .register(meterRegistry);
+        Gauge.builder("parqhub.lot.catalog.hit.ratio", this, ParkingLotCatalog::getHitRatio)
+                .description("Share of parking lot catalog reads served from memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * All parking lots ordered by id
+     */
+    public List<ParkingLot> getAllLots() {
+        return current().lots;
+    }
+
+    public Optional<ParkingLot> findById(Long lotId) {
+        return Optional.ofNullable(current().lotsById.get(lotId));
+    }
+
+    public long getLotCount() {
+        return current().lots.size();
+    }
+
+    /**
+     * Distinct lower-cased cities, sorted; same result as {@link ParkingLotRepository#findDistinctCities()}
+     */
+    public List<String> getCities() {
+        return current().cities;
+    }
+
+    /**
+     * Distinct lower-cased locations of a city, sorted; same result as
+     * {@link ParkingLotRepository#findDistinctLocationsByCity(String)}
+     */
+    public List<String> getLocationsByCity(String city) {
+        if (city == null) {
+            return List.of();
+        }
+        return current().locationsByCity.getOrDefault(city.toLowerCase(), List.of());
+    }
+
+    /**
+     * Every city mapped to its locations, in city order
+     */
+    public Map<String, List<String>> getCityLocations() {
+        return current().locationsByCity;
+    }
+
+    /**
+     * Lots whose city and location contain the given text (ignoring case) and whose hourly price
+     * is at most maxPrice; null filters match everything
+     */
+    public List<ParkingLot> findLots(String city, String location, BigDecimal maxPrice) {
+        String cityFilter = city == null ? null : city.toLowerCase();
+        String locationFilter = location == null ? null : location.toLowerCase();
+        List<ParkingLot> matches = new ArrayList<>();
+        for (ParkingLot lot : current().lots) {
+            if (cityFilter != null && !lot.getCity().toLowerCase().contains(cityFilter)) continue;
+            if (locationFilter != null && !lot.getLocation().toLowerCase().contains(locationFilter)) continue;
+            if (maxPrice != null && lot.getPriceHr().compareTo(maxPrice) > 0) continue;
+            matches.add(lot);
+        }
+        return matches;
+    }
+
+    /**
+     * Drop the catalog; the next read loads it again
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+        snapshot = null;
+    }
+
+    /**
+     * Patch the changed lot into the loaded catalog: one primary-key read instead of reloading the table
+     */
+    // Runs ahead of other listeners so they see the catalog with this change applied
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLotCatalogChanged(LotCatalogChangedEvent event) {
+        if (event.getLotId() == null) {
+            invalidate();
+            return;
+        }
+        synchronized (this) {
+            Snapshot loaded = snapshot;
+            // Also discards any load that is still running against the old table
+            version.incrementAndGet();
+            if (loaded != null) {
+                snapshot = loaded.with(event.getLotId(), parkingLotRepository.findById(event.getLotId()).orElse(null));
+            }
+        }
+    }
+
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+
+    public double getHitRatio() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    private Snapshot current() {
+        Snapshot loaded = snapshot;
+        if (loaded != null) {
+            hits.incrementAndGet();
+            return loaded;
+        }
+        misses.incrementAndGet();
+        long loadingVersion = version.get();
+        loaded = new Snapshot(parkingLotRepository.findAll());
+        synchronized (this) {
+            if (version.get() == loadingVersion) {
+                snapshot = loaded;
+            }
+        }
+        logger.debug("Parking lot catalog loaded with {} lots", loaded.lots.size());
+        return loaded;
+    }
+
+    private static final class Snapshot {
+        final List<ParkingLot> lots;
+        final Map<Long, ParkingLot> lotsById;
+        final List<String> cities;
+        final Map<String, List<String>> locationsByCity;
+
+        /**
+         * A copy with the given lot replaced, added, or removed when changed is null
+         */
+        Snapshot with(Long lotId, ParkingLot changed) {
+            List<ParkingLot> updated = new ArrayList<>(lots.size() + 1);
+            for (ParkingLot lot : lots) {
+                if (!lot.getId().equals(lotId)) {
+                    updated.add(lot);
+                }
+            }
+            if (changed != null) {
+                updated.add(changed);
+            }
+            return new Snapshot(updated);
+        }
+
+        Snapshot(List<ParkingLot> all) {
+            List<ParkingLot> sorted = new ArrayList<>(all);
+            sorted.sort(Comparator.comparing(ParkingLot::getId));
+            Map<Long, ParkingLot> byId = new LinkedHashMap<>();
+            TreeMap<String, TreeSet<String>> locations = new TreeMap<>();
+            for (ParkingLot lot : sorted) {
+                byId.put(lot.getId(), lot);
+                if (lot.getCity() == null) continue;
+                TreeSet<String> cityLocations = locations.computeIfAbsent(lot.getCity().toLowerCase(), c -> new TreeSet<>());
+                if (lot.getLocation() != null) {
+                    cityLocations.add(lot.getLocation().toLowerCase());
+                }
+            }
+            Map<String, List<String>> locationsByCity = new LinkedHashMap<>();
+            locations.forEach((city, cityLocations) -> locationsByCity.put(city, List.copyOf(cityLocations)));
+
+            this.lots = List.copyOf(sorted);
+            this.lotsById = byId;
+            this.cities = List.copyOf(locations.keySet());
+            this.locationsByCity = Collections.unmodifiableMap(locationsByCity);
+        }
+    }
+}
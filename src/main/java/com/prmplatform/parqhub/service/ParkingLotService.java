@@ -1,12 +1,18 @@
 package com.prmplatform.parqhub.service;
 
+import com.prmplatform.parqhub.event.LotInventoryChangedEvent;
 import com.prmplatform.parqhub.model.ParkingLot;
 import com.prmplatform.parqhub.model.ParkingSlot;
+import com.prmplatform.parqhub.repository.BookingRepository;
 import com.prmplatform.parqhub.repository.ParkingLotRepository;
 import com.prmplatform.parqhub.repository.ParkingSlotRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
@@ -14,11 +20,20 @@ public class ParkingLotService {
 
     private final ParkingLotRepository parkingLotRepository;
     private final ParkingSlotRepository parkingSlotRepository;
+    private final BookingRepository bookingRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
 
     public ParkingLotService(ParkingLotRepository parkingLotRepository,
-                             ParkingSlotRepository parkingSlotRepository) {
+                             ParkingSlotRepository parkingSlotRepository,
+                             BookingRepository bookingRepository,
+                             JdbcTemplate jdbcTemplate,
+                             ApplicationEventPublisher eventPublisher) {
         this.parkingLotRepository = parkingLotRepository;
         this.parkingSlotRepository = parkingSlotRepository;
+        this.bookingRepository = bookingRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -27,49 +42,37 @@ public class ParkingLotService {
      */
     @Transactional
     public void createParkingSlotsForLot(ParkingLot parkingLot) {
-        int totalSlots = parkingLot.getTotalSlots();
-        
         // Delete any existing slots for this lot (if any)
         deleteParkingSlotsForLot(parkingLot.getId());
-        
-        // Create new slots, all with "Available" status
-        for (int i = 0; i < totalSlots; i++) {
-            ParkingSlot slot = new ParkingSlot();
-            slot.setParkingLot(parkingLot);
-            slot.setStatus(ParkingSlot.SlotStatus.AVAILABLE); // All new slots are available
-            parkingSlotRepository.save(slot);
-        }
+
+        insertAvailableSlots(parkingLot.getId(), parkingLot.getTotalSlots());
+        eventPublisher.publishEvent(new LotInventoryChangedEvent(parkingLot.getId()));
     }
 
     /**
-     * Update parking slots for a parking lot when the total slots count changes
+     * Update parking slots for a parking lot when the total slots count changes.
+     * Slots are removed from the end, skipping any that are in use or have bookings; fails if not enough such slots are left.
      * @param parkingLot The parking lot for which slots need to be updated
      * @param oldTotalSlots The previous total slots count
      */
     @Transactional
     public void updateParkingSlotsForLot(ParkingLot parkingLot, int oldTotalSlots) {
         int newTotalSlots = parkingLot.getTotalSlots();
-        
+
         if (newTotalSlots > oldTotalSlots) {
-            // Need to add more slots
-            int slotsToAdd = newTotalSlots - oldTotalSlots;
-            for (int i = 0; i < slotsToAdd; i++) {
-                ParkingSlot slot = new ParkingSlot();
-                slot.setParkingLot(parkingLot);
-                slot.setStatus(ParkingSlot.SlotStatus.AVAILABLE); // All new slots are available
-                parkingSlotRepository.save(slot);
-            }
+            insertAvailableSlots(parkingLot.getId(), newTotalSlots - oldTotalSlots);
         } else if (newTotalSlots < oldTotalSlots) {
-            // Need to remove excess slots
-            List<ParkingSlot> slots = parkingSlotRepository.findByParkingLotId(parkingLot.getId());
             int slotsToRemove = oldTotalSlots - newTotalSlots;
-            
-            // Remove from the end
-            for (int i = 0; i < slotsToRemove && i < slots.size(); i++) {
-                parkingSlotRepository.delete(slots.get(slots.size() - 1 - i));
+            List<Long> slotIds = parkingSlotRepository.findReleasableIdsByLotId(
+                    parkingLot.getId(), ParkingSlot.SlotStatus.AVAILABLE, PageRequest.of(0, slotsToRemove));
+            if (slotIds.size() < slotsToRemove) {
+                throw new IllegalStateException("Cannot remove " + slotsToRemove + " slots: only " + slotIds.size()
+                        + " free slots in this lot have no bookings on record");
             }
+            parkingSlotRepository.deleteByIdIn(slotIds);
         }
         // If equal, no action needed
+        eventPublisher.publishEvent(new LotInventoryChangedEvent(parkingLot.getId()));
     }
 
     /**
@@ -78,7 +81,27 @@ public class ParkingLotService {
      */
     @Transactional
     public void deleteParkingSlotsForLot(Long lotId) {
-        List<ParkingSlot> slots = parkingSlotRepository.findByParkingLotId(lotId);
-        parkingSlotRepository.deleteAll(slots);
+        long activeBookings = bookingRepository.countActiveByLotId(lotId);
+        if (activeBookings > 0) {
+            throw new IllegalStateException("Cannot remove the slots of this lot: " + activeBookings + " bookings are still active");
+        }
+        // Finished bookings keep their slots until they are archived
+        long bookings = bookingRepository.countByLotId(lotId);
+        if (bookings > 0) {
+            throw new IllegalStateException("Cannot remove the slots of this lot: " + bookings + " past bookings still refer to them");
+        }
+        parkingSlotRepository.deleteByLotId(lotId);
+        eventPublisher.publishEvent(new LotInventoryChangedEvent(lotId));
+    }
+
+    /**
+     * Insert new AVAILABLE slots as one JDBC batch instead of an IDENTITY round trip per entity
+     */
+    private void insertAvailableSlots(Long lotId, int count) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{lotId, ParkingSlot.SlotStatus.AVAILABLE.name()});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO parkingslot (lot_id, status) VALUES (?, ?)", rows);
     }
-}
\ No newline at end of file
+}
@@ -15,18 +15,21 @@ public class ParkingViewerService {
 
     private final ParkingLotRepository parkingLotRepository;
     private final ParkingSlotRepository parkingSlotRepository;
+    private final ParkingLotCatalog parkingLotCatalog;
 
     public ParkingViewerService(ParkingLotRepository parkingLotRepository,
-                                ParkingSlotRepository parkingSlotRepository) {
+                                ParkingSlotRepository parkingSlotRepository,
+                                ParkingLotCatalog parkingLotCatalog) {
         this.parkingLotRepository = parkingLotRepository;
         this.parkingSlotRepository = parkingSlotRepository;
+        this.parkingLotCatalog = parkingLotCatalog;
     }
 
     /**
      * Get all unique cities (sorted)
      */
     public List<String> getAllCities() {
-        return parkingLotRepository.findDistinctCities();
+        return parkingLotCatalog.getCities();
     }
 
     /**
@@ -36,7 +39,7 @@ public class ParkingViewerService {
         if (city == null || city.trim().isEmpty()) {
             return new ArrayList<>();
         }
-        return parkingLotRepository.findDistinctLocationsByCity(city);
+        return parkingLotCatalog.getLocationsByCity(city);
     }
 
     /**
@@ -0,0 +1,206 @@
+package com.prmplatform.parqhub.service;
+
+import com.prmplatform.parqhub.event.PaymentRecordedEvent;
+import com.prmplatform.parqhub.model.ArchivedBooking;
+import com.prmplatform.parqhub.model.ArchivedPayment;
+import com.prmplatform.parqhub.model.Booking;
+import com.prmplatform.parqhub.model.ParkingLot;
+import com.prmplatform.parqhub.model.ParkingSlot;
+import com.prmplatform.parqhub.model.Payment;
+import com.prmplatform.parqhub.model.User;
+import com.prmplatform.parqhub.model.Vehicle;
+import com.prmplatform.parqhub.repository.ArchivedPaymentRepository;
+import com.prmplatform.parqhub.repository.PaymentRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A user's own payment history.
+ * Pages are read newest first by payment id, so every page costs the same however far back it is.
+ * Archived payments continue the history once a page reaches past the newest archived id; they are shown
+ * as detached Payment objects rebuilt from the archive rows, with whatever vehicle and lot still exist.
+ * The spending summary shown above the list is cached per user, dropped when that user pays,
+ * and expires at the end of the day or after a short time to pick up edits made by admins.
+ */
+@Service
+public class PaymentLedgerService {
+
+    private final PaymentRepository paymentRepository;
+    private final ArchivedPaymentRepository archivedPaymentRepository;
+    private final RecordArchiveService recordArchiveService;
+    private final Map<Long, SpendingSummary> summaries = new ConcurrentHashMap<>();
+
+    @Value("${parqhub.payments.summary-ttl-ms:300000}")
+    private long summaryTtlMs;
+
+    @Value("${parqhub.payments.summary-cache-size:10000}")
+    private int summaryCacheSize;
+
+    public PaymentLedgerService(PaymentRepository paymentRepository, ArchivedPaymentRepository archivedPaymentRepository,
+                                RecordArchiveService recordArchiveService) {
+        this.paymentRepository = paymentRepository;
+        this.archivedPaymentRepository = archivedPaymentRepository;
+        this.recordArchiveService = recordArchiveService;
+    }
+
+    /**
+     * Up to pageSize of the user's payments, newest first, older than beforeId when it is given
+     */
+    public List<Payment> getLedgerPage(Long userId, Long beforeId, int pageSize) {
+        List<Payment> page = paymentRepository.findLedgerPage(userId, beforeId, PageRequest.of(0, pageSize));
+        // Archived rows can only belong on this page above its last id, or anywhere when the page is not full
+        long afterId = page.size() == pageSize ? page.get(pageSize - 1).getId() : 0;
+        if (!recordArchiveService.coversPaymentIdsAbove(afterId)) {
+            return page;
+        }
+        List<Payment> merged = new ArrayList<>(page);
+        for (Object[] row : archivedPaymentRepository.findLedgerRows(userId, beforeId, afterId, PageRequest.of(0, pageSize))) {
+            merged.add(fromArchive(row));
+        }
+        merged.sort(Comparator.comparing(Payment::getId).reversed());
+        return merged.size() > pageSize ? merged.subList(0, pageSize) : merged;
+    }
+
+    /**
+     * A payment with its booking, vehicle and lot for the receipt, from the archive once it has been moved there
+     */
+    public Optional<Payment> findReceipt(Long paymentId) {
+        Optional<Payment> payment = paymentRepository.findWithDetailsById(paymentId);
+        if (payment.isPresent()) {
+            return payment;
+        }
+        return archivedPaymentRepository.findLedgerRowsById(paymentId).stream().findFirst().map(PaymentLedgerService::fromArchive);
+    }
+
+    /**
+     * The user's payment counts and what they spent today and this month
+     */
+    public SpendingSummary getSpendingSummary(Long userId) {
+        LocalDate today = LocalDate.now();
+        long now = System.currentTimeMillis();
+        SpendingSummary cached = summaries.get(userId);
+        if (cached != null && cached.day.equals(today) && now - cached.loadedAt < summaryTtlMs) {
+            return cached;
+        }
+
+        SpendingSummary summary = loadSummary(userId, today, now);
+        if (summaries.size() >= summaryCacheSize) {
+            // Summaries are cheap to rebuild, so a full cache is simply emptied
+            summaries.clear();
+        }
+        summaries.put(userId, summary);
+        return summary;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPaymentRecorded(PaymentRecordedEvent event) {
+        if (event.getUserId() != null) {
+            summaries.remove(event.getUserId());
+        }
+    }
+
+    private SpendingSummary loadSummary(Long userId, LocalDate today, long loadedAt) {
+        long totalCount = 0;
+        long completedCount = 0;
+        long failedCount = 0;
+        BigDecimal spentToday = BigDecimal.ZERO;
+        BigDecimal spentThisMonth = BigDecimal.ZERO;
+        List<Object[]> rows = new ArrayList<>(paymentRepository.summarizeByUserIdGroupedByStatus(userId,
+                today.atTime(LocalTime.MIN), today.withDayOfMonth(1).atTime(LocalTime.MIN)));
+        // Archived payments are far older than this month, so they only add to the counts
+        if (!recordArchiveService.getTotals().isEmpty()) {
+            rows.addAll(archivedPaymentRepository.countByUserIdGroupedByStatus(userId));
+        }
+        for (Object[] row : rows) {
+            long count = ((Number) row[1]).longValue();
+            totalCount += count;
+            if (row[0] == Payment.PaymentStatus.Completed) {
+                completedCount += count;
+            } else if (row[0] == Payment.PaymentStatus.Failed) {
+                failedCount += count;
+            }
+            if (row.length > 2) {
+                spentToday = spentToday.add(toBigDecimal(row[2]));
+                spentThisMonth = spentThisMonth.add(toBigDecimal(row[3]));
+            }
+        }
+        return new SpendingSummary(today, loadedAt, totalCount, completedCount, failedCount, spentToday, spentThisMonth);
+    }
+
+    // Detached payment and booking rebuilt from a (payment, booking, vehicle, lot) archive row; never persisted
+    private static Payment fromArchive(Object[] row) {
+        ArchivedPayment archived = (ArchivedPayment) row[0];
+        Payment payment = new Payment();
+        payment.setId(archived.getId());
+        payment.setAmount(archived.getAmount());
+        payment.setMethod(archived.getMethod());
+        payment.setStatus(archived.getStatus());
+        payment.setTimestamp(archived.getTimestamp());
+
+        Booking booking = new Booking();
+        booking.setId(archived.getBookingId());
+        User owner = new User();
+        owner.setId(archived.getUserId());
+        booking.setUser(owner);
+        booking.setVehicle((Vehicle) row[2]);
+        if (row[1] instanceof ArchivedBooking archivedBooking) {
+            booking.setStartTime(archivedBooking.getStartTime());
+            booking.setEndTime(archivedBooking.getEndTime());
+            booking.setPaymentStatus(archivedBooking.getPaymentStatus());
+            if (row[3] != null) {
+                ParkingSlot slot = new ParkingSlot();
+                slot.setId(archivedBooking.getSlotId());
+                slot.setParkingLot((ParkingLot) row[3]);
+                booking.setParkingSlot(slot);
+            }
+        }
+        payment.setBooking(booking);
+        return payment;
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
+
+    public static class SpendingSummary {
+        private final LocalDate day;
+        private final long loadedAt;
+        private final long totalCount;
+        private final long completedCount;
+        private final long failedCount;
+        private final BigDecimal spentToday;
+        private final BigDecimal spentThisMonth;
+
+        public SpendingSummary(LocalDate day, long loadedAt, long totalCount, long completedCount, long failedCount,
+                               BigDecimal spentToday, BigDecimal spentThisMonth) {
+            this.day = day;
+            this.loadedAt = loadedAt;
+            this.totalCount = totalCount;
+            this.completedCount = completedCount;
+            this.failedCount = failedCount;
+            this.spentToday = spentToday;
+            this.spentThisMonth = spentThisMonth;
+        }
+
+        public long getTotalCount() { return totalCount; }
+        public long getCompletedCount() { return completedCount; }
+        public long getFailedCount() { return failedCount; }
+        public BigDecimal getSpentToday() { return spentToday; }
+        public BigDecimal getSpentThisMonth() { return spentThisMonth; }
+    }
+}
@@ -0,0 +1,191 @@
+package com.prmplatform.parqhub.service;
+
+import com.prmplatform.parqhub.event.BookingStatusChangedEvent;
+import com.prmplatform.parqhub.event.PaymentRecordedEvent;
+import com.prmplatform.parqhub.event.SlotStatusChangedEvent;
+import com.prmplatform.parqhub.model.Booking;
+import com.prmplatform.parqhub.model.ParkingLot;
+import com.prmplatform.parqhub.model.ParkingSlot;
+import com.prmplatform.parqhub.model.Payment;
+import com.prmplatform.parqhub.model.User;
+import com.prmplatform.parqhub.model.VehicleLog;
+import com.prmplatform.parqhub.repository.BookingRepository;
+import com.prmplatform.parqhub.repository.PaymentRepository;
+import com.prmplatform.parqhub.repository.VehicleLogRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+/**
+ * Settles a booking's payment.
+ * The fee calculation, the payment, the booking and slot updates and the queued confirmation email
+ * all happen in one transaction. A repeated submission with the same idempotency key gets back the
+ * payment stored by the first one instead of settling again.
+ */
+@Service
+public class PaymentSettlementService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentSettlementService.class);
+    private static final DateTimeFormatter EMAIL_TIME_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private final PaymentRepository paymentRepository;
+    private final BookingRepository bookingRepository;
+    private final VehicleLogRepository vehicleLogRepository;
+    private final PaymentProcessingService paymentProcessingService;
+    private final EmailOutboxService emailOutboxService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public PaymentSettlementService(PaymentRepository paymentRepository,
+                                    BookingRepository bookingRepository,
+                                    VehicleLogRepository vehicleLogRepository,
+                                    PaymentProcessingService paymentProcessingService,
+                                    EmailOutboxService emailOutboxService,
+                                    ApplicationEventPublisher eventPublisher) {
+        this.paymentRepository = paymentRepository;
+        this.bookingRepository = bookingRepository;
+        this.vehicleLogRepository = vehicleLogRepository;
+        this.paymentProcessingService = paymentProcessingService;
+        this.emailOutboxService = emailOutboxService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Charge a booking for the vehicle's finished stay, complete it and free its slot.
+     * Returns the stored payment when the idempotency key was already settled.
+     */
+    @Transactional
+    public Payment settle(User user, Long bookingId, String paymentMethod, String idempotencyKey) {
+        // Locking the booking first makes a double submit wait for the first one and then see its result
+        Booking booking = bookingRepository.findByIdForUpdate(bookingId)
+                .orElseThrow(() -> new IllegalArgumentException("Booking not found"));
+        if (!booking.getUser().getId().equals(user.getId())) {
+            throw new IllegalArgumentException("Unauthorized access to booking");
+        }
+
+        if (idempotencyKey != null) {
+            Optional<Payment> stored = paymentRepository.findByIdempotencyKey(idempotencyKey);
+            if (stored.isPresent()) {
+                if (!stored.get().getBooking().getId().equals(booking.getId())) {
+                    throw new IllegalArgumentException("Payment request does not match its booking");
+                }
+                return stored.get();
+            }
+        }
+
+        if (booking.getPaymentStatus() != Booking.PaymentStatus.Pending) {
+            throw new IllegalStateException("Payment already processed or invalid status");
+        }
+        // Handle completed bookings that may not have parking slot
+        if (booking.getParkingSlot() == null) {
+            throw new IllegalStateException("Cannot process payment for completed booking");
+        }
+        VehicleLog vehicleLog = findCompletedStay(booking).orElseThrow(() -> new IllegalStateException(
+                "Vehicle has not exited yet or no valid log found for this parking lot"));
+        if (!paymentProcessingService.isValidPaymentMethod(paymentMethod)) {
+            throw new IllegalArgumentException("Invalid payment method: " + paymentMethod);
+        }
+
+        ParkingSlot slot = booking.getParkingSlot();
+        ParkingLot parkingLot = slot.getParkingLot();
+        long hours = billableHours(vehicleLog);
+        BigDecimal amount = BigDecimal.valueOf(hours).multiply(parkingLot.getPriceHr());
+
+        // Process payment using strategy pattern
+        Payment payment = paymentProcessingService.processPayment(booking, amount, paymentMethod);
+        payment.setIdempotencyKey(idempotencyKey);
+        paymentRepository.save(payment);
+
+        // Booking and slot are managed here, so their updates are flushed with the payment at commit
+        Booking.PaymentStatus previousBookingStatus = booking.getPaymentStatus();
+        booking.setEndTime(vehicleLog.getExitTime());
+        booking.setPaymentStatus(Booking.PaymentStatus.Completed);
+        ParkingSlot.SlotStatus previousSlotStatus = slot.getStatus();
+        slot.setStatus(ParkingSlot.SlotStatus.AVAILABLE);
+
+        eventPublisher.publishEvent(new SlotStatusChangedEvent(parkingLot.getId(), slot.getId(),
+                previousSlotStatus, ParkingSlot.SlotStatus.AVAILABLE));
+        eventPublisher.publishEvent(new BookingStatusChangedEvent(booking.getId(), booking.getStartTime(), previousBookingStatus,
+                Booking.PaymentStatus.Completed));
+        eventPublisher.publishEvent(new PaymentRecordedEvent(payment.getId(), user.getId(), payment.getAmount(),
+                payment.getStatus(), payment.getTimestamp()));
+
+        queuePaymentConfirmationEmail(user, booking, payment, vehicleLog, parkingLot, hours);
+        return payment;
+    }
+
+    /**
+     * Find the vehicle's most recent finished stay, provided it was in the booking's parking lot
+     */
+    public Optional<VehicleLog> findCompletedStay(Booking booking) {
+        return vehicleLogRepository.findTopByVehicleAndExitTimeIsNotNullOrderByEntryTimeDesc(booking.getVehicle())
+                .filter(log -> log.getParkingLot().getId().equals(booking.getParkingSlot().getParkingLot().getId()));
+    }
+
+    /**
+     * Hours charged for a stay: any part of an hour counts as a full hour, with a one hour minimum
+     */
+    public long billableHours(VehicleLog vehicleLog) {
+        long minutes = ChronoUnit.MINUTES.between(vehicleLog.getEntryTime(), vehicleLog.getExitTime());
+        return Math.max(1, (minutes + 59) / 60);
+    }
+
+    private void queuePaymentConfirmationEmail(User user, Booking booking, Payment payment,
+                                               VehicleLog vehicleLog, ParkingLot parkingLot, long hours) {
+        if (user.getEmail() == null || user.getEmail().trim().isEmpty()) {
+            logger.warn("User email is empty for user: {}", user.getName());
+            return;
+        }
+
+        StringBuilder emailBody = new StringBuilder();
+        emailBody.append("Dear ").append(user.getName()).append(",\n\n");
+        emailBody.append("Thank you for using ParQHub! Your payment has been successfully processed.\n\n");
+
+        emailBody.append("PAYMENT CONFIRMATION\n");
+        emailBody.append("=====================\n\n");
+
+        emailBody.append("Receipt Number: PQH-").append(payment.getId()).append("\n");
+        emailBody.append("Payment Date: ").append(payment.getTimestamp().format(EMAIL_TIME_FORMAT)).append("\n");
+        emailBody.append("Payment Status: ").append(payment.getStatus()).append("\n\n");
+
+        emailBody.append("BOOKING DETAILS\n");
+        emailBody.append("===============\n\n");
+        emailBody.append("Booking ID: ").append(booking.getId()).append("\n");
+        emailBody.append("Vehicle: ").append(booking.getVehicle().getBrand()).append(" ").append(booking.getVehicle().getModel()).append("\n");
+        emailBody.append("License Plate: ").append(booking.getVehicle().getVehicleNo()).append("\n");
+
+        if (booking.getParkingSlot() != null && booking.getParkingSlot().getParkingLot() != null) {
+            emailBody.append("Location: ").append(booking.getParkingSlot().getParkingLot().getLocation()).append(", ").append(booking.getParkingSlot().getParkingLot().getCity()).append("\n");
+            emailBody.append("Parking Slot: ").append(booking.getParkingSlot().getId()).append("\n");
+        }
+
+        emailBody.append("\nPARKING DURATION\n");
+        emailBody.append("================\n\n");
+        emailBody.append("Entry Time: ").append(vehicleLog.getEntryTime().format(EMAIL_TIME_FORMAT)).append("\n");
+        emailBody.append("Exit Time: ").append(vehicleLog.getExitTime().format(EMAIL_TIME_FORMAT)).append("\n");
+        emailBody.append("Total Duration: ").append(hours).append(" hour(s)\n");
+
+        emailBody.append("\nPAYMENT BREAKDOWN\n");
+        emailBody.append("=================\n\n");
+        emailBody.append("Hourly Rate: LKR ").append(parkingLot.getPriceHr()).append("\n");
+        emailBody.append("Duration: ").append(hours).append(" hour(s)\n");
+        emailBody.append("Total Amount: LKR ").append(payment.getAmount()).append("\n");
+        emailBody.append("Payment Method: ").append(payment.getMethod()).append("\n\n");
+
+        emailBody.append("Thank you for choosing ParQHub for your parking needs!\n\n");
+        emailBody.append("For any queries, please contact our support team.\n\n");
+        emailBody.append("Best regards,\n");
+        emailBody.append("ParQHub Team\n");
+        emailBody.append("\n---\n");
+        emailBody.append("This is an automated message. Please do not reply to this email.");
+
+        emailOutboxService.enqueue(user.getEmail().trim(),
+                "ParQHub - Payment Confirmation Receipt #PQH-" + payment.getId(), emailBody.toString());
+    }
+}
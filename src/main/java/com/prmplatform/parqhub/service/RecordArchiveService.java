@@ -0,0 +1,271 @@
+package com.prmplatform.parqhub.service;
+
+import com.prmplatform.parqhub.model.Booking;
+import com.prmplatform.parqhub.model.Payment;
+import com.prmplatform.parqhub.repository.ArchivedBookingRepository;
+import com.prmplatform.parqhub.repository.ArchivedPaymentRepository;
+import com.prmplatform.parqhub.repository.ArchivedVehicleLogRepository;
+import com.prmplatform.parqhub.repository.BookingRepository;
+import com.prmplatform.parqhub.repository.PaymentRepository;
+import com.prmplatform.parqhub.repository.VehicleLogRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Moves completed bookings (with their payments) and closed vehicle logs older than
+ * parqhub.archive.min-age-days into the archive tables, so the tables behind booking, payment
+ * and the gates only hold recent and open records. Runs nightly in batches of
+ * parqhub.archive.batch-size rows, each its own short transaction. Readers ask
+ * {@link #coversBookingsFrom} and {@link #coversPaymentsFrom} whether a range reaches back into the
+ * archive, and only then add the archived rows; all-time totals of the archive are kept in memory.
+ */
+@Service
+public class RecordArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecordArchiveService.class);
+
+    private final BookingRepository bookingRepository;
+    private final PaymentRepository paymentRepository;
+    private final VehicleLogRepository vehicleLogRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final ArchivedPaymentRepository archivedPaymentRepository;
+    private final ArchivedVehicleLogRepository archivedVehicleLogRepository;
+    private final AdminSearchIndex adminSearchIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int minAgeDays;
+    private final int batchSize;
+
+    private final ReentrantLock archiveLock = new ReentrantLock();
+    // Newest start time and payment timestamp in the archive; null while it holds none
+    private volatile LocalDateTime bookingsArchivedThrough;
+    private volatile LocalDateTime paymentsArchivedThrough;
+    // Highest payment id in the archive; null while it holds none
+    private volatile Long paymentIdsArchivedThrough;
+    private volatile ArchiveTotals totals = ArchiveTotals.EMPTY;
+
+    public RecordArchiveService(BookingRepository bookingRepository,
+                                PaymentRepository paymentRepository,
+                                VehicleLogRepository vehicleLogRepository,
+                                ArchivedBookingRepository archivedBookingRepository,
+                                ArchivedPaymentRepository archivedPaymentRepository,
+                                ArchivedVehicleLogRepository archivedVehicleLogRepository,
+                                AdminSearchIndex adminSearchIndex,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${parqhub.archive.enabled:true}") boolean enabled,
+                                @Value("${parqhub.archive.min-age-days:365}") int minAgeDays,
+                                @Value("${parqhub.archive.batch-size:500}") int batchSize) {
+        this.bookingRepository = bookingRepository;
+        this.paymentRepository = paymentRepository;
+        this.vehicleLogRepository = vehicleLogRepository;
+        this.archivedBookingRepository = archivedBookingRepository;
+        this.archivedPaymentRepository = archivedPaymentRepository;
+        this.archivedVehicleLogRepository = archivedVehicleLogRepository;
+        this.adminSearchIndex = adminSearchIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.minAgeDays = minAgeDays;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Reload the archive's time bounds and totals
+     */
+    @PostConstruct
+    public void refresh() {
+        bookingsArchivedThrough = archivedBookingRepository.findLatestStartTime();
+        paymentsArchivedThrough = archivedPaymentRepository.findLatestTimestamp();
+        paymentIdsArchivedThrough = archivedPaymentRepository.findMaxId();
+
+        Map<Booking.PaymentStatus, Long> bookingCounts = new EnumMap<>(Booking.PaymentStatus.class);
+        for (Object[] row : archivedBookingRepository.countGroupedByPaymentStatus()) {
+            bookingCounts.put((Booking.PaymentStatus) row[0], ((Number) row[1]).longValue());
+        }
+        totals = new ArchiveTotals(bookingCounts, archivedPaymentRepository.summarizeByStatus(),
+                archivedVehicleLogRepository.count());
+    }
+
+    /**
+     * Nightly archival of records older than parqhub.archive.min-age-days
+     */
+    @Scheduled(cron = "${parqhub.archive.cron:0 0 3 * * *}")
+    public void archiveAged() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            archiveCompletedBefore(LocalDateTime.now().minusDays(minAgeDays));
+        } catch (Exception e) {
+            logger.warn("Archiving old records failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Move every booking that ended and was settled before the cutoff, with its payments, and every
+     * vehicle log closed before it, into the archive
+     */
+    public ArchiveResult archiveCompletedBefore(LocalDateTime cutoff) {
+        archiveLock.lock();
+        try {
+            // Readers include the archive for anything before the cutoff while rows are on their way there
+            bookingsArchivedThrough = latest(bookingsArchivedThrough, cutoff);
+            paymentsArchivedThrough = latest(paymentsArchivedThrough, cutoff);
+            paymentIdsArchivedThrough = Long.MAX_VALUE;
+
+            long bookings = 0;
+            long payments = 0;
+            long vehicleLogs = 0;
+            int[] moved;
+            do {
+                moved = transactionTemplate.execute(status -> archiveBookingBatch(cutoff));
+                bookings += moved[0];
+                payments += moved[1];
+            } while (moved[0] == batchSize);
+            int movedLogs;
+            do {
+                movedLogs = transactionTemplate.execute(status -> archiveVehicleLogBatch(cutoff));
+                vehicleLogs += movedLogs;
+            } while (movedLogs == batchSize);
+
+            if (bookings > 0 || vehicleLogs > 0) {
+                // The bulk deletes bypassed the entity listeners that keep the admin search current
+                adminSearchIndex.invalidate();
+                logger.info("Archived {} bookings, {} payments and {} vehicle logs from before {}", bookings, payments, vehicleLogs, cutoff);
+            }
+            refresh();
+            return new ArchiveResult(bookings, payments, vehicleLogs);
+        } finally {
+            archiveLock.unlock();
+        }
+    }
+
+    /**
+     * Whether bookings starting at or after the time may be in the archive
+     */
+    public boolean coversBookingsFrom(LocalDateTime startTime) {
+        LocalDateTime through = bookingsArchivedThrough;
+        return through != null && !startTime.isAfter(through);
+    }
+
+    /**
+     * Whether payments made at or after the time may be in the archive
+     */
+    public boolean coversPaymentsFrom(LocalDateTime timestamp) {
+        LocalDateTime through = paymentsArchivedThrough;
+        return through != null && !timestamp.isAfter(through);
+    }
+
+    /**
+     * Whether payments with ids above the given one may be in the archive
+     */
+    public boolean coversPaymentIdsAbove(long id) {
+        Long through = paymentIdsArchivedThrough;
+        return through != null && through > id;
+    }
+
+    public ArchiveTotals getTotals() { return totals; }
+
+    // Payments are copied while their bookings are still there to join to, then both are deleted
+    private int[] archiveBookingBatch(LocalDateTime cutoff) {
+        List<Long> ids = bookingRepository.findArchivableIds(cutoff, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return new int[]{0, 0};
+        }
+        LocalDateTime archivedAt = LocalDateTime.now();
+        int payments = archivedPaymentRepository.copyFromPaymentsOfBookings(ids, archivedAt);
+        archivedBookingRepository.copyFromBookings(ids, archivedAt);
+        paymentRepository.deleteByBookingIdIn(ids);
+        bookingRepository.deleteByIdIn(ids);
+        return new int[]{ids.size(), payments};
+    }
+
+    private int archiveVehicleLogBatch(LocalDateTime cutoff) {
+        List<Long> ids = vehicleLogRepository.findArchivableIds(cutoff, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        archivedVehicleLogRepository.copyFromVehicleLogs(ids, LocalDateTime.now());
+        vehicleLogRepository.deleteByIdIn(ids);
+        return ids.size();
+    }
+
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        return a == null || b.isAfter(a) ? b : a;
+    }
+
+    /**
+     * Rows moved by one archival run
+     */
+    public static class ArchiveResult {
+        private final long bookings;
+        private final long payments;
+        private final long vehicleLogs;
+
+        ArchiveResult(long bookings, long payments, long vehicleLogs) {
+            this.bookings = bookings;
+            this.payments = payments;
+            this.vehicleLogs = vehicleLogs;
+        }
+
+        public long getBookings() { return bookings; }
+        public long getPayments() { return payments; }
+        public long getVehicleLogs() { return vehicleLogs; }
+    }
+
+    /**
+     * All-time counts and amounts of the archive, added to the hot tables' for the dashboard and summaries
+     */
+    public static class ArchiveTotals {
+        static final ArchiveTotals EMPTY = new ArchiveTotals(Collections.emptyMap(), Collections.emptyList(), 0);
+
+        private final Map<Booking.PaymentStatus, Long> bookingCounts;
+        private final List<Object[]> paymentSummary;
+        private final long vehicleLogCount;
+
+        ArchiveTotals(Map<Booking.PaymentStatus, Long> bookingCounts, List<Object[]> paymentSummary, long vehicleLogCount) {
+            this.bookingCounts = bookingCounts;
+            this.paymentSummary = paymentSummary;
+            this.vehicleLogCount = vehicleLogCount;
+        }
+
+        public long getBookingCount(Booking.PaymentStatus status) { return bookingCounts.getOrDefault(status, 0L); }
+
+        public long getTotalBookings() {
+            return bookingCounts.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        /**
+         * Archived payment count and amount per status as (status, count, sum) rows
+         */
+        public List<Object[]> getPaymentSummary() { return paymentSummary; }
+
+        public double getCompletedRevenue() {
+            for (Object[] row : paymentSummary) {
+                if (row[0] == Payment.PaymentStatus.Completed && row[2] != null) {
+                    return ((Number) row[2]).doubleValue();
+                }
+            }
+            return 0.0;
+        }
+
+        public long getVehicleLogCount() { return vehicleLogCount; }
+
+        public boolean isEmpty() {
+            return getTotalBookings() == 0 && vehicleLogCount == 0;
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.prmplatform.parqhub.service;
+
+import com.prmplatform.parqhub.event.BookingStatusChangedEvent;
+import com.prmplatform.parqhub.event.PaymentRecordedEvent;
+import com.prmplatform.parqhub.model.Booking;
+import com.prmplatform.parqhub.model.DailyBookingRollup;
+import com.prmplatform.parqhub.model.DailyPaymentRollup;
+import com.prmplatform.parqhub.model.DailyRollupStatus;
+import com.prmplatform.parqhub.model.Payment;
+import com.prmplatform.parqhub.repository.ArchivedBookingRepository;
+import com.prmplatform.parqhub.repository.ArchivedPaymentRepository;
+import com.prmplatform.parqhub.repository.BookingRepository;
+import com.prmplatform.parqhub.repository.DailyBookingRollupRepository;
+import com.prmplatform.parqhub.repository.DailyPaymentRollupRepository;
+import com.prmplatform.parqhub.repository.DailyRollupStatusRepository;
+import com.prmplatform.parqhub.repository.PaymentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Maintains the daily payment and booking rollups the reports read from.
+ * A day is rebuilt from the raw tables when it has never been rolled up, or when it was last
+ * rolled up before it ended (today and future days). A payment or booking write to an earlier
+ * day deletes that day's status row in the write's own transaction, so whichever instance reads
+ * the day next rebuilds it, also after a restart. Rebuilds run with grouped queries, so their
+ * cost follows the days and transactions being refreshed, while reads cost one row per day, lot
+ * and status. Days that reach back into the archive also add the archived bookings and payments.
+ */
+@Service
+public class ReportRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportRollupService.class);
+    private static final int RECENT_DAYS = 7;
+
+    private final PaymentRepository paymentRepository;
+    private final BookingRepository bookingRepository;
+    private final DailyPaymentRollupRepository dailyPaymentRollupRepository;
+    private final DailyBookingRollupRepository dailyBookingRollupRepository;
+    private final DailyRollupStatusRepository dailyRollupStatusRepository;
+    private final ArchivedPaymentRepository archivedPaymentRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final RecordArchiveService recordArchiveService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    public ReportRollupService(PaymentRepository paymentRepository,
+                               BookingRepository bookingRepository,
+                               DailyPaymentRollupRepository dailyPaymentRollupRepository,
+                               DailyBookingRollupRepository dailyBookingRollupRepository,
+                               DailyRollupStatusRepository dailyRollupStatusRepository,
+                               ArchivedPaymentRepository archivedPaymentRepository,
+                               ArchivedBookingRepository archivedBookingRepository,
+                               RecordArchiveService recordArchiveService,
+                               PlatformTransactionManager transactionManager) {
+        this.paymentRepository = paymentRepository;
+        this.bookingRepository = bookingRepository;
+        this.dailyPaymentRollupRepository = dailyPaymentRollupRepository;
+        this.dailyBookingRollupRepository = dailyBookingRollupRepository;
+        this.dailyRollupStatusRepository = dailyRollupStatusRepository;
+        this.archivedPaymentRepository = archivedPaymentRepository;
+        this.archivedBookingRepository = archivedBookingRepository;
+        this.recordArchiveService = recordArchiveService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Make sure every day in the range has up-to-date rollups. Rebuilds write, so call it before
+     * the read-only transaction of a report rather than inside it.
+     */
+    public void ensureRolledUp(LocalDate startDate, LocalDate endDate) {
+        rebuildLock.lock();
+        try {
+            Map<LocalDate, DailyRollupStatus> statuses = new HashMap<>();
+            for (DailyRollupStatus status : dailyRollupStatusRepository.findByRollupDateBetween(startDate, endDate)) {
+                statuses.put(status.getRollupDate(), status);
+            }
+
+            // Coalesce the stale days into contiguous spans so each span is one pair of grouped queries
+            LocalDate spanStart = null;
+            for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+                DailyRollupStatus status = statuses.get(day);
+                boolean stale = status == null || !status.isFinal();
+                if (stale && spanStart == null) {
+                    spanStart = day;
+                } else if (!stale && spanStart != null) {
+                    rebuildInChunks(spanStart, day.minusDays(1));
+                    spanStart = null;
+                }
+            }
+            if (spanStart != null) {
+                rebuildInChunks(spanStart, endDate);
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Rebuild the rollups of a range unconditionally, e.g. after historical data was corrected
+     */
+    public void backfill(LocalDate startDate, LocalDate endDate) {
+        rebuildLock.lock();
+        try {
+            rebuildInChunks(startDate, endDate);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Mark past days whose payments or bookings changed for rebuilding, within the transaction of
+     * the write. Today and later days are never final, so they need no mark.
+     */
+    public void markStale(Collection<LocalDate> days) {
+        LocalDate today = LocalDate.now();
+        List<LocalDate> pastDays = days.stream().filter(day -> day != null && day.isBefore(today)).distinct().toList();
+        if (!pastDays.isEmpty()) {
+            dailyRollupStatusRepository.deleteByRollupDateIn(pastDays);
+        }
+    }
+
+    /**
+     * Intra-day refresh of today and of the days of the last week that writes marked stale
+     */
+    @Scheduled(initialDelayString = "${parqhub.rollup.refresh-interval-ms:300000}",
+               fixedDelayString = "${parqhub.rollup.refresh-interval-ms:300000}")
+    public void refreshRecent() {
+        try {
+            LocalDate today = LocalDate.now();
+            ensureRolledUp(today.minusDays(RECENT_DAYS - 1), today);
+        } catch (Exception e) {
+            logger.warn("Intra-day rollup refresh failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Nightly rebuild of the day that just ended
+     */
+    @Scheduled(cron = "${parqhub.rollup.nightly-cron:0 30 0 * * *}")
+    public void rollUpYesterday() {
+        try {
+            LocalDate yesterday = LocalDate.now().minusDays(1);
+            backfill(yesterday, yesterday);
+        } catch (Exception e) {
+            logger.warn("Nightly rollup failed: {}", e.getMessage());
+        }
+    }
+
+    // Synchronous, so the mark commits or rolls back with the write that published the event
+    @EventListener
+    public void onPaymentRecorded(PaymentRecordedEvent event) {
+        if (event.getTimestamp() != null) {
+            markStale(List.of(event.getTimestamp().toLocalDate()));
+        }
+    }
+
+    @EventListener
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        if (event.getStartTime() != null) {
+            markStale(List.of(event.getStartTime().toLocalDate()));
+        }
+    }
+
+    /**
+     * Rebuild month by month so a multi-year range never runs as one huge transaction
+     */
+    private void rebuildInChunks(LocalDate startDate, LocalDate endDate) {
+        LocalDate chunkStart = startDate;
+        while (!chunkStart.isAfter(endDate)) {
+            LocalDate chunkEnd = chunkStart.plusMonths(1).minusDays(1);
+            if (chunkEnd.isAfter(endDate)) {
+                chunkEnd = endDate;
+            }
+            rebuild(chunkStart, chunkEnd);
+            chunkStart = chunkEnd.plusDays(1);
+        }
+    }
+
+    private void rebuild(LocalDate startDate, LocalDate endDate) {
+        LocalDateTime from = startDate.atStartOfDay();
+        LocalDateTime to = endDate.atTime(LocalTime.MAX);
+        LocalDateTime refreshedAt = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> replaceRollups(startDate, endDate, from, to, refreshedAt));
+        logger.debug("Rolled up reports from {} to {}", startDate, endDate);
+    }
+
+    private void replaceRollups(LocalDate startDate, LocalDate endDate, LocalDateTime from, LocalDateTime to,
+                                LocalDateTime refreshedAt) {
+        // Deleted before reading: a write still marking one of these days waits on the row lock and
+        // deletes the new status after this commit, so its day is rebuilt again
+        dailyRollupStatusRepository.deleteByRollupDateBetween(startDate, endDate);
+        dailyPaymentRollupRepository.deleteByRollupDateBetween(startDate, endDate);
+        dailyBookingRollupRepository.deleteByRollupDateBetween(startDate, endDate);
+
+        // A day at the archive boundary has rows in both tables, so the two sources are summed per key
+        Map<List<Object>, DailyPaymentRollup> paymentRollups = new LinkedHashMap<>();
+        addPaymentRollups(paymentRepository.rollupByDayLotMethodAndStatus(from, to), paymentRollups);
+        if (recordArchiveService.coversPaymentsFrom(from)) {
+            addPaymentRollups(archivedPaymentRepository.rollupByDayLotMethodAndStatus(from, to), paymentRollups);
+        }
+        dailyPaymentRollupRepository.saveAll(paymentRollups.values());
+
+        Map<List<Object>, DailyBookingRollup> bookingRollups = new LinkedHashMap<>();
+        addBookingRollups(bookingRepository.rollupByDayHourLotAndStatus(from, to), bookingRollups);
+        if (recordArchiveService.coversBookingsFrom(from)) {
+            addBookingRollups(archivedBookingRepository.rollupByDayHourLotAndStatus(from, to), bookingRollups);
+        }
+        dailyBookingRollupRepository.saveAll(bookingRollups.values());
+
+        List<DailyRollupStatus> statuses = new ArrayList<>();
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            statuses.add(new DailyRollupStatus(day, refreshedAt));
+        }
+        dailyRollupStatusRepository.saveAll(statuses);
+    }
+
+    // Rows of (day, lot id, method, status, count, amount)
+    private static void addPaymentRollups(List<Object[]> rows, Map<List<Object>, DailyPaymentRollup> rollups) {
+        for (Object[] row : rows) {
+            DailyPaymentRollup rollup = rollups.computeIfAbsent(List.of(row[0], row[1], row[2], row[3]), key -> {
+                DailyPaymentRollup created = new DailyPaymentRollup();
+                created.setRollupDate((LocalDate) row[0]);
+                created.setLotId((Long) row[1]);
+                created.setMethod((Payment.PaymentMethod) row[2]);
+                created.setStatus((Payment.PaymentStatus) row[3]);
+                return created;
+            });
+            rollup.setPaymentCount(rollup.getPaymentCount() + ((Number) row[4]).longValue());
+            if (row[5] != null) {
+                rollup.setRevenue(rollup.getRevenue().add((BigDecimal) row[5]));
+            }
+        }
+    }
+
+    // Rows of (day, start hour, lot id, payment status, count, parked minutes)
+    private static void addBookingRollups(List<Object[]> rows, Map<List<Object>, DailyBookingRollup> rollups) {
+        for (Object[] row : rows) {
+            DailyBookingRollup rollup = rollups.computeIfAbsent(List.of(row[0], row[1], row[2], row[3]), key -> {
+                DailyBookingRollup created = new DailyBookingRollup();
+                created.setRollupDate((LocalDate) row[0]);
+                created.setStartHour(((Number) row[1]).intValue());
+                created.setLotId((Long) row[2]);
+                created.setPaymentStatus((Booking.PaymentStatus) row[3]);
+                return created;
+            });
+            rollup.setBookingCount(rollup.getBookingCount() + ((Number) row[4]).longValue());
+            long minutes = row[5] != null ? ((Number) row[5]).longValue() : 0;
+            rollup.setBookingHours(rollup.getBookingHours()
+                    .add(BigDecimal.valueOf(minutes).divide(BigDecimal.valueOf(60), 2, RoundingMode.HALF_UP)));
+        }
+    }
+}
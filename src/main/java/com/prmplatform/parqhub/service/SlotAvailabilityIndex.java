@@ -0,0 +1,191 @@
+package com.prmplatform.parqhub.service;
+
+import com.prmplatform.parqhub.event.LotInventoryChangedEvent;
+import com.prmplatform.parqhub.event.SlotStatusChangedEvent;
+import com.prmplatform.parqhub.model.ParkingLot;
+import com.prmplatform.parqhub.model.ParkingSlot.SlotStatus;
+import com.prmplatform.parqhub.repository.ParkingSlotRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * In-memory per-lot slot counters, one primitive counter per {@link SlotStatus}.
+ * Seeded from a single grouped COUNT query on startup and kept current by
+ * slot status events, so search pages never have to load the slot graph.
+ * Recounts correct the counters by the difference between the count and the
+ * counters as they stood when it started, so events applied meanwhile are kept.
+ */
+@Service
+public class SlotAvailabilityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlotAvailabilityIndex.class);
+    private static final int STATUS_COUNT = SlotStatus.values().length;
+    private static final int RECOUNT_ATTEMPTS = 3;
+
+    private final ParkingSlotRepository parkingSlotRepository;
+    private final Map<Long, AtomicLongArray> countsByLot = new ConcurrentHashMap<>();
+    // Bumped after each event is applied to the counters, so a recount can tell whether one landed while it ran
+    private final AtomicLong appliedEvents = new AtomicLong();
+
+    public SlotAvailabilityIndex(ParkingSlotRepository parkingSlotRepository) {
+        this.parkingSlotRepository = parkingSlotRepository;
+    }
+
+    /**
+     * Rebuild the whole index from the database
+     */
+    @PostConstruct
+    public void rebuild() {
+        Map<Long, long[]> counted = recount(null, () -> {
+            Map<Long, long[]> fresh = new HashMap<>();
+            for (Object[] row : parkingSlotRepository.countGroupedByLotAndStatus()) {
+                Long lotId = (Long) row[0];
+                SlotStatus status = (SlotStatus) row[1];
+                fresh.computeIfAbsent(lotId, id -> new long[STATUS_COUNT])[status.ordinal()] = ((Number) row[2]).longValue();
+            }
+            return fresh;
+        });
+        if (counted != null) {
+            logger.info("Slot availability index built for {} parking lots", counted.size());
+        }
+    }
+
+    /**
+     * Rebuild the counters of a single lot from the database
+     */
+    public void rebuildLot(Long lotId) {
+        if (lotId == null) {
+            return;
+        }
+        recount(lotId, () -> {
+            Map<Long, long[]> fresh = new HashMap<>();
+            for (Object[] row : parkingSlotRepository.countGroupedByStatusForLot(lotId)) {
+                fresh.computeIfAbsent(lotId, id -> new long[STATUS_COUNT])[((SlotStatus) row[0]).ordinal()] = ((Number) row[1]).longValue();
+            }
+            return fresh;
+        });
+    }
+
+    /**
+     * Count the slots of one lot, or of every lot when lotId is null, and add the difference between the
+     * count and the counters as they were before it to the live counters. Adding rather than replacing keeps
+     * the events applied after the count. An event applied while the count ran may or may not be in it,
+     * so the count is then repeated; after the last attempt the counters are left for the next recount.
+     * @return The counts applied, or null when the counters kept changing
+     */
+    private Map<Long, long[]> recount(Long lotId, Supplier<Map<Long, long[]>> counter) {
+        for (int attempt = 0; attempt < RECOUNT_ATTEMPTS; attempt++) {
+            long eventsBefore = appliedEvents.get();
+            Map<Long, long[]> before = new HashMap<>();
+            countsByLot.forEach((id, counts) -> {
+                if (lotId == null || lotId.equals(id)) {
+                    long[] copy = new long[STATUS_COUNT];
+                    for (int i = 0; i < STATUS_COUNT; i++) {
+                        copy[i] = counts.get(i);
+                    }
+                    before.put(id, copy);
+                }
+            });
+            Map<Long, long[]> counted = counter.get();
+            if (appliedEvents.get() != eventsBefore) {
+                continue;
+            }
+            // Lots without slots are dropped, as in the count
+            before.keySet().stream().filter(id -> !counted.containsKey(id)).forEach(countsByLot::remove);
+            counted.forEach((id, counts) -> {
+                long[] previous = before.getOrDefault(id, new long[STATUS_COUNT]);
+                AtomicLongArray live = countsByLot.computeIfAbsent(id, key -> new AtomicLongArray(STATUS_COUNT));
+                for (int i = 0; i < STATUS_COUNT; i++) {
+                    if (counts[i] != previous[i]) {
+                        live.addAndGet(i, counts[i] - previous[i]);
+                    }
+                }
+            });
+            return counted;
+        }
+        logger.warn("Slot availability counts changed during each of {} recounts; keeping the event-driven counters", RECOUNT_ATTEMPTS);
+        return null;
+    }
+
+    // Runs ahead of other listeners so they read counters that already include this change
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSlotStatusChanged(SlotStatusChangedEvent event) {
+        if (event.getLotId() == null || event.getPreviousStatus() == event.getNewStatus()) {
+            return;
+        }
+        AtomicLongArray counts = countsByLot.computeIfAbsent(event.getLotId(), id -> new AtomicLongArray(STATUS_COUNT));
+        if (event.getPreviousStatus() != null) {
+            counts.decrementAndGet(event.getPreviousStatus().ordinal());
+        }
+        if (event.getNewStatus() != null) {
+            counts.incrementAndGet(event.getNewStatus().ordinal());
+        }
+        // After the counters: a recount that reads the bumped value has this event in its snapshot, and one that
+        // reads the old value sees the bump when it checks and counts again
+        appliedEvents.incrementAndGet();
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLotInventoryChanged(LotInventoryChangedEvent event) {
+        rebuildLot(event.getLotId());
+    }
+
+    /**
+     * Get the number of slots in a lot with the given status
+     */
+    public long getCount(Long lotId, SlotStatus status) {
+        AtomicLongArray counts = countsByLot.get(lotId);
+        return counts == null ? 0 : Math.max(0, counts.get(status.ordinal()));
+    }
+
+    public long getAvailableCount(Long lotId) {
+        return getCount(lotId, SlotStatus.AVAILABLE);
+    }
+
+    /**
+     * Get available slot counts keyed by lot id for the given lots
+     */
+    public Map<Long, Long> getAvailableCounts(Collection<ParkingLot> lots) {
+        Map<Long, Long> availableCounts = new HashMap<>();
+        for (ParkingLot lot : lots) {
+            availableCounts.put(lot.getId(), getAvailableCount(lot.getId()));
+        }
+        return availableCounts;
+    }
+
+    /**
+     * Get the number of slots with the given status across all lots
+     */
+    public long getTotalCount(SlotStatus status) {
+        long total = 0;
+        for (AtomicLongArray counts : countsByLot.values()) {
+            total += Math.max(0, counts.get(status.ordinal()));
+        }
+        return total;
+    }
+
+    /**
+     * Get the number of slots across all lots
+     */
+    public long getTotalSlots() {
+        long total = 0;
+        for (SlotStatus status : SlotStatus.values()) {
+            total += getTotalCount(status);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,142 @@
+package com.prmplatform.parqhub.service;
+
+import com.prmplatform.parqhub.event.LotInventoryChangedEvent;
+import com.prmplatform.parqhub.event.SlotStatusChangedEvent;
+import com.prmplatform.parqhub.model.ParkingSlot.SlotStatus;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Pushes slot status deltas to Server-Sent Events subscribers, keyed by parking lot.
+ * Events are fanned out on a dedicated thread so a slow viewer never holds up a booking.
+ */
+@Service
+public class SlotStatusStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlotStatusStreamService.class);
+    private static final long EMITTER_TIMEOUT_MS = 30 * 60 * 1000L;
+
+    private final SlotAvailabilityIndex slotAvailabilityIndex;
+    private final Map<Long, Set<SseEmitter>> emittersByLot = new ConcurrentHashMap<>();
+    private final Set<SseEmitter> allLotsEmitters = new CopyOnWriteArraySet<>();
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "slot-status-stream");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SlotStatusStreamService(SlotAvailabilityIndex slotAvailabilityIndex) {
+        this.slotAvailabilityIndex = slotAvailabilityIndex;
+    }
+
+    /**
+     * Subscribe to slot changes of a single lot
+     */
+    public SseEmitter subscribe(Long lotId) {
+        Set<SseEmitter> emitters = emittersByLot.computeIfAbsent(lotId, id -> new CopyOnWriteArraySet<>());
+        return register(emitters);
+    }
+
+    /**
+     * Subscribe to slot changes of every lot
+     */
+    public SseEmitter subscribeAll() {
+        return register(allLotsEmitters);
+    }
+
+    private SseEmitter register(Set<SseEmitter> emitters) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        emitters.add(emitter);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(e -> emitters.remove(emitter));
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSlotStatusChanged(SlotStatusChangedEvent event) {
+        if (event.getLotId() == null || event.getPreviousStatus() == event.getNewStatus()) {
+            return;
+        }
+        Map<String, Object> payload = countsFor(event.getLotId());
+        payload.put("slotId", event.getSlotId());
+        payload.put("previousStatus", event.getPreviousStatus());
+        payload.put("newStatus", event.getNewStatus());
+        dispatch(event.getLotId(), "slot-status", payload);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLotInventoryChanged(LotInventoryChangedEvent event) {
+        if (event.getLotId() == null) {
+            return;
+        }
+        dispatch(event.getLotId(), "lot-inventory", countsFor(event.getLotId()));
+    }
+
+    /**
+     * Keep idle connections alive and drop the ones whose client has gone away
+     */
+    @Scheduled(fixedDelay = 25000)
+    public void heartbeat() {
+        dispatcher.execute(() -> {
+            emittersByLot.values().forEach(emitters -> emitters.forEach(emitter -> send(emitters, emitter,
+                    SseEmitter.event().comment("heartbeat"))));
+            allLotsEmitters.forEach(emitter -> send(allLotsEmitters, emitter, SseEmitter.event().comment("heartbeat")));
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        emittersByLot.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+        allLotsEmitters.forEach(SseEmitter::complete);
+    }
+
+    private Map<String, Object> countsFor(Long lotId) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("lotId", lotId);
+        payload.put("available", slotAvailabilityIndex.getCount(lotId, SlotStatus.AVAILABLE));
+        payload.put("booked", slotAvailabilityIndex.getCount(lotId, SlotStatus.BOOKED));
+        payload.put("occupied", slotAvailabilityIndex.getCount(lotId, SlotStatus.OCCUPIED));
+        return payload;
+    }
+
+    private void dispatch(Long lotId, String eventName, Map<String, Object> payload) {
+        Set<SseEmitter> lotEmitters = emittersByLot.get(lotId);
+        if ((lotEmitters == null || lotEmitters.isEmpty()) && allLotsEmitters.isEmpty()) {
+            return;
+        }
+        dispatcher.execute(() -> {
+            if (lotEmitters != null) {
+                lotEmitters.forEach(emitter -> send(lotEmitters, emitter,
+                        SseEmitter.event().name(eventName).data(payload)));
+            }
+            allLotsEmitters.forEach(emitter -> send(allLotsEmitters, emitter,
+                    SseEmitter.event().name(eventName).data(payload)));
+        });
+    }
+
+    private void send(Set<SseEmitter> emitters, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Dropping slot status subscriber: {}", e.getMessage());
+            emitters.remove(emitter);
+            emitter.completeWithError(e);
+        }
+    }
+}
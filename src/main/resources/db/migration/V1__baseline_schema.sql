@@ -0,0 +1,110 @@
+-- Schema as Hibernate created it with ddl-auto=update. Databases that already have these tables are
+-- baselined at this version (spring.flyway.baseline-on-migrate) and start from V2. Later tables and columns belong in
+-- later migrations, never here.
+
+CREATE TABLE admins (
+    admin_id BIGINT NOT NULL AUTO_INCREMENT,
+    email VARCHAR(100) NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    role ENUM('CUSTOMER_SERVICE_OFFICER','FINANCE_OFFICER','IT_SUPPORT','OPERATIONS_MANAGER','SECURITY_SUPERVISOR','SUPER_ADMIN') NOT NULL,
+    PRIMARY KEY (admin_id),
+    CONSTRAINT uk_admins_email UNIQUE (email)
+) ENGINE=InnoDB;
+
+CREATE TABLE users (
+    user_id BIGINT NOT NULL AUTO_INCREMENT,
+    contact_no VARCHAR(20),
+    email VARCHAR(100) NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    PRIMARY KEY (user_id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+) ENGINE=InnoDB;
+
+CREATE TABLE vehicle (
+    vehicle_id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    vehicle_no VARCHAR(20) NOT NULL,
+    vehicle_type ENUM('Bike','Car','Truck','Van') NOT NULL,
+    brand VARCHAR(50),
+    model VARCHAR(50),
+    color VARCHAR(30),
+    PRIMARY KEY (vehicle_id),
+    CONSTRAINT uk_vehicle_vehicle_no UNIQUE (vehicle_no),
+    CONSTRAINT fk_vehicle_user FOREIGN KEY (user_id) REFERENCES users (user_id)
+) ENGINE=InnoDB;
+
+CREATE TABLE parkinglot (
+    lot_id BIGINT NOT NULL AUTO_INCREMENT,
+    city VARCHAR(100) NOT NULL,
+    location VARCHAR(255) NOT NULL,
+    total_slots INTEGER NOT NULL,
+    price_hr DECIMAL(10,2) NOT NULL,
+    PRIMARY KEY (lot_id)
+) ENGINE=InnoDB;
+
+CREATE TABLE parkingslot (
+    slot_id BIGINT NOT NULL AUTO_INCREMENT,
+    lot_id BIGINT NOT NULL,
+    status ENUM('AVAILABLE','BOOKED','OCCUPIED') NOT NULL,
+    PRIMARY KEY (slot_id),
+    CONSTRAINT fk_parkingslot_lot FOREIGN KEY (lot_id) REFERENCES parkinglot (lot_id)
+) ENGINE=InnoDB;
+
+CREATE TABLE booking (
+    booking_id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    vehicle_id BIGINT NOT NULL,
+    slot_id BIGINT NOT NULL,
+    start_time DATETIME(6) NOT NULL,
+    end_time DATETIME(6),
+    payment_status ENUM('Completed','Failed','Pending') NOT NULL,
+    PRIMARY KEY (booking_id),
+    CONSTRAINT fk_booking_user FOREIGN KEY (user_id) REFERENCES users (user_id),
+    CONSTRAINT fk_booking_vehicle FOREIGN KEY (vehicle_id) REFERENCES vehicle (vehicle_id),
+    CONSTRAINT fk_booking_slot FOREIGN KEY (slot_id) REFERENCES parkingslot (slot_id)
+) ENGINE=InnoDB;
+
+CREATE TABLE payment (
+    payment_id BIGINT NOT NULL AUTO_INCREMENT,
+    booking_id BIGINT NOT NULL,
+    amount DECIMAL(38,2) NOT NULL,
+    method ENUM('Arrival','Card','Cash') NOT NULL,
+    status ENUM('Completed','Failed','Pending') NOT NULL,
+    timestamp DATETIME(6),
+    PRIMARY KEY (payment_id),
+    CONSTRAINT fk_payment_booking FOREIGN KEY (booking_id) REFERENCES booking (booking_id)
+) ENGINE=InnoDB;
+
+CREATE TABLE vehicle_log (
+    log_id BIGINT NOT NULL AUTO_INCREMENT,
+    vehicle_id BIGINT NOT NULL,
+    lot_id BIGINT NOT NULL,
+    entry_time DATETIME(6) NOT NULL,
+    exit_time DATETIME(6),
+    PRIMARY KEY (log_id),
+    CONSTRAINT fk_vehicle_log_vehicle FOREIGN KEY (vehicle_id) REFERENCES vehicle (vehicle_id),
+    CONSTRAINT fk_vehicle_log_lot FOREIGN KEY (lot_id) REFERENCES parkinglot (lot_id)
+) ENGINE=InnoDB;
+
+CREATE TABLE report (
+    report_id BIGINT NOT NULL AUTO_INCREMENT,
+    type ENUM('Financial','Occupancy','Performance') NOT NULL,
+    generated_date DATETIME(6) NOT NULL,
+    admin_id BIGINT NOT NULL,
+    PRIMARY KEY (report_id),
+    CONSTRAINT fk_report_admin FOREIGN KEY (admin_id) REFERENCES admins (admin_id)
+) ENGINE=InnoDB;
+
+CREATE TABLE notification (
+    notification_id BIGINT NOT NULL AUTO_INCREMENT,
+    type ENUM('FULL_SLOT','NONE','OVERSTAY','SECURITY_INCIDENT') NOT NULL,
+    description TEXT,
+    timestamp DATETIME(6) NOT NULL,
+    user_id BIGINT,
+    admin_id BIGINT,
+    PRIMARY KEY (notification_id),
+    CONSTRAINT fk_notification_user FOREIGN KEY (user_id) REFERENCES users (user_id),
+    CONSTRAINT fk_notification_admin FOREIGN KEY (admin_id) REFERENCES admins (admin_id)
+) ENGINE=InnoDB;
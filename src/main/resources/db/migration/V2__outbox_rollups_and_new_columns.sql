@@ -0,0 +1,54 @@
+-- Tables and columns added after the ddl-auto=update schema of V1: payment idempotency keys, lot coordinates for
+-- the nearby search, the email outbox and the daily report rollups.
+
+ALTER TABLE payment ADD COLUMN idempotency_key VARCHAR(64);
+ALTER TABLE payment ADD CONSTRAINT uk_payment_idempotency_key UNIQUE (idempotency_key);
+
+ALTER TABLE parkinglot ADD COLUMN latitude FLOAT(53);
+ALTER TABLE parkinglot ADD COLUMN longitude FLOAT(53);
+
+CREATE TABLE email_outbox (
+    email_id BIGINT NOT NULL AUTO_INCREMENT,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body TEXT NOT NULL,
+    status ENUM('Failed','Pending','Sent') NOT NULL,
+    attempts INTEGER NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    next_attempt_at DATETIME(6) NOT NULL,
+    sent_at DATETIME(6),
+    last_error VARCHAR(1000),
+    PRIMARY KEY (email_id)
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_email_outbox_due ON email_outbox (status, next_attempt_at);
+
+CREATE TABLE daily_rollup_status (
+    rollup_date DATE NOT NULL,
+    refreshed_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (rollup_date)
+) ENGINE=InnoDB;
+
+CREATE TABLE daily_payment_rollup (
+    rollup_id BIGINT NOT NULL AUTO_INCREMENT,
+    rollup_date DATE NOT NULL,
+    lot_id BIGINT NOT NULL,
+    method ENUM('Arrival','Card','Cash') NOT NULL,
+    status ENUM('Completed','Failed','Pending') NOT NULL,
+    payment_count BIGINT NOT NULL,
+    revenue DECIMAL(14,2) NOT NULL,
+    PRIMARY KEY (rollup_id),
+    CONSTRAINT uk_daily_payment_rollup UNIQUE (rollup_date, lot_id, method, status)
+) ENGINE=InnoDB;
+
+CREATE TABLE daily_booking_rollup (
+    rollup_id BIGINT NOT NULL AUTO_INCREMENT,
+    rollup_date DATE NOT NULL,
+    start_hour INTEGER NOT NULL,
+    lot_id BIGINT NOT NULL,
+    payment_status ENUM('Completed','Failed','Pending') NOT NULL,
+    booking_count BIGINT NOT NULL,
+    booking_hours DECIMAL(14,2) NOT NULL,
+    PRIMARY KEY (rollup_id),
+    CONSTRAINT uk_daily_booking_rollup UNIQUE (rollup_date, lot_id, start_hour, payment_status)
+) ENGINE=InnoDB;
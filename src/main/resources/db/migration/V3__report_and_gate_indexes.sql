@@ -0,0 +1,25 @@
+-- Indexes for the range, status and open-record lookups that otherwise scan. InnoDB appends the primary
+-- key to every secondary index, so each also serves the id tie-break of keyset paging on its last column.
+
+-- Report, rollup and export date ranges, and admin browsing by start time
+CREATE INDEX idx_booking_start_time ON booking (start_time);
+-- A user's bookings, newest first
+CREATE INDEX idx_booking_user_start_time ON booking (user_id, start_time);
+-- Bookings still running on a slot (end_time IS NULL), for lot resizing and active counts
+CREATE INDEX idx_booking_slot_end_time ON booking (slot_id, end_time);
+
+-- Report date ranges and admin browsing by timestamp
+CREATE INDEX idx_payment_timestamp ON payment (timestamp);
+-- Completed revenue and per-status counts over a date range
+CREATE INDEX idx_payment_status_timestamp ON payment (status, timestamp);
+
+-- Free slots of a lot, in id order
+CREATE INDEX idx_parkingslot_lot_status ON parkingslot (lot_id, status);
+
+-- A vehicle's open log (exit_time IS NULL) at entry and exit
+CREATE INDEX idx_vehicle_log_vehicle_exit_time ON vehicle_log (vehicle_id, exit_time);
+-- Vehicles currently parked
+CREATE INDEX idx_vehicle_log_exit_time ON vehicle_log (exit_time);
+
+-- A user's notifications, newest first
+CREATE INDEX idx_notification_user_timestamp ON notification (user_id, timestamp);
@@ -0,0 +1,46 @@
+-- Cold storage for completed bookings, their payments and closed vehicle logs, moved out of the hot tables by
+-- RecordArchiveService once they pass parqhub.archive.min-age-days. Rows keep their original ids. There are no
+-- foreign keys, so archived history never blocks deleting a slot, lot, vehicle or user. The lot and user are
+-- copied onto each row so reports can group and filter without the hot booking and slot rows.
+
+CREATE TABLE booking_archive (
+    booking_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    vehicle_id BIGINT NOT NULL,
+    slot_id BIGINT NOT NULL,
+    lot_id BIGINT NOT NULL,
+    start_time DATETIME(6) NOT NULL,
+    end_time DATETIME(6),
+    payment_status ENUM('Completed','Failed','Pending') NOT NULL,
+    archived_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (booking_id)
+) ENGINE=InnoDB;
+
+-- Report, rollup and export date ranges reaching into the archive
+CREATE INDEX idx_booking_archive_start_time ON booking_archive (start_time);
+
+CREATE TABLE payment_archive (
+    payment_id BIGINT NOT NULL,
+    booking_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    lot_id BIGINT NOT NULL,
+    amount DECIMAL(38,2) NOT NULL,
+    method ENUM('Arrival','Card','Cash') NOT NULL,
+    status ENUM('Completed','Failed','Pending') NOT NULL,
+    timestamp DATETIME(6),
+    idempotency_key VARCHAR(64),
+    archived_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (payment_id)
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_payment_archive_timestamp ON payment_archive (timestamp);
+
+CREATE TABLE vehicle_log_archive (
+    log_id BIGINT NOT NULL,
+    vehicle_id BIGINT NOT NULL,
+    lot_id BIGINT NOT NULL,
+    entry_time DATETIME(6) NOT NULL,
+    exit_time DATETIME(6) NOT NULL,
+    archived_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (log_id)
+) ENGINE=InnoDB;
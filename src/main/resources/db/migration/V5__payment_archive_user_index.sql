@@ -0,0 +1,2 @@
+-- A user's archived payments newest first, for the payment history once it pages past the hot table
+CREATE INDEX idx_payment_archive_user_payment ON payment_archive (user_id, payment_id);
@@ -0,0 +1,273 @@
+package com.prmplatform.parqhub.controller;
+
+import com.prmplatform.parqhub.event.LotCatalogChangedEvent;
+import com.prmplatform.parqhub.model.Admin;
+import com.prmplatform.parqhub.model.Booking;
+import com.prmplatform.parqhub.model.Notification;
+import com.prmplatform.parqhub.model.ParkingLot;
+import com.prmplatform.parqhub.model.ParkingSlot;
+import com.prmplatform.parqhub.model.Payment;
+import com.prmplatform.parqhub.model.User;
+import com.prmplatform.parqhub.model.Vehicle;
+import com.prmplatform.parqhub.model.VehicleLog;
+import com.prmplatform.parqhub.repository.AdminRepository;
+import com.prmplatform.parqhub.repository.BookingRepository;
+import com.prmplatform.parqhub.repository.NotificationRepository;
+import com.prmplatform.parqhub.repository.ParkingLotRepository;
+import com.prmplatform.parqhub.repository.ParkingSlotRepository;
+import com.prmplatform.parqhub.repository.PaymentRepository;
+import com.prmplatform.parqhub.repository.UserRepository;
+import com.prmplatform.parqhub.repository.VehicleLogRepository;
+import com.prmplatform.parqhub.repository.VehicleRepository;
+import com.prmplatform.parqhub.service.DashboardMetricsService;
+import com.prmplatform.parqhub.service.ReportRollupService;
+import com.prmplatform.parqhub.service.SlotAvailabilityIndex;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Runs the hot pages and APIs against a small dataset and again against one ten times larger. The statement
+ * count of each must stay the same, so a query per row (an N+1) fails the build, and must stay under its
+ * ceiling and time budget. Uses its own H2 database with Hibernate statistics on and the scheduled jobs
+ * pushed out, so nothing else runs statements while a request is measured.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:parqhub_budget;DB_CLOSE_DELAY=-1;MODE=MySQL;LOCK_TIMEOUT=10000",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+        "parqhub.mail.outbox.poll-interval-ms=3600000",
+        "parqhub.rollup.refresh-interval-ms=3600000",
+        "parqhub.dashboard.reconcile-interval-ms=3600000"
+})
+@AutoConfigureMockMvc
+class EndpointQueryBudgetTest {
+
+    private static final int DAYS = 7;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AdminRepository adminRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private ParkingLotRepository parkingLotRepository;
+
+    @Autowired
+    private ParkingSlotRepository parkingSlotRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private VehicleLogRepository vehicleLogRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private ReportRollupService reportRollupService;
+
+    @Autowired
+    private SlotAvailabilityIndex slotAvailabilityIndex;
+
+    @Autowired
+    private DashboardMetricsService dashboardMetricsService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    void statementCountsDoNotGrowWithTheData() throws Exception {
+        Admin admin = new Admin();
+        admin.setName("Budget Admin");
+        admin.setEmail("admin@budget.test");
+        admin.setPassword("secret");
+        admin.setRole(Admin.Role.SUPER_ADMIN);
+        admin = adminRepository.save(admin);
+        User user = createUser("driver@budget.test");
+        MockHttpSession adminSession = new MockHttpSession();
+        adminSession.setAttribute("loggedInAdmin", admin);
+        MockHttpSession userSession = new MockHttpSession();
+        userSession.setAttribute("loggedInUser", user);
+
+        String range = "?startDate=" + LocalDate.now().minusDays(DAYS) + "&endDate=" + LocalDate.now();
+        // Statement ceilings are the current counts plus a little headroom; the time budgets are loose enough for CI
+        List<Budget> budgets = List.of(
+                new Budget("/user/findparking", userSession, 2, 1500),
+                new Budget("/user/payments", userSession, 2, 1500),
+                new Budget("/admin/api/dashboard/stats", adminSession, 1, 1000),
+                new Budget("/admin/tables/payment?search=card&sortBy=amount&sortDir=desc", adminSession, 3, 1500),
+                new Budget("/admin/tables/notification?search=overstay&sortBy=timestamp", adminSession, 3, 1500),
+                new Budget("/admin/api/reports/financial" + range, adminSession, 15, 1500),
+                new Budget("/admin/api/reports/occupancy" + range, adminSession, 16, 1500),
+                new Budget("/admin/api/reports/performance" + range, adminSession, 18, 1500),
+                new Budget("/admin/api/reports/financial/export-csv" + range, adminSession, 16, 2000),
+                new Budget("/admin/api/reports/occupancy/export-csv" + range, adminSession, 17, 2000),
+                new Budget("/admin/api/reports/performance/export-csv" + range, adminSession, 18, 2000));
+
+        seed(user, admin, 3, 30);
+        Map<String, Long> small = measure(budgets);
+        seed(user, admin, 30, 300);
+        Map<String, Long> large = measure(budgets);
+
+        for (Budget budget : budgets) {
+            assertEquals(small.get(budget.url), large.get(budget.url), "statements per request grew with the data: " + budget.url);
+            assertTrue(large.get(budget.url) <= budget.maxStatements,
+                    budget.url + " ran " + large.get(budget.url) + " statements, budget " + budget.maxStatements);
+        }
+    }
+
+    // Statements run by each request once warm; also checks the wall-clock budget
+    private Map<String, Long> measure(List<Budget> budgets) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Budget budget : budgets) {
+            // The first call fills caches and rolls up today; only the repeat is measured
+            perform(budget);
+            statistics.clear();
+            long started = System.nanoTime();
+            perform(budget);
+            long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+            counts.put(budget.url, statistics.getPrepareStatementCount());
+            assertTrue(elapsedMs <= budget.maxMillis, budget.url + " took " + elapsedMs + " ms, budget " + budget.maxMillis + " ms");
+        }
+        return counts;
+    }
+
+    private void perform(Budget budget) throws Exception {
+        MvcResult result = mockMvc.perform(get(budget.url).session(budget.session)).andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            // CSV exports stream their rows after the handler returns
+            result = mockMvc.perform(asyncDispatch(result)).andReturn();
+        }
+        assertEquals(200, result.getResponse().getStatus(), budget.url);
+    }
+
+    // Adds lots with four slots each, and completed bookings spread over the last week with their payments and logs
+    private void seed(User user, Admin admin, int lotCount, int bookingCount) {
+        int round = (int) parkingLotRepository.count();
+        List<ParkingSlot> slots = new ArrayList<>();
+        for (int i = 0; i < lotCount; i++) {
+            ParkingLot lot = new ParkingLot();
+            lot.setCity("Budget City " + (i % 3));
+            lot.setLocation("Budget Lot " + (round + i));
+            lot.setTotalSlots(4);
+            lot.setPriceHr(new BigDecimal("100.00"));
+            lot = parkingLotRepository.save(lot);
+            for (int s = 0; s < 4; s++) {
+                ParkingSlot slot = new ParkingSlot();
+                slot.setParkingLot(lot);
+                slot.setStatus(s == 0 ? ParkingSlot.SlotStatus.OCCUPIED : ParkingSlot.SlotStatus.AVAILABLE);
+                slots.add(parkingSlotRepository.save(slot));
+            }
+        }
+
+        List<Vehicle> vehicles = new ArrayList<>();
+        vehicles.add(createVehicle(user, "BGT-" + round));
+        for (int i = 0; i < lotCount; i++) {
+            vehicles.add(createVehicle(createUser("driver" + (round + i) + "@budget.test"), "BGT-" + (round + i) + "X"));
+        }
+
+        Payment.PaymentMethod[] methods = Payment.PaymentMethod.values();
+        LocalDateTime base = LocalDate.now().atTime(9, 0);
+        for (int i = 0; i < bookingCount; i++) {
+            ParkingSlot slot = slots.get(i % slots.size());
+            Vehicle vehicle = vehicles.get(i % vehicles.size());
+            LocalDateTime start = base.minusDays(1 + i % DAYS).plusMinutes(i % 480);
+
+            Booking booking = new Booking();
+            booking.setUser(vehicle.getUser());
+            booking.setVehicle(vehicle);
+            booking.setParkingSlot(slot);
+            booking.setStartTime(start);
+            booking.setEndTime(start.plusHours(2));
+            booking.setPaymentStatus(Booking.PaymentStatus.Completed);
+            booking = bookingRepository.save(booking);
+
+            Payment payment = new Payment();
+            payment.setBooking(booking);
+            payment.setAmount(new BigDecimal("200.00"));
+            payment.setMethod(methods[i % methods.length]);
+            payment.setStatus(Payment.PaymentStatus.Completed);
+            payment.setTimestamp(start.plusHours(2));
+            paymentRepository.save(payment);
+
+            VehicleLog log = new VehicleLog();
+            log.setVehicle(vehicle);
+            log.setParkingLot(slot.getParkingLot());
+            log.setEntryTime(start);
+            log.setExitTime(start.plusHours(2));
+            vehicleLogRepository.save(log);
+
+            if (i % 10 == 0) {
+                Notification notification = new Notification();
+                notification.setUser(vehicle.getUser());
+                notification.setAdmin(admin);
+                notification.setType(Notification.NotificationType.OVERSTAY);
+                notification.setDescription("Overstay at slot " + slot.getId());
+                notification.setTimestamp(start.plusHours(3));
+                notificationRepository.save(notification);
+            }
+        }
+
+        // The rows went straight to the repositories, so bring the derived state up to date
+        reportRollupService.backfill(LocalDate.now().minusDays(DAYS), LocalDate.now());
+        slotAvailabilityIndex.rebuild();
+        dashboardMetricsService.reconcile();
+        eventPublisher.publishEvent(new LotCatalogChangedEvent(null));
+    }
+
+    private User createUser(String email) {
+        User user = new User();
+        user.setName(email.substring(0, email.indexOf('@')));
+        user.setEmail(email);
+        user.setPassword("secret");
+        return userRepository.save(user);
+    }
+
+    private Vehicle createVehicle(User user, String vehicleNo) {
+        Vehicle vehicle = new Vehicle();
+        vehicle.setUser(user);
+        vehicle.setVehicleNo(vehicleNo);
+        vehicle.setVehicleType(Vehicle.VehicleType.Car);
+        return vehicleRepository.save(vehicle);
+    }
+
+    private record Budget(String url, MockHttpSession session, long maxStatements, long maxMillis) {
+    }
+}
@@ -0,0 +1,150 @@
+package com.prmplatform.parqhub.datasource;
+
+import com.prmplatform.parqhub.model.Admin;
+import com.prmplatform.parqhub.model.ParkingLot;
+import com.prmplatform.parqhub.repository.AdminRepository;
+import com.prmplatform.parqhub.repository.ParkingLotRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Two local H2 databases stand in for the primary and the replica. Nothing replicates between them, so
+ * each gets its own rows and the rows a query returns show which database served it.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReadReplicaRoutingTest.PRIMARY_URL,
+        "parqhub.datasource.replica.url=" + ReadReplicaRoutingTest.REPLICA_URL,
+        "parqhub.datasource.replica.username=sa",
+        "parqhub.datasource.replica.retry-interval-ms=3600000",
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.connection-timeout=2000",
+        "parqhub.archive.enabled=false",
+        "parqhub.mail.outbox.poll-interval-ms=3600000",
+        "parqhub.rollup.refresh-interval-ms=3600000",
+        "parqhub.dashboard.reconcile-interval-ms=3600000"
+})
+@AutoConfigureMockMvc
+class ReadReplicaRoutingTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:parqhub_primary;DB_CLOSE_DELAY=-1;MODE=MySQL;LOCK_TIMEOUT=10000";
+    static final String REPLICA_URL = "jdbc:h2:mem:parqhub_replica;DB_CLOSE_DELAY=-1;MODE=MySQL;LOCK_TIMEOUT=10000";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replicaDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ParkingLotRepository parkingLotRepository;
+
+    @Autowired
+    private AdminRepository adminRepository;
+
+    // A real replica receives the schema from the primary; this one is migrated before the application starts
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").load().migrate();
+    }
+
+    @Test
+    void markedReadsUseTheReplicaUntilItGoesDown() throws Exception {
+        JdbcTemplate primary = new JdbcTemplate(primaryDataSource);
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+        primary.update("INSERT INTO parkinglot (lot_id, city, location, total_slots, price_hr) VALUES (9001, 'Primary City', 'Main Street', 1, 100.00)");
+        replica.update("INSERT INTO parkinglot (lot_id, city, location, total_slots, price_hr) VALUES (9001, 'Replica City', 'Main Street', 1, 100.00)");
+        replica.update("INSERT INTO users (user_id, name, email, password) VALUES (9001, 'Replica Driver', 'driver@replica.test', 'secret1')");
+        replica.update("INSERT INTO vehicle (vehicle_id, user_id, vehicle_no, vehicle_type) VALUES (9001, 9001, 'RP-9001', 'Car')");
+        replica.update("INSERT INTO parkingslot (slot_id, lot_id, status) VALUES (9001, 9001, 'AVAILABLE')");
+        replica.update("INSERT INTO booking (booking_id, user_id, vehicle_id, slot_id, start_time, end_time, payment_status) VALUES (9001, 9001, 9001, 9001, ?, ?, 'Completed')",
+                LocalDate.now().atTime(9, 0), LocalDate.now().atTime(10, 0));
+        replica.update("INSERT INTO payment (payment_id, booking_id, amount, method, status, timestamp) VALUES (9001, 9001, 250.00, 'Card', 'Completed', ?)",
+                LocalDate.now().atTime(10, 0));
+
+        TransactionTemplate replicaRead = new TransactionTemplate(transactionManager);
+        replicaRead.setReadOnly(true);
+        replicaRead.setName(ReadReplicaRoutingDataSource.REPLICA_LABEL);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        assertEquals(List.of("Replica City"), cities(replicaRead));
+        assertEquals(List.of("Primary City"), cities(readWrite));
+        // Unmarked reads, such as the cache refreshes that follow a write, never see replication lag
+        assertEquals(List.of("Primary City"), cities(readOnly));
+        assertEquals("Primary City", parkingLotRepository.findById(9001L).orElseThrow().getCity());
+
+        Admin admin = new Admin();
+        admin.setName("Replica Admin");
+        admin.setEmail("admin@replica.test");
+        admin.setPassword("secret");
+        admin.setRole(Admin.Role.SUPER_ADMIN);
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute("loggedInAdmin", adminRepository.save(admin));
+
+        // Report figures come from the replica, while the report's audit row is written to the primary
+        String today = LocalDate.now().toString();
+        MvcResult report = mockMvc.perform(get("/admin/api/reports/financial?startDate=" + today + "&endDate=" + today).session(session))
+                .andExpect(status().isOk()).andReturn();
+        assertTrue(report.getResponse().getContentAsString().contains("Replica Driver"));
+        assertEquals(1, primary.queryForObject("SELECT COUNT(*) FROM report", Long.class));
+        assertEquals(0, replica.queryForObject("SELECT COUNT(*) FROM report", Long.class));
+
+        // CSV rows are read on the async thread that writes the body, after the request method returned
+        MvcResult export = mockMvc.perform(get("/admin/api/reports/financial/export-csv?startDate=" + today + "&endDate=" + today).session(session))
+                .andReturn();
+        String csv = mockMvc.perform(asyncDispatch(export)).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        assertTrue(csv.contains("TXN9001,Replica Driver"), csv);
+
+        MvcResult table = mockMvc.perform(get("/admin/tables/parkinglot").session(session))
+                .andExpect(status().isOk()).andReturn();
+        List<?> lots = (List<?>) table.getModelAndView().getModel().get("items");
+        assertEquals(List.of("Replica City"), lots.stream().map(lot -> ((ParkingLot) lot).getCity()).toList());
+
+        // With the replica gone, reads fall back to the primary. A report holds one connection at a time, so it
+        // completes with the second one held elsewhere; nesting its writes in its read would need both
+        replicaDataSource.close();
+        assertEquals(List.of("Primary City"), cities(replicaRead));
+        String fallback;
+        try (Connection held = primaryDataSource.getConnection()) {
+            fallback = mockMvc.perform(get("/admin/api/reports/financial?startDate=" + today + "&endDate=" + today).session(session))
+                    .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        }
+        assertFalse(fallback.contains("Replica Driver"));
+        assertEquals(3, primary.queryForObject("SELECT COUNT(*) FROM report", Long.class));
+    }
+
+    private List<String> cities(TransactionTemplate transaction) {
+        return transaction.execute(status -> parkingLotRepository.findAll().stream().map(ParkingLot::getCity).toList());
+    }
+}
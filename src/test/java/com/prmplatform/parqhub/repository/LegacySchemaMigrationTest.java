@@ -0,0 +1,62 @@
+package com.prmplatform.parqhub.repository;
+
+import com.prmplatform.parqhub.model.ParkingLot;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * A database still at the schema ddl-auto=update created, with data in it, is baselined at V1 on startup and
+ * receives every later migration; the application then starts against it with ddl-auto=validate.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + LegacySchemaMigrationTest.LEGACY_URL,
+        "spring.flyway.baseline-on-migrate=true",
+        "spring.flyway.baseline-version=1"
+})
+class LegacySchemaMigrationTest {
+
+    static final String LEGACY_URL = "jdbc:h2:mem:parqhub_legacy;DB_CLOSE_DELAY=-1;MODE=MySQL;LOCK_TIMEOUT=10000";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ParkingLotRepository parkingLotRepository;
+
+    // The tables as they were before Flyway, without its history table, created before the application starts
+    @BeforeAll
+    static void createLegacySchema() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(LEGACY_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("RUNSCRIPT FROM 'classpath:db/migration/V1__baseline_schema.sql'");
+            statement.execute("INSERT INTO parkinglot (city, location, total_slots, price_hr) VALUES ('Kandy', 'Lake Round', 40, 150.00)");
+        }
+    }
+
+    @Test
+    void existingDatabaseReceivesTheLaterMigrations() {
+        List<String> applied = jdbcTemplate.queryForList(
+                "SELECT \"version\" FROM \"flyway_schema_history\" WHERE \"version\" IS NOT NULL AND \"success\" = TRUE ORDER BY \"installed_rank\"", String.class);
+        assertEquals(List.of("1", "2", "3", "4", "5"), applied);
+        assertEquals("BASELINE", jdbcTemplate.queryForObject(
+                "SELECT \"type\" FROM \"flyway_schema_history\" WHERE \"version\" = '1'", String.class));
+
+        // Existing rows keep their data and gain the new columns empty
+        ParkingLot lot = parkingLotRepository.findAll().get(0);
+        assertEquals("Kandy", lot.getCity());
+        assertEquals(null, lot.getLatitude());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM email_outbox", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM daily_payment_rollup", Integer.class));
+    }
+}
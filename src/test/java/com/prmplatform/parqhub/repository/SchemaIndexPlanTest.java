@@ -0,0 +1,222 @@
+package com.prmplatform.parqhub.repository;
+
+import com.prmplatform.parqhub.model.ParkingSlot.SlotStatus;
+import com.prmplatform.parqhub.model.Payment;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The hot report, booking and gate queries are planned on the indexes added by the migrations. Each repository
+ * method runs once while the datasource records the SQL Hibernate generated for it and the values it bound;
+ * that statement is then EXPLAINed with the same values. Runs on its own H2 database; pointed at an empty MySQL
+ * schema it reads the key column of EXPLAIN instead. The tables hold a few thousand rows first: on empty ones
+ * H2 costs every index alike and picks the foreign key index that shares the leading column.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:parqhub_plan;DB_CLOSE_DELAY=-1;MODE=MySQL;LOCK_TIMEOUT=10000",
+        "parqhub.mail.outbox.poll-interval-ms=3600000",
+        "parqhub.rollup.refresh-interval-ms=3600000"
+})
+class SchemaIndexPlanTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2026, 1, 31, 23, 59, 59);
+
+    // Statements prepared on the test thread while a repository method runs; null when not recording
+    private static final ThreadLocal<List<RecordedStatement>> recorded = new ThreadLocal<>();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private ParkingSlotRepository parkingSlotRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private VehicleLogRepository vehicleLogRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private ArchivedPaymentRepository archivedPaymentRepository;
+
+    @Test
+    void hotQueriesUseTheirIndexes() {
+        seedRows();
+        // Also the rollup and export ranges
+        assertUses(() -> bookingRepository.findByStartTimeBetween(FROM, TO), "idx_booking_start_time");
+        // With fetch joins H2 sorts after joining and ranks the foreign key index on user_id the same
+        assertUses(() -> bookingRepository.findByUserIdWithParkingDetailsOrderByStartTimeDesc(1L), "idx_booking_user_start_time", "fk_booking_user");
+        assertUses(() -> bookingRepository.countActiveByLotId(1L), "idx_booking_slot_end_time");
+        assertUses(() -> parkingSlotRepository.findReleasableIdsByLotId(1L, SlotStatus.AVAILABLE, PageRequest.of(0, 10)), "idx_parkingslot_lot_status");
+        assertUses(() -> paymentRepository.findByTimestampBetween(FROM, TO), "idx_payment_timestamp");
+        assertUses(() -> paymentRepository.findRecentByTimestampBetween(FROM, TO, null, null, PageRequest.of(0, 10)), "idx_payment_timestamp");
+        assertUses(() -> paymentRepository.sumAmountByCompletedAndTimestampBetween(FROM, TO), "idx_payment_status_timestamp");
+        assertUses(() -> paymentRepository.countByStatusAndTimestampBetween(Payment.PaymentStatus.Completed, FROM, TO), "idx_payment_status_timestamp");
+        assertUses(() -> parkingSlotRepository.findIdsByLotIdAndStatus(1L, SlotStatus.AVAILABLE, PageRequest.of(0, 10)), "idx_parkingslot_lot_status");
+        assertUses(() -> vehicleLogRepository.findByVehicleAndExitTimeIsNull(vehicleRepository.getReferenceById(1L)), "idx_vehicle_log_vehicle_exit_time");
+        assertUses(() -> vehicleLogRepository.countByExitTimeIsNull(), "idx_vehicle_log_exit_time");
+        assertUses(() -> notificationRepository.findByUserIdOrderByTimestampDesc(1L), "idx_notification_user_timestamp", "fk_notification_user");
+        assertUses(() -> archivedPaymentRepository.findLedgerRows(1L, null, 0L, PageRequest.of(0, 10)), "idx_payment_archive_user_payment");
+    }
+
+    // Twenty drivers with a hundred bookings, payments, gate visits and notifications each, spread over January;
+    // the last twenty bookings and visits, one per driver, are still open
+    private void seedRows() {
+        jdbcTemplate.update("INSERT INTO parkinglot (lot_id, city, location, total_slots, price_hr) VALUES (1, 'Colombo', 'Fort', 100, 200.00)");
+        jdbcTemplate.batchUpdate("INSERT INTO parkingslot (slot_id, lot_id, status) VALUES (?, 1, ?)", rows(100, (id, i) ->
+                new Object[]{id, i % 10 == 0 ? "OCCUPIED" : "AVAILABLE"}));
+        jdbcTemplate.batchUpdate("INSERT INTO users (user_id, name, email, password) VALUES (?, ?, ?, 'secret1')", rows(20, (id, i) ->
+                new Object[]{id, "Driver " + id, "driver" + id + "@plan.test"}));
+        jdbcTemplate.batchUpdate("INSERT INTO vehicle (vehicle_id, user_id, vehicle_no, vehicle_type) VALUES (?, ?, ?, 'Car')", rows(20, (id, i) ->
+                new Object[]{id, id, "PL-" + id}));
+        jdbcTemplate.batchUpdate("INSERT INTO booking (booking_id, user_id, vehicle_id, slot_id, start_time, end_time, payment_status) " +
+                "VALUES (?, ?, ?, ?, ?, ?, 'Completed')", rows(2000, (id, i) -> new Object[]{id, i % 20 + 1, i % 20 + 1, i % 100 + 1,
+                FROM.plusMinutes(i * 20L), i >= 1980 ? null : FROM.plusMinutes(i * 20L + 60)}));
+        jdbcTemplate.batchUpdate("INSERT INTO payment (payment_id, booking_id, amount, method, status, timestamp) VALUES (?, ?, 200.00, 'Card', ?, ?)",
+                rows(2000, (id, i) -> new Object[]{id, id, i % 10 == 0 ? "Pending" : "Completed", FROM.plusMinutes(i * 20L + 60)}));
+        jdbcTemplate.batchUpdate("INSERT INTO vehicle_log (log_id, vehicle_id, lot_id, entry_time, exit_time) VALUES (?, ?, 1, ?, ?)",
+                rows(2000, (id, i) -> new Object[]{id, i % 20 + 1, FROM.plusMinutes(i * 20L), i >= 1980 ? null : FROM.plusMinutes(i * 20L + 60)}));
+        jdbcTemplate.batchUpdate("INSERT INTO notification (notification_id, type, description, timestamp, user_id) VALUES (?, 'OVERSTAY', 'Overstay', ?, ?)",
+                rows(2000, (id, i) -> new Object[]{id, FROM.plusMinutes(i * 20L), i % 20 + 1}));
+        boolean h2 = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                connection.getMetaData().getDatabaseProductName().equalsIgnoreCase("H2"));
+        if (h2) {
+            jdbcTemplate.execute("ANALYZE");
+        }
+    }
+
+    private static List<Object[]> rows(int count, BiFunction<Long, Integer, Object[]> row) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(row.apply(i + 1L, i));
+        }
+        return rows;
+    }
+
+    // EXPLAINs the first statement the query ran, the one its own SQL produced, before any lazy loads, and
+    // expects one of the indexes in its plan
+    private void assertUses(Runnable query, String... indexes) {
+        List<RecordedStatement> statements = new ArrayList<>();
+        recorded.set(statements);
+        try {
+            query.run();
+        } finally {
+            recorded.remove();
+        }
+        assertFalse(statements.isEmpty(), "No statement recorded for the query planned on " + String.join(" or ", indexes));
+        RecordedStatement statement = statements.get(0);
+        String plan = jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            boolean mysql = connection.getMetaData().getDatabaseProductName().equalsIgnoreCase("MySQL");
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + statement.sql())) {
+                for (Binding binding : statement.bindings()) {
+                    binding.method().invoke(explain, binding.args());
+                }
+                List<String> rows = new ArrayList<>();
+                try (ResultSet rs = explain.executeQuery()) {
+                    while (rs.next()) {
+                        rows.add(String.valueOf(mysql ? rs.getString("key") : rs.getString(1)));
+                    }
+                }
+                return String.join("\n", rows).toLowerCase(Locale.ROOT);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(Arrays.stream(indexes).anyMatch(plan::contains),
+                statement.sql() + " is not planned on " + String.join(" or ", indexes) + ":\n" + plan);
+    }
+
+    private record Binding(Method method, Object[] args) {
+    }
+
+    private record RecordedStatement(String sql, List<Binding> bindings) {
+    }
+
+    @TestConfiguration
+    static class RecordingDataSourceConfiguration {
+
+        @Bean
+        static BeanPostProcessor recordingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? proxy(DataSource.class, dataSource, SchemaIndexPlanTest::recordConnection) : bean;
+                }
+            };
+        }
+    }
+
+    private static Object recordConnection(Object target, Method method, Object[] args) throws Throwable {
+        Object result = invoke(target, method, args);
+        return result instanceof Connection connection ? proxy(Connection.class, connection, SchemaIndexPlanTest::recordStatement) : result;
+    }
+
+    private static Object recordStatement(Object target, Method method, Object[] args) throws Throwable {
+        Object result = invoke(target, method, args);
+        List<RecordedStatement> statements = recorded.get();
+        if (statements != null && method.getName().equals("prepareStatement") && result instanceof PreparedStatement prepared) {
+            RecordedStatement statement = new RecordedStatement((String) args[0], new ArrayList<>());
+            statements.add(statement);
+            return proxy(PreparedStatement.class, prepared, (t, m, a) -> {
+                if (m.getName().startsWith("set") && a != null && a.length >= 2 && a[0] instanceof Integer) {
+                    statement.bindings().add(new Binding(m, a.clone()));
+                }
+                return invoke(t, m, a);
+            });
+        }
+        return result;
+    }
+
+    private interface Interceptor {
+        Object intercept(Object target, Method method, Object[] args) throws Throwable;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, Interceptor interceptor) {
+        InvocationHandler handler = (proxy, method, args) -> interceptor.intercept(target, method, args);
+        return (T) Proxy.newProxyInstance(SchemaIndexPlanTest.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
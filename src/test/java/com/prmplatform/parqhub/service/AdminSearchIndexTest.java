@@ -0,0 +1,126 @@
+package com.prmplatform.parqhub.service;
+
+import com.prmplatform.parqhub.model.Notification;
+import com.prmplatform.parqhub.model.ParkingLot;
+import com.prmplatform.parqhub.model.User;
+import com.prmplatform.parqhub.model.Vehicle;
+import com.prmplatform.parqhub.model.VehicleLog;
+import com.prmplatform.parqhub.repository.NotificationRepository;
+import com.prmplatform.parqhub.repository.ParkingLotRepository;
+import com.prmplatform.parqhub.repository.UserRepository;
+import com.prmplatform.parqhub.repository.VehicleLogRepository;
+import com.prmplatform.parqhub.repository.VehicleRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+@SpringBootTest
+class AdminSearchIndexTest {
+
+    // Other tests share the database; this day keeps their notifications out of the results
+    private static final LocalDateTime MAY_3 = LocalDateTime.of(2026, 5, 3, 0, 0);
+    private static final LocalDateTime MAY_4 = MAY_3.plusDays(1);
+
+    @Autowired
+    private AdminSearchIndex adminSearchIndex;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private ParkingLotRepository parkingLotRepository;
+
+    @Autowired
+    private VehicleLogRepository vehicleLogRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Test
+    void searchFollowsWritesAndDateRanges() {
+        User user = new User();
+        user.setName("Nadeesha Wickramasinghe");
+        user.setEmail("nadeesha@search.test");
+        user.setPassword("secret");
+        user = userRepository.save(user);
+        // Loads the table, so the writes below are applied incrementally
+        assertArrayEquals(new long[]{user.getId()}, adminSearchIndex.search("users", "WICKRAMA", null, null));
+
+        user.setName("Nadeesha Perera");
+        userRepository.save(user);
+        assertArrayEquals(new long[0], adminSearchIndex.search("users", "wickrama", null, null));
+        assertArrayEquals(new long[]{user.getId()}, adminSearchIndex.search("users", "sha per", null, null));
+
+        Vehicle vehicle = new Vehicle();
+        vehicle.setUser(user);
+        vehicle.setVehicleNo("SRCH-4821");
+        vehicle.setVehicleType(Vehicle.VehicleType.Car);
+        vehicle = vehicleRepository.save(vehicle);
+        ParkingLot lot = new ParkingLot();
+        lot.setCity("Search City");
+        lot.setLocation("Index Arcade");
+        lot.setTotalSlots(1);
+        lot.setPriceHr(new BigDecimal("50.00"));
+        lot = parkingLotRepository.save(lot);
+        assertArrayEquals(new long[0], adminSearchIndex.search("vehiclelog", "srch-4821", null, null));
+
+        VehicleLog march = vehicleLogRepository.save(log(vehicle, lot, LocalDateTime.of(2026, 3, 14, 9, 0)));
+        VehicleLog april = vehicleLogRepository.save(log(vehicle, lot, LocalDateTime.of(2026, 4, 2, 18, 30)));
+        assertArrayEquals(new long[]{march.getId(), april.getId()}, adminSearchIndex.search("vehiclelog", "srch-4821", null, null));
+        assertArrayEquals(new long[]{april.getId()}, adminSearchIndex.search("vehiclelog", "index arcade",
+                LocalDateTime.of(2026, 4, 1, 0, 0), LocalDateTime.of(2026, 5, 1, 0, 0)));
+        assertArrayEquals(new long[]{march.getId()}, adminSearchIndex.search("vehiclelog", "",
+                LocalDateTime.of(2026, 3, 14, 0, 0), LocalDateTime.of(2026, 3, 15, 0, 0)));
+
+        vehicleLogRepository.deleteById(march.getId());
+        assertArrayEquals(new long[]{april.getId()}, adminSearchIndex.search("vehiclelog", "srch", null, null));
+
+        // Logs are found by the vehicle number and lot they reference, also after those change
+        vehicle.setVehicleNo("SRCH-7390");
+        vehicleRepository.save(vehicle);
+        lot.setLocation("Lookup Plaza");
+        parkingLotRepository.save(lot);
+        assertArrayEquals(new long[0], adminSearchIndex.search("vehiclelog", "srch-4821", null, null));
+        assertArrayEquals(new long[]{april.getId()}, adminSearchIndex.search("vehiclelog", "srch-7390", null, null));
+        assertArrayEquals(new long[0], adminSearchIndex.search("vehiclelog", "index arcade", null, null));
+        assertArrayEquals(new long[]{april.getId()}, adminSearchIndex.search("vehiclelog", "lookup plaza", null, null));
+    }
+
+    @Test
+    void notificationTypesMatchByValue() {
+        Notification overstay = notificationRepository.save(notification(Notification.NotificationType.OVERSTAY, "Slot 12 ran past its booking"));
+        Notification incident = notificationRepository.save(notification(Notification.NotificationType.SECURITY_INCIDENT, "Gate left open overnight"));
+        assertArrayEquals(new long[]{overstay.getId()}, adminSearchIndex.search("notification", "overstay", MAY_3, MAY_4));
+        // The term can match the type of one row and the text of another
+        assertArrayEquals(new long[]{overstay.getId(), incident.getId()}, adminSearchIndex.search("notification", "ver", MAY_3, MAY_4));
+
+        overstay.setType(Notification.NotificationType.FULL_SLOT);
+        notificationRepository.save(overstay);
+        assertArrayEquals(new long[0], adminSearchIndex.search("notification", "overstay", MAY_3, MAY_4));
+        assertArrayEquals(new long[]{overstay.getId()}, adminSearchIndex.search("notification", "full_slot", MAY_3, MAY_4));
+    }
+
+    private static Notification notification(Notification.NotificationType type, String description) {
+        Notification notification = new Notification();
+        notification.setType(type);
+        notification.setDescription(description);
+        notification.setTimestamp(MAY_3.plusHours(8));
+        return notification;
+    }
+
+    private static VehicleLog log(Vehicle vehicle, ParkingLot lot, LocalDateTime entryTime) {
+        VehicleLog log = new VehicleLog();
+        log.setVehicle(vehicle);
+        log.setParkingLot(lot);
+        log.setEntryTime(entryTime);
+        return log;
+    }
+}
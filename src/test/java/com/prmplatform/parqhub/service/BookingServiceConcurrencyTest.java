@@ -0,0 +1,174 @@
+package com.prmplatform.parqhub.service;
+
+import com.prmplatform.parqhub.model.ParkingLot;
+import com.prmplatform.parqhub.model.ParkingSlot;
+import com.prmplatform.parqhub.model.User;
+import com.prmplatform.parqhub.model.Vehicle;
+import com.prmplatform.parqhub.repository.BookingRepository;
+import com.prmplatform.parqhub.repository.ParkingLotRepository;
+import com.prmplatform.parqhub.repository.ParkingSlotRepository;
+import com.prmplatform.parqhub.repository.UserRepository;
+import com.prmplatform.parqhub.repository.VehicleRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class BookingServiceConcurrencyTest {
+
+    private static final int SLOTS = 200;
+    private static final int ATTEMPTS = 2000;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private ParkingLotRepository parkingLotRepository;
+
+    @Autowired
+    private ParkingSlotRepository parkingSlotRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private SlotAvailabilityIndex slotAvailabilityIndex;
+
+    @Autowired
+    private FreeSlotPool freeSlotPool;
+
+    @Test
+    void parallelBookingsNeverShareASlot() throws Exception {
+        User user = createUser("concurrency@parqhub.test");
+        Vehicle vehicle = createVehicle(user, "CT-0001");
+        ParkingLot lot = createLot("Rush Hour Plaza");
+        List<ParkingSlot> slots = createSlots(lot);
+
+        // Everyone asks for the same first slot so almost every request has to fall through
+        Long contendedSlotId = slots.get(0).getId();
+        runInParallel(() -> bookingService.bookSlot(user, vehicle.getId(), contendedSlotId, LocalDateTime.now()), lot);
+    }
+
+    @Test
+    void parallelBookInLotNeverSharesASlot() throws Exception {
+        User user = createUser("lot-concurrency@parqhub.test");
+        Vehicle vehicle = createVehicle(user, "CT-0002");
+        ParkingLot lot = createLot("Stadium Car Park");
+        createSlots(lot);
+        freeSlotPool.rebuildLot(lot.getId());
+
+        runInParallel(() -> bookingService.bookAnyInLot(user, vehicle.getId(), lot.getId(), LocalDateTime.now()), lot);
+        assertNull(freeSlotPool.poll(lot.getId()));
+
+        // An id offered again while still queued is not queued twice
+        freeSlotPool.offer(lot.getId(), 42L);
+        freeSlotPool.offer(lot.getId(), 42L);
+        assertEquals(42L, freeSlotPool.poll(lot.getId()));
+        assertNull(freeSlotPool.poll(lot.getId()));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> bookingService.bookAnyInLot(user, vehicle.getId(), Long.MAX_VALUE, LocalDateTime.now()));
+    }
+
+    private void runInParallel(Runnable booking, ParkingLot lot) throws Exception {
+        AtomicInteger successes = new AtomicInteger();
+        AtomicInteger rejections = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < ATTEMPTS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    booking.run();
+                    successes.incrementAndGet();
+                } catch (IllegalStateException e) {
+                    rejections.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        assertEquals(SLOTS, successes.get());
+        assertEquals(ATTEMPTS - SLOTS, rejections.get());
+
+        Map<Long, Long> bookingsPerSlot = bookingRepository.findWithDetailsBy(Pageable.unpaged()).stream()
+                .filter(b -> b.getParkingSlot().getParkingLot().getId().equals(lot.getId()))
+                .collect(Collectors.groupingBy(b -> b.getParkingSlot().getId(), Collectors.counting()));
+        assertEquals(SLOTS, bookingsPerSlot.size());
+        assertTrue(bookingsPerSlot.values().stream().allMatch(count -> count == 1));
+
+        assertEquals(0, parkingSlotRepository.countByParkingLotIdAndStatus(lot.getId(), ParkingSlot.SlotStatus.AVAILABLE));
+        assertEquals(0, slotAvailabilityIndex.getAvailableCount(lot.getId()));
+        assertEquals(SLOTS, slotAvailabilityIndex.getCount(lot.getId(), ParkingSlot.SlotStatus.BOOKED));
+    }
+
+    private User createUser(String email) {
+        User user = new User();
+        user.setName("Concurrency Tester");
+        user.setEmail(email);
+        user.setPassword("secret1");
+        return userRepository.save(user);
+    }
+
+    private Vehicle createVehicle(User user, String vehicleNo) {
+        Vehicle vehicle = new Vehicle();
+        vehicle.setUser(user);
+        vehicle.setVehicleNo(vehicleNo);
+        vehicle.setVehicleType(Vehicle.VehicleType.Car);
+        return vehicleRepository.save(vehicle);
+    }
+
+    private ParkingLot createLot(String location) {
+        ParkingLot lot = new ParkingLot();
+        lot.setCity("Colombo");
+        lot.setLocation(location);
+        lot.setTotalSlots(SLOTS);
+        lot.setPriceHr(new BigDecimal("200.00"));
+        return parkingLotRepository.save(lot);
+    }
+
+    private List<ParkingSlot> createSlots(ParkingLot lot) {
+        List<ParkingSlot> slots = new ArrayList<>();
+        for (int i = 0; i < SLOTS; i++) {
+            ParkingSlot slot = new ParkingSlot();
+            slot.setParkingLot(lot);
+            slots.add(slot);
+        }
+        parkingSlotRepository.saveAll(slots);
+        slotAvailabilityIndex.rebuildLot(lot.getId());
+        return slots;
+    }
+}
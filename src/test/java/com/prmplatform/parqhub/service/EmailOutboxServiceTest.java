@@ -0,0 +1,184 @@
+package com.prmplatform.parqhub.service;
+
+import com.prmplatform.parqhub.model.EmailOutbox;
+import com.prmplatform.parqhub.repository.EmailOutboxRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:parqhub_outbox;DB_CLOSE_DELAY=-1;MODE=MySQL;LOCK_TIMEOUT=10000",
+        "parqhub.mail.outbox.poll-interval-ms=200",
+        "parqhub.mail.outbox.initial-backoff-ms=100"
+})
+class EmailOutboxServiceTest {
+
+    private static final FakeSmtpServer smtpServer = FakeSmtpServer.start();
+
+    @DynamicPropertySource
+    static void mailProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.mail.host", () -> "localhost");
+        registry.add("spring.mail.port", smtpServer::getPort);
+    }
+
+    @AfterAll
+    static void stopSmtpServer() throws IOException {
+        smtpServer.close();
+    }
+
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void reset() {
+        emailOutboxRepository.deleteAll();
+        smtpServer.messages.clear();
+        smtpServer.rejectNext.set(0);
+    }
+
+    @Test
+    void mailIsOnlySentWhenItsTransactionCommits() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            emailOutboxService.enqueue("rolled-back@parqhub.test", "Rolled back", "Never sent");
+            status.setRollbackOnly();
+        });
+        transaction.executeWithoutResult(status ->
+                emailOutboxService.enqueue("committed@parqhub.test", "Committed", "Payment received"));
+
+        awaitTrue(() -> emailOutboxRepository.countByStatus(EmailOutbox.Status.Sent) == 1);
+        assertEquals(1, emailOutboxRepository.count());
+        assertEquals(1, smtpServer.messages.size());
+        assertTrue(smtpServer.messages.get(0).contains("committed@parqhub.test"));
+    }
+
+    @Test
+    void failedSendsAreRetried() throws Exception {
+        smtpServer.rejectNext.set(2);
+        emailOutboxService.enqueue("retry@parqhub.test", "Retry", "Eventually delivered");
+
+        awaitTrue(() -> emailOutboxRepository.countByStatus(EmailOutbox.Status.Sent) == 1);
+        EmailOutbox email = emailOutboxRepository.findAll().get(0);
+        assertEquals(3, email.getAttempts());
+        assertEquals(1, smtpServer.messages.size());
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 15000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for the outbox");
+            Thread.sleep(50);
+        }
+    }
+
+    /**
+     * Just enough SMTP to accept messages, or to reject the next few with a transient error.
+     * Runs on platform threads: the mail client pins its virtual thread's carrier while it waits on the socket.
+     */
+    static class FakeSmtpServer implements AutoCloseable {
+
+        final List<String> messages = new CopyOnWriteArrayList<>();
+        final AtomicInteger rejectNext = new AtomicInteger();
+        private final ServerSocket serverSocket;
+
+        private FakeSmtpServer(ServerSocket serverSocket) {
+            this.serverSocket = serverSocket;
+        }
+
+        static FakeSmtpServer start() {
+            try {
+                FakeSmtpServer server = new FakeSmtpServer(new ServerSocket(0));
+                Thread.ofPlatform().daemon().start(server::acceptLoop);
+                return server;
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        private void acceptLoop() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    Thread.ofPlatform().daemon().start(() -> converse(socket));
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void converse(Socket socket) {
+            try (socket;
+                 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                 PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8)) {
+                reply(out, "220 localhost fake SMTP");
+                StringBuilder message = new StringBuilder();
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.toUpperCase();
+                    if (command.startsWith("MAIL FROM") && rejectNext.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                        reply(out, "451 try again later");
+                    } else if (command.startsWith("RCPT TO")) {
+                        message.append(line).append('\n');
+                        reply(out, "250 OK");
+                    } else if (command.equals("DATA")) {
+                        reply(out, "354 end with .");
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            message.append(line).append('\n');
+                        }
+                        messages.add(message.toString());
+                        message.setLength(0);
+                        reply(out, "250 OK");
+                    } else if (command.equals("QUIT")) {
+                        reply(out, "221 bye");
+                        return;
+                    } else {
+                        reply(out, "250 OK");
+                    }
+                }
+            } catch (IOException e) {
+                // Client went away
+            }
+        }
+
+        private static void reply(PrintWriter out, String line) {
+            out.print(line + "\r\n");
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.prmplatform.parqhub.service;
+
+import com.prmplatform.parqhub.model.ParkingLot;
+import com.prmplatform.parqhub.model.User;
+import com.prmplatform.parqhub.model.Vehicle;
+import com.prmplatform.parqhub.model.VehicleLog;
+import com.prmplatform.parqhub.repository.ParkingLotRepository;
+import com.prmplatform.parqhub.repository.UserRepository;
+import com.prmplatform.parqhub.repository.VehicleLogRepository;
+import com.prmplatform.parqhub.repository.VehicleRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+class KeysetPagerTest {
+
+    private static final int PAGE_SIZE = 4;
+
+    @Autowired
+    private KeysetPager keysetPager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private ParkingLotRepository parkingLotRepository;
+
+    @Autowired
+    private VehicleLogRepository vehicleLogRepository;
+
+    @Test
+    void cursorsWalkANullableColumnBothWays() {
+        User user = new User();
+        user.setName("Keyset Walker");
+        user.setEmail("walker@keyset.test");
+        user.setPassword("secret");
+        user = userRepository.save(user);
+        Vehicle vehicle = new Vehicle();
+        vehicle.setUser(user);
+        vehicle.setVehicleNo("KEY-0001");
+        vehicle.setVehicleType(Vehicle.VehicleType.Van);
+        vehicle = vehicleRepository.save(vehicle);
+        ParkingLot lot = new ParkingLot();
+        lot.setCity("Keyset City");
+        lot.setLocation("Cursor Court");
+        lot.setTotalSlots(1);
+        lot.setPriceHr(new BigDecimal("30.00"));
+        lot = parkingLotRepository.save(lot);
+
+        // Still-parked vehicles have no exit time, and several share one
+        LocalDateTime base = LocalDateTime.of(2026, 2, 1, 8, 0);
+        for (int i = 0; i < 23; i++) {
+            VehicleLog log = new VehicleLog();
+            log.setVehicle(vehicle);
+            log.setParkingLot(lot);
+            log.setEntryTime(base.plusHours(i));
+            log.setExitTime(i % 5 == 0 ? null : base.plusHours(i % 4 + 1));
+            vehicleLogRepository.save(log);
+        }
+
+        for (boolean descending : new boolean[]{false, true}) {
+            Comparator<VehicleLog> order = Comparator.comparing(VehicleLog::getExitTime, Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .thenComparing(VehicleLog::getId);
+            List<Long> expected = new ArrayList<>(vehicleLogRepository.findAll().stream()
+                    .sorted(descending ? order.reversed() : order).map(VehicleLog::getId).toList());
+
+            List<Long> forward = new ArrayList<>();
+            KeysetPager.KeysetPage<VehicleLog> page = keysetPager.browse(VehicleLog.class, "exitTime", descending, PAGE_SIZE, null, null);
+            assertNull(page.getPreviousCursor());
+            page.getContent().forEach(log -> forward.add(log.getId()));
+            while (page.hasNext()) {
+                page = keysetPager.browse(VehicleLog.class, "exitTime", descending, PAGE_SIZE, page.getNextCursor(), null);
+                page.getContent().forEach(log -> forward.add(log.getId()));
+            }
+            assertEquals(expected, forward);
+
+            List<Long> backward = new ArrayList<>();
+            List<Long> lastPage = page.getContent().stream().map(VehicleLog::getId).toList();
+            backward.addAll(0, lastPage);
+            while (page.hasPrevious()) {
+                page = keysetPager.browse(VehicleLog.class, "exitTime", descending, PAGE_SIZE, null, page.getPreviousCursor());
+                backward.addAll(0, page.getContent().stream().map(VehicleLog::getId).toList());
+            }
+            assertEquals(expected, backward);
+        }
+
+        // Unknown columns fall back to id order
+        KeysetPager.KeysetPage<VehicleLog> byId = keysetPager.browse(VehicleLog.class, "vehicle", true, PAGE_SIZE, null, null);
+        List<Long> ids = new ArrayList<>(vehicleLogRepository.findAll().stream().map(VehicleLog::getId).toList());
+        Collections.sort(ids, Collections.reverseOrder());
+        assertEquals(ids.subList(0, PAGE_SIZE), byId.getContent().stream().map(VehicleLog::getId).toList());
+    }
+}
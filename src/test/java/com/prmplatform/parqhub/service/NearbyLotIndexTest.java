@@ -0,0 +1,82 @@
+package com.prmplatform.parqhub.service;
+
+import com.prmplatform.parqhub.event.LotCatalogChangedEvent;
+import com.prmplatform.parqhub.model.ParkingLot;
+import com.prmplatform.parqhub.repository.ParkingLotRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class NearbyLotIndexTest {
+
+    private static final int LOTS = 2000;
+    private static final int NEAREST = 7;
+
+    @Autowired
+    private NearbyLotIndex nearbyLotIndex;
+
+    @Autowired
+    private SlotAvailabilityIndex slotAvailabilityIndex;
+
+    @Autowired
+    private ParkingLotRepository parkingLotRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    void nearestLotsMatchAFullScan() {
+        Random random = new Random(7);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < LOTS; i++) {
+            rows.add(new Object[]{"Geo City", "Geo Lot " + i, new BigDecimal(50 + 50 * random.nextInt(4)),
+                    6 + random.nextDouble() * 3, 79.7 + random.nextDouble() * 1.5});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO parkinglot (city, location, total_slots, price_hr, latitude, longitude) " +
+                "VALUES (?, ?, 1, ?, ?, ?)", rows);
+        // Every third lot is full
+        jdbcTemplate.update("INSERT INTO parkingslot (lot_id, status) SELECT lot_id, " +
+                "CASE WHEN MOD(lot_id, 3) = 0 THEN 'OCCUPIED' ELSE 'AVAILABLE' END FROM parkinglot WHERE city = 'Geo City'");
+        slotAvailabilityIndex.rebuild();
+        eventPublisher.publishEvent(new LotCatalogChangedEvent(null));
+
+        List<ParkingLot> lots = parkingLotRepository.findByCityIgnoreCase("Geo City");
+        for (int query = 0; query < 100; query++) {
+            double latitude = 5.8 + random.nextDouble() * 3.4;
+            double longitude = 79.5 + random.nextDouble() * 2;
+            BigDecimal maxPrice = query % 2 == 0 ? null : new BigDecimal("100");
+            Double maxDistanceKm = query % 4 == 0 ? 5.0 : 1000.0;
+
+            List<Long> expected = lots.stream()
+                    .filter(lot -> maxPrice == null || lot.getPriceHr().compareTo(maxPrice) <= 0)
+                    .filter(lot -> slotAvailabilityIndex.getAvailableCount(lot.getId()) > 0)
+                    .filter(lot -> distance(latitude, longitude, lot) <= maxDistanceKm)
+                    .sorted(Comparator.comparingDouble(lot -> distance(latitude, longitude, lot)))
+                    .limit(NEAREST)
+                    .map(ParkingLot::getId)
+                    .toList();
+            List<Long> actual = nearbyLotIndex.findNearest(latitude, longitude, NEAREST, maxPrice, maxDistanceKm).stream()
+                    .map(NearbyLotIndex.NearbyLot::getLotId)
+                    .toList();
+            assertEquals(expected, actual);
+        }
+    }
+
+    private static double distance(double latitude, double longitude, ParkingLot lot) {
+        return NearbyLotIndex.distanceKm(latitude, longitude, lot.getLatitude(), lot.getLongitude());
+    }
+}
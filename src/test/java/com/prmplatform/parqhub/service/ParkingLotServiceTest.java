@@ -0,0 +1,108 @@
+package com.prmplatform.parqhub.service;
+
+import com.prmplatform.parqhub.model.Booking;
+import com.prmplatform.parqhub.model.ParkingLot;
+import com.prmplatform.parqhub.model.ParkingSlot;
+import com.prmplatform.parqhub.model.User;
+import com.prmplatform.parqhub.model.Vehicle;
+import com.prmplatform.parqhub.repository.BookingRepository;
+import com.prmplatform.parqhub.repository.ParkingLotRepository;
+import com.prmplatform.parqhub.repository.ParkingSlotRepository;
+import com.prmplatform.parqhub.repository.UserRepository;
+import com.prmplatform.parqhub.repository.VehicleRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ParkingLotServiceTest {
+
+    @Autowired
+    private ParkingLotService parkingLotService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ParkingLotRepository parkingLotRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ParkingSlotRepository parkingSlotRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private SlotAvailabilityIndex slotAvailabilityIndex;
+
+    @Test
+    void resizingKeepsSlotsWithActiveBookings() {
+        ParkingLot lot = new ParkingLot();
+        lot.setCity("Resize City");
+        lot.setLocation("Harbour Deck");
+        lot.setTotalSlots(10);
+        lot.setPriceHr(new BigDecimal("40.00"));
+        lot = parkingLotRepository.save(lot);
+        parkingLotService.createParkingSlotsForLot(lot);
+        assertEquals(10, slotAvailabilityIndex.getAvailableCount(lot.getId()));
+
+        lot.setTotalSlots(15);
+        parkingLotService.updateParkingSlotsForLot(lot, 10);
+        assertEquals(15, parkingSlotRepository.findByParkingLotId(lot.getId()).size());
+
+        // Book the highest-numbered slot, which a shrink would otherwise drop first
+        List<ParkingSlot> slots = parkingSlotRepository.findByParkingLotId(lot.getId());
+        Long bookedSlotId = slots.get(slots.size() - 1).getId();
+        User user = new User();
+        user.setName("Resize Tester");
+        user.setEmail("resize@parqhub.test");
+        user.setPassword("secret1");
+        user = userRepository.save(user);
+        Vehicle vehicle = new Vehicle();
+        vehicle.setUser(user);
+        vehicle.setVehicleNo("RS-0001");
+        vehicle.setVehicleType(Vehicle.VehicleType.Car);
+        vehicle = vehicleRepository.save(vehicle);
+        bookingService.bookSlot(user, vehicle.getId(), bookedSlotId, LocalDateTime.now());
+        // A finished booking on the next slot down still holds that slot through its foreign key
+        Long completedSlotId = slots.get(slots.size() - 2).getId();
+        Booking completed = new Booking();
+        completed.setUser(user);
+        completed.setVehicle(vehicle);
+        completed.setParkingSlot(slots.get(slots.size() - 2));
+        completed.setStartTime(LocalDateTime.now().minusHours(3));
+        completed.setEndTime(LocalDateTime.now().minusHours(1));
+        completed.setPaymentStatus(Booking.PaymentStatus.Completed);
+        bookingRepository.save(completed);
+
+        lot.setTotalSlots(0);
+        ParkingLot tooSmall = lot;
+        assertThrows(IllegalStateException.class, () -> parkingLotService.updateParkingSlotsForLot(tooSmall, 15));
+        assertEquals(15, parkingSlotRepository.findByParkingLotId(lot.getId()).size());
+
+        lot.setTotalSlots(5);
+        parkingLotService.updateParkingSlotsForLot(lot, 15);
+        List<ParkingSlot> remaining = parkingSlotRepository.findByParkingLotId(lot.getId());
+        assertEquals(5, remaining.size());
+        assertTrue(remaining.stream().anyMatch(slot -> slot.getId().equals(bookedSlotId)));
+        assertTrue(remaining.stream().anyMatch(slot -> slot.getId().equals(completedSlotId)));
+        assertEquals(4, slotAvailabilityIndex.getAvailableCount(lot.getId()));
+
+        Long lotId = lot.getId();
+        assertThrows(IllegalStateException.class, () -> parkingLotService.deleteParkingSlotsForLot(lotId));
+    }
+}
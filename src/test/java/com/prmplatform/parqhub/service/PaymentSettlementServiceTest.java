@@ -0,0 +1,132 @@
+package com.prmplatform.parqhub.service;
+
+import com.prmplatform.parqhub.model.Booking;
+import com.prmplatform.parqhub.model.ParkingLot;
+import com.prmplatform.parqhub.model.ParkingSlot;
+import com.prmplatform.parqhub.model.Payment;
+import com.prmplatform.parqhub.model.User;
+import com.prmplatform.parqhub.model.Vehicle;
+import com.prmplatform.parqhub.model.VehicleLog;
+import com.prmplatform.parqhub.repository.BookingRepository;
+import com.prmplatform.parqhub.repository.ParkingLotRepository;
+import com.prmplatform.parqhub.repository.ParkingSlotRepository;
+import com.prmplatform.parqhub.repository.PaymentRepository;
+import com.prmplatform.parqhub.repository.UserRepository;
+import com.prmplatform.parqhub.repository.VehicleLogRepository;
+import com.prmplatform.parqhub.repository.VehicleRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class PaymentSettlementServiceTest {
+
+    private static final int SUBMISSIONS = 8;
+
+    @Autowired
+    private PaymentSettlementService paymentSettlementService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private ParkingLotRepository parkingLotRepository;
+
+    @Autowired
+    private ParkingSlotRepository parkingSlotRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private VehicleLogRepository vehicleLogRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Test
+    void duplicateSubmissionsSettleOnce() throws Exception {
+        User user = new User();
+        user.setName("Settlement Tester");
+        user.setEmail("settlement@parqhub.test");
+        user.setPassword("secret1");
+        userRepository.save(user);
+
+        Vehicle vehicle = new Vehicle();
+        vehicle.setUser(user);
+        vehicle.setVehicleNo("ST-0001");
+        vehicle.setVehicleType(Vehicle.VehicleType.Car);
+        vehicleRepository.save(vehicle);
+
+        ParkingLot lot = new ParkingLot();
+        lot.setCity("Galle");
+        lot.setLocation("Fort Gate");
+        lot.setTotalSlots(1);
+        lot.setPriceHr(new BigDecimal("100.00"));
+        parkingLotRepository.save(lot);
+
+        ParkingSlot slot = new ParkingSlot();
+        slot.setParkingLot(lot);
+        slot.setStatus(ParkingSlot.SlotStatus.OCCUPIED);
+        parkingSlotRepository.save(slot);
+
+        LocalDateTime entry = LocalDateTime.now().minusMinutes(150);
+        Booking booking = new Booking();
+        booking.setUser(user);
+        booking.setVehicle(vehicle);
+        booking.setParkingSlot(slot);
+        booking.setStartTime(entry);
+        booking.setPaymentStatus(Booking.PaymentStatus.Pending);
+        bookingRepository.save(booking);
+
+        VehicleLog vehicleLog = new VehicleLog();
+        vehicleLog.setVehicle(vehicle);
+        vehicleLog.setParkingLot(lot);
+        vehicleLog.setEntryTime(entry);
+        vehicleLog.setExitTime(entry.plusMinutes(150));
+        vehicleLogRepository.save(vehicleLog);
+
+        // A double click: the same submission arrives several times at once
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(SUBMISSIONS);
+        List<Future<Payment>> results = new ArrayList<>();
+        for (int i = 0; i < SUBMISSIONS; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return paymentSettlementService.settle(user, booking.getId(), "Card", "double-click-key");
+            }));
+        }
+        start.countDown();
+        Long paymentId = results.get(0).get().getId();
+        for (Future<Payment> result : results) {
+            assertEquals(paymentId, result.get().getId());
+        }
+        executor.shutdown();
+
+        Payment payment = paymentRepository.findById(paymentId).orElseThrow();
+        assertEquals(0, new BigDecimal("300.00").compareTo(payment.getAmount()));
+        assertEquals(1, paymentRepository.findAll().stream()
+                .filter(p -> p.getBooking().getId().equals(booking.getId())).count());
+        assertEquals(Booking.PaymentStatus.Completed, bookingRepository.findById(booking.getId()).orElseThrow().getPaymentStatus());
+        assertEquals(ParkingSlot.SlotStatus.AVAILABLE, parkingSlotRepository.findById(slot.getId()).orElseThrow().getStatus());
+
+        // A new submission for the already settled booking is refused rather than charged again
+        assertThrows(IllegalStateException.class,
+                () -> paymentSettlementService.settle(user, booking.getId(), "Card", "another-key"));
+    }
+}
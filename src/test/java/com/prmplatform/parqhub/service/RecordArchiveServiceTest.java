@@ -0,0 +1,222 @@
+package com.prmplatform.parqhub.service;
+
+import com.prmplatform.parqhub.model.ArchivedBooking;
+import com.prmplatform.parqhub.model.ArchivedPayment;
+import com.prmplatform.parqhub.model.Booking;
+import com.prmplatform.parqhub.model.ParkingLot;
+import com.prmplatform.parqhub.model.ParkingSlot;
+import com.prmplatform.parqhub.model.Payment;
+import com.prmplatform.parqhub.model.User;
+import com.prmplatform.parqhub.model.Vehicle;
+import com.prmplatform.parqhub.model.VehicleLog;
+import com.prmplatform.parqhub.repository.ArchivedBookingRepository;
+import com.prmplatform.parqhub.repository.ArchivedPaymentRepository;
+import com.prmplatform.parqhub.repository.ArchivedVehicleLogRepository;
+import com.prmplatform.parqhub.repository.BookingRepository;
+import com.prmplatform.parqhub.repository.DailyBookingRollupRepository;
+import com.prmplatform.parqhub.repository.DailyPaymentRollupRepository;
+import com.prmplatform.parqhub.repository.ParkingLotRepository;
+import com.prmplatform.parqhub.repository.ParkingSlotRepository;
+import com.prmplatform.parqhub.repository.PaymentRepository;
+import com.prmplatform.parqhub.repository.UserRepository;
+import com.prmplatform.parqhub.repository.VehicleLogRepository;
+import com.prmplatform.parqhub.repository.VehicleRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// One row per batch, so every move runs through several batches
+@SpringBootTest(properties = {"parqhub.archive.batch-size=1", "parqhub.archive.enabled=false"})
+class RecordArchiveServiceTest {
+
+    // Dates no other test writes to, so the archiver only moves the rows created here
+    private static final LocalDate OLD_DAY = LocalDate.of(1998, 6, 10);
+    private static final LocalDateTime CUTOFF = LocalDate.of(1998, 7, 1).atStartOfDay();
+    private static final LocalDate RECENT_DAY = LocalDate.of(1998, 8, 3);
+
+    @Autowired
+    private RecordArchiveService recordArchiveService;
+
+    @Autowired
+    private ReportRollupService reportRollupService;
+
+    @Autowired
+    private PaymentLedgerService paymentLedgerService;
+
+    @Autowired
+    private DailyPaymentRollupRepository dailyPaymentRollupRepository;
+
+    @Autowired
+    private DailyBookingRollupRepository dailyBookingRollupRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private ParkingLotRepository parkingLotRepository;
+
+    @Autowired
+    private ParkingSlotRepository parkingSlotRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private VehicleLogRepository vehicleLogRepository;
+
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepository;
+
+    @Autowired
+    private ArchivedPaymentRepository archivedPaymentRepository;
+
+    @Autowired
+    private ArchivedVehicleLogRepository archivedVehicleLogRepository;
+
+    @Test
+    void settledRecordsMoveAndReportsStillSeeThem() {
+        User user = new User();
+        user.setName("Archive Tester");
+        user.setEmail("archive@parqhub.test");
+        user.setPassword("secret1");
+        userRepository.save(user);
+        Vehicle vehicle = new Vehicle();
+        vehicle.setUser(user);
+        vehicle.setVehicleNo("AR-0001");
+        vehicle.setVehicleType(Vehicle.VehicleType.Car);
+        vehicleRepository.save(vehicle);
+        ParkingLot lot = new ParkingLot();
+        lot.setCity("Jaffna");
+        lot.setLocation("Fort Road");
+        lot.setTotalSlots(1);
+        lot.setPriceHr(new BigDecimal("100.00"));
+        parkingLotRepository.save(lot);
+        ParkingSlot slot = new ParkingSlot();
+        slot.setParkingLot(lot);
+        slot.setStatus(ParkingSlot.SlotStatus.AVAILABLE);
+        parkingSlotRepository.save(slot);
+
+        LocalDateTime oldStart = OLD_DAY.atTime(9, 0);
+        Booking paid = booking(user, vehicle, slot, oldStart, Booking.PaymentStatus.Completed);
+        Booking paidTwice = booking(user, vehicle, slot, oldStart.plusHours(3), Booking.PaymentStatus.Completed);
+        Booking failed = booking(user, vehicle, slot, oldStart.plusHours(6), Booking.PaymentStatus.Failed);
+        Booking unpaid = booking(user, vehicle, slot, oldStart.plusHours(8), Booking.PaymentStatus.Pending);
+        Booking recent = booking(user, vehicle, slot, RECENT_DAY.atTime(9, 0), Booking.PaymentStatus.Completed);
+        List<Payment> archivedPayments = new ArrayList<>();
+        archivedPayments.add(payment(paid, "200.00", Payment.PaymentStatus.Completed));
+        archivedPayments.add(payment(paidTwice, "150.00", Payment.PaymentStatus.Failed));
+        archivedPayments.add(payment(paidTwice, "150.00", Payment.PaymentStatus.Completed));
+        archivedPayments.add(payment(failed, "80.00", Payment.PaymentStatus.Failed));
+        Payment pending = payment(unpaid, "50.00", Payment.PaymentStatus.Pending);
+        Payment recentPayment = payment(recent, "120.00", Payment.PaymentStatus.Completed);
+        VehicleLog closed = vehicleLog(vehicle, lot, oldStart, oldStart.plusHours(2));
+        VehicleLog open = vehicleLog(vehicle, lot, oldStart.plusHours(8), null);
+
+        reportRollupService.backfill(OLD_DAY, OLD_DAY);
+        List<String> paymentsBefore = rows(dailyPaymentRollupRepository.summarizeByStatus(OLD_DAY, OLD_DAY, null, null));
+        List<String> bookingsBefore = rows(dailyBookingRollupRepository.countByPaymentStatus(OLD_DAY, OLD_DAY, null, null));
+        assertFalse(recordArchiveService.coversPaymentsFrom(OLD_DAY.atStartOfDay()));
+
+        RecordArchiveService.ArchiveResult result = recordArchiveService.archiveCompletedBefore(CUTOFF);
+        assertEquals(3, result.getBookings());
+        assertEquals(4, result.getPayments());
+        assertEquals(1, result.getVehicleLogs());
+
+        // Settled history left the hot tables; the unpaid booking, the open log and anything newer stayed
+        for (Booking booking : List.of(paid, paidTwice, failed)) {
+            assertFalse(bookingRepository.existsById(booking.getId()));
+            ArchivedBooking archived = archivedBookingRepository.findById(booking.getId()).orElseThrow();
+            assertEquals(lot.getId(), archived.getLotId());
+            assertEquals(booking.getStartTime(), archived.getStartTime());
+        }
+        for (Payment payment : archivedPayments) {
+            assertFalse(paymentRepository.existsById(payment.getId()));
+            ArchivedPayment archived = archivedPaymentRepository.findById(payment.getId()).orElseThrow();
+            assertEquals(user.getId(), archived.getUserId());
+            assertEquals(0, payment.getAmount().compareTo(archived.getAmount()));
+        }
+        assertTrue(bookingRepository.existsById(unpaid.getId()));
+        assertTrue(paymentRepository.existsById(pending.getId()));
+        assertTrue(bookingRepository.existsById(recent.getId()));
+        assertFalse(vehicleLogRepository.existsById(closed.getId()));
+        assertTrue(archivedVehicleLogRepository.existsById(closed.getId()));
+        assertTrue(vehicleLogRepository.existsById(open.getId()));
+
+        // Only ranges reaching back into the archive read it, and rebuilding them gives the same rollups
+        assertTrue(recordArchiveService.coversPaymentsFrom(OLD_DAY.atStartOfDay()));
+        assertTrue(recordArchiveService.coversBookingsFrom(OLD_DAY.atStartOfDay()));
+        assertFalse(recordArchiveService.coversPaymentsFrom(RECENT_DAY.atStartOfDay()));
+        reportRollupService.backfill(OLD_DAY, OLD_DAY);
+        assertEquals(paymentsBefore, rows(dailyPaymentRollupRepository.summarizeByStatus(OLD_DAY, OLD_DAY, null, null)));
+        assertEquals(bookingsBefore, rows(dailyBookingRollupRepository.countByPaymentStatus(OLD_DAY, OLD_DAY, null, null)));
+        assertTrue(recordArchiveService.getTotals().getBookingCount(Booking.PaymentStatus.Completed) >= 2);
+
+        // The payment history pages from the hot rows on into the archive, and archived receipts still open
+        List<Payment> firstPage = paymentLedgerService.getLedgerPage(user.getId(), null, 3);
+        assertEquals(List.of(recentPayment.getId(), pending.getId(), archivedPayments.get(3).getId()),
+                firstPage.stream().map(Payment::getId).toList());
+        List<Payment> secondPage = paymentLedgerService.getLedgerPage(user.getId(), firstPage.get(2).getId(), 3);
+        assertEquals(List.of(archivedPayments.get(2).getId(), archivedPayments.get(1).getId(), archivedPayments.get(0).getId()),
+                secondPage.stream().map(Payment::getId).toList());
+        Payment receipt = paymentLedgerService.findReceipt(archivedPayments.get(0).getId()).orElseThrow();
+        assertEquals(user.getId(), receipt.getBooking().getUser().getId());
+        assertEquals("AR-0001", receipt.getBooking().getVehicle().getVehicleNo());
+        assertEquals("Jaffna", receipt.getBooking().getParkingSlot().getParkingLot().getCity());
+        assertEquals(6, paymentLedgerService.getSpendingSummary(user.getId()).getTotalCount());
+
+        // A second run finds nothing left to move
+        assertEquals(0, recordArchiveService.archiveCompletedBefore(CUTOFF).getBookings());
+    }
+
+    private Booking booking(User user, Vehicle vehicle, ParkingSlot slot, LocalDateTime start, Booking.PaymentStatus status) {
+        Booking booking = new Booking();
+        booking.setUser(user);
+        booking.setVehicle(vehicle);
+        booking.setParkingSlot(slot);
+        booking.setStartTime(start);
+        booking.setEndTime(start.plusHours(2));
+        booking.setPaymentStatus(status);
+        return bookingRepository.save(booking);
+    }
+
+    private Payment payment(Booking booking, String amount, Payment.PaymentStatus status) {
+        Payment payment = new Payment();
+        payment.setBooking(booking);
+        payment.setAmount(new BigDecimal(amount));
+        payment.setMethod(Payment.PaymentMethod.Card);
+        payment.setStatus(status);
+        payment.setTimestamp(booking.getEndTime());
+        return paymentRepository.save(payment);
+    }
+
+    private VehicleLog vehicleLog(Vehicle vehicle, ParkingLot lot, LocalDateTime entry, LocalDateTime exit) {
+        VehicleLog log = new VehicleLog();
+        log.setVehicle(vehicle);
+        log.setParkingLot(lot);
+        log.setEntryTime(entry);
+        log.setExitTime(exit);
+        return vehicleLogRepository.save(log);
+    }
+
+    // Rollup summary rows as comparable text
+    private static List<String> rows(List<Object[]> rows) {
+        return rows.stream().map(Arrays::toString).sorted().toList();
+    }
+}
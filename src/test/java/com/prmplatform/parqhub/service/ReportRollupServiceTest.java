@@ -0,0 +1,191 @@
+package com.prmplatform.parqhub.service;
+
+import com.prmplatform.parqhub.model.Booking;
+import com.prmplatform.parqhub.model.ParkingLot;
+import com.prmplatform.parqhub.model.ParkingSlot;
+import com.prmplatform.parqhub.model.Payment;
+import com.prmplatform.parqhub.model.User;
+import com.prmplatform.parqhub.model.Vehicle;
+import com.prmplatform.parqhub.repository.BookingRepository;
+import com.prmplatform.parqhub.repository.DailyBookingRollupRepository;
+import com.prmplatform.parqhub.repository.DailyPaymentRollupRepository;
+import com.prmplatform.parqhub.repository.DailyRollupStatusRepository;
+import com.prmplatform.parqhub.repository.ParkingLotRepository;
+import com.prmplatform.parqhub.repository.ParkingSlotRepository;
+import com.prmplatform.parqhub.repository.PaymentRepository;
+import com.prmplatform.parqhub.repository.UserRepository;
+import com.prmplatform.parqhub.repository.VehicleRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.flash;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReportRollupServiceTest {
+
+    // A range no other test writes to, so the rollups only see the rows created here
+    private static final LocalDate FIRST_DAY = LocalDate.of(2001, 3, 5);
+    private static final LocalDate LAST_DAY = FIRST_DAY.plusDays(1);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ReportRollupService reportRollupService;
+
+    @Autowired
+    private DailyRollupStatusRepository dailyRollupStatusRepository;
+
+    @Autowired
+    private DailyPaymentRollupRepository dailyPaymentRollupRepository;
+
+    @Autowired
+    private DailyBookingRollupRepository dailyBookingRollupRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private ParkingLotRepository parkingLotRepository;
+
+    @Autowired
+    private ParkingSlotRepository parkingSlotRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Test
+    void rollupsMatchTheRawTables() throws Exception {
+        User user = new User();
+        user.setName("Rollup Tester");
+        user.setEmail("rollup@parqhub.test");
+        user.setPassword("secret1");
+        userRepository.save(user);
+
+        Vehicle vehicle = new Vehicle();
+        vehicle.setUser(user);
+        vehicle.setVehicleNo("RU-0001");
+        vehicle.setVehicleType(Vehicle.VehicleType.Car);
+        vehicleRepository.save(vehicle);
+
+        ParkingLot lot = new ParkingLot();
+        lot.setCity("Kandy");
+        lot.setLocation("Lake Round");
+        lot.setTotalSlots(1);
+        lot.setPriceHr(new BigDecimal("150.00"));
+        parkingLotRepository.save(lot);
+
+        ParkingSlot slot = new ParkingSlot();
+        slot.setParkingLot(lot);
+        parkingSlotRepository.save(slot);
+
+        LocalDateTime morning = FIRST_DAY.atTime(9, 15);
+        createBooking(user, vehicle, slot, morning, morning.plusHours(2), Booking.PaymentStatus.Completed,
+                "300.00", Payment.PaymentStatus.Completed);
+        createBooking(user, vehicle, slot, morning.plusMinutes(30), morning.plusMinutes(60), Booking.PaymentStatus.Completed,
+                "75.00", Payment.PaymentStatus.Completed);
+        createBooking(user, vehicle, slot, LAST_DAY.atTime(18, 0), null, Booking.PaymentStatus.Pending,
+                "150.00", Payment.PaymentStatus.Pending);
+
+        reportRollupService.ensureRolledUp(FIRST_DAY, LAST_DAY);
+
+        Map<Object, Long> bookingsByStatus = toCounts(
+                dailyBookingRollupRepository.countByPaymentStatus(FIRST_DAY, LAST_DAY, "Kandy", null));
+        assertEquals(2L, bookingsByStatus.get(Booking.PaymentStatus.Completed));
+        assertEquals(1L, bookingsByStatus.get(Booking.PaymentStatus.Pending));
+
+        Map<Object, Long> bookingsByHour = toCounts(
+                dailyBookingRollupRepository.countByHour(FIRST_DAY, LAST_DAY, null, null));
+        assertEquals(2L, bookingsByHour.get(9));
+        assertEquals(1L, bookingsByHour.get(18));
+
+        List<Object[]> revenueTrend = dailyPaymentRollupRepository.getRevenueTrendByDay(FIRST_DAY, LAST_DAY);
+        assertEquals(1, revenueTrend.size());
+        assertEquals(FIRST_DAY, revenueTrend.get(0)[0]);
+        assertEquals(0, new BigDecimal("375.00").compareTo((BigDecimal) revenueTrend.get(0)[1]));
+
+        BigDecimal bookingHours = dailyBookingRollupRepository.findAll().stream()
+                .filter(rollup -> rollup.getRollupDate().equals(FIRST_DAY))
+                .map(rollup -> rollup.getBookingHours())
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, new BigDecimal("2.50").compareTo(bookingHours));
+
+        // Rows written without an event, like admin table edits, are picked up by a backfill
+        createBooking(user, vehicle, slot, FIRST_DAY.atTime(22, 0), null, Booking.PaymentStatus.Failed,
+                "150.00", Payment.PaymentStatus.Failed);
+        reportRollupService.backfill(FIRST_DAY, FIRST_DAY);
+        bookingsByStatus = toCounts(dailyBookingRollupRepository.countByPaymentStatus(FIRST_DAY, LAST_DAY, null, null));
+        assertEquals(1L, bookingsByStatus.get(Booking.PaymentStatus.Failed));
+
+        // Admin table edits mark their day in the database, so the next read rebuilds it on any instance
+        mockMvc.perform(post("/admin/tables/booking/save")
+                        .param("user_id", user.getId().toString())
+                        .param("vehicle_id", vehicle.getId().toString())
+                        .param("slot_id", slot.getId().toString())
+                        .param("start_time", FIRST_DAY.atTime(23, 0).toString())
+                        .param("end_time", "")
+                        .param("payment_status", "Pending"))
+                .andExpect(flash().attribute("success", "Item saved successfully!"));
+        assertFalse(dailyRollupStatusRepository.existsById(FIRST_DAY));
+        reportRollupService.ensureRolledUp(FIRST_DAY, LAST_DAY);
+        bookingsByStatus = toCounts(dailyBookingRollupRepository.countByPaymentStatus(FIRST_DAY, LAST_DAY, null, null));
+        assertEquals(2L, bookingsByStatus.get(Booking.PaymentStatus.Pending));
+
+        Booking edited = bookingRepository.findByStartTimeBetween(FIRST_DAY.atTime(23, 0), FIRST_DAY.atTime(23, 0)).get(0);
+        mockMvc.perform(delete("/admin/tables/booking/" + edited.getId()))
+                .andExpect(content().string("success"));
+        reportRollupService.ensureRolledUp(FIRST_DAY, LAST_DAY);
+        bookingsByStatus = toCounts(dailyBookingRollupRepository.countByPaymentStatus(FIRST_DAY, LAST_DAY, null, null));
+        assertEquals(1L, bookingsByStatus.get(Booking.PaymentStatus.Pending));
+    }
+
+    private void createBooking(User user, Vehicle vehicle, ParkingSlot slot, LocalDateTime start, LocalDateTime end,
+                               Booking.PaymentStatus bookingStatus, String amount, Payment.PaymentStatus paymentStatus) {
+        Booking booking = new Booking();
+        booking.setUser(user);
+        booking.setVehicle(vehicle);
+        booking.setParkingSlot(slot);
+        booking.setStartTime(start);
+        booking.setEndTime(end);
+        booking.setPaymentStatus(bookingStatus);
+        bookingRepository.save(booking);
+
+        Payment payment = new Payment();
+        payment.setBooking(booking);
+        payment.setAmount(new BigDecimal(amount));
+        payment.setMethod(Payment.PaymentMethod.Card);
+        payment.setStatus(paymentStatus);
+        payment.setTimestamp(start);
+        paymentRepository.save(payment);
+    }
+
+    private static Map<Object, Long> toCounts(List<Object[]> rows) {
+        Map<Object, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put(row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+}